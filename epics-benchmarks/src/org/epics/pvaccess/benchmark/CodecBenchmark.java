@@ -0,0 +1,64 @@
+/*
+ * Copyright information and license terms for this software can be
+ * found in the file LICENSE that is included with the distribution
+ */
+package org.epics.pvaccess.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * pvAccess codec benchmarks: monitor-like messages (changed bit-set and data) are serialized
+ * through <code>AbstractCodec</code>, written to an in-memory loopback and parsed back by
+ * <code>AbstractCodec.processRead()</code>, including segmentation of large messages.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class CodecBenchmark {
+
+	/**
+	 * Number of messages sent at once by <code>ntScalarBatch</code>.
+	 */
+	static final int BATCH_SIZE = 1000;
+
+	@Benchmark
+	public int ntScalar(StructureState.Scalar state) throws IOException {
+		return state.roundTrip(1);
+	}
+
+	/**
+	 * Many small messages per read, measures message header processing.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(BATCH_SIZE)
+	public int ntScalarBatch(StructureState.Scalar state) throws IOException {
+		return state.roundTrip(BATCH_SIZE);
+	}
+
+	@Benchmark
+	public int ntScalarArray(StructureState.ScalarArray state) throws IOException {
+		return state.roundTrip(1);
+	}
+
+	@Benchmark
+	public int ntTable(StructureState.Table state) throws IOException {
+		return state.roundTrip(1);
+	}
+
+	@Benchmark
+	public int ntNDArray(StructureState.NDArray state) throws IOException {
+		return state.roundTrip(1);
+	}
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright information and license terms for this software can be
+ * found in the file LICENSE that is included with the distribution
+ */
+package org.epics.pvaccess.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.epics.pvdata.factory.ConvertFactory;
+import org.epics.pvdata.factory.PVDataFactory;
+import org.epics.pvdata.pv.Convert;
+import org.epics.pvdata.pv.PVDataCreate;
+import org.epics.pvdata.pv.PVScalarArray;
+import org.epics.pvdata.pv.ScalarType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * pvData <code>Convert</code> numeric array conversion benchmarks.
+ * <ul>
+ * <li><code>copy</code> - <code>copyScalarArray</code> from a <code>source</code> to a <code>target</code> typed array
+ * of the same length (<code>convertFromXXXArray</code> path),</li>
+ * <li><code>copyToNew</code> - same as <code>copy</code>, but to a new (empty) array that needs to be extended,</li>
+ * <li><code>toDoubleArray</code>/<code>fromDoubleArray</code> - conversion of <code>source</code> to/from a Java <code>double[]</code>.</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ConvertBenchmark {
+
+	private static final Convert convert = ConvertFactory.getConvert();
+	private static final PVDataCreate pvDataCreate = PVDataFactory.getPVDataCreate();
+
+	@State(Scope.Thread)
+	public static class ArrayState {
+
+		@Param({ "pvByte", "pvUByte", "pvInt", "pvUInt", "pvULong", "pvFloat", "pvDouble" })
+		public String source;
+
+		@Param({ "pvDouble", "pvInt", "pvUShort" })
+		public String target;
+
+		@Param({ "1000000" })
+		public int elements;
+
+		public PVScalarArray sourceArray;
+		public PVScalarArray targetArray;
+		public double[] doubles;
+
+		@Setup
+		public void setup() {
+			doubles = new double[elements];
+			for (int i = 0; i < elements; i++)
+				doubles[i] = i % 1000;
+
+			sourceArray = pvDataCreate.createPVScalarArray(ScalarType.valueOf(source));
+			convert.fromDoubleArray(sourceArray, 0, elements, doubles, 0);
+
+			targetArray = pvDataCreate.createPVScalarArray(ScalarType.valueOf(target));
+			targetArray.setLength(elements);
+		}
+	}
+
+	@Benchmark
+	public int copy(ArrayState state) {
+		return convert.copyScalarArray(state.sourceArray, 0, state.targetArray, 0, state.elements);
+	}
+
+	@Benchmark
+	public int copyToNew(ArrayState state) {
+		final PVScalarArray targetArray = pvDataCreate.createPVScalarArray(state.targetArray.getScalarArray());
+		return convert.copyScalarArray(state.sourceArray, 0, targetArray, 0, state.elements);
+	}
+
+	@Benchmark
+	public double[] toDoubleArray(ArrayState state) {
+		convert.toDoubleArray(state.sourceArray, 0, state.elements, state.doubles, 0);
+		return state.doubles;
+	}
+
+	@Benchmark
+	public int fromDoubleArray(ArrayState state) {
+		return convert.fromDoubleArray(state.sourceArray, 0, state.elements, state.doubles, 0);
+	}
+}
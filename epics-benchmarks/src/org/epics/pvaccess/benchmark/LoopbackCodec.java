@@ -0,0 +1,257 @@
+/*
+ * Copyright information and license terms for this software can be
+ * found in the file LICENSE that is included with the distribution
+ */
+package org.epics.pvaccess.benchmark;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.util.logging.Logger;
+
+import org.epics.pvaccess.PVAConstants;
+import org.epics.pvaccess.impl.remote.codec.AbstractCodec;
+import org.epics.pvaccess.util.ByteBufferPool;
+import org.epics.pvdata.factory.FieldFactory;
+import org.epics.pvdata.pv.DeserializableControl;
+import org.epics.pvdata.pv.Field;
+
+/**
+ * In-memory loopback codec.
+ * Messages written by the codec are stored to an in-memory "wire" buffer,
+ * <code>processRead()</code> then reads them back using the same buffer sizes, segmentation and
+ * gathering write support as TCP transports do, i.e. without any socket and thread overhead.
+ */
+public class LoopbackCodec extends AbstractCodec implements GatheringByteChannel, DeserializableControl {
+
+	/**
+	 * Application message receiver.
+	 */
+	public interface MessageReceiver {
+		/**
+		 * Process application message, payload is available via <code>codec.getReceiveBuffer()</code>.
+		 * @param codec the codec, also a deserialization control.
+		 * @param command message command.
+		 * @param payloadSize message payload size.
+		 */
+		void receive(LoopbackCodec codec, byte command, int payloadSize);
+	}
+
+	private static final int BUFFER_SIZE = PVAConstants.MAX_TCP_RECV + AbstractCodec.MAX_ENSURE_DATA_SIZE;
+
+	private static final InetSocketAddress LOOPBACK_ADDRESS = new InetSocketAddress(0);
+
+	private ByteBuffer wire;
+	private final MessageReceiver receiver;
+	private int messagesReceived = 0;
+
+	/**
+	 * Constructor.
+	 * @param receiver receiver of application messages.
+	 * @param initialWireSize initial size of the in-memory wire buffer, grown on demand.
+	 */
+	public LoopbackCodec(MessageReceiver receiver, int initialWireSize) {
+		super(false,
+			  ByteBufferPool.getShared().acquire(BUFFER_SIZE),
+			  ByteBufferPool.getShared().acquire(BUFFER_SIZE),
+			  PVAConstants.MAX_TCP_RECV, true, Logger.getLogger(LoopbackCodec.class.getName()));
+		this.receiver = receiver;
+		this.wire = ByteBuffer.allocate(Math.max(initialWireSize, BUFFER_SIZE));
+	}
+
+	/**
+	 * Get serialization buffer.
+	 * @return serialization buffer.
+	 */
+	public ByteBuffer getSendBuffer() {
+		return sendBuffer;
+	}
+
+	/**
+	 * Get deserialization buffer.
+	 * @return deserialization buffer.
+	 */
+	public ByteBuffer getReceiveBuffer() {
+		return socketBuffer;
+	}
+
+	/**
+	 * Flush all messages (last one must be completed) to the wire.
+	 */
+	public void flushToWire() {
+		flush(true);
+	}
+
+	/**
+	 * Read and process all the messages from the wire.
+	 * @return number of application messages received.
+	 * @throws IOException IO exception.
+	 */
+	public int processWire() throws IOException {
+		messagesReceived = 0;
+		wire.flip();
+		try {
+			// processRead processes MAX_MESSAGE_PROCESS messages at once
+			while (wire.hasRemaining() || socketBuffer.remaining() >= PVAConstants.PVA_MESSAGE_HEADER_SIZE)
+				processRead();
+		} finally {
+			wire.clear();
+		}
+		return messagesReceived;
+	}
+
+	/**
+	 * Get number of bytes written to the wire and not yet processed.
+	 * @return number of bytes.
+	 */
+	public int getWireSize() {
+		return wire.position();
+	}
+
+	private void ensureWireCapacity(long size) {
+		if (wire.remaining() >= size)
+			return;
+		long newCapacity = Math.max(2L * wire.capacity(), wire.position() + size);
+		ByteBuffer newWire = ByteBuffer.allocate((int)Math.min(newCapacity, Integer.MAX_VALUE));
+		wire.flip();
+		newWire.put(wire);
+		wire = newWire;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.nio.channels.ReadableByteChannel#read(java.nio.ByteBuffer)
+	 */
+	@Override
+	public int read(ByteBuffer dst) throws IOException {
+		final int count = Math.min(dst.remaining(), wire.remaining());
+		if (count == 0)
+			return 0;
+		final int limit = wire.limit();
+		wire.limit(wire.position() + count);
+		dst.put(wire);
+		wire.limit(limit);
+		return count;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.nio.channels.WritableByteChannel#write(java.nio.ByteBuffer)
+	 */
+	@Override
+	public int write(ByteBuffer src) throws IOException {
+		final int count = src.remaining();
+		ensureWireCapacity(count);
+		wire.put(src);
+		return count;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.nio.channels.GatheringByteChannel#write(java.nio.ByteBuffer[], int, int)
+	 */
+	@Override
+	public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+		long count = 0;
+		for (int i = offset; i < offset + length; i++)
+			count += srcs[i].remaining();
+		ensureWireCapacity(count);
+		for (int i = offset; i < offset + length; i++)
+			wire.put(srcs[i]);
+		return count;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.nio.channels.GatheringByteChannel#write(java.nio.ByteBuffer[])
+	 */
+	@Override
+	public long write(ByteBuffer[] srcs) throws IOException {
+		return write(srcs, 0, srcs.length);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.epics.pvaccess.impl.remote.codec.AbstractCodec#processApplicationMessage()
+	 */
+	@Override
+	public void processApplicationMessage() throws IOException {
+		messagesReceived++;
+		receiver.receive(this, command, payloadSize);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.epics.pvaccess.impl.remote.codec.AbstractCodec#processControlMessage()
+	 */
+	@Override
+	public void processControlMessage() {
+		// noop
+	}
+
+	/* (non-Javadoc)
+	 * @see org.epics.pvdata.pv.DeserializableControl#cachedDeserialize(java.nio.ByteBuffer)
+	 */
+	@Override
+	public Field cachedDeserialize(ByteBuffer buffer) {
+		// no cache
+		return FieldFactory.getFieldCreate().deserialize(buffer, this);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.epics.pvdata.pv.SerializableControl#cachedSerialize(org.epics.pvdata.pv.Field, java.nio.ByteBuffer)
+	 */
+	@Override
+	public void cachedSerialize(Field field, ByteBuffer buffer) {
+		// no cache
+		field.serialize(buffer, this);
+	}
+
+	@Override
+	public InetSocketAddress getLastReadBufferSocketAddress() {
+		return LOOPBACK_ADDRESS;
+	}
+
+	@Override
+	public void invalidDataStreamHandler() {
+		throw new IllegalStateException("invalid data stream");
+	}
+
+	@Override
+	public void readPollOne() throws IOException {
+		// all the data is already on the wire
+		throw new IllegalStateException("incomplete message on the wire");
+	}
+
+	@Override
+	public void writePollOne() throws IOException {
+		// noop
+	}
+
+	@Override
+	protected void sendBufferFull(int tries) throws IOException {
+		// never happens, wire grows on demand
+		throw new IllegalStateException("wire full");
+	}
+
+	@Override
+	public void scheduleSend() {
+		// noop
+	}
+
+	@Override
+	public void sendCompleted() {
+		// noop
+	}
+
+	@Override
+	public boolean terminated() {
+		return false;
+	}
+
+	@Override
+	public boolean isOpen() {
+		return true;
+	}
+
+	@Override
+	public void close() throws IOException {
+		ByteBufferPool.getShared().release(socketBuffer);
+		ByteBufferPool.getShared().release(sendBuffer);
+	}
+}
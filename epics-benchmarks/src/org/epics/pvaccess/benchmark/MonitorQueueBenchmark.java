@@ -0,0 +1,150 @@
+/*
+ * Copyright information and license terms for this software can be
+ * found in the file LICENSE that is included with the distribution
+ */
+package org.epics.pvaccess.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.epics.pvdata.factory.PVDataFactory;
+import org.epics.pvdata.factory.StandardFieldFactory;
+import org.epics.pvdata.monitor.MonitorElement;
+import org.epics.pvdata.monitor.MonitorQueue;
+import org.epics.pvdata.monitor.MonitorQueueFactory;
+import org.epics.pvdata.pv.PVLong;
+import org.epics.pvdata.pv.ScalarType;
+import org.epics.pvdata.pv.Structure;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * pvData <code>MonitorQueue</code> benchmarks: one thread produces monitor elements (as the receive thread of
+ * a client monitor does), another one consumes them (as the thread calling <code>poll/release</code> does).
+ * <code>SYNCHRONIZED</code> is the default queue with every call guarded by a lock, as done by <code>ChannelMonitorImpl</code>,
+ * <code>LOCK_FREE</code> is the single-producer/single-consumer queue (pvRequest <code>record[lockFree=true]</code>).
+ * <p>
+ * In throughput mode <code>updates</code> counters report elements passed through the queue per second,
+ * in sample time mode percentiles (e.g. p0.99) of the calls are reported.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class MonitorQueueBenchmark {
+
+	@State(Scope.Group)
+	public static class QueueState {
+
+		@Param({ "SYNCHRONIZED", "LOCK_FREE" })
+		public String type;
+
+		@Param({ "2", "16" })
+		public int queueSize;
+
+		public MonitorQueue queue;
+		public boolean lockFree;
+		public final Object sync = new Object();
+
+		@Setup
+		public void setup() {
+			final Structure structure = StandardFieldFactory.getStandardField().scalar(ScalarType.pvLong, "timeStamp");
+			final MonitorElement[] monitorElements = new MonitorElement[queueSize];
+			for (int i = 0; i < queueSize; i++)
+				monitorElements[i] = MonitorQueueFactory.createMonitorElement(
+						PVDataFactory.getPVDataCreate().createPVStructure(structure));
+
+			lockFree = "LOCK_FREE".equals(type);
+			queue = lockFree ?
+					MonitorQueueFactory.createLockFree(monitorElements) :
+					MonitorQueueFactory.create(monitorElements);
+		}
+	}
+
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	public static class Counters {
+
+		public long updates;
+
+		@Setup(Level.Iteration)
+		public void reset() {
+			updates = 0;
+		}
+	}
+
+	static MonitorElement getFree(QueueState state) {
+		if (state.lockFree)
+			return state.queue.getFree();
+		synchronized (state.sync) {
+			return state.queue.getFree();
+		}
+	}
+
+	static void setUsed(QueueState state, MonitorElement monitorElement) {
+		if (state.lockFree)
+			state.queue.setUsed(monitorElement);
+		else
+			synchronized (state.sync) {
+				state.queue.setUsed(monitorElement);
+			}
+	}
+
+	static MonitorElement getUsed(QueueState state) {
+		if (state.lockFree)
+			return state.queue.getUsed();
+		synchronized (state.sync) {
+			return state.queue.getUsed();
+		}
+	}
+
+	static void releaseUsed(QueueState state, MonitorElement monitorElement) {
+		if (state.lockFree)
+			state.queue.releaseUsed(monitorElement);
+		else
+			synchronized (state.sync) {
+				state.queue.releaseUsed(monitorElement);
+			}
+	}
+
+	@Benchmark
+	@Group("spsc")
+	@GroupThreads(1)
+	public boolean produce(QueueState state, Counters counters) {
+		final MonitorElement monitorElement = getFree(state);
+		if (monitorElement == null)
+			return false;
+
+		monitorElement.getPVStructure().getSubField(PVLong.class, "value").put(System.nanoTime());
+		setUsed(state, monitorElement);
+		counters.updates++;
+		return true;
+	}
+
+	@Benchmark
+	@Group("spsc")
+	@GroupThreads(1)
+	public long consume(QueueState state, Counters counters) {
+		final MonitorElement monitorElement = getUsed(state);
+		if (monitorElement == null)
+			return -1;
+
+		final long latency = System.nanoTime() - monitorElement.getPVStructure().getSubField(PVLong.class, "value").get();
+		releaseUsed(state, monitorElement);
+		counters.updates++;
+		return latency;
+	}
+}
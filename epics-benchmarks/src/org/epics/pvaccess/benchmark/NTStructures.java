@@ -0,0 +1,127 @@
+/*
+ * Copyright information and license terms for this software can be
+ * found in the file LICENSE that is included with the distribution
+ */
+package org.epics.pvaccess.benchmark;
+
+import org.epics.nt.NTNDArray;
+import org.epics.nt.NTScalar;
+import org.epics.nt.NTScalarArray;
+import org.epics.nt.NTTable;
+import org.epics.pvdata.factory.PVDataFactory;
+import org.epics.pvdata.pv.PVDouble;
+import org.epics.pvdata.pv.PVDoubleArray;
+import org.epics.pvdata.pv.PVInt;
+import org.epics.pvdata.pv.PVIntArray;
+import org.epics.pvdata.pv.PVLong;
+import org.epics.pvdata.pv.PVStringArray;
+import org.epics.pvdata.pv.PVStructure;
+import org.epics.pvdata.pv.PVUByteArray;
+import org.epics.pvdata.pv.ScalarType;
+import org.epics.pvdata.pv.Structure;
+
+/**
+ * Normative type instances, filled with data, used by the benchmarks.
+ */
+public final class NTStructures {
+
+	private NTStructures() {
+		// utility class
+	}
+
+	/**
+	 * Create double NTScalar with alarm, timeStamp, display and control.
+	 * @return NTScalar structure.
+	 */
+	public static PVStructure createNTScalar()
+	{
+		PVStructure pvStructure = NTScalar.createBuilder().
+			value(ScalarType.pvDouble).
+			addDescriptor().addAlarm().addTimeStamp().addDisplay().addControl().
+			createPVStructure();
+		pvStructure.getSubField(PVDouble.class, "value").put(12.3);
+		return pvStructure;
+	}
+
+	/**
+	 * Create double NTScalarArray with alarm and timeStamp.
+	 * @param elements number of array elements.
+	 * @return NTScalarArray structure.
+	 */
+	public static PVStructure createNTScalarArray(int elements)
+	{
+		PVStructure pvStructure = NTScalarArray.createBuilder().
+			value(ScalarType.pvDouble).
+			addAlarm().addTimeStamp().
+			createPVStructure();
+		double[] value = new double[elements];
+		for (int i = 0; i < elements; i++)
+			value[i] = i * 0.5;
+		pvStructure.getSubField(PVDoubleArray.class, "value").put(0, elements, value, 0);
+		return pvStructure;
+	}
+
+	/**
+	 * Create NTTable with string, int and two double columns.
+	 * @param rows number of table rows.
+	 * @return NTTable structure.
+	 */
+	public static PVStructure createNTTable(int rows)
+	{
+		final String[] columns = { "name", "status", "x", "y" };
+		PVStructure pvStructure = NTTable.createBuilder().
+			addColumns(columns, new ScalarType[] { ScalarType.pvString, ScalarType.pvInt, ScalarType.pvDouble, ScalarType.pvDouble }).
+			addAlarm().addTimeStamp().
+			createPVStructure();
+		pvStructure.getSubField(PVStringArray.class, "labels").put(0, columns.length, columns, 0);
+
+		String[] names = new String[rows];
+		int[] status = new int[rows];
+		double[] x = new double[rows];
+		double[] y = new double[rows];
+		for (int i = 0; i < rows; i++)
+		{
+			names[i] = "channel" + i;
+			status[i] = i % 4;
+			x[i] = i;
+			y[i] = -i;
+		}
+		PVStructure value = pvStructure.getStructureField("value");
+		value.getSubField(PVStringArray.class, "name").put(0, rows, names, 0);
+		value.getSubField(PVIntArray.class, "status").put(0, rows, status, 0);
+		value.getSubField(PVDoubleArray.class, "x").put(0, rows, x, 0);
+		value.getSubField(PVDoubleArray.class, "y").put(0, rows, y, 0);
+		return pvStructure;
+	}
+
+	/**
+	 * Create NTNDArray holding square ubyte image.
+	 * @param elements number of pixels, i.e. image width * height.
+	 * @return NTNDArray structure.
+	 */
+	public static PVStructure createNTNDArray(int elements)
+	{
+		NTNDArray ntndarray = NTNDArray.createBuilder().addAlarm().addTimeStamp().create();
+
+		byte[] pixels = new byte[elements];
+		for (int i = 0; i < elements; i++)
+			pixels[i] = (byte)i;
+		ntndarray.getValue().select(PVUByteArray.class, "ubyteValue").put(0, elements, pixels, 0);
+		ntndarray.getCompressedDataSize().put(elements);
+		ntndarray.getUncompressedDataSize().put(elements);
+
+		final int width = (int)Math.sqrt(elements);
+		Structure dimensionStructure = ntndarray.getDimension().getStructureArray().getStructure();
+		PVStructure[] dimensions = new PVStructure[2];
+		for (int i = 0; i < dimensions.length; i++)
+		{
+			dimensions[i] = PVDataFactory.getPVDataCreate().createPVStructure(dimensionStructure);
+			dimensions[i].getSubField(PVInt.class, "size").put(i == 0 ? width : elements / width);
+			dimensions[i].getSubField(PVInt.class, "fullSize").put(i == 0 ? width : elements / width);
+		}
+		ntndarray.getDimension().put(0, dimensions.length, dimensions, 0);
+		ntndarray.getUniqueId().put(1);
+		ntndarray.getDataTimeStamp().getSubField(PVLong.class, "secondsPastEpoch").put(1);
+		return ntndarray.getPVStructure();
+	}
+}
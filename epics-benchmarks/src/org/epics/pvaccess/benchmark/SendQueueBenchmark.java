@@ -0,0 +1,133 @@
+/*
+ * Copyright information and license terms for this software can be
+ * found in the file LICENSE that is included with the distribution
+ */
+package org.epics.pvaccess.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.epics.pvaccess.util.Mailbox;
+import org.epics.pvaccess.util.MpscMailbox;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Codec send queue benchmarks: producer threads put elements (as threads calling <code>enqueueSendRequest</code> do),
+ * a single consumer blocks in <code>take</code> (as the codec send thread does),
+ * <code>Mailbox</code> vs. lock-free <code>MpscMailbox</code>.
+ * <p>
+ * <code>taken</code> counter reports elements passed through the queue per second,
+ * the number of producers is changed with the <code>-tg</code> option (e.g. <code>-tg 16,1</code>).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SendQueueBenchmark {
+
+	/**
+	 * Max number of elements in the queue, producers back off when reached.
+	 */
+	static final int MAX_BACKLOG = 1024;
+
+	interface Queue {
+		void put(Object o);
+		Object take(long timeout) throws InterruptedException;
+	}
+
+	@State(Scope.Group)
+	public static class QueueState {
+
+		@Param({ "MAILBOX", "MPSC_MAILBOX" })
+		public String type;
+
+		public Queue queue;
+		public final AtomicInteger backlog = new AtomicInteger();
+		public final Object element = new Object();
+
+		@Setup
+		public void setup() {
+			if ("MPSC_MAILBOX".equals(type))
+			{
+				final MpscMailbox<Object> mailbox = new MpscMailbox<Object>();
+				queue = new Queue() {
+					@Override
+					public void put(Object o) {
+						mailbox.put(o);
+					}
+					@Override
+					public Object take(long timeout) throws InterruptedException {
+						return mailbox.take(timeout);
+					}
+				};
+			}
+			else
+			{
+				final Mailbox<Object> mailbox = new Mailbox<Object>();
+				queue = new Queue() {
+					@Override
+					public void put(Object o) {
+						mailbox.put(o);
+					}
+					@Override
+					public Object take(long timeout) throws InterruptedException {
+						return mailbox.take(timeout);
+					}
+				};
+			}
+		}
+	}
+
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	public static class Counters {
+
+		public long taken;
+
+		@Setup(Level.Iteration)
+		public void reset() {
+			taken = 0;
+		}
+	}
+
+	@Benchmark
+	@Group("sendQueue")
+	@GroupThreads(4)
+	public boolean put(QueueState state) {
+		if (state.backlog.get() >= MAX_BACKLOG)
+			return false;
+
+		state.backlog.incrementAndGet();
+		state.queue.put(state.element);
+		return true;
+	}
+
+	@Benchmark
+	@Group("sendQueue")
+	@GroupThreads(1)
+	public Object take(QueueState state, Counters counters) throws InterruptedException {
+		// blocking wait, but with a timeout not to hang when producers stop at the end of an iteration
+		final Object element = state.queue.take(1);
+		if (element != null)
+		{
+			state.backlog.decrementAndGet();
+			counters.taken++;
+		}
+		return element;
+	}
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright information and license terms for this software can be
+ * found in the file LICENSE that is included with the distribution
+ */
+package org.epics.pvaccess.benchmark;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.epics.pvaccess.impl.remote.SerializationHelper;
+import org.epics.pvdata.misc.BitSet;
+import org.epics.pvdata.pv.PVStructure;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * pvData serialization benchmarks, (de)serialization to/from a buffer large enough to hold all the data.
+ * <ul>
+ * <li><code>*Serialize</code>/<code>*Deserialize</code> - data only, i.e. <code>BasePVStructure.serialize/deserialize</code>,</li>
+ * <li><code>*Full</code> - introspection and data (<code>SerializationHelper.serializeStructureFull/deserializeStructureFull</code>),</li>
+ * <li><code>bitSet*</code> - <code>BitSet</code> serialization.</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SerializationBenchmark {
+
+	static int serialize(StructureState state)
+	{
+		final ByteBuffer buffer = state.buffer;
+		buffer.clear();
+		state.source.serialize(buffer, state.control);
+		return buffer.position();
+	}
+
+	static PVStructure deserialize(StructureState state)
+	{
+		final ByteBuffer buffer = state.buffer;
+		buffer.rewind();
+		state.target.deserialize(buffer, state.control);
+		return state.target;
+	}
+
+	static PVStructure full(StructureState state)
+	{
+		final ByteBuffer buffer = state.fullBuffer;
+		buffer.clear();
+		SerializationHelper.serializeStructureFull(buffer, state.control, state.source);
+		buffer.flip();
+		return SerializationHelper.deserializeStructureFull(buffer, state.control);
+	}
+
+	@Benchmark
+	public int ntScalarSerialize(StructureState.Scalar state) {
+		return serialize(state);
+	}
+
+	@Benchmark
+	public PVStructure ntScalarDeserialize(StructureState.Scalar state) {
+		return deserialize(state);
+	}
+
+	@Benchmark
+	public PVStructure ntScalarFull(StructureState.Scalar state) {
+		return full(state);
+	}
+
+	@Benchmark
+	public int ntScalarArraySerialize(StructureState.ScalarArray state) {
+		return serialize(state);
+	}
+
+	@Benchmark
+	public PVStructure ntScalarArrayDeserialize(StructureState.ScalarArray state) {
+		return deserialize(state);
+	}
+
+	@Benchmark
+	public PVStructure ntScalarArrayFull(StructureState.ScalarArray state) {
+		return full(state);
+	}
+
+	@Benchmark
+	public int ntTableSerialize(StructureState.Table state) {
+		return serialize(state);
+	}
+
+	@Benchmark
+	public PVStructure ntTableDeserialize(StructureState.Table state) {
+		return deserialize(state);
+	}
+
+	@Benchmark
+	public PVStructure ntTableFull(StructureState.Table state) {
+		return full(state);
+	}
+
+	@Benchmark
+	public int ntNDArraySerialize(StructureState.NDArray state) {
+		return serialize(state);
+	}
+
+	@Benchmark
+	public PVStructure ntNDArrayDeserialize(StructureState.NDArray state) {
+		return deserialize(state);
+	}
+
+	@Benchmark
+	public PVStructure ntNDArrayFull(StructureState.NDArray state) {
+		return full(state);
+	}
+
+	@State(Scope.Thread)
+	public static class BitSetState {
+		/**
+		 * Number of bits, every third bit is set.
+		 */
+		@Param({ "64", "1024" })
+		public int bits;
+
+		public final StructureState.BufferControl control = new StructureState.BufferControl();
+		public BitSet bitSet;
+		public BitSet target;
+		public ByteBuffer buffer;
+
+		@Setup
+		public void setup() {
+			bitSet = new BitSet(bits);
+			for (int i = 0; i < bits; i += 3)
+				bitSet.set(i);
+			target = new BitSet(bits);
+			buffer = ByteBuffer.allocateDirect(bits / 8 + 16);
+		}
+	}
+
+	@Benchmark
+	public int bitSetSerialize(BitSetState state) {
+		final ByteBuffer buffer = state.buffer;
+		buffer.clear();
+		state.bitSet.serialize(buffer, state.control);
+		return buffer.position();
+	}
+
+	@Benchmark
+	public BitSet bitSetRoundTrip(BitSetState state) {
+		final ByteBuffer buffer = state.buffer;
+		buffer.clear();
+		state.bitSet.serialize(buffer, state.control);
+		buffer.flip();
+		state.target.deserialize(buffer, state.control);
+		return state.target;
+	}
+}
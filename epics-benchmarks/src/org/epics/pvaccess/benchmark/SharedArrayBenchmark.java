@@ -0,0 +1,123 @@
+/*
+ * Copyright information and license terms for this software can be
+ * found in the file LICENSE that is included with the distribution
+ */
+package org.epics.pvaccess.benchmark;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.epics.pvdata.factory.ConvertFactory;
+import org.epics.pvdata.factory.PVDataFactory;
+import org.epics.pvdata.pv.Convert;
+import org.epics.pvdata.pv.DoubleArrayData;
+import org.epics.pvdata.pv.PVDataCreate;
+import org.epics.pvdata.pv.PVDoubleArray;
+import org.epics.pvdata.pv.ScalarType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * pvData copy-on-write scalar array benchmarks on waveforms (4 MB of doubles by default):
+ * an update is deserialized into a receive array and then passed to <code>consumers</code> arrays
+ * (e.g. monitor elements or subscribers).
+ * <ul>
+ * <li><code>deepCopy</code> - every consumer gets its own copy of the elements,</li>
+ * <li><code>copy</code> - <code>Convert.copyScalarArray</code> (default), elements are copied into the consumer arrays,</li>
+ * <li><code>shared</code> - <code>Convert.copyScalarArray</code> to consumer arrays opted in by
+ * <code>PVArray.setShareOnCopy</code>, consumers share the data copy-on-write,
+ * next deserialization allocates a new array.</li>
+ * </ul>
+ * Run with <code>-prof gc</code> to report allocation rate.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Xmx1g")
+public class SharedArrayBenchmark {
+
+	private static final Convert convert = ConvertFactory.getConvert();
+	private static final PVDataCreate pvDataCreate = PVDataFactory.getPVDataCreate();
+
+	@State(Scope.Thread)
+	public static class WaveformState {
+
+		@Param({ "524288" })
+		public int elements;
+
+		@Param({ "1", "4" })
+		public int consumers;
+
+		public final StructureState.BufferControl control = new StructureState.BufferControl();
+		public ByteBuffer buffer;
+		public PVDoubleArray received;
+		public PVDoubleArray[] consumerArrays;
+		public PVDoubleArray[] sharingConsumerArrays;
+		public final DoubleArrayData data = new DoubleArrayData();
+
+		@Setup
+		public void setup() {
+			final double[] waveform = new double[elements];
+			for (int i = 0; i < elements; i++)
+				waveform[i] = i;
+			final PVDoubleArray value = (PVDoubleArray) pvDataCreate.createPVScalarArray(ScalarType.pvDouble);
+			value.put(0, elements, waveform, 0);
+			buffer = ByteBuffer.allocate(elements * 8 + 16);
+			value.serialize(buffer, control);
+			buffer.flip();
+
+			received = (PVDoubleArray) pvDataCreate.createPVScalarArray(ScalarType.pvDouble);
+			consumerArrays = new PVDoubleArray[consumers];
+			sharingConsumerArrays = new PVDoubleArray[consumers];
+			for (int i = 0; i < consumers; i++) {
+				consumerArrays[i] = (PVDoubleArray) pvDataCreate.createPVScalarArray(ScalarType.pvDouble);
+				consumerArrays[i].setLength(elements);
+				sharingConsumerArrays[i] = (PVDoubleArray) pvDataCreate.createPVScalarArray(ScalarType.pvDouble);
+				sharingConsumerArrays[i].setShareOnCopy(true);
+			}
+		}
+
+		void receive() {
+			buffer.rewind();
+			received.deserialize(buffer, control);
+		}
+	}
+
+	@Benchmark
+	public PVDoubleArray[] deepCopy(WaveformState state) {
+		state.receive();
+		final int length = state.received.getLength();
+		state.received.get(0, length, state.data);
+		for (PVDoubleArray consumer : state.consumerArrays)
+			consumer.put(0, length, state.data.data, 0);
+		return state.consumerArrays;
+	}
+
+	@Benchmark
+	public PVDoubleArray[] copy(WaveformState state) {
+		state.receive();
+		final int length = state.received.getLength();
+		for (PVDoubleArray consumer : state.consumerArrays)
+			convert.copyScalarArray(state.received, 0, consumer, 0, length);
+		return state.consumerArrays;
+	}
+
+	@Benchmark
+	public PVDoubleArray[] shared(WaveformState state) {
+		state.receive();
+		final int length = state.received.getLength();
+		for (PVDoubleArray consumer : state.sharingConsumerArrays)
+			convert.copyScalarArray(state.received, 0, consumer, 0, length);
+		return state.sharingConsumerArrays;
+	}
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright information and license terms for this software can be
+ * found in the file LICENSE that is included with the distribution
+ */
+package org.epics.pvaccess.benchmark;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+import org.epics.pvaccess.impl.remote.SerializationHelper;
+import org.epics.pvdata.factory.FieldFactory;
+import org.epics.pvdata.factory.PVDataFactory;
+import org.epics.pvdata.misc.BitSet;
+import org.epics.pvdata.pv.DeserializableControl;
+import org.epics.pvdata.pv.Field;
+import org.epics.pvdata.pv.PVStructure;
+import org.epics.pvdata.pv.SerializableControl;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmark state: source structure, its serialized form, deserialization target and a loopback codec.
+ * Concrete states create the normative type instance.
+ */
+public abstract class StructureState implements LoopbackCodec.MessageReceiver {
+
+	/**
+	 * Serialization control of a buffer large enough to hold all the data.
+	 */
+	static class BufferControl implements SerializableControl, DeserializableControl {
+
+		@Override
+		public void ensureBuffer(int size) {
+			// buffer put will overflow, if necessary
+		}
+
+		@Override
+		public void flushSerializeBuffer() {
+			// buffer too small
+			throw new BufferOverflowException();
+		}
+
+		@Override
+		public void alignBuffer(int alignment) {
+		}
+
+		@Override
+		public void cachedSerialize(Field field, ByteBuffer buffer) {
+			// no cache
+			field.serialize(buffer, this);
+		}
+
+		@Override
+		public void ensureData(int size) {
+		}
+
+		@Override
+		public void alignData(int alignment) {
+		}
+
+		@Override
+		public Field cachedDeserialize(ByteBuffer buffer) {
+			// no cache
+			return FieldFactory.getFieldCreate().deserialize(buffer, this);
+		}
+	}
+
+	/**
+	 * Command used for loopback messages (monitor).
+	 */
+	static final byte COMMAND = 13;
+
+	public final BufferControl control = new BufferControl();
+
+	public PVStructure source;
+	public PVStructure target;
+	public BitSet changedBitSet;
+
+	/**
+	 * Data of <code>source</code>, serialized.
+	 */
+	public ByteBuffer buffer;
+
+	/**
+	 * Introspection data and data of <code>source</code>, serialized.
+	 */
+	public ByteBuffer fullBuffer;
+
+	public LoopbackCodec codec;
+
+	/**
+	 * Create a new (filled) instance of the structure.
+	 * @return the structure.
+	 */
+	protected abstract PVStructure create();
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException
+	{
+		source = create();
+		// empty, filled by round-trip check below
+		target = PVDataFactory.getPVDataCreate().createPVStructure(source.getStructure());
+		changedBitSet = new BitSet(source.getNumberFields());
+		changedBitSet.set(0);
+
+		int size = 64*1024;
+		while (true)
+		{
+			try {
+				buffer = ByteBuffer.allocateDirect(size);
+				source.serialize(buffer, control);
+				fullBuffer = ByteBuffer.allocateDirect(size);
+				SerializationHelper.serializeStructureFull(fullBuffer, control, source);
+				break;
+			} catch (BufferOverflowException boe) {
+				size *= 2;
+			}
+		}
+		buffer.flip();
+		fullBuffer.flip();
+
+		codec = new LoopbackCodec(this, buffer.limit() + 1024);
+
+		// check round-trip
+		if (roundTrip(1) != 1 || !source.equals(target))
+			throw new IllegalStateException("loopback round-trip failed");
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException
+	{
+		codec.close();
+	}
+
+	/**
+	 * Send <code>messages</code> monitor-like (changed bit-set and data) messages
+	 * of <code>source</code> over loopback codec, received data is deserialized to <code>target</code>.
+	 * @param messages number of messages to send.
+	 * @return number of messages received.
+	 * @throws IOException IO exception.
+	 */
+	public int roundTrip(int messages) throws IOException
+	{
+		final ByteBuffer sendBuffer = codec.getSendBuffer();
+		for (int i = 0; i < messages; i++)
+		{
+			codec.startMessage(COMMAND, 0);
+			changedBitSet.serialize(sendBuffer, codec);
+			source.serialize(sendBuffer, codec, changedBitSet);
+			codec.endMessage();
+		}
+		codec.flushToWire();
+		return codec.processWire();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.epics.pvaccess.benchmark.LoopbackCodec.MessageReceiver#receive(org.epics.pvaccess.benchmark.LoopbackCodec, byte, int)
+	 */
+	@Override
+	public void receive(LoopbackCodec codec, byte command, int payloadSize) {
+		final ByteBuffer receiveBuffer = codec.getReceiveBuffer();
+		changedBitSet.deserialize(receiveBuffer, codec);
+		target.deserialize(receiveBuffer, codec, changedBitSet);
+	}
+
+	@State(Scope.Thread)
+	public static class Scalar extends StructureState {
+		@Override
+		protected PVStructure create() {
+			return NTStructures.createNTScalar();
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class ScalarArray extends StructureState {
+		@Param({ "1000", "10000", "100000", "1000000" })
+		public int elements;
+
+		@Override
+		protected PVStructure create() {
+			return NTStructures.createNTScalarArray(elements);
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class Table extends StructureState {
+		@Param({ "100", "10000" })
+		public int rows;
+
+		@Override
+		protected PVStructure create() {
+			return NTStructures.createNTTable(rows);
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class NDArray extends StructureState {
+		@Param({ "65536", "1048576" })
+		public int elements;
+
+		@Override
+		protected PVStructure create() {
+			return NTStructures.createNTNDArray(elements);
+		}
+	}
+}
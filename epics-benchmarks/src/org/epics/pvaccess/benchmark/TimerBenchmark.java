@@ -0,0 +1,107 @@
+/*
+ * Copyright information and license terms for this software can be
+ * found in the file LICENSE that is included with the distribution
+ */
+package org.epics.pvaccess.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.epics.pvdata.misc.ThreadPriority;
+import org.epics.pvdata.misc.Timer;
+import org.epics.pvdata.misc.Timer.TimerCallback;
+import org.epics.pvdata.misc.Timer.TimerNode;
+import org.epics.pvdata.misc.TimerFactory;
+import org.epics.pvdata.misc.TimerFactory.TimerType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * pvData <code>Timer</code> benchmarks: schedule and cancel of a node while many (by default 1M)
+ * nodes are already scheduled (e.g. per-channel search and connection timeouts),
+ * for all <code>TimerFactory.TimerType</code> implementations.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class TimerBenchmark {
+
+	static final TimerCallback NOOP_CALLBACK = new TimerCallback() {
+		@Override
+		public void callback() {
+		}
+
+		@Override
+		public void timerStopped() {
+		}
+	};
+
+	@State(Scope.Benchmark)
+	public static class TimerState {
+
+		@Param({ "PRIORITY_QUEUE", "TIMING_WHEEL" })
+		public String type;
+
+		/**
+		 * Number of nodes scheduled in advance, they do not expire during the benchmark.
+		 */
+		@Param({ "1000000" })
+		public int scheduled;
+
+		public Timer timer;
+
+		@Setup
+		public void setup() {
+			timer = TimerFactory.create("benchmark timer", ThreadPriority.middle, TimerType.valueOf(type));
+			final Random random = new Random(0);
+			for (int i = 0; i < scheduled; i++)
+				timer.scheduleAfterDelay(TimerFactory.createNode(NOOP_CALLBACK), 3600 + random.nextInt(3600));
+		}
+
+		@TearDown
+		public void tearDown() {
+			timer.stop();
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class NodeState {
+
+		public final TimerNode node = TimerFactory.createNode(NOOP_CALLBACK);
+		public final Random random = new Random();
+	}
+
+	static TimerNode reschedule(TimerState timerState, NodeState nodeState) {
+		final TimerNode node = nodeState.node;
+		timerState.timer.scheduleAfterDelay(node, 60 + nodeState.random.nextInt(3600));
+		node.cancel();
+		return node;
+	}
+
+	@Benchmark
+	public TimerNode scheduleCancel(TimerState timerState, NodeState nodeState) {
+		return reschedule(timerState, nodeState);
+	}
+
+	/**
+	 * The same as <code>scheduleCancel</code>, but with contention (e.g. many connections).
+	 */
+	@Benchmark
+	@Threads(4)
+	public TimerNode scheduleCancelContended(TimerState timerState, NodeState nodeState) {
+		return reschedule(timerState, nodeState);
+	}
+}
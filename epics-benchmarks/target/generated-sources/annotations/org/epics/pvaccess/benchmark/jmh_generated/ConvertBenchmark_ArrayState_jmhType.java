@@ -0,0 +1,4 @@
+package org.epics.pvaccess.benchmark.jmh_generated;
+public class ConvertBenchmark_ArrayState_jmhType extends ConvertBenchmark_ArrayState_jmhType_B3 {
+}
+
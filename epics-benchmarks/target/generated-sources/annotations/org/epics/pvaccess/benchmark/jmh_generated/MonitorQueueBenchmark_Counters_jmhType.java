@@ -0,0 +1,4 @@
+package org.epics.pvaccess.benchmark.jmh_generated;
+public class MonitorQueueBenchmark_Counters_jmhType extends MonitorQueueBenchmark_Counters_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package org.epics.pvaccess.benchmark.jmh_generated;
+public class MonitorQueueBenchmark_QueueState_jmhType extends MonitorQueueBenchmark_QueueState_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package org.epics.pvaccess.benchmark.jmh_generated;
+public class MonitorQueueBenchmark_jmhType extends MonitorQueueBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package org.epics.pvaccess.benchmark.jmh_generated;
+public class SerializationBenchmark_BitSetState_jmhType extends SerializationBenchmark_BitSetState_jmhType_B3 {
+}
+
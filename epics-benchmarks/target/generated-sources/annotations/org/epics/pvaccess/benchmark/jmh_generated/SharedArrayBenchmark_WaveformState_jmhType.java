@@ -0,0 +1,4 @@
+package org.epics.pvaccess.benchmark.jmh_generated;
+public class SharedArrayBenchmark_WaveformState_jmhType extends SharedArrayBenchmark_WaveformState_jmhType_B3 {
+}
+
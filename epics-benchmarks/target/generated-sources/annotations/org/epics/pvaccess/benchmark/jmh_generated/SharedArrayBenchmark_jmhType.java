@@ -0,0 +1,4 @@
+package org.epics.pvaccess.benchmark.jmh_generated;
+public class SharedArrayBenchmark_jmhType extends SharedArrayBenchmark_jmhType_B3 {
+}
+
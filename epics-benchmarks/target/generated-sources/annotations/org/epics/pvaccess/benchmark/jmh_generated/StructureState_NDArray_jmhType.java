@@ -0,0 +1,4 @@
+package org.epics.pvaccess.benchmark.jmh_generated;
+public class StructureState_NDArray_jmhType extends StructureState_NDArray_jmhType_B3 {
+}
+
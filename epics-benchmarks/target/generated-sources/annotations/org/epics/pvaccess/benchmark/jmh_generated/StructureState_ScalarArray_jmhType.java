@@ -0,0 +1,4 @@
+package org.epics.pvaccess.benchmark.jmh_generated;
+public class StructureState_ScalarArray_jmhType extends StructureState_ScalarArray_jmhType_B3 {
+}
+
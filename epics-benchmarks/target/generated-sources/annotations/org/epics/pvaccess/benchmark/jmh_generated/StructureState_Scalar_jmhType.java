@@ -0,0 +1,4 @@
+package org.epics.pvaccess.benchmark.jmh_generated;
+public class StructureState_Scalar_jmhType extends StructureState_Scalar_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package org.epics.pvaccess.benchmark.jmh_generated;
+public class StructureState_Table_jmhType extends StructureState_Table_jmhType_B3 {
+}
+
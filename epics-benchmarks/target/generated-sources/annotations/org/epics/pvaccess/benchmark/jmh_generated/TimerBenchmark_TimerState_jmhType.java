@@ -0,0 +1,4 @@
+package org.epics.pvaccess.benchmark.jmh_generated;
+public class TimerBenchmark_TimerState_jmhType extends TimerBenchmark_TimerState_jmhType_B3 {
+}
+
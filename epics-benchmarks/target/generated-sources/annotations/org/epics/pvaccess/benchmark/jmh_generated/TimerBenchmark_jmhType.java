@@ -0,0 +1,4 @@
+package org.epics.pvaccess.benchmark.jmh_generated;
+public class TimerBenchmark_jmhType extends TimerBenchmark_jmhType_B3 {
+}
+
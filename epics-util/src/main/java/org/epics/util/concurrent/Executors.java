@@ -4,6 +4,7 @@
  */
 package org.epics.util.concurrent;
 
+import java.util.List;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -39,6 +40,34 @@ public class Executors {
         return CURRENT_EXECUTOR;
     }
 
+    /**
+     * Executes tasks in batches on the given executor. Tasks submitted while
+     * a batch is waiting to be run are added to that batch, so that
+     * the given executor receives a single task for all of them. Tasks
+     * are run in the order they were submitted.
+     * <p>
+     * This is useful when each task posted to the given executor is expensive,
+     * as for executors that post events to a UI thread. Tasks from different
+     * sources are batched only if they use the same instance.
+     * 
+     * @param executor the executor that runs the batches
+     * @return an executor that batches the tasks
+     */
+    public static Executor batched(Executor executor) {
+        ProcessingQueue<Runnable> queue = new ProcessingQueue<>(executor, (List<Runnable> tasks) -> {
+            for (Runnable task : tasks) {
+                try {
+                    task.run();
+                } catch (Exception ex) {
+                    log.log(Level.WARNING, "Exception on the batch thread caused by a task", ex);
+                } catch (AssertionError ex) {
+                    log.log(Level.WARNING, "Assertion failed on the batch thread", ex);
+                }
+            }
+        });
+        return queue::submit;
+    }
+
     private static final Executor SWING_EXECUTOR = new Executor() {
 
         @Override
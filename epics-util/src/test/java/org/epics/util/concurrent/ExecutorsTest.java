@@ -0,0 +1,51 @@
+/**
+ * Copyright information and license terms for this software can be
+ * found in the file LICENSE.TXT included with the distribution.
+ */
+package org.epics.util.concurrent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import static org.hamcrest.Matchers.*;
+
+public class ExecutorsTest {
+    
+    @Test
+    public void batched1() {
+        List<Runnable> batches = new ArrayList<>();
+        List<Integer> result = new ArrayList<>();
+        Executor exec = Executors.batched(batches::add);
+        exec.execute(() -> result.add(1));
+        exec.execute(() -> result.add(2));
+        exec.execute(() -> result.add(3));
+        assertThat(batches.size(), equalTo(1));
+        assertThat(result, equalTo(Arrays.<Integer>asList()));
+        
+        batches.get(0).run();
+        assertThat(result, equalTo(Arrays.asList(1, 2, 3)));
+        
+        exec.execute(() -> result.add(4));
+        assertThat(batches.size(), equalTo(2));
+        batches.get(1).run();
+        assertThat(result, equalTo(Arrays.asList(1, 2, 3, 4)));
+    }
+    
+    @Test
+    public void batched2() {
+        List<Runnable> batches = new ArrayList<>();
+        List<Integer> result = new ArrayList<>();
+        Executor exec = Executors.batched(batches::add);
+        exec.execute(() -> result.add(1));
+        exec.execute(() -> {
+            throw new RuntimeException("Test failure");
+        });
+        exec.execute(() -> result.add(3));
+        
+        batches.get(0).run();
+        assertThat(result, equalTo(Arrays.asList(1, 3)));
+    }
+}
@@ -6,46 +6,72 @@ package org.epics.gpclient;
 
 import java.time.Duration;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 
 /**
  * Decouples the rate by simply scanning the PV status at the given rate.
  * <p>
  * This type of scanning is necessary if there is time dependent computation
- * performed on the data after it's gathered in the collectors.
+ * performed on the data after it's gathered in the collectors. The scans
+ * of all the decouplers with the same rate are scheduled together by the
+ * {@link RateScheduler}.
  *
  * @author carcassi
  */
 class ActiveRateDecoupler extends RateDecoupler {
     
-    private volatile ScheduledFuture<?> scanTaskHandle;
+    private volatile boolean started;
+    // The first scan and the periodic scans may run at the same time
+    private final AtomicBoolean scanning = new AtomicBoolean();
+    private final Runnable scanTask = new Runnable() {
+
+        @Override
+        public void run() {
+            scan();
+        }
+    };
 
     public ActiveRateDecoupler(ScheduledExecutorService scannerExecutor,
             Duration maxDuration, Consumer<PVEvent> listener, Consumer<Exception> exceptionHandler) {
         super(scannerExecutor, maxDuration, listener, exceptionHandler);
     }
 
-    @Override
-    void onStart() {
-        scanTaskHandle = getScannerExecutor().scheduleWithFixedDelay(new Runnable() {
+    public ActiveRateDecoupler(RateScheduler scheduler,
+            Duration maxDuration, Consumer<PVEvent> listener, Consumer<Exception> exceptionHandler) {
+        super(scheduler, maxDuration, listener, exceptionHandler);
+    }
 
-            @Override
-            public void run() {
-                if (!isStopped() && !isPaused() && !isEventProcessing()) {
-                    PVEvent event = PVEvent.readConnectionValueEvent();
-                    sendDesiredRateEvent(event);
-                }
+    /**
+     * Sends the scan event, unless the scanning is stopped, paused or
+     * the previous event is still in flight.
+     */
+    void scan() {
+        if (!scanning.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            if (!isStopped() && !isPaused() && !isEventProcessing()) {
+                PVEvent event = PVEvent.readConnectionValueEvent();
+                sendDesiredRateEvent(event);
             }
-        }, 0, getMaxDuration().toNanos(), TimeUnit.NANOSECONDS);
+        } finally {
+            scanning.set(false);
+        }
+    }
+
+    @Override
+    void onStart() {
+        started = true;
+        getScannerExecutor().execute(scanTask);
+        getScheduler().addPeriodic(getMaxDuration(), scanTask);
     }
 
     @Override
     void onStop() {
-        if (scanTaskHandle != null) {
-            scanTaskHandle.cancel(false);
-            scanTaskHandle = null;
+        if (started) {
+            getScheduler().removePeriodic(getMaxDuration(), scanTask);
+            started = false;
         } else {
             throw new IllegalStateException("Scan was never started");
         }
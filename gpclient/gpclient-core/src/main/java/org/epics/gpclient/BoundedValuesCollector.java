@@ -0,0 +1,159 @@
+/**
+ * Copyright information and license terms for this software can be
+ * found in the file LICENSE.TXT included with the distribution.
+ */
+package org.epics.gpclient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * A collector that queues the values in a ring buffer of fixed capacity.
+ * When the buffer is full, the {@link OverflowPolicy} decides which value
+ * is lost; lost values are reported by {@link PVEvent#getOverflowCount() }.
+ *
+ * @param <T> the type stored in the collector
+ */
+class BoundedValuesCollector<T> extends ReadCollector<T, List<T>> {
+    
+    /**
+     * The longest time a writer waits for the reader with the BLOCK policy.
+     * The writer is usually a data source thread that also serves other
+     * channels, so the wait must not be unbounded.
+     */
+    static final long MAX_BLOCK_MILLIS = 1000;
+    
+    private final Object[] buffer;
+    private final OverflowPolicy policy;
+    private final long maxBlockNanos;
+    private int head = 0;
+    private int size = 0;
+
+    public BoundedValuesCollector(Class<T> type, int capacity, OverflowPolicy policy) {
+        this(type, capacity, policy, MAX_BLOCK_MILLIS);
+    }
+
+    BoundedValuesCollector(Class<T> type, int capacity, OverflowPolicy policy, long maxBlockMillis) {
+        super(type);
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive (was " + capacity + ")");
+        }
+        if (policy == null) {
+            throw new NullPointerException("Overflow policy can't be null");
+        }
+        this.buffer = new Object[capacity];
+        this.policy = policy;
+        this.maxBlockNanos = TimeUnit.MILLISECONDS.toNanos(maxBlockMillis);
+    }
+
+    @Override
+    void setUpdateListener(Consumer<PVEvent> notification) {
+        super.setUpdateListener(notification);
+        synchronized (lock) {
+            // Writers blocked on a closed pv can return
+            lock.notifyAll();
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<T> getValue() {
+        synchronized (lock) {
+            List<T> values = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                int index = (head + i) % buffer.length;
+                values.add((T) buffer[index]);
+                buffer[index] = null;
+            }
+            head = 0;
+            size = 0;
+            if (policy == OverflowPolicy.BLOCK) {
+                lock.notifyAll();
+            }
+            return values;
+        }
+    }
+
+    /**
+     * Adds the value to the queue; must be called holding the lock.
+     * 
+     * @param newValue the new value
+     * @return the number of values lost
+     */
+    private int addValue(T newValue) {
+        if (size == buffer.length) {
+            switch (policy) {
+                case DROP_OLDEST:
+                    buffer[head] = null;
+                    head = (head + 1) % buffer.length;
+                    size--;
+                    buffer[(head + size) % buffer.length] = newValue;
+                    size++;
+                    return 1;
+                case DROP_NEWEST:
+                    return 1;
+                case COALESCE_LATEST:
+                    buffer[(head + size - 1) % buffer.length] = newValue;
+                    return 1;
+                case BLOCK:
+                    long deadline = System.nanoTime() + maxBlockNanos;
+                    while (size == buffer.length && collectorListener != null) {
+                        long remaining = deadline - System.nanoTime();
+                        if (remaining <= 0) {
+                            break;
+                        }
+                        try {
+                            TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+                        } catch (InterruptedException ex) {
+                            Thread.currentThread().interrupt();
+                            break;
+                        }
+                    }
+                    if (size == buffer.length) {
+                        // Closed, interrupted or timed out: the new value is lost
+                        return 1;
+                    }
+                    break;
+            }
+        }
+        buffer[(head + size) % buffer.length] = newValue;
+        size++;
+        return 0;
+    }
+
+    @Override
+    public void updateValue(T newValue) {
+        Consumer<PVEvent> listener;
+        int lost;
+        synchronized (lock) {
+            lost = addValue(newValue);
+            listener = collectorListener;
+        }
+        // Run the task without holding the lock
+        if (listener != null) {
+            listener.accept(lost == 0 ? PVEvent.valueEvent() : PVEvent.valueOverflowEvent(lost));
+        }
+    }
+
+    @Override
+    public void updateValueAndConnection(T newValue, boolean newConnection) {
+        Consumer<PVEvent> listener;
+        int lost;
+        synchronized (lock) {
+            lost = addValue(newValue);
+            connection = newConnection;
+            listener = collectorListener;
+        }
+        // Run the task without holding the lock
+        if (listener != null) {
+            PVEvent event = PVEvent.readConnectionValueEvent();
+            if (lost != 0) {
+                event = event.addEvent(PVEvent.valueOverflowEvent(lost));
+            }
+            listener.accept(event);
+        }
+    }
+    
+}
@@ -121,6 +121,31 @@ public class GPClient {
     public static <R> ReadCollector<R, List<R>> queueAllValues(Class<R> readType) {
         return new AllValuesCollector<>(readType);
     }
+    
+    /**
+     * Return the values queued from the last update, keeping at most
+     * the given number of values.
+     * <p>
+     * In case of data bursts (i.e. data coming in at rate faster than the
+     * reader can handle) this strategy will combine the notifications and
+     * return the queued values; when the queue is full, the policy decides
+     * which values are lost, and the number of values lost is reported
+     * by {@link PVEvent#getOverflowCount() }.
+     * <p>
+     * Warning: with {@link OverflowPolicy#BLOCK} a full queue blocks the
+     * data source thread that delivers the value (up to one second per value),
+     * which stalls every other channel served by that thread, not just this one.
+     * Use it only with a reader that keeps up with the data.
+     * 
+     * @param <R> the type to read
+     * @param readType the type to read
+     * @param capacity the maximum number of values queued
+     * @param policy what to do when the queue is full
+     * @return the caching strategy
+     */
+    public static <R> ReadCollector<R, List<R>> queueValues(Class<R> readType, int capacity, OverflowPolicy policy) {
+        return new BoundedValuesCollector<>(readType, capacity, policy);
+    }
 
     /**
      * A write buffer for the the given type.
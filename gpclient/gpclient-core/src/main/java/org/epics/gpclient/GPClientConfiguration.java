@@ -23,6 +23,9 @@ public class GPClientConfiguration {
     
     /**
      * Sets the default executor on which all notifications are going to be posted.
+     * To post the notifications of all pvs to a UI thread in batches, rather
+     * than one task per notification, wrap the UI executor with
+     * {@link org.epics.util.concurrent.Executors#batched(java.util.concurrent.Executor) }.
      *
      * @param defaultNotificationExecutor the default notification executor
      * @return this configuration
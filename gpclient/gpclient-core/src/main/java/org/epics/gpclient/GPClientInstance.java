@@ -27,12 +27,14 @@ import static org.epics.gpclient.GPClient.*;
 public class GPClientInstance {
     
     final ScheduledExecutorService dataProcessingThreadPool;
+    final RateScheduler rateScheduler;
     final DataSource defaultDataSource;
     final Duration defaultMaxRate;
     final Executor defaultNotificationExecutor;
 
     GPClientInstance(GPClientConfiguration config) {
         this.dataProcessingThreadPool = config.dataProcessingThreadPool;
+        this.rateScheduler = new RateScheduler(dataProcessingThreadPool);
         this.defaultDataSource = config.defaultDataSource;
         this.defaultMaxRate = config.defaultMaxRate;
         this.defaultNotificationExecutor = config.defaultNotificationExecutor;
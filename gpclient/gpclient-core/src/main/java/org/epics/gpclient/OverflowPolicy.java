@@ -0,0 +1,39 @@
+/**
+ * Copyright information and license terms for this software can be
+ * found in the file LICENSE.TXT included with the distribution.
+ */
+package org.epics.gpclient;
+
+/**
+ * What a bounded queue of values does when a new value arrives and
+ * the queue is full.
+ */
+public enum OverflowPolicy {
+    
+    /**
+     * The oldest value in the queue is discarded to make room for the new value.
+     */
+    DROP_OLDEST,
+    
+    /**
+     * The new value is discarded.
+     */
+    DROP_NEWEST,
+    
+    /**
+     * The new value replaces the latest value in the queue.
+     */
+    COALESCE_LATEST,
+    
+    /**
+     * The writer (i.e. the data source thread) waits until the reader
+     * takes the values, for at most one second; if the reader does not take
+     * them in time, the new value is lost.
+     * <p>
+     * A slow reader slows down the data source: the data source thread
+     * usually serves other channels as well (e.g. the pvAccess receive thread
+     * serves all the channels of the connection), and these are not
+     * updated while it waits.
+     */
+    BLOCK
+}
@@ -191,9 +191,9 @@ public class PVConfiguration<R, W> implements PVReaderConfiguration<R>, PVWriter
         
         RateDecoupler rateDecoupler;
         if (pvDirector.readFunction instanceof ReadCollector.CollectorSupplier) {
-            rateDecoupler = new PassiveRateDecoupler(pvDirector.scannerExecutor, pvDirector.maxRate, pvDirector.getDesiredRateEventListener(), null);
+            rateDecoupler = new PassiveRateDecoupler(pvDirector.rateScheduler, pvDirector.maxRate, pvDirector.getDesiredRateEventListener(), null);
         } else {
-            rateDecoupler = new ActiveRateDecoupler(pvDirector.scannerExecutor, pvDirector.maxRate, pvDirector.getDesiredRateEventListener(), null);
+            rateDecoupler = new ActiveRateDecoupler(pvDirector.rateScheduler, pvDirector.maxRate, pvDirector.getDesiredRateEventListener(), null);
         }
         
         pv.setDirector(pvDirector);
@@ -53,6 +53,8 @@ public class PVDirector<R, W> {
     final Executor notificationExecutor;
     /** Executor used to scan the connection/exception queues */
     final ScheduledExecutorService scannerExecutor;
+    /** Scheduler for the rate decoupler scans, shared by the pvs of the client */
+    final RateScheduler rateScheduler;
     /** PVReader to update during the notification */
     private final WeakReference<PVImpl<R, W>> pvRef;
     /** Function for the new value */
@@ -245,6 +247,7 @@ public class PVDirector<R, W> {
         }
         this.notificationExecutor = pvConf.notificationExecutor;
         this.scannerExecutor = pvConf.gpClient.dataProcessingThreadPool;
+        this.rateScheduler = pvConf.gpClient.rateScheduler;
         this.dataSource = pvConf.dataSource;
         this.maxRate = pvConf.maxRate;
         if (pvConf.connectionTimeout != null) {
@@ -70,11 +70,17 @@ public final class PVEvent {
     private final List<Type> types;
     private final Exception exception;
     private final Exception writeError;
+    private final long overflowCount;
 
     private PVEvent(Exception ex, Exception writeError, List<Type> types) {
+        this(ex, writeError, types, 0);
+    }
+
+    private PVEvent(Exception ex, Exception writeError, List<Type> types, long overflowCount) {
         this.types = Collections.unmodifiableList(types);
         this.exception = ex;
         this.writeError = writeError;
+        this.overflowCount = overflowCount;
     }
 
     private PVEvent(Type type) {
@@ -120,6 +126,17 @@ public final class PVEvent {
     public Exception getWriteError() {
         return writeError;
     }
+    
+    /**
+     * The number of values that were lost because the queue of the collector
+     * was full (see {@link OverflowPolicy}). For an aggregated event, it is
+     * the total of the aggregated events.
+     * 
+     * @return the number of values lost; zero if no value was lost
+     */
+    public long getOverflowCount() {
+        return overflowCount;
+    }
 
     /**
      * Returns a new event that aggregates this event with the given event.
@@ -135,7 +152,7 @@ public final class PVEvent {
         }
         Exception newException = (event.getException() != null) ? event.getException() : getException();
         Exception newWriteError = (event.getWriteError() != null) ? event.getWriteError() : getWriteError();
-        return new PVEvent(newException, newWriteError, newTypes);
+        return new PVEvent(newException, newWriteError, newTypes, getOverflowCount() + event.getOverflowCount());
     }
     
     PVEvent removeType(Type type) {
@@ -143,7 +160,8 @@ public final class PVEvent {
         newTypes.remove(type);
         Exception newException = (type == Type.EXCEPTION) ? null : getException();
         Exception newWriteError = (type == Type.WRITE_FAILED) ? null : getWriteError();
-        return new PVEvent(newException, newWriteError, newTypes);
+        // Values lost are still reported
+        return new PVEvent(newException, newWriteError, newTypes, getOverflowCount());
     }
 
     @Override
@@ -152,6 +170,7 @@ public final class PVEvent {
         hash = 29 * hash + Objects.hashCode(this.types);
         hash = 29 * hash + Objects.hashCode(this.exception);
         hash = 29 * hash + Objects.hashCode(this.writeError);
+        hash = 29 * hash + Long.hashCode(this.overflowCount);
         return hash;
     }
 
@@ -176,6 +195,9 @@ public final class PVEvent {
         if (!Objects.equals(this.writeError, other.writeError)) {
             return false;
         }
+        if (this.overflowCount != other.overflowCount) {
+            return false;
+        }
         return true;
     }
 
@@ -189,6 +211,9 @@ public final class PVEvent {
         if (writeError != null) {
             sb.append(" - wrEx: ").append(writeError.getMessage());
         }
+        if (overflowCount != 0) {
+            sb.append(" - overflow: ").append(overflowCount);
+        }
         sb.append("}");
         
         return sb.toString();
@@ -219,6 +244,17 @@ public final class PVEvent {
         return VALUE_EVENT;
     }
 
+    /**
+     * A value event for a value queued while other values were lost
+     * because the queue was full.
+     * 
+     * @param overflowCount the number of values lost
+     * @return an event
+     */
+    public static PVEvent valueOverflowEvent(long overflowCount) {
+        return new PVEvent(null, null, Collections.singletonList(Type.VALUE), overflowCount);
+    }
+    
     /**
      * A read connection and value event.
      * 
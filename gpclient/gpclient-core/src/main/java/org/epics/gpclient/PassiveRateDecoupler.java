@@ -7,7 +7,6 @@ package org.epics.gpclient;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -34,6 +33,14 @@ class PassiveRateDecoupler extends RateDecoupler {
             lastSubmission = Instant.now().minus(getMaxDuration());
         }
     }
+
+    public PassiveRateDecoupler(RateScheduler scheduler,
+            Duration maxDuration, Consumer<PVEvent> listener, Consumer<Exception> exceptionHandler) {
+        super(scheduler, maxDuration, listener, exceptionHandler);
+        synchronized(lock) {
+            lastSubmission = Instant.now().minus(getMaxDuration());
+        }
+    }
     
     private final Runnable notificationTask = new Runnable() {
 
@@ -173,7 +180,7 @@ class PassiveRateDecoupler extends RateDecoupler {
         if (delay == null || delay.isNegative()) {
             getScannerExecutor().submit(notificationTask);
         } else {
-            getScannerExecutor().schedule(notificationTask, delay.toNanos(), TimeUnit.NANOSECONDS);
+            getScheduler().schedule(getMaxDuration(), notificationTask, delay);
         }
     }
     
@@ -21,7 +21,7 @@ abstract class RateDecoupler {
     private static final Logger log = Logger.getLogger(RateDecoupler.class.getName());
     private final Consumer<PVEvent> listener;
     private final Consumer<Exception> exceptionHandler;
-    private final ScheduledExecutorService scannerExecutor;
+    private final RateScheduler scheduler;
     private final Duration maxDuration;
     
     protected final Object lock = new Object();
@@ -40,14 +40,33 @@ abstract class RateDecoupler {
      */
     public RateDecoupler(ScheduledExecutorService scannerExecutor, Duration maxDuration,
             Consumer<PVEvent> listener, Consumer<Exception> exceptionHandler) {
+        this(new RateScheduler(scannerExecutor), maxDuration, listener, exceptionHandler);
+    }
+
+    /**
+     * Creates a new rate decoupler that will send the events to the
+     * given listener, sharing the scheduling of the scans with the other
+     * decouplers of the scheduler.
+     * 
+     * @param scheduler the scheduler for the scanner tasks
+     * @param maxDuration max interval between notifications
+     * @param listener the event callback
+     * @param exceptionHandler the exception handler
+     */
+    public RateDecoupler(RateScheduler scheduler, Duration maxDuration,
+            Consumer<PVEvent> listener, Consumer<Exception> exceptionHandler) {
         this.listener = listener;
         this.exceptionHandler = exceptionHandler;
-        this.scannerExecutor = scannerExecutor;
+        this.scheduler = scheduler;
         this.maxDuration = maxDuration;
     }
 
     public ScheduledExecutorService getScannerExecutor() {
-        return scannerExecutor;
+        return scheduler.getExecutor();
+    }
+
+    public RateScheduler getScheduler() {
+        return scheduler;
     }
 
     public Duration getMaxDuration() {
@@ -0,0 +1,246 @@
+/**
+ * Copyright information and license terms for this software can be
+ * found in the file LICENSE.TXT included with the distribution.
+ */
+package org.epics.gpclient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Schedules the scans of the rate decouplers that share the same scanner
+ * executor.
+ * <p>
+ * Instead of a task per pv, scans are grouped by max rate in a timer
+ * wheel. A wheel has a single task on the executor that ticks {@link #SLOTS}
+ * times per period and, at each tick, collects in one pass
+ * the periodic scans of the current phase and the delayed tasks that are due.
+ * The collected tasks are then run on the executor in batches of
+ * {@link #BATCH_SIZE}. A wheel stops ticking when it has nothing to scan.
+ * <p>
+ * Periodic scans are assigned to the phases in turn, so that pvs
+ * opened together are not all scanned at the same tick. Delayed tasks
+ * are never run before their delay, and are run at most one tick
+ * (i.e. a fraction of the period) late.
+ */
+class RateScheduler {
+    
+    private static final Logger log = Logger.getLogger(RateScheduler.class.getName());
+    
+    /**
+     * Number of ticks for each period of a wheel.
+     */
+    static final int SLOTS = 8;
+    
+    /**
+     * Maximum number of tasks run by a single task on the executor.
+     */
+    static final int BATCH_SIZE = 64;
+    
+    private final ScheduledExecutorService executor;
+    private final Map<Duration, Wheel> wheels = new HashMap<>();
+
+    /**
+     * Creates a new scheduler that runs the scans on the given executor.
+     * 
+     * @param executor the scanner executor
+     */
+    public RateScheduler(ScheduledExecutorService executor) {
+        this.executor = executor;
+    }
+
+    public ScheduledExecutorService getExecutor() {
+        return executor;
+    }
+    
+    private Wheel getWheel(Duration period) {
+        synchronized (wheels) {
+            Wheel wheel = wheels.get(period);
+            if (wheel == null) {
+                wheel = new Wheel(period);
+                wheels.put(period, wheel);
+            }
+            return wheel;
+        }
+    }
+    
+    /**
+     * Adds a scan that is run once per period, until removed.
+     * 
+     * @param period the period of the scan
+     * @param scan the scan
+     */
+    void addPeriodic(Duration period, Runnable scan) {
+        getWheel(period).addPeriodic(scan);
+    }
+    
+    /**
+     * Removes a scan added with {@link #addPeriodic(java.time.Duration, java.lang.Runnable) }.
+     * 
+     * @param period the period of the scan
+     * @param scan the scan
+     */
+    void removePeriodic(Duration period, Runnable scan) {
+        getWheel(period).removePeriodic(scan);
+    }
+    
+    /**
+     * Runs the task once after the given delay.
+     * 
+     * @param period the period of the wheel to use
+     * @param task the task
+     * @param delay the delay; must not be negative
+     */
+    void schedule(Duration period, Runnable task, Duration delay) {
+        getWheel(period).schedule(task, delay.toNanos());
+    }
+    
+    /**
+     * Number of scans currently scheduled, for monitoring.
+     * 
+     * @return the number of periodic and delayed scans
+     */
+    int getScheduledCount() {
+        List<Wheel> currentWheels;
+        synchronized (wheels) {
+            currentWheels = new ArrayList<>(wheels.values());
+        }
+        int count = 0;
+        for (Wheel wheel : currentWheels) {
+            count += wheel.getScheduledCount();
+        }
+        return count;
+    }
+    
+    private void runBatches(List<Runnable> tasks) {
+        for (int i = 0; i < tasks.size(); i += BATCH_SIZE) {
+            final List<Runnable> batch = tasks.subList(i, Math.min(tasks.size(), i + BATCH_SIZE));
+            executor.execute(() -> {
+                for (Runnable task : batch) {
+                    try {
+                        task.run();
+                    } catch (RuntimeException ex) {
+                        log.log(Level.SEVERE, "Scan " + task + " should not generate exceptions", ex);
+                    }
+                }
+            });
+        }
+    }
+    
+    private static class DelayedTask {
+        final long tick;
+        final Runnable task;
+
+        DelayedTask(long tick, Runnable task) {
+            this.tick = tick;
+            this.task = task;
+        }
+    }
+    
+    private class Wheel implements Runnable {
+        
+        private final long tickNanos;
+        // Periodic scans by phase
+        private final List<Set<Runnable>> phases = new ArrayList<>();
+        // Delayed tasks by tick
+        private final List<List<DelayedTask>> slots = new ArrayList<>();
+        private int nextPhase = 0;
+        private int periodicCount = 0;
+        private int delayedCount = 0;
+        
+        private ScheduledFuture<?> tickHandle;
+        private long startNanos;
+        private long lastTick;
+
+        Wheel(Duration period) {
+            this.tickNanos = Math.max(1, period.toNanos() / SLOTS);
+            for (int i = 0; i < SLOTS; i++) {
+                phases.add(new HashSet<>());
+            }
+            for (int i = 0; i < SLOTS + 2; i++) {
+                slots.add(new ArrayList<>());
+            }
+        }
+        
+        synchronized void addPeriodic(Runnable scan) {
+            phases.get(nextPhase).add(scan);
+            nextPhase = (nextPhase + 1) % SLOTS;
+            periodicCount++;
+            startTicking();
+        }
+        
+        synchronized void removePeriodic(Runnable scan) {
+            for (Set<Runnable> phase : phases) {
+                if (phase.remove(scan)) {
+                    periodicCount--;
+                    return;
+                }
+            }
+        }
+        
+        synchronized void schedule(Runnable task, long delayNanos) {
+            startTicking();
+            // First tick at or after the deadline, but not one already processed
+            long deadline = System.nanoTime() + delayNanos - startNanos;
+            long tick = Math.max(lastTick + 1, (deadline + tickNanos - 1) / tickNanos);
+            slots.get((int) (tick % slots.size())).add(new DelayedTask(tick, task));
+            delayedCount++;
+        }
+        
+        synchronized int getScheduledCount() {
+            return periodicCount + delayedCount;
+        }
+        
+        private void startTicking() {
+            if (tickHandle == null) {
+                startNanos = System.nanoTime();
+                lastTick = 0;
+                tickHandle = executor.scheduleAtFixedRate(this, tickNanos, tickNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        @Override
+        public void run() {
+            List<Runnable> dueTasks;
+            synchronized (this) {
+                lastTick++;
+                Set<Runnable> phase = phases.get((int) (lastTick % SLOTS));
+                List<DelayedTask> slot = slots.get((int) (lastTick % slots.size()));
+                if (phase.isEmpty() && slot.isEmpty()) {
+                    dueTasks = Collections.emptyList();
+                } else {
+                    dueTasks = new ArrayList<>(phase.size() + slot.size());
+                    dueTasks.addAll(phase);
+                    // Tasks for a later round of the wheel stay in the slot
+                    Iterator<DelayedTask> iter = slot.iterator();
+                    while (iter.hasNext()) {
+                        DelayedTask delayedTask = iter.next();
+                        if (delayedTask.tick <= lastTick) {
+                            dueTasks.add(delayedTask.task);
+                            iter.remove();
+                            delayedCount--;
+                        }
+                    }
+                }
+                if (periodicCount == 0 && delayedCount == 0) {
+                    tickHandle.cancel(false);
+                    tickHandle = null;
+                }
+            }
+            runBatches(dueTasks);
+        }
+    }
+    
+}
@@ -4,6 +4,7 @@
  */
 package org.epics.gpclient.datasource;
 
+import java.util.IdentityHashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
@@ -39,6 +40,8 @@ import org.epics.gpclient.WriteCollector;
  * message payload never leave this handler, only value types created by the
  * type adapters</li>
  * </ul>
+ * Type adapters that implement {@link SharedValueTypeAdapter} convert each message
+ * only once, and the value is shared by all the readers that use the same adapter.
  *
  * @param <ConnectionPayload> type of the payload for the connection
  * @param <MessagePayload> type of the payload for each message
@@ -58,6 +61,10 @@ public abstract class MultiplexedChannelHandler<ConnectionPayload, MessagePayloa
     private Map<WriteCollector, Consumer<WriteCollector.WriteRequest<?>>> writers = new ConcurrentHashMap<>();
     private boolean processMessageOnDisconnect = true;
     private boolean processMessageOnReconnect = true;
+    // Values converted from the message being processed, by shared value type adapter
+    private final Map<SharedValueTypeAdapter<ConnectionPayload, MessagePayload>, Object> sharedValues = new IdentityHashMap<>();
+    private long valueConversionCounter = 0;
+    private long sharedValueCounter = 0;
     
     private class MonitorHandler {
 
@@ -78,7 +85,11 @@ public abstract class MultiplexedChannelHandler<ConnectionPayload, MessagePayloa
             
             // Lock the collector and prepare the new value.
             try {
-                typeAdapter.updateCache(subscription, getConnectionPayload(), payload);
+                if (typeAdapter instanceof SharedValueTypeAdapter) {
+                    subscription.updateValue(getSharedValue((SharedValueTypeAdapter<ConnectionPayload, MessagePayload>) typeAdapter, payload));
+                } else {
+                    typeAdapter.updateCache(subscription, getConnectionPayload(), payload);
+                }
             } catch (RuntimeException e) {
                 subscription.notifyError(e);
             }
@@ -98,6 +109,37 @@ public abstract class MultiplexedChannelHandler<ConnectionPayload, MessagePayloa
         
     }
     
+    private Object getSharedValue(SharedValueTypeAdapter<ConnectionPayload, MessagePayload> adapter, MessagePayload payload) {
+        if (sharedValues.containsKey(adapter)) {
+            sharedValueCounter++;
+            return sharedValues.get(adapter);
+        }
+        Object value = adapter.createValue(getConnectionPayload(), payload);
+        valueConversionCounter++;
+        sharedValues.put(adapter, value);
+        return value;
+    }
+    
+    /**
+     * Returns how many values were created from messages by
+     * {@link SharedValueTypeAdapter}s.
+     * 
+     * @return the number of conversions
+     */
+    public synchronized long getValueConversionCounter() {
+        return valueConversionCounter;
+    }
+    
+    /**
+     * Returns how many times a value created by a {@link SharedValueTypeAdapter}
+     * was shared with another reader, i.e. the number of conversions avoided.
+     * 
+     * @return the number of conversions avoided
+     */
+    public synchronized long getSharedValueCounter() {
+        return sharedValueCounter;
+    }
+    
     /**
      * Notifies all readers and writers of an error condition.
      * 
@@ -267,6 +309,7 @@ public abstract class MultiplexedChannelHandler<ConnectionPayload, MessagePayloa
             }
             if (lastMessage != null) {
                 monitor.processValue(lastMessage);
+                sharedValues.clear();
             }
         } 
     }
@@ -363,8 +406,13 @@ public abstract class MultiplexedChannelHandler<ConnectionPayload, MessagePayloa
         }
         
         lastMessage = payload;
-        for (MonitorHandler monitor : readers.values()) {
-            monitor.processValue(payload);
+        try {
+            for (MonitorHandler monitor : readers.values()) {
+                monitor.processValue(payload);
+            }
+        } finally {
+            // Do not keep values of old messages
+            sharedValues.clear();
         }
     }
 
@@ -0,0 +1,30 @@
+/**
+ * Copyright information and license terms for this software can be
+ * found in the file LICENSE.TXT included with the distribution.
+ */
+package org.epics.gpclient.datasource;
+
+/**
+ * A {@link DataSourceTypeAdapter} that creates a value that does not depend on the
+ * cache it is written to, and that is immutable.
+ * <p>
+ * The {@link MultiplexedChannelHandler} converts each message only once per adapter,
+ * and shares the value with all the caches matched to the same adapter, instead of
+ * calling {@link #updateCache(org.epics.gpclient.ReadCollector, java.lang.Object, java.lang.Object) }
+ * for each of them.
+ *
+ * @param <ConnectionPayload> the type of payload given at connection
+ * @param <MessagePayload> the type of payload for each message
+ */
+public interface SharedValueTypeAdapter<ConnectionPayload, MessagePayload> extends DataSourceTypeAdapter<ConnectionPayload, MessagePayload> {
+    
+    /**
+     * Creates the value for the given message. The same value is passed
+     * to all the caches matched by this adapter.
+     * 
+     * @param connection the connection information
+     * @param message the payload of each message
+     * @return the new value; can be null
+     */
+    Object createValue(ConnectionPayload connection, MessagePayload message);
+}
@@ -0,0 +1,150 @@
+/**
+ * Copyright information and license terms for this software can be
+ * found in the file LICENSE.TXT included with the distribution.
+ */
+package org.epics.gpclient;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import static org.hamcrest.Matchers.*;
+
+public class BoundedValuesCollectorTest {
+
+    public BoundedValuesCollectorTest() {
+    }
+
+    private static long overflowCount(List<PVEvent> events) {
+        long count = 0;
+        for (PVEvent event : events) {
+            count += event.getOverflowCount();
+        }
+        return count;
+    }
+
+    @Test
+    public void dropOldest() {
+        List<PVEvent> events = new ArrayList<>();
+        BoundedValuesCollector<Integer> coll = new BoundedValuesCollector<>(Integer.class, 3, OverflowPolicy.DROP_OLDEST);
+        coll.setUpdateListener(events::add);
+        
+        for (int i = 0; i < 5; i++) {
+            coll.updateValue(i);
+        }
+        
+        assertThat(coll.getValue(), equalTo(Arrays.asList(2, 3, 4)));
+        assertThat(coll.getValue(), equalTo(Arrays.<Integer>asList()));
+        assertThat(overflowCount(events), equalTo(2L));
+        assertThat(events, equalTo(Arrays.asList(PVEvent.valueEvent(), PVEvent.valueEvent(), PVEvent.valueEvent(),
+                PVEvent.valueOverflowEvent(1), PVEvent.valueOverflowEvent(1))));
+    }
+
+    @Test
+    public void dropNewest() {
+        List<PVEvent> events = new ArrayList<>();
+        BoundedValuesCollector<Integer> coll = new BoundedValuesCollector<>(Integer.class, 3, OverflowPolicy.DROP_NEWEST);
+        coll.setUpdateListener(events::add);
+        
+        for (int i = 0; i < 5; i++) {
+            coll.updateValue(i);
+        }
+        
+        assertThat(coll.getValue(), equalTo(Arrays.asList(0, 1, 2)));
+        assertThat(overflowCount(events), equalTo(2L));
+    }
+
+    @Test
+    public void coalesceLatest() {
+        List<PVEvent> events = new ArrayList<>();
+        BoundedValuesCollector<Integer> coll = new BoundedValuesCollector<>(Integer.class, 3, OverflowPolicy.COALESCE_LATEST);
+        coll.setUpdateListener(events::add);
+        
+        for (int i = 0; i < 5; i++) {
+            coll.updateValue(i);
+        }
+        
+        assertThat(coll.getValue(), equalTo(Arrays.asList(0, 1, 4)));
+        coll.updateValue(5);
+        assertThat(coll.getValue(), equalTo(Arrays.asList(5)));
+        assertThat(overflowCount(events), equalTo(2L));
+    }
+
+    @Test
+    public void updateValueAndConnection() {
+        List<PVEvent> events = new ArrayList<>();
+        BoundedValuesCollector<Integer> coll = new BoundedValuesCollector<>(Integer.class, 1, OverflowPolicy.DROP_OLDEST);
+        coll.setUpdateListener(events::add);
+        
+        coll.updateValueAndConnection(0, true);
+        coll.updateValueAndConnection(1, true);
+        
+        assertThat(coll.getValue(), equalTo(Arrays.asList(1)));
+        assertThat(coll.getConnection(), equalTo(true));
+        assertThat(events.get(0), equalTo(PVEvent.readConnectionValueEvent()));
+        assertThat(events.get(1).getOverflowCount(), equalTo(1L));
+        assertThat(events.get(1).getType(), equalTo(Arrays.asList(PVEvent.Type.READ_CONNECTION, PVEvent.Type.VALUE)));
+    }
+
+    @Test
+    public void block() throws Exception {
+        List<PVEvent> events = Collections.synchronizedList(new ArrayList<>());
+        BoundedValuesCollector<Integer> coll = new BoundedValuesCollector<>(Integer.class, 2, OverflowPolicy.BLOCK);
+        coll.setUpdateListener(events::add);
+        CountDownLatch done = new CountDownLatch(1);
+        
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < 4; i++) {
+                coll.updateValue(i);
+            }
+            done.countDown();
+        });
+        writer.start();
+        
+        assertThat(done.await(100, TimeUnit.MILLISECONDS), equalTo(false));
+        assertThat(coll.getValue(), equalTo(Arrays.asList(0, 1)));
+        assertThat(done.await(1, TimeUnit.SECONDS), equalTo(true));
+        assertThat(coll.getValue(), equalTo(Arrays.asList(2, 3)));
+        assertThat(overflowCount(events), equalTo(0L));
+    }
+
+    @Test
+    public void blockReleasedOnClose() throws Exception {
+        BoundedValuesCollector<Integer> coll = new BoundedValuesCollector<>(Integer.class, 1, OverflowPolicy.BLOCK);
+        coll.setUpdateListener(event -> {});
+        coll.updateValue(0);
+        CountDownLatch done = new CountDownLatch(1);
+        
+        Thread writer = new Thread(() -> {
+            coll.updateValue(1);
+            done.countDown();
+        });
+        writer.start();
+        
+        assertThat(done.await(100, TimeUnit.MILLISECONDS), equalTo(false));
+        coll.setUpdateListener(null);
+        assertThat(done.await(1, TimeUnit.SECONDS), equalTo(true));
+        assertThat(coll.getValue(), equalTo(Arrays.asList(0)));
+    }
+
+    @Test
+    public void blockBounded() throws Exception {
+        List<PVEvent> events = Collections.synchronizedList(new ArrayList<>());
+        BoundedValuesCollector<Integer> coll = new BoundedValuesCollector<>(Integer.class, 1, OverflowPolicy.BLOCK, 50);
+        coll.setUpdateListener(events::add);
+        coll.updateValue(0);
+        
+        // Nobody reads: the writer gives up and the new value is lost
+        long start = System.nanoTime();
+        coll.updateValue(1);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertThat(elapsedMillis, greaterThanOrEqualTo(50L));
+        assertThat(elapsedMillis, lessThan(1000L));
+        assertThat(coll.getValue(), equalTo(Arrays.asList(0)));
+        assertThat(overflowCount(events), equalTo(1L));
+    }
+}
@@ -21,4 +21,13 @@ public class PVEventTest {
         assertThat(PVEvent.valueEvent().addEvent(PVEvent.readConnectionEvent()), not(equalTo(PVEvent.readConnectionValueEvent())));
         assertThat(PVEvent.valueEvent().addEvent(PVEvent.readConnectionEvent()).getType(), equalTo(Arrays.asList(PVEvent.Type.VALUE, PVEvent.Type.READ_CONNECTION)));
     }
+    
+    @Test
+    public void addEventOverflow() {
+        PVEvent event = PVEvent.valueOverflowEvent(2).addEvent(PVEvent.readConnectionEvent()).addEvent(PVEvent.valueOverflowEvent(3));
+        assertThat(event.getOverflowCount(), equalTo(5L));
+        assertThat(event.getType(), equalTo(Arrays.asList(PVEvent.Type.READ_CONNECTION, PVEvent.Type.VALUE)));
+        assertThat(PVEvent.valueOverflowEvent(1), not(equalTo(PVEvent.valueEvent())));
+        assertThat(PVEvent.valueEvent().getOverflowCount(), equalTo(0L));
+    }
 }
@@ -0,0 +1,94 @@
+/**
+ * Copyright information and license terms for this software can be
+ * found in the file LICENSE.TXT included with the distribution.
+ */
+package org.epics.gpclient;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Measures the process cpu used to scan a large number of active pvs:
+ * one task per pv on the executor (the scheduling used before
+ * {@link RateScheduler}) vs. the shared scheduler.
+ */
+public class RateSchedulerBenchmark {
+    
+    // Desired rate for all pvs
+    static final Duration maxRate = Duration.ofMillis(50);
+    // Time for each measurement
+    static final int measurementSeconds = 10;
+
+    public static void main(String[] args) throws Exception {
+        for (int nPvs : new int[] {10000, 50000}) {
+            benchmarkTaskPerPv(nPvs);
+            benchmarkRateScheduler(nPvs);
+        }
+    }
+    
+    static ActiveRateDecoupler createDecoupler(RateScheduler scheduler) {
+        ActiveRateDecoupler[] decoupler = new ActiveRateDecoupler[1];
+        Consumer<PVEvent> listener = (PVEvent event) -> decoupler[0].readyForNextEvent();
+        decoupler[0] = new ActiveRateDecoupler(scheduler, maxRate, listener, null);
+        return decoupler[0];
+    }
+    
+    static long processCpuTime() {
+        return ((com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean()).getProcessCpuTime();
+    }
+    
+    static void measure(String name, int nPvs) throws Exception {
+        // Warm up
+        Thread.sleep(2000);
+        long cpu = processCpuTime();
+        long time = System.nanoTime();
+        Thread.sleep(measurementSeconds * 1000);
+        double cpuUsage = (double) (processCpuTime() - cpu) / (System.nanoTime() - time);
+        System.out.printf("%s: %d pvs at %d ms, cpu usage %.1f%% (%.2f us per scan)%n", name, nPvs, maxRate.toMillis(),
+                cpuUsage * 100, cpuUsage * maxRate.toNanos() / nPvs / 1000.0);
+    }
+    
+    public static void benchmarkTaskPerPv(int nPvs) throws Exception {
+        ScheduledExecutorService exec = Executors.newScheduledThreadPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+        RateScheduler scheduler = new RateScheduler(exec);
+        List<ScheduledFuture<?>> tasks = new ArrayList<>();
+        for (int i = 0; i < nPvs; i++) {
+            ActiveRateDecoupler decoupler = createDecoupler(scheduler);
+            tasks.add(exec.scheduleWithFixedDelay(decoupler::scan, 0, maxRate.toNanos(), TimeUnit.NANOSECONDS));
+        }
+        
+        measure("Task per pv", nPvs);
+        
+        for (ScheduledFuture<?> task : tasks) {
+            task.cancel(false);
+        }
+        exec.shutdown();
+        exec.awaitTermination(1, TimeUnit.MINUTES);
+    }
+    
+    public static void benchmarkRateScheduler(int nPvs) throws Exception {
+        ScheduledExecutorService exec = Executors.newScheduledThreadPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+        RateScheduler scheduler = new RateScheduler(exec);
+        List<RateDecoupler> decouplers = new ArrayList<>();
+        for (int i = 0; i < nPvs; i++) {
+            RateDecoupler decoupler = createDecoupler(scheduler);
+            decoupler.start();
+            decouplers.add(decoupler);
+        }
+        
+        measure("Rate scheduler", nPvs);
+        
+        for (RateDecoupler decoupler : decouplers) {
+            decoupler.stop();
+        }
+        exec.shutdown();
+        exec.awaitTermination(1, TimeUnit.MINUTES);
+    }
+}
@@ -0,0 +1,97 @@
+/**
+ * Copyright information and license terms for this software can be
+ * found in the file LICENSE.TXT included with the distribution.
+ */
+package org.epics.gpclient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import static org.hamcrest.Matchers.*;
+import org.epics.util.concurrent.Executors;
+import org.junit.AfterClass;
+
+public class RateSchedulerTest {
+    
+    static ScheduledExecutorService executor = java.util.concurrent.Executors.newScheduledThreadPool(3, Executors.namedPool("test"));
+    
+    @AfterClass
+    public static void closeExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void periodicScans() throws Exception {
+        RateScheduler scheduler = new RateScheduler(executor);
+        List<AtomicInteger> counters = new ArrayList<>();
+        List<Runnable> scans = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            AtomicInteger counter = new AtomicInteger();
+            counters.add(counter);
+            scans.add(counter::incrementAndGet);
+            scheduler.addPeriodic(Duration.ofMillis(100), scans.get(i));
+        }
+        assertThat(scheduler.getScheduledCount(), equalTo(1000));
+        Thread.sleep(550);
+        for (Runnable scan : scans) {
+            scheduler.removePeriodic(Duration.ofMillis(100), scan);
+        }
+        assertThat(scheduler.getScheduledCount(), equalTo(0));
+        Thread.sleep(50);
+        for (AtomicInteger counter : counters) {
+            assertThat(counter.get(), greaterThanOrEqualTo(4));
+            assertThat(counter.get(), lessThanOrEqualTo(6));
+        }
+    }
+
+    @Test
+    public void delayedTasks() throws Exception {
+        RateScheduler scheduler = new RateScheduler(executor);
+        int nTasks = 100;
+        CountDownLatch latch = new CountDownLatch(nTasks);
+        AtomicInteger early = new AtomicInteger();
+        for (int i = 0; i < nTasks; i++) {
+            Duration delay = Duration.ofMillis(i % 60);
+            long deadline = System.nanoTime() + delay.toNanos();
+            scheduler.schedule(Duration.ofMillis(50), () -> {
+                if (System.nanoTime() < deadline) {
+                    early.incrementAndGet();
+                }
+                latch.countDown();
+            }, delay);
+        }
+        assertThat(latch.await(1, TimeUnit.SECONDS), equalTo(true));
+        assertThat(early.get(), equalTo(0));
+        assertThat(scheduler.getScheduledCount(), equalTo(0));
+    }
+
+    @Test
+    public void sharedScheduler() throws Exception {
+        RateScheduler scheduler = new RateScheduler(executor);
+        List<DesiredRateEventLog> logs = new ArrayList<>();
+        List<RateDecoupler> decouplers = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            DesiredRateEventLog log = new DesiredRateEventLog();
+            RateDecoupler decoupler = new ActiveRateDecoupler(scheduler, Duration.ofMillis(100), log, null);
+            log.setDecoupler(decoupler);
+            logs.add(log);
+            decouplers.add(decoupler);
+            decoupler.start();
+        }
+        Thread.sleep(500);
+        for (RateDecoupler decoupler : decouplers) {
+            decoupler.stop();
+        }
+        assertThat(scheduler.getScheduledCount(), equalTo(0));
+        for (DesiredRateEventLog log : logs) {
+            assertThat(log.getEvents().size(), lessThanOrEqualTo(6));
+            assertThat(log.getEvents().size(), greaterThanOrEqualTo(4));
+        }
+    }
+}
@@ -4,7 +4,9 @@
  */
 package org.epics.gpclient.datasource;
 
+import java.util.concurrent.atomic.AtomicInteger;
 import org.epics.gpclient.ProbeCollector;
+import org.epics.gpclient.ReadCollector;
 import org.epics.gpclient.PVEvent;
 import org.epics.gpclient.PVEventRecorder;
 import org.junit.Test;
@@ -175,4 +177,67 @@ public class DataSourceImplementationTest {
         assertThat(recorder.getEvents().get(2), equalTo(PVEvent.writeConnectionEvent()));
         assertThat(recorder.getEvents().get(3), equalTo(PVEvent.writeFailedEvent(ex)));
     }
+    
+    @Test
+    public void sharedValueConversion() {
+        AtomicInteger conversions = new AtomicInteger();
+        SharedValueTypeAdapter<Object, Object> adapter = new SharedValueTypeAdapter<Object, Object>() {
+            @Override
+            public boolean match(ReadCollector<?, ?> cache, Object connection) {
+                return true;
+            }
+
+            @Override
+            public Object getSubscriptionParameter(ReadCollector<?, ?> cache, Object connection) {
+                throw new UnsupportedOperationException("Not supported");
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public void updateCache(ReadCollector cache, Object connection, Object message) {
+                cache.updateValue(createValue(connection, message));
+            }
+
+            @Override
+            public Object createValue(Object connection, Object message) {
+                conversions.incrementAndGet();
+                return "Converted " + message;
+            }
+        };
+        MultiplexedChannelHandler<Object, Object> handler = new MultiplexedChannelHandler<Object, Object>("shared") {
+            @Override
+            protected void connect() {
+                this.processConnection(true);
+            }
+
+            @Override
+            protected void disconnect() {
+            }
+
+            @Override
+            protected DataSourceTypeAdapter<Object, Object> findTypeAdapter(ReadCollector<?, ?> cache, Object connection) {
+                return adapter;
+            }
+        };
+        
+        ProbeCollector<?>[] probes = new ProbeCollector<?>[3];
+        for (int i = 0; i < probes.length; i++) {
+            probes[i] = ProbeCollector.create();
+            handler.addReader(probes[i].getReadCollector());
+        }
+        handler.processMessage("Value");
+        
+        // Converted once, shared by all readers
+        assertThat(conversions.get(), equalTo(1));
+        assertThat(handler.getValueConversionCounter(), equalTo(1L));
+        assertThat(handler.getSharedValueCounter(), equalTo(2L));
+        for (ProbeCollector<?> probe : probes) {
+            assertThat(probe.getValue(), sameInstance(probes[0].getValue()));
+        }
+        
+        // Each message is converted again
+        handler.processMessage("Next value");
+        assertThat(conversions.get(), equalTo(2));
+        assertThat(probes[2].getValue(), equalTo((Object) "Converted Next value"));
+    }
 }
@@ -27,6 +27,19 @@ public class Executors {
         return JAVA_FX_EXECUTOR;
     }
     
+    /**
+     * Executes tasks on the JavaFX Application thread, batching together
+     * all the tasks submitted while the previous batch is waiting
+     * to be run. This posts a single Platform.runLater() per batch instead
+     * of one per task (e.g. one per pv notification), while each pv is still
+     * notified in order.
+     * 
+     * @return an executor that posts batches of events to JavaFX
+     */
+    public static Executor javaFXBatchedAT() {
+        return JAVA_FX_BATCHED_EXECUTOR;
+    }
+    
     private static final Executor JAVA_FX_EXECUTOR = new Executor() {
 
         @Override
@@ -34,4 +47,6 @@ public class Executors {
             Platform.runLater(command);
         }
     };
+    
+    private static final Executor JAVA_FX_BATCHED_EXECUTOR = org.epics.util.concurrent.Executors.batched(JAVA_FX_EXECUTOR);
 }
@@ -0,0 +1,112 @@
+/**
+ * Copyright information and license terms for this software can be
+ * found in the file LICENSE.TXT included with the distribution.
+ */
+package org.epics.gpclient.javafx.tools;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import javafx.animation.AnimationTimer;
+import javafx.event.ActionEvent;
+import javafx.geometry.Insets;
+import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+import org.epics.gpclient.GPClient;
+import org.epics.gpclient.PVReader;
+import org.epics.gpclient.javafx.Executors;
+import org.epics.vtype.VType;
+
+/**
+ * Opens many pvs notified on the JavaFX thread and measures the frame
+ * time of the UI, with a task per notification or with batched notifications.
+ */
+public final class NotificationProbe extends VBox {
+    
+    private final TextField channelField = new TextField("sim://noise");
+    private final TextField countField = new TextField("5000");
+    private final CheckBox batchedBox = new CheckBox("Batched notifications");
+    private final Button startButton = new Button("Start");
+    private final Label resultLabel = new Label();
+    
+    private final List<PVReader<VType>> pvs = new ArrayList<>();
+    
+    // All the following are accessed on the JavaFX thread only
+    private long notifications;
+    private long frames;
+    private long maxFrameNanos;
+    private long lastFrameNanos;
+    private long lastReportNanos;
+
+    private final AnimationTimer frameTimer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            if (lastFrameNanos != 0) {
+                maxFrameNanos = Math.max(maxFrameNanos, now - lastFrameNanos);
+                frames++;
+            } else {
+                lastReportNanos = now;
+            }
+            lastFrameNanos = now;
+            if (now - lastReportNanos >= 1_000_000_000L) {
+                double seconds = (now - lastReportNanos) / 1_000_000_000.0;
+                resultLabel.setText(String.format("%.1f frames/s - avg frame %.1f ms - max frame %.1f ms - %.0f notifications/s",
+                        frames / seconds, seconds * 1000.0 / Math.max(1, frames), maxFrameNanos / 1_000_000.0, notifications / seconds));
+                frames = 0;
+                notifications = 0;
+                maxFrameNanos = 0;
+                lastReportNanos = now;
+            }
+        }
+    };
+
+    public NotificationProbe() {
+        setSpacing(5);
+        setPadding(new Insets(5));
+        HBox channelBox = new HBox(5, new Label("Channel:"), channelField, new Label("Number of pvs:"), countField);
+        getChildren().addAll(channelBox, batchedBox, startButton, resultLabel);
+        startButton.addEventHandler(ActionEvent.ACTION, (e) -> {
+            if (pvs.isEmpty()) {
+                start();
+            } else {
+                stop();
+            }
+        });
+    }
+    
+    private void start() {
+        Executor executor = batchedBox.isSelected() ? Executors.javaFXBatchedAT() : Executors.javaFXAT();
+        int nPvs = Integer.parseInt(countField.getText());
+        for (int i = 0; i < nPvs; i++) {
+            pvs.add(GPClient.read(channelField.getText())
+                    .addListener((event) -> notifications++)
+                    .notifyOn(executor)
+                    .maxRate(Duration.ofMillis(20))
+                    .start());
+        }
+        lastFrameNanos = 0;
+        frameTimer.start();
+        startButton.setText("Stop");
+        batchedBox.setDisable(true);
+    }
+    
+    private void stop() {
+        for (PVReader<VType> pv : pvs) {
+            pv.close();
+        }
+        pvs.clear();
+        frameTimer.stop();
+        startButton.setText("Start");
+        batchedBox.setDisable(false);
+    }
+
+    public static void main(String[] args) {
+        JavaFXLaunchUtil.launch("Notification Probe", NotificationProbe.class, args);
+    }
+
+}
@@ -38,7 +38,8 @@ public final class Toolbox extends VBox {
     }
     
     private static final List<Tool> tools = Arrays.asList(
-            new Tool("Probe", Probe.class));
+            new Tool("Probe", Probe.class),
+            new Tool("Notification Probe", NotificationProbe.class));
     
     private static class ToolButton extends Button {
         private final Tool tool;
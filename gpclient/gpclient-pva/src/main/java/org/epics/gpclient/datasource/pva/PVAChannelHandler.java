@@ -7,7 +7,10 @@ package org.epics.gpclient.datasource.pva;
 import java.lang.reflect.Array;
 import java.util.HashMap;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
@@ -47,6 +50,7 @@ import org.epics.gpclient.datasource.MultiplexedChannelHandler;
 import org.epics.util.array.CollectionNumbers;
 import org.epics.util.array.ListNumber;
 import org.epics.util.array.UnsafeUnwrapper;
+import org.epics.util.concurrent.ProcessingQueue;
 import org.epics.vtype.VNumberArray;
 
 /**
@@ -88,20 +92,29 @@ class PVAChannelHandler extends
 	private final PVStructure pvRequest;
 	private final String extractPVField;
 	
+	// monitor element handoff: monitors with elements to be processed off the network thread, null if not enabled
+	private final ProcessingQueue<Monitor> handoffQueue;
+	
 	public static PVAChannelHandler create(String channelName,
 			ChannelProvider channelProvider, short priority,
 			PVATypeSupport typeSupport) {
+		return create(channelName, channelProvider, priority, typeSupport, null);
+	}
+	
+	public static PVAChannelHandler create(String channelName,
+			ChannelProvider channelProvider, short priority,
+			PVATypeSupport typeSupport, Executor handoffExecutor) {
 		
 		int pos = channelName.indexOf(PVREQUEST_PREFIX); 
 		if (pos == -1)
 		{
-			return new PVAChannelHandler(channelName, null, channelProvider, priority, typeSupport);
+			return new PVAChannelHandler(channelName, null, channelProvider, priority, typeSupport, handoffExecutor);
 		}
 		else
 		{
 			String pvRequestString = channelName.substring(pos+PVREQUEST_PREFIX.length());
 			channelName = channelName.substring(0, pos);
-			return new PVAChannelHandler(channelName, pvRequestString, channelProvider, priority, typeSupport);
+			return new PVAChannelHandler(channelName, pvRequestString, channelProvider, priority, typeSupport, handoffExecutor);
 		}
 		
 	}
@@ -109,6 +122,23 @@ class PVAChannelHandler extends
 	public PVAChannelHandler(String channelName, String pvRequestString,
 			ChannelProvider channelProvider, short priority,
 			PVATypeSupport typeSupport) {
+		this(channelName, pvRequestString, channelProvider, priority, typeSupport, null);
+	}
+
+	/**
+	 * Creates a new channel handler.
+	 * 
+	 * @param channelName the name of the channel
+	 * @param pvRequestString the pvRequest, <code>null</code> for all the fields
+	 * @param channelProvider the provider
+	 * @param priority the channel priority
+	 * @param typeSupport the type support
+	 * @param handoffExecutor single threaded executor on which monitor elements are processed,
+	 * <code>null</code> to process them on the network thread
+	 */
+	public PVAChannelHandler(String channelName, String pvRequestString,
+			ChannelProvider channelProvider, short priority,
+			PVATypeSupport typeSupport, Executor handoffExecutor) {
 		super(channelName);
 		this.pvRequest = (pvRequestString != null) ? createRequest.createRequest(pvRequestString) : null;
 		this.pvaChannelProvider = channelProvider;
@@ -123,9 +153,11 @@ class PVAChannelHandler extends
 		else
 			extractPVField = null;
 		
+		handoffQueue = (handoffExecutor != null) ? new ProcessingQueue<>(handoffExecutor, this::processHandoff) : null;
+		
 		// NOTE: mind "return" above
 	}
-
+	
 	private static final String _OPTIONS = "_options";
 	private static final String TAKE_PARENT = _OPTIONS;
 	private static final String getOnlyChildFieldName(PVStructure field)
@@ -320,6 +352,9 @@ class PVAChannelHandler extends
                 //properties.put("Write access", channel.getWriteAccess());
             }
             properties.put("Monitor loss count", monitorLossCounter.get());
+            properties.put("Monitor element handoff", handoffQueue != null);
+            properties.put("Value conversion count", getValueConversionCounter());
+            properties.put("Value conversions avoided", getSharedValueCounter());
         }
         return properties;
     }
@@ -640,6 +675,17 @@ class PVAChannelHandler extends
 	 */
 	@Override
 	public void monitorEvent(Monitor monitor) {
+		if (handoffQueue != null)
+		{
+			// elements are polled, copied, released and processed off the network thread
+			try {
+				handoffQueue.submit(monitor);
+			} catch (RejectedExecutionException ex) {
+				// data source closed
+			}
+			return;
+		}
+		
 		MonitorElement monitorElement;
 		while ((monitorElement = monitor.poll()) != null)
 		{
@@ -651,6 +697,48 @@ class PVAChannelHandler extends
 			monitor.release(monitorElement);
 		}
 	}
+	
+	/**
+	 * Processes the elements of the handed off monitors, in order. Each element is copied and released
+	 * before the next one is polled (the monitor does not return another element before the release),
+	 * the copy is kept as the last message (processed again on reconnect, referenced by the values).
+	 * Elements are therefore not retained: handoff moves the conversion off the network thread
+	 * at the cost of a copy of each element, and works with the monitor queue size as requested.
+	 * 
+	 * @param monitors the monitors that reported new elements
+	 */
+	private void processHandoff(List<Monitor> monitors) {
+		Monitor lastMonitor = null;
+		for (Monitor monitor : monitors) {
+			// monitor events are batched, poll each monitor once
+			if (monitor == lastMonitor)
+				continue;
+			lastMonitor = monitor;
+			
+			MonitorElement monitorElement;
+			while ((monitorElement = monitor.poll()) != null)
+			{
+				if (monitorElement.getOverrunBitSet().cardinality() > 0)
+					monitorLossCounter.incrementAndGet();
+				
+				PVStructure message;
+				try {
+					message = PVDataFactory.getPVDataCreate().createPVStructure(monitorElement.getPVStructure());
+				} catch (RuntimeException ex) {
+					logger.log(Level.WARNING, "Failed to copy monitor element of channel " + getChannelName(), ex);
+					continue;
+				} finally {
+					monitor.release(monitorElement);
+				}
+				
+				try {
+					processMessage(message);
+				} catch (RuntimeException ex) {
+					logger.log(Level.WARNING, "Failed to process monitor element of channel " + getChannelName(), ex);
+				}
+			}
+		}
+	}
 
 	/* (non-Javadoc)
 	 * @see org.epics.pvdata.monitor.MonitorRequester#unlisten(org.epics.pvdata.monitor.Monitor)
@@ -4,6 +4,8 @@
  */
 package org.epics.gpclient.datasource.pva;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.epics.gpclient.datasource.ChannelHandler;
@@ -13,6 +15,8 @@ import org.epics.pvaccess.client.ChannelProvider;
 import org.epics.pvaccess.client.ChannelProviderRegistry;
 import org.epics.pvaccess.client.ChannelProviderRegistryFactory;
 
+import static org.epics.util.concurrent.Executors.namedPool;
+
 /**
  *
  * @author msekoranja
@@ -22,6 +26,8 @@ public class PVADataSource extends DataSource {
     private static final Logger log = Logger.getLogger(PVADataSource.class.getName());
     private final short defaultPriority;
     private final ChannelProvider pvaChannelProvider;
+    // processes monitor elements off the network thread, null if handoff is not enabled
+    private final ExecutorService handoffExecutor;
 
     private final PVATypeSupport pvaTypeSupport = new PVATypeSupport(new PVAVTypeAdapterSet());
 
@@ -31,6 +37,7 @@ public class PVADataSource extends DataSource {
 
     public PVADataSource(short defaultPriority) {
         this.defaultPriority = defaultPriority;
+        this.handoffExecutor = null;
 
         try {
             // This takes more than a second: should be moved to a background thread
@@ -47,8 +54,27 @@ public class PVADataSource extends DataSource {
     }
 
     public PVADataSource(ChannelProvider channelProvider, short defaultPriority) {
+        this(channelProvider, defaultPriority, false);
+    }
+
+    /**
+     * Creates a new data source.
+     * <p>
+     * In monitor element handoff mode the monitor elements received by the network thread
+     * are not converted there: a data source thread polls them, copies them, releases them
+     * to the monitor and converts the copies. This moves the conversion off the network thread
+     * at the cost of a copy of every element; the monitor queue size is not changed.
+     * 
+     * @param channelProvider the channel provider
+     * @param defaultPriority the default channel priority
+     * @param monitorElementHandoff true to enable monitor element handoff mode
+     */
+    public PVADataSource(ChannelProvider channelProvider, short defaultPriority, boolean monitorElementHandoff) {
         this.pvaChannelProvider = channelProvider;
         this.defaultPriority = defaultPriority;
+        this.handoffExecutor = monitorElementHandoff ?
+                Executors.newSingleThreadExecutor(namedPool("PVMgr " + getClass().getSimpleName() + " Handoff ")) :
+                null;
     }
 
     public short getDefaultPriority() {
@@ -57,14 +83,18 @@ public class PVADataSource extends DataSource {
 
     @Override
     public void close() {
+        // channels are closed first, monitor events still received after shutdown are ignored
         if (this.pvaChannelProvider != null) {
             pvaChannelProvider.destroy();
         }
+        if (handoffExecutor != null) {
+            handoffExecutor.shutdown();
+        }
     }
 
     @Override
     protected ChannelHandler createChannel(String channelName) {
-        return PVAChannelHandler.create(channelName, pvaChannelProvider, defaultPriority, pvaTypeSupport);
+        return PVAChannelHandler.create(channelName, pvaChannelProvider, defaultPriority, pvaTypeSupport, handoffExecutor);
     }
 
 }
@@ -6,7 +6,7 @@ package org.epics.gpclient.datasource.pva;
 
 import java.util.Arrays;
 import org.epics.gpclient.ReadCollector;
-import org.epics.gpclient.datasource.DataSourceTypeAdapter;
+import org.epics.gpclient.datasource.SharedValueTypeAdapter;
 
 import org.epics.pvdata.pv.Field;
 import org.epics.pvdata.pv.PVField;
@@ -17,10 +17,12 @@ import org.epics.pvdata.pv.Type;
 /**
  * Type adapter for PVA data source. Will match a channel based on the value
  * type provided and the array flag. Will match the cache based on the type class.
+ * The created values are immutable, so each message is converted once
+ * and shared by all the caches of the channel.
  *
  * @author msekoranja
  */
-abstract class PVATypeAdapter implements DataSourceTypeAdapter<PVAConnectionPayload, PVStructure> {
+abstract class PVATypeAdapter implements SharedValueTypeAdapter<PVAConnectionPayload, PVStructure> {
 
 	// e.g. VDouble.class
     private final Class<?> typeClass;
@@ -173,6 +175,11 @@ abstract class PVATypeAdapter implements DataSourceTypeAdapter<PVAConnectionPayl
     @Override
     @SuppressWarnings("unchecked")
     public void updateCache(@SuppressWarnings("rawtypes") ReadCollector cache, PVAConnectionPayload connection, PVStructure message) {
+        cache.updateValue(createValue(connection, message));
+    }
+
+    @Override
+    public Object createValue(PVAConnectionPayload connection, PVStructure message) {
 
     	PVField valueField = null;
     	String extractFieldName = connection.extractFieldName;
@@ -188,8 +195,7 @@ abstract class PVATypeAdapter implements DataSourceTypeAdapter<PVAConnectionPayl
   
     	}
     	
-        Object value = createValue(message, valueField, !connection.connected);
-        cache.updateValue(value);
+        return createValue(message, valueField, !connection.connected);
     }
 
     /**
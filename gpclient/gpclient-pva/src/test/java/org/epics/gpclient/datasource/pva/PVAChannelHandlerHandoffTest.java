@@ -0,0 +1,203 @@
+/**
+ * Copyright information and license terms for this software can be
+ * found in the file LICENSE.TXT included with the distribution.
+ */
+package org.epics.gpclient.datasource.pva;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.epics.gpclient.ProbeCollector;
+import org.epics.gpclient.datasource.ReadSubscription;
+import org.epics.pvaccess.client.Channel;
+import org.epics.pvaccess.client.ChannelProvider;
+import org.epics.pvaccess.client.ChannelRequester;
+import org.epics.pvaccess.client.GetFieldRequester;
+import org.epics.pvdata.factory.PVDataFactory;
+import org.epics.pvdata.factory.StandardFieldFactory;
+import org.epics.pvdata.factory.StatusFactory;
+import org.epics.pvdata.monitor.Monitor;
+import org.epics.pvdata.monitor.MonitorElement;
+import org.epics.pvdata.monitor.MonitorQueue;
+import org.epics.pvdata.monitor.MonitorQueueFactory;
+import org.epics.pvdata.monitor.MonitorRequester;
+import org.epics.pvdata.pv.PVDouble;
+import org.epics.pvdata.pv.ScalarType;
+import org.epics.pvdata.pv.Status;
+import org.epics.pvdata.pv.Structure;
+import org.epics.vtype.VDouble;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Monitor element handoff mode of the PVA data source, against a monitor whose
+ * elements must be released in the order they were polled.
+ */
+public class PVAChannelHandlerHandoffTest {
+
+    private static final Status okStatus = StatusFactory.getStatusCreate().getStatusOK();
+    private static final Structure structure = StandardFieldFactory.getStandardField().scalar(ScalarType.pvDouble, "alarm,timeStamp");
+    // default pvAccess monitor queue size, handoff does not enlarge it
+    private static final int QUEUE_SIZE = 2;
+
+    /**
+     * Monitor backed by a MonitorQueue of the default queue size, as the pvAccess client monitor
+     * it does not return an element until the previous one is released.
+     */
+    private static class QueueMonitor implements Monitor {
+
+        private final MonitorQueue queue;
+        private final CountDownLatch started = new CountDownLatch(1);
+        private volatile MonitorRequester requester;
+        private boolean needToReleaseFirst = false;
+
+        QueueMonitor() {
+            MonitorElement[] elements = new MonitorElement[QUEUE_SIZE];
+            for (int i = 0; i < elements.length; i++) {
+                elements[i] = MonitorQueueFactory.createMonitorElement(PVDataFactory.getPVDataCreate().createPVStructure(structure));
+            }
+            queue = MonitorQueueFactory.create(elements);
+        }
+
+        /**
+         * Posts a new value, waits for a free element.
+         */
+        void post(double value) throws InterruptedException {
+            long timeout = System.currentTimeMillis() + 1000;
+            MonitorElement element;
+            while (true) {
+                synchronized (queue) {
+                    element = queue.getFree();
+                    if (element != null) {
+                        element.getPVStructure().getSubField(PVDouble.class, "value").put(value);
+                        element.getChangedBitSet().set(0);
+                        queue.setUsed(element);
+                        break;
+                    }
+                }
+                assertTrue("No free monitor element, elements are not released", System.currentTimeMillis() < timeout);
+                Thread.sleep(10);
+            }
+            requester.monitorEvent(this);
+        }
+
+        int getNumberFree() {
+            synchronized (queue) {
+                return queue.getNumberFree();
+            }
+        }
+
+        @Override
+        public Status start() {
+            started.countDown();
+            return okStatus;
+        }
+
+        @Override
+        public Status stop() {
+            return okStatus;
+        }
+
+        @Override
+        public MonitorElement poll() {
+            synchronized (queue) {
+                if (needToReleaseFirst) {
+                    return null;
+                }
+                MonitorElement element = queue.getUsed();
+                needToReleaseFirst = element != null;
+                return element;
+            }
+        }
+
+        @Override
+        public void release(MonitorElement monitorElement) {
+            synchronized (queue) {
+                queue.releaseUsed(monitorElement);
+                needToReleaseFirst = false;
+            }
+        }
+
+        @Override
+        public void destroy() {
+        }
+    }
+
+    private static ChannelProvider createProvider(QueueMonitor monitor) {
+        return (ChannelProvider) Proxy.newProxyInstance(PVAChannelHandlerHandoffTest.class.getClassLoader(),
+                new Class<?>[] { ChannelProvider.class }, (providerProxy, providerMethod, providerArgs) -> {
+            switch (providerMethod.getName()) {
+                case "getProviderName":
+                    return "test";
+                case "createChannel":
+                    String channelName = (String) providerArgs[0];
+                    ChannelRequester channelRequester = (ChannelRequester) providerArgs[1];
+                    Channel channel = (Channel) Proxy.newProxyInstance(PVAChannelHandlerHandoffTest.class.getClassLoader(),
+                            new Class<?>[] { Channel.class }, (channelProxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "getChannelName":
+                                return channelName;
+                            case "getProvider":
+                                return providerProxy;
+                            case "getConnectionState":
+                                return Channel.ConnectionState.CONNECTED;
+                            case "isConnected":
+                                return true;
+                            case "getField":
+                                ((GetFieldRequester) args[0]).getDone(okStatus, structure);
+                                return null;
+                            case "createMonitor":
+                                monitor.requester = (MonitorRequester) args[0];
+                                monitor.requester.monitorConnect(okStatus, monitor, structure);
+                                return monitor;
+                            default:
+                                return null;
+                        }
+                    });
+                    channelRequester.channelCreated(okStatus, channel);
+                    channelRequester.channelStateChange(channel, Channel.ConnectionState.CONNECTED);
+                    return channel;
+                default:
+                    return null;
+            }
+        });
+    }
+
+    @Test
+    public void handoffUpdates() throws Exception {
+        QueueMonitor monitor = new QueueMonitor();
+        PVADataSource dataSource = new PVADataSource(createProvider(monitor), ChannelProvider.PRIORITY_DEFAULT, true);
+        try {
+            ProbeCollector<VDouble> probe = new ProbeCollector<>(VDouble.class, null);
+            dataSource.startRead(new ReadSubscription("test", probe.getReadCollector()));
+            assertThat(monitor.started.await(1, TimeUnit.SECONDS), equalTo(true));
+
+            // more updates than elements in the queue: elements must be reused
+            for (int i = 1; i <= 3 * QUEUE_SIZE; i++) {
+                monitor.post(i);
+                long timeout = System.currentTimeMillis() + 1000;
+                while (probe.getValue() == null || probe.getValue().getValue() != i) {
+                    assertTrue("Update " + i + " not received", System.currentTimeMillis() < timeout);
+                    Thread.sleep(10);
+                }
+            }
+        } finally {
+            dataSource.close();
+        }
+    }
+
+    @Test
+    public void monitorEventAfterClose() throws Exception {
+        QueueMonitor monitor = new QueueMonitor();
+        PVADataSource dataSource = new PVADataSource(createProvider(monitor), ChannelProvider.PRIORITY_DEFAULT, true);
+        ProbeCollector<VDouble> probe = new ProbeCollector<>(VDouble.class, null);
+        dataSource.startRead(new ReadSubscription("test", probe.getReadCollector()));
+        assertThat(monitor.started.await(1, TimeUnit.SECONDS), equalTo(true));
+        dataSource.close();
+
+        // update still in flight when the data source is closed is ignored
+        monitor.post(1);
+        assertThat(monitor.getNumberFree(), equalTo(QUEUE_SIZE - 1));
+    }
+}
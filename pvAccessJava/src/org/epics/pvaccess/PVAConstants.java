@@ -77,6 +77,11 @@ public interface PVAConstants {
 	 */
 	public static final int MAX_TCP_RECV = 1024 * 16;
 
+	/**
+	 * Default max. payload size of a received message (EPICS_PVA_MAX_ARRAY_BYTES).
+	 */
+	public static final int DEFAULT_MAX_ARRAY_BYTES = 256 * 1024 * 1024;
+
 	/**
 	 * Maximum number of search requests in one search message.
 	 */
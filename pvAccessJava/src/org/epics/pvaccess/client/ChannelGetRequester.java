@@ -13,6 +13,9 @@ import org.epics.pvdata.pv.Structure;
 
 /**
  * Requester for channelGet.
+ * A requester can also implement <code>ArrayChunkListener</code> to receive (huge) numeric arrays in chunks,
+ * as they arrive, instead of in the <code>PVStructure</code> passed to <code>getDone</code>.
+ * Chunks are delivered on the network thread while the request is locked, see <code>ArrayChunkListener</code>.
  * @author mrk
  *
  */
@@ -5,6 +5,8 @@
  */
 package org.epics.pvaccess.client;
 
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Interface implemented by code that can provide access to the record
@@ -66,4 +68,20 @@ public interface ChannelProvider {
      * @return <code>Channel</code> instance. If channel does not exist <code>null</code> is returned and <code>channelRequester</code> notified.
      */
     Channel createChannel(String channelName,ChannelRequester channelRequester,short priority,String address);
+    /**
+     * Create many channels at once.
+     * Default implementation calls <code>createChannel</code> for each channel name,
+     * providers can override this method to register channels (and issue searches) in batches.
+     * @param channelNames The names of the channels.
+     * @param channelRequester The requester, common to all the channels.
+     * @param priority channel priority, must be <code>PRIORITY_MIN</code> &le; priority &le; <code>PRIORITY_MAX</code>.
+     * @return list of <code>Channel</code> instances, in order of <code>channelNames</code>.
+     * If a channel does not exist its element is <code>null</code> and <code>channelRequester</code> notified.
+     */
+    default List<Channel> createChannels(List<String> channelNames,ChannelRequester channelRequester,short priority) {
+        List<Channel> channels = new ArrayList<Channel>(channelNames.size());
+        for (String channelName : channelNames)
+            channels.add(createChannel(channelName, channelRequester, priority));
+        return channels;
+    }
 }
@@ -0,0 +1,65 @@
+/**
+ * Copyright information and license terms for this software can be
+ * found in the file LICENSE.TXT included with the distribution.
+ */
+
+package org.epics.pvaccess.client.impl.remote;
+
+import java.nio.ByteBuffer;
+
+import org.epics.pvaccess.impl.remote.Transport;
+import org.epics.pvdata.pv.ArrayChunkListener;
+import org.epics.pvdata.pv.Field;
+import org.epics.pvdata.pv.StreamingDeserializableControl;
+
+/**
+ * Deserialization control of a request whose requester receives arrays in chunks.
+ * Delegates to the transport, i.e. elements are consumed from the socket buffer as they arrive
+ * (also across segmented messages).
+ */
+final class ArrayStreamingControl implements StreamingDeserializableControl {
+
+	private final Transport transport;
+	private final ArrayChunkListener listener;
+
+	ArrayStreamingControl(Transport transport, ArrayChunkListener listener) {
+		this.transport = transport;
+		this.listener = listener;
+	}
+
+	Transport getTransport() {
+		return transport;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.epics.pvdata.pv.StreamingDeserializableControl#getArrayChunkListener()
+	 */
+	@Override
+	public ArrayChunkListener getArrayChunkListener() {
+		return listener;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.epics.pvdata.pv.DeserializableControl#ensureData(int)
+	 */
+	@Override
+	public void ensureData(int size) {
+		transport.ensureData(size);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.epics.pvdata.pv.DeserializableControl#alignData(int)
+	 */
+	@Override
+	public void alignData(int alignment) {
+		transport.alignData(alignment);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.epics.pvdata.pv.DeserializableControl#cachedDeserialize(java.nio.ByteBuffer)
+	 */
+	@Override
+	public Field cachedDeserialize(ByteBuffer buffer) {
+		return transport.cachedDeserialize(buffer);
+	}
+}
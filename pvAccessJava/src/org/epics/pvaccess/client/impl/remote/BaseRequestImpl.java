@@ -26,6 +26,8 @@ import org.epics.pvaccess.impl.remote.TransportSender;
 import org.epics.pvaccess.impl.remote.request.DataResponse;
 import org.epics.pvaccess.impl.remote.request.SubscriptionRequest;
 import org.epics.pvdata.misc.BitSet;
+import org.epics.pvdata.pv.ArrayChunkListener;
+import org.epics.pvdata.pv.DeserializableControl;
 import org.epics.pvdata.pv.Field;
 import org.epics.pvdata.pv.PVDataCreate;
 import org.epics.pvdata.pv.PVField;
@@ -106,6 +108,11 @@ public abstract class BaseRequestImpl implements DataResponse, SubscriptionReque
 	
 	protected final ReentrantLock lock = new ReentrantLock();
 	
+	/**
+	 * Deserialization control of the data, used if requester receives arrays in chunks.
+	 */
+	private ArrayStreamingControl streamingControl = null;
+	
 	public BaseRequestImpl(ChannelImpl channel, Requester requester,
 				PVStructure pvRequest, boolean allowNullPVRequest)
 	{
@@ -187,6 +194,24 @@ public abstract class BaseRequestImpl implements DataResponse, SubscriptionReque
 		return ioid;
 	}
 
+	/**
+	 * Get control to be used to deserialize data (not introspection) of the responses.
+	 * If requester implements <code>ArrayChunkListener</code> (opt-in), numeric arrays are offered to it
+	 * to be received in chunks, otherwise the transport itself is returned.
+	 * @param transport the transport of the response.
+	 * @return the deserialization control.
+	 */
+	protected DeserializableControl getDataControl(Transport transport) {
+		if (!(requester instanceof ArrayChunkListener))
+			return transport;
+		ArrayStreamingControl control = streamingControl;
+		if (control == null || control.getTransport() != transport) {
+			control = new ArrayStreamingControl(transport, (ArrayChunkListener)requester);
+			streamingControl = control;
+		}
+		return control;
+	}
+
 	abstract void initResponse(Transport transport, byte version, ByteBuffer payloadBuffer, byte qos, Status status);
 	abstract void normalResponse(Transport transport, byte version, ByteBuffer payloadBuffer, byte qos, Status status);
 	
@@ -159,7 +159,7 @@ public class ChannelGetRequestImpl extends BaseRequestImpl implements ChannelGet
 			try {
 				// deserialize bitSet and data
 				bitSet.deserialize(payloadBuffer, transport);
-				data.deserialize(payloadBuffer, transport, bitSet);
+				data.deserialize(payloadBuffer, getDataControl(transport), bitSet);
 			} finally {
 				unlock();
 			}
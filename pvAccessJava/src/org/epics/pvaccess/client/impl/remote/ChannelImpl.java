@@ -156,6 +156,18 @@ public class ChannelImpl implements Channel, SearchInstance, TransportClient, Tr
 
 	protected ChannelImpl(ClientContextImpl context, int channelID, String name,
 			ChannelRequester requester, short priority, InetSocketAddress[] addresses) throws PVAException
+	{
+		this(context, channelID, name, requester, priority, addresses, true);
+	}
+
+	/**
+	 * Create a channel.
+	 * @param connect if <code>false</code> search is not initiated, caller (e.g. batch channel creation)
+	 * 	is responsible for calling <code>prepareBatchSearch()</code> and registering channel to the search manager.
+	 */
+	protected ChannelImpl(ClientContextImpl context, int channelID, String name,
+			ChannelRequester requester, short priority, InetSocketAddress[] addresses,
+			boolean connect) throws PVAException
 	{
 		this.context = context;
 		this.channelID = channelID;
@@ -168,7 +180,8 @@ public class ChannelImpl implements Channel, SearchInstance, TransportClient, Tr
 		context.registerChannel(this);
 		
 		// connect
-		connect();
+		if (connect)
+			connect();
 	}
 
 	/**
@@ -382,6 +395,20 @@ public class ChannelImpl implements Channel, SearchInstance, TransportClient, Tr
 
 	}
 	
+	/**
+	 * Prepare for search done by a batch, i.e. the same as <code>initiateSearch(false)</code>
+	 * but without registering channel to the search manager.
+	 * @return <code>true</code> if channel needs to be registered to the search manager.
+	 */
+	synchronized boolean prepareBatchSearch()
+	{
+		if (connectionState == ConnectionState.DESTROYED || connectionState == ConnectionState.CONNECTED)
+			return false;
+		
+		allowCreation = true;
+		return addresses == null;
+	}
+
 	/**
 	 * Initiate search (connect) procedure.
 	 * @param penalize register with penalty.
@@ -16,6 +16,7 @@ package org.epics.pvaccess.client.impl.remote;
 
 import java.nio.ByteBuffer;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.epics.pvaccess.PVFactory;
 import org.epics.pvaccess.impl.remote.QoS;
@@ -63,6 +64,7 @@ public class ChannelMonitorImpl extends BaseRequestImpl implements Monitor {
 	protected final int queueSize;
 	protected final boolean pipeline;
 	protected final int ackAny;
+	protected final boolean lockFree;
 
 	private interface MonitorStrategy extends Monitor {
 		void init(Structure structure);
@@ -93,6 +95,7 @@ public class ChannelMonitorImpl extends BaseRequestImpl implements Monitor {
 		int qs = 2;
 		boolean pl = false;
 		int aa = 1;
+		boolean lf = false;
 		
 		PVField pvField = pvRequest.getSubField("record._options");
 		if (pvField!=null) {
@@ -107,7 +110,7 @@ public class ChannelMonitorImpl extends BaseRequestImpl implements Monitor {
 	                callback.monitorConnect(
 	                        PVFactory.getStatusCreate().createStatus(StatusType.ERROR, "queueSize is not a valid integer", e),
 	                        this, null);
-	                monitorStrategy = null; queueSize = 2; pipeline = false; ackAny = 1;
+	                monitorStrategy = null; queueSize = 2; pipeline = false; ackAny = 1; lockFree = false;
 	                destroy(true);
 	                return;
 	            }
@@ -140,7 +143,7 @@ public class ChannelMonitorImpl extends BaseRequestImpl implements Monitor {
         	                callback.monitorConnect(
         	                        PVFactory.getStatusCreate().createStatus(StatusType.ERROR, "ackAny is not a valid integer", e),
         	                        this, null);
-        	                monitorStrategy = null; queueSize = 2; pipeline = false; ackAny = 1;
+        	                monitorStrategy = null; queueSize = 2; pipeline = false; ackAny = 1; lockFree = false;
         	                destroy(true);
         	                return;
         	            }
@@ -148,13 +151,24 @@ public class ChannelMonitorImpl extends BaseRequestImpl implements Monitor {
                 	
                 }
 		    }
+
+		    // lock-free queue, (receive) thread delivering updates and the thread polling do not synchronize on queue operations
+		    pvString = pvOptions.getStringField("lockFree");
+		    if (pvString!=null) {
+		        lf = Boolean.parseBoolean(pvString.get());
+		    }
 		}
 		
         queueSize = qs;
         pipeline = pl;
         ackAny = aa;
+        // pipeline is not supported by the lock-free strategy
+        lockFree = lf && !pl;
         
-        monitorStrategy = new MonitorStrategyQueue(queueSize, pipeline, ackAny);
+        if (lockFree)
+        	monitorStrategy = new MonitorStrategySPSCQueue(queueSize);
+        else
+        	monitorStrategy = new MonitorStrategyQueue(queueSize, pipeline, ackAny);
 	}
 
 
@@ -198,7 +212,9 @@ public class ChannelMonitorImpl extends BaseRequestImpl implements Monitor {
 	    private Structure lastStructure = null;
 	    private MonitorQueue monitorQueue = null;
 	    
-	    private final Object monitorSync = new Object();
+	    // a lock, not a monitor: the receive thread holds it while deserializing, i.e. while reading
+	    // the socket if arrays are received in chunks, that must not pin the carrier of a virtual thread
+	    private final ReentrantLock monitorSync = new ReentrantLock();
 	    
 	    private boolean needToReleaseFirst = false;
 	    
@@ -226,8 +242,8 @@ public class ChannelMonitorImpl extends BaseRequestImpl implements Monitor {
 		@Override
 		public void init(Structure structure)
 		{
-			synchronized (monitorSync)
-			{
+			monitorSync.lock();
+			try {
 				releasedCount = 0;
 				reportQueueStateInProgress = false;
 				unlisten = false;
@@ -242,7 +258,14 @@ public class ChannelMonitorImpl extends BaseRequestImpl implements Monitor {
 		            }
 		            monitorQueue = MonitorQueueFactory.create(monitorElements);
 		            lastStructure = structure;
+
+		            // overrun merging bit sets, never reallocated
+		            final int numberFields = monitorElements[0].getPVStructure().getNumberFields();
+		            bitSet1 = new BitSet(numberFields, true);
+		            bitSet2 = new BitSet(numberFields, true);
 				}
+			} finally {
+				monitorSync.unlock();
 			}
 		}
 		
@@ -251,12 +274,14 @@ public class ChannelMonitorImpl extends BaseRequestImpl implements Monitor {
 		{
 			boolean notify = false;
 			
-			synchronized (monitorSync)
-			{
+			monitorSync.lock();
+			try {
 				// awkward way of checking "is empty", -1 since one free monitorElement is take in advance
 				//notify = monitorQueue.empty();
 				notify = (monitorQueue.getNumberFree() == (monitorQueue.capacity()-1));
 				unlisten = !notify;
+			} finally {
+				monitorSync.unlock();
 			}
 			
 			if (notify)
@@ -268,8 +293,8 @@ public class ChannelMonitorImpl extends BaseRequestImpl implements Monitor {
 		{
 			boolean notify = false;
 			
-			synchronized (monitorSync)
-			{
+			monitorSync.lock();
+			try {
 	            // if in overrun mode, check if some is free
 	            if (overrunInProgress)
 	            {
@@ -290,13 +315,15 @@ public class ChannelMonitorImpl extends BaseRequestImpl implements Monitor {
 	            		overrunInProgress = false;
 	            	}
 	            }
+			} finally {
+				monitorSync.unlock();
 			}
 			
 			if (notify)
 				callback.monitorEvent(this);
 
-	        synchronized (monitorSync)
-			{
+	        monitorSync.lock();
+	        try {
 
 	            // setup current fields
 				final PVStructure pvStructure = monitorElement.getPVStructure();
@@ -306,21 +333,14 @@ public class ChannelMonitorImpl extends BaseRequestImpl implements Monitor {
 	            // special treatment if in overrun state
 	            if (overrunInProgress)
 	            {
-	            	// lazy init
-	            	if (bitSet1 == null) bitSet1 = new BitSet(changedBitSet.size());
-	            	if (bitSet2 == null) bitSet2 = new BitSet(overrunBitSet.size());
-	            	
 	            	bitSet1.deserialize(payloadBuffer, transport);
-					pvStructure.deserialize(payloadBuffer, transport, bitSet1);
+					pvStructure.deserialize(payloadBuffer, getDataControl(transport), bitSet1);
 					bitSet2.deserialize(payloadBuffer, transport);
 
-					// OR local overrun
+					// OR remote change and local overrun (in place)
 					// TODO this does not work perfectly if bitSet is compressed !!!
 					// uncompressed bitSets should be used !!!
-					overrunBitSet.or_and(changedBitSet, bitSet1);
-
-					// OR remote change
-					changedBitSet.or(bitSet1);
+					changedBitSet.orWithOverrun(bitSet1, overrunBitSet);
 
 					// OR remote overrun
 					overrunBitSet.or(bitSet2);
@@ -329,7 +349,7 @@ public class ChannelMonitorImpl extends BaseRequestImpl implements Monitor {
 	            {
 	            	// deserialize changedBitSet and data, and overrun bit set
 		            changedBitSet.deserialize(payloadBuffer, transport);
-					pvStructure.deserialize(payloadBuffer, transport, changedBitSet);
+					pvStructure.deserialize(payloadBuffer, getDataControl(transport), changedBitSet);
 					overrunBitSet.deserialize(payloadBuffer, transport);
 	            }
 	            
@@ -353,7 +373,9 @@ public class ChannelMonitorImpl extends BaseRequestImpl implements Monitor {
 	            monitorQueue.setUsed(monitorElement);
 
 	            monitorElement = newElement;
-			}
+	        } finally {
+	        	monitorSync.unlock();
+	        }
 	        
         	callback.monitorEvent(this);
 		}
@@ -363,7 +385,8 @@ public class ChannelMonitorImpl extends BaseRequestImpl implements Monitor {
 		{
 			boolean notifyUnlisten = false;
 			
-            synchronized(monitorSync) {
+            monitorSync.lock();
+            try {
             	if (needToReleaseFirst)
             		return null;
             	final MonitorElement retVal = monitorQueue.getUsed();
@@ -407,6 +430,8 @@ public class ChannelMonitorImpl extends BaseRequestImpl implements Monitor {
 	            	else
 	            		return null;
 	            }
+            } finally {
+            	monitorSync.unlock();
             }
             
 
@@ -424,7 +449,8 @@ public class ChannelMonitorImpl extends BaseRequestImpl implements Monitor {
 			if (monitorElement.getPVStructure().getStructure() != lastStructure)
 				return;
 			
-	        synchronized(monitorSync) {
+	        monitorSync.lock();
+	        try {
 	            monitorQueue.releaseUsed(monitorElement);
 	            needToReleaseFirst = false;
 	        
@@ -452,6 +478,8 @@ public class ChannelMonitorImpl extends BaseRequestImpl implements Monitor {
 		        	}
 		        }
 		        
+	        } finally {
+	        	monitorSync.unlock();
 	        }
 		}
 
@@ -472,10 +500,13 @@ public class ChannelMonitorImpl extends BaseRequestImpl implements Monitor {
 			buffer.putInt(ioid);
 			buffer.put((byte)QoS.GET_PUT.getMaskValue());
 			
-			synchronized (monitorSync) {
+			monitorSync.lock();
+			try {
 				buffer.putInt(releasedCount);
 				releasedCount = 0;
 				reportQueueStateInProgress = false;
+			} finally {
+				monitorSync.unlock();
 			}
 			
 			control.flush(true);
@@ -484,12 +515,323 @@ public class ChannelMonitorImpl extends BaseRequestImpl implements Monitor {
 		@Override
 		public Status start()
 		{
-			synchronized (monitorSync) {
+			monitorSync.lock();
+			try {
 				overrunInProgress = false;
 	            monitorQueue.clear();
 	            monitorElement = monitorQueue.getFree();
 	            needToReleaseFirst = false;
+			} finally {
+				monitorSync.unlock();
+			}
+			return okStatus;
+		}
+
+		@Override
+		public Status stop() {
+			return okStatus;
+		}
+
+		@Override
+		public void destroy() {
+			// noop
+		}
+		
+	}
+
+    /**
+     * Monitor strategy with a lock-free single-producer/single-consumer queue.
+     * Receive thread is the producer (<code>response</code>), thread calling <code>poll</code> and
+     * <code>release</code> is the consumer; queue operations do not lock.
+     * Producer state (the element being filled) is guarded by <code>producerLock</code>, held by the
+     * receive thread while it processes an update. The lock is contended only in overrun: the consumer takes it
+     * in <code>poll</code> to deliver the merged element when the queue gets drained, which copies the whole
+     * structure, and the receive thread blocks until the copy is done (it never waits for the client otherwise).
+     */
+    private final class MonitorStrategySPSCQueue implements MonitorStrategy {
+		private final int queueSize;
+
+		// producer state, guarded by producerLock
+		private final ReentrantLock producerLock = new ReentrantLock();
+		private MonitorElement monitorElement = null;
+		private BitSet bitSet1 = null;
+		private BitSet bitSet2 = null;
+	    private volatile boolean overrunInProgress = false;
+
+	    private volatile Structure lastStructure = null;
+	    private volatile MonitorQueue monitorQueue = null;
+	    
+	    // consumer state
+	    private boolean needToReleaseFirst = false;
+	    
+	    private final AtomicBoolean unlisten = new AtomicBoolean(false);
+	    
+		public MonitorStrategySPSCQueue(int queueSize)
+		{
+			if (queueSize <= 1)
+				throw new IllegalArgumentException("queueSize <= 1");
+			
+			this.queueSize = queueSize;
+		}
+		
+		private void acquireProducer()
+		{
+			producerLock.lock();
+		}
+		
+		private void releaseProducer()
+		{
+			producerLock.unlock();
+		}
+		
+		@Override
+		public void init(Structure structure)
+		{
+			acquireProducer();
+			try
+			{
+				unlisten.set(false);
+				
+				// reuse on reconnect
+				if (lastStructure == null || !lastStructure.equals(structure))
+				{
+		    		MonitorElement[] monitorElements = new MonitorElement[queueSize];
+		            for(int i=0; i<queueSize; i++) {
+		                PVStructure pvNew = pvDataCreate.createPVStructure(structure);
+		                monitorElements[i] = MonitorQueueFactory.createMonitorElement(pvNew);
+		            }
+		            monitorQueue = MonitorQueueFactory.createLockFree(monitorElements);
+		            lastStructure = structure;
+
+		            // overrun merging bit sets, never reallocated
+		            final int numberFields = monitorElements[0].getPVStructure().getNumberFields();
+		            bitSet1 = new BitSet(numberFields, true);
+		            bitSet2 = new BitSet(numberFields, true);
+				}
+			}
+			finally
+			{
+				releaseProducer();
+			}
+		}
+		
+		@Override
+		public void unlisten()
+		{
+			unlisten.set(true);
+			
+			// nothing queued, notify now; otherwise poll will notify when queue gets drained
+			// (volatile write above and read of consumer sequence in getNumberFree() pair with consumer's release and poll)
+			boolean empty;
+			acquireProducer();
+			try
+			{
+				empty = !overrunInProgress &&
+						monitorQueue.getNumberFree() == (monitorQueue.capacity()-1);
+			}
+			finally
+			{
+				releaseProducer();
+			}
+			
+			if (empty && unlisten.getAndSet(false))
+				callback.unlisten(this);
+		}
+		
+		/**
+		 * Put the (merged) overrun element in use, if there is a free element.
+		 * Producer lock must be held.
+		 * @return <code>true</code> if element was put in use.
+		 */
+		private boolean completeOverrun()
+		{
+			if (!overrunInProgress)
+				return false;
+			
+        	MonitorElement newElement = monitorQueue.getFree();
+        	if (newElement == null)
+        		return false;
+        	
+    		// take new, put current in use
+			final PVStructure pvStructure = monitorElement.getPVStructure();
+            convert.copy(pvStructure, newElement.getPVStructure());
+
+            bitSetUtil.compress(monitorElement.getChangedBitSet(), pvStructure);
+            bitSetUtil.compress(monitorElement.getOverrunBitSet(), pvStructure);
+    		monitorQueue.setUsed(monitorElement);
+
+    		monitorElement = newElement;
+    		overrunInProgress = false;
+    		return true;
+		}
+		
+		@Override
+		public void response(Transport transport, ByteBuffer payloadBuffer)
+		{
+			boolean notify;
+			
+			acquireProducer();
+			try
+			{
+	            // if in overrun mode, check if some is free
+				notify = completeOverrun();
+			}
+			finally
+			{
+				releaseProducer();
+			}
+			
+			if (notify)
+				callback.monitorEvent(this);
+
+			notify = false;
+			acquireProducer();
+			try
+			{
+	            // setup current fields
+				final PVStructure pvStructure = monitorElement.getPVStructure();
+	            final BitSet changedBitSet = monitorElement.getChangedBitSet();
+	            final BitSet overrunBitSet = monitorElement.getOverrunBitSet();
+
+	            // special treatment if in overrun state
+	            if (overrunInProgress)
+	            {
+	            	bitSet1.deserialize(payloadBuffer, transport);
+					pvStructure.deserialize(payloadBuffer, getDataControl(transport), bitSet1);
+					bitSet2.deserialize(payloadBuffer, transport);
+
+					// OR remote change and local overrun (in place)
+					changedBitSet.orWithOverrun(bitSet1, overrunBitSet);
+
+					// OR remote overrun
+					overrunBitSet.or(bitSet2);
+	            }
+	            else
+	            {
+	            	// deserialize changedBitSet and data, and overrun bit set
+		            changedBitSet.deserialize(payloadBuffer, transport);
+					pvStructure.deserialize(payloadBuffer, getDataControl(transport), changedBitSet);
+					overrunBitSet.deserialize(payloadBuffer, transport);
+	            }
+	            
+				// prepare next free (if any)
+				MonitorElement newElement = monitorQueue.getFree();
+	            if (newElement == null) {
+	                overrunInProgress = true;
+	            }
+	            else
+	            {
+		            // if there was overrun in progress we manipulated bitSets... compress them
+		            if (overrunInProgress) {
+			            bitSetUtil.compress(changedBitSet, pvStructure);
+			            bitSetUtil.compress(overrunBitSet, pvStructure);
+	
+			            overrunInProgress = false;
+		            }
+		            
+		            convert.copy(pvStructure, newElement.getPVStructure());
+	     
+		            monitorQueue.setUsed(monitorElement);
+	
+		            monitorElement = newElement;
+		            notify = true;
+	            }
+			}
+			finally
+			{
+				releaseProducer();
+			}
+	        
+			// consumer might have drained the queue in the meantime, while producer lock was held
+			if (!notify && overrunInProgress && monitorQueue.getNumberFree() > 0 &&
+				producerLock.tryLock())
+			{
+				try
+				{
+					notify = completeOverrun();
+				}
+				finally
+				{
+					releaseProducer();
+				}
+			}
+			
+			if (notify)
+				callback.monitorEvent(this);
+		}
+
+		@Override
+		public MonitorElement poll()
+		{
+        	if (needToReleaseFirst)
+        		return null;
+        	
+        	final MonitorQueue monitorQueue = this.monitorQueue;
+        	MonitorElement retVal = monitorQueue.getUsed();
+        	if (retVal != null)
+        	{
+        		needToReleaseFirst = true;
+        		return retVal;
+        	}
+        	
+            // if in overrun mode and we have free, make it as last element
+            if (overrunInProgress)
+            {
+            	// producer busy, it will complete overrun itself
+            	if (!producerLock.tryLock())
+            		return null;
+            	
+            	boolean completed;
+            	try
+            	{
+            		completed = completeOverrun();
+            	}
+            	finally
+            	{
+            		releaseProducer();
+            	}
+            	
+            	if (!completed)
+            		return null;		// should never happen since queueSize >= 2, but a client not calling release can do this
+            	
+        		retVal = monitorQueue.getUsed();
+        		needToReleaseFirst = (retVal != null);
+        		return retVal;
+            }
+            
+        	if (unlisten.getAndSet(false))
+        		callback.unlisten(this);
+            return null;
+		}
+
+		@Override
+		public void release(MonitorElement monitorElement)
+		{
+	        // fast sanity check check if monitorElement->pvStructurePtr->getStructure() matches
+	        // not to accept wrong structure (might happen on monitor reconnect with different type)
+	        // silent return
+			if (monitorElement.getPVStructure().getStructure() != lastStructure)
+				return;
+			
+            monitorQueue.releaseUsed(monitorElement);
+            needToReleaseFirst = false;
+		}
+
+		@Override
+		public Status start()
+		{
+			acquireProducer();
+			try
+			{
+				overrunInProgress = false;
+	            monitorQueue.clear();
+	            monitorElement = monitorQueue.getFree();
+			}
+			finally
+			{
+				releaseProducer();
 			}
+            needToReleaseFirst = false;
 			return okStatus;
 		}
 
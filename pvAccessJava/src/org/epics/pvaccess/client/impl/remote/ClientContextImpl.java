@@ -26,6 +26,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.StringTokenizer;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -65,7 +66,9 @@ import org.epics.pvaccess.impl.remote.udp.BlockingUDPTransport;
 import org.epics.pvaccess.impl.remote.utils.GUID;
 import org.epics.pvaccess.plugins.SecurityPlugin;
 import org.epics.pvaccess.plugins.impl.client.CAClientSecurityPlugin;
+import org.epics.pvaccess.util.ByteBufferPool;
 import org.epics.pvaccess.util.InetAddressUtil;
+import org.epics.pvaccess.util.ThreadUtil;
 import org.epics.pvaccess.util.configuration.Configuration;
 import org.epics.pvaccess.util.configuration.ConfigurationProvider;
 import org.epics.pvaccess.util.configuration.impl.ConfigurationFactory;
@@ -171,9 +174,15 @@ public class ClientContextImpl implements Context {
 	protected int broadcastPort = PVAConstants.PVA_BROADCAST_PORT;
 
 	/**
-	 * Receive buffer size (max size of payload).
+	 * Receive buffer size (max size of payload), larger messages close the connection.
+	 * Messages are received in pieces of transport buffer size, this does not size any buffer.
 	 */
-	protected int receiveBufferSize = PVAConstants.MAX_TCP_RECV;
+	protected int receiveBufferSize = PVAConstants.DEFAULT_MAX_ARRAY_BYTES;
+
+	/**
+	 * Use virtual threads (if supported by the JVM) for TCP transport receive and send threads.
+	 */
+	protected boolean virtualThreads = false;
 
 	/**
 	 * Timer.
@@ -336,6 +345,7 @@ public class ClientContextImpl implements Context {
 		beaconPeriod = config.getPropertyAsFloat("EPICS_PVA_BEACON_PERIOD", beaconPeriod);
 		broadcastPort = config.getPropertyAsInteger("EPICS_PVA_BROADCAST_PORT", broadcastPort);
 		receiveBufferSize = config.getPropertyAsInteger("EPICS_PVA_MAX_ARRAY_BYTES", receiveBufferSize);
+		virtualThreads = config.getPropertyAsBoolean("EPICS_PVA_VIRTUAL_THREADS", virtualThreads);
 	}
 
 	/**
@@ -599,6 +609,70 @@ public class ClientContextImpl implements Context {
 		}
 	}
 
+	/**
+	 * Create many channels at once.
+	 * CIDs are allocated and channels registered in one go, all the channels are then
+	 * registered to the search manager as a batch (search requests are packed together).
+	 * @param names channel names.
+	 * @param requester channel requester, common to all the channels.
+	 * @param priority channel priority.
+	 * @return list of created channels, in order of <code>names</code>.
+	 * @throws PVAException
+	 */
+	public List<Channel> createChannelsInternal(List<String> names, ChannelRequester requester, short priority)
+			throws PVAException {
+		checkState();
+		for (String name : names)
+			checkChannelName(name);
+
+		if (requester == null)
+			throw new IllegalArgumentException("null requester");
+
+		if (priority < ChannelProvider.PRIORITY_MIN || priority > ChannelProvider.PRIORITY_MAX)
+			throw new IllegalArgumentException("priority out of bounds");
+
+		final int count = names.size();
+		final int[] cids = generateCIDs(count);
+		final List<Channel> channels = new ArrayList<Channel>(count);
+		final List<SearchInstance> searchInstances = new ArrayList<SearchInstance>(count);
+		boolean completed = false;
+		try {
+			for (int i = 0; i < count; i++) {
+				final String name = names.get(i);
+				boolean lockAcquired = namedLocker.acquireSynchronizationObject(name, LOCK_TIMEOUT);
+				if (lockAcquired) {
+					try {
+						// search is issued below, for all the channels at once
+						ChannelImpl channel = new ChannelImpl(this, cids[i], name, requester, priority, null, false);
+						cids[i] = 0;
+						channels.add(channel);
+						if (channel.prepareBatchSearch())
+							searchInstances.add(channel);
+					} finally {
+						namedLocker.releaseSynchronizationObject(name);
+					}
+				} else {
+					throw new PVAException("Failed to obtain synchronization lock for '" + name + "', possible deadlock.",
+							null);
+				}
+			}
+			completed = true;
+		} finally {
+			// free reserved, but unused CIDs
+			for (int cid : cids)
+				if (cid != 0)
+					freeCID(cid);
+			
+			// all or nothing
+			if (!completed)
+				for (Channel channel : channels)
+					channel.destroy();
+		}
+
+		getChannelSearchManager().register(searchInstances, false);
+		return channels;
+	}
+
 	/**
 	 * Destroy channel.
 	 * 
@@ -682,7 +756,9 @@ public class ClientContextImpl implements Context {
 		out.println("CONNECTION_TIMEOUT : " + connectionTimeout);
 		out.println("BEACON_PERIOD : " + beaconPeriod);
 		out.println("BROADCAST_PORT : " + broadcastPort);
-		out.println("RCV_BUFFER_SIZE : " + receiveBufferSize);
+		out.println("MAX_ARRAY_BYTES : " + receiveBufferSize);
+		out.println("VIRTUAL_THREADS : " + isVirtualThreads());
+		out.println("BUFFER_POOL : " + ByteBufferPool.getShared());
 		// out.println("EVENT_DISPATCHER: " + eventDispatcher);
 		out.print("STATE : ");
 		switch (state) {
@@ -768,6 +844,11 @@ public class ClientContextImpl implements Context {
 		return debugLevel;
 	}
 
+	@Override
+	public boolean isVirtualThreads() {
+		return virtualThreads && ThreadUtil.isVirtualThreadSupported();
+	}
+
 	/**
 	 * Get receive buffer size (max size of payload).
 	 * 
@@ -945,6 +1026,28 @@ public class ClientContextImpl implements Context {
         }
     }
 
+	/**
+	 * Generate (reserve) many client channel IDs (CID) at once.
+	 * 
+	 * @param count number of CIDs to generate.
+	 * @return array of client channel IDs (CID).
+	 */
+	private int[] generateCIDs(int count) {
+		final int[] cids = new int[count];
+		synchronized (channelsByCID) {
+			for (int i = 0; i < count; i++) {
+				// search first free, skip 0 (used as unused CID marker)
+				do {
+					++lastCID;
+				} while (lastCID == 0 || channelsByCID.containsKey(lastCID));
+				// reserve CID
+				channelsByCID.put(lastCID, null);
+				cids[i] = lastCID;
+			}
+		}
+		return cids;
+	}
+
 	/**
 	 * Free generated channel ID (CID).
 	 */
@@ -1199,6 +1302,35 @@ public class ClientContextImpl implements Context {
 			return channel;
 		}
 
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * org.epics.pvaccess.client.ChannelProvider#createChannels(java.util.List,
+		 * org.epics.pvaccess.client.ChannelRequester, short)
+		 */
+		@Override
+		public List<Channel> createChannels(List<String> channelNames, ChannelRequester channelRequester,
+				short priority) {
+			List<Channel> channels;
+			try {
+				channels = createChannelsInternal(channelNames, channelRequester, priority);
+			} catch (IllegalArgumentException iae) {
+				throw iae;
+			} catch (Throwable th) {
+				Status errorStatus = statusCreate.createStatus(StatusType.ERROR, "failed to create channel", th);
+				channels = new ArrayList<Channel>(channelNames.size());
+				for (int i = 0; i < channelNames.size(); i++) {
+					channelRequester.channelCreated(errorStatus, null);
+					channels.add(null);
+				}
+				return channels;
+			}
+			for (Channel channel : channels)
+				channelRequester.channelCreated(okStatus, channel);
+			return channels;
+		}
+
 		/*
 		 * (non-Javadoc)
 		 * 
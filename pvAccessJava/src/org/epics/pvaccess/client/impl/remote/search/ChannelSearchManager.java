@@ -15,6 +15,7 @@
 package org.epics.pvaccess.client.impl.remote.search;
 
 import java.net.InetSocketAddress;
+import java.util.Collection;
 
 import org.epics.pvaccess.impl.remote.utils.GUID;
 
@@ -43,6 +44,13 @@ public interface ChannelSearchManager {
 	 */
 	public void register(SearchInstance channel, boolean penalize);
 
+	/**
+	 * Register many channels at once (search requests are sent in batches).
+	 * @param channels channels to register.
+	 * @param penalize register with penalty (do not search immediately).
+	 */
+	public void register(Collection<? extends SearchInstance> channels, boolean penalize);
+
 	/**
 	 * Unregister channel.
 	 * @param channel channel to unregister.
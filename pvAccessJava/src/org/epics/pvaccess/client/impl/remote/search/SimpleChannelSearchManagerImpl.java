@@ -18,8 +18,10 @@ import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -39,6 +41,12 @@ import org.epics.pvdata.pv.Field;
 
 
 /**
+ * Search manager with exponential back-off.
+ * <p>
+ * Instead of checking all the registered channels on every timer tick, channels are kept in
+ * buckets (a wheel) by the tick of their next search, so that only due channels are processed per tick.
+ * Search requests are built and sent (paced) by a dedicated thread, not on the timer thread.
+ * Channels can be registered in batches, see {@link #register(Collection, boolean)}.
  * @author <a href="mailto:matej.sekoranjaATcosylab.com">Matej Sekoranja</a>
  * @version $Id$
  */
@@ -64,13 +72,48 @@ public class SimpleChannelSearchManagerImpl implements ChannelSearchManager, Tim
 	 */
 	private final ByteBuffer sendBuffer;
 	
+	/**
+	 * Registered channel (search state).
+	 * All fields, but <code>pending</code> (guarded by <code>pendingSearch</code>), are guarded by <code>channels</code>.
+	 */
+	private static final class SearchEntry {
+		final SearchInstance instance;
+		// back-off count value, search is done when power of two
+		int count;
+		// tick of the next search, the entry is in a wheel bucket of this tick
+		long due = -1;
+		// register() not yet processed, i.e. not yet in the wheel
+		boolean immediate = true;
+		boolean removed = false;
+		// in pendingSearch list
+		boolean pending = false;
+		
+		SearchEntry(SearchInstance instance, int count) {
+			this.instance = instance;
+			this.count = count;
+		}
+	}
+	
     /**
      * Set of registered channels.
      */
-    private final Map<Integer, SearchInstance> channels = 
-    		Collections.synchronizedMap(new HashMap<Integer, SearchInstance>());
+    private final Map<Integer, SearchEntry> channels = new HashMap<Integer, SearchEntry>();
+    
+    /**
+     * Back-off wheel, buckets of entries by their due tick (modulo wheel size).
+     * Entries are not removed from the buckets, removed or rescheduled entries are skipped when their bucket is processed.
+     */
+    private final ArrayList<ArrayList<SearchEntry>> wheel;
+    
+    /**
+     * Current tick, guarded by <code>channels</code>.
+     */
+    private long tick = 0;
     
-    private final ArrayList<SearchInstance> immediateSearch = new ArrayList<SearchInstance>(128);
+    /**
+     * List of entries to be processed by the search thread.
+     */
+    private final ArrayList<SearchEntry> pendingSearch = new ArrayList<SearchEntry>(128);
     
     private final TimerNode timerNode;
     private long lastTimeSent = 0;
@@ -96,6 +139,10 @@ public class SimpleChannelSearchManagerImpl implements ChannelSearchManager, Tim
 		sendBuffer = ByteBuffer.allocate(PVAConstants.MAX_UDP_UNFRAGMENTED_SEND);
 		initializeSendBuffer();
 		
+		wheel = new ArrayList<ArrayList<SearchEntry>>(WHEEL_SIZE);
+		for (int i = 0; i < WHEEL_SIZE; i++)
+			wheel.add(new ArrayList<SearchEntry>());
+		
 		// add some jitter so that all the clients do not send at the same time
 		double period = ATOMIC_PERIOD + (new Random().nextInt(2*PERIOD_JITTER_MS+1) - PERIOD_JITTER_MS)/(double)1000;
 		timerNode = TimerFactory.createNode(this);
@@ -110,29 +157,50 @@ public class SimpleChannelSearchManagerImpl implements ChannelSearchManager, Tim
 		{
 			try
 			{
-				synchronized (immediateSearch) {
+				synchronized (pendingSearch) {
 					try {
 						// wait if empty
-						if (immediateSearch.size() == 0)
-							immediateSearch.wait();
-						
-						if (canceled)
-							return;
-						
-						// coalescence...
-						Thread.sleep(10);
+						if (pendingSearch.size() == 0)
+							pendingSearch.wait();
 					} catch (InterruptedException e) {
 						// noop
 					}
 				}
 				
-				SearchInstance[] sis;
-				synchronized (immediateSearch) {
-					if (immediateSearch.size() == 0)
-						return;
-					sis = new SearchInstance[immediateSearch.size()];
-					immediateSearch.toArray(sis);
-					immediateSearch.clear();
+				if (canceled)
+					return;
+				
+				// coalescence...
+				Thread.sleep(10);
+
+				SearchEntry[] entries;
+				synchronized (pendingSearch) {
+					if (pendingSearch.size() == 0)
+						continue;
+					entries = new SearchEntry[pendingSearch.size()];
+					pendingSearch.toArray(entries);
+					pendingSearch.clear();
+					for (SearchEntry entry : entries)
+						entry.pending = false;
+				}
+				
+				List<SearchInstance> sis = new ArrayList<SearchInstance>(entries.length);
+				synchronized (channels) {
+					for (SearchEntry entry : entries)
+					{
+						if (entry.removed)
+							continue;
+						
+						// newly registered, schedule
+						if (entry.immediate)
+						{
+							entry.immediate = false;
+							if (!advance(entry))
+								continue;
+						}
+						
+						sis.add(entry.instance);
+					}
 				}
 					
 				send(sis);
@@ -145,6 +213,7 @@ public class SimpleChannelSearchManagerImpl implements ChannelSearchManager, Tim
 			
 		}
 	}
+
 	/**
 	 * Cancel.
 	 */
@@ -155,8 +224,8 @@ public class SimpleChannelSearchManagerImpl implements ChannelSearchManager, Tim
 		canceled = true;
 		
 		// wake-up
-		synchronized (immediateSearch) {
-			immediateSearch.notifyAll();
+		synchronized (pendingSearch) {
+			pendingSearch.notifyAll();
 		}		
 		
 		timerNode.cancel();
@@ -280,33 +349,6 @@ public class SimpleChannelSearchManagerImpl implements ChannelSearchManager, Tim
 		return true;
 	}
 
-	/**
-	 * Generate (put on send buffer) search request 
-	 * @param channel 
-	 * @param allowNewFrame flag indicating if new search request message is allowed to be put in new frame.
-	 * @return <code>true</code> if new frame was sent.
-	 */
-	private synchronized boolean generateSearchRequestMessage(SearchInstance channel, boolean allowNewFrame, boolean flush)
-	{
-		boolean success = generateSearchRequestMessage(channel, sendBuffer, mockTransportSendControl);
-		// buffer full, flush
-		if (!success)
-		{
-			flushSendBuffer();
-			if (allowNewFrame)
-				generateSearchRequestMessage(channel, sendBuffer, mockTransportSendControl);
-			if (flush)
-				flushSendBuffer();
-			return true;
-		}
-		
-		if (flush)
-			flushSendBuffer();
-
-		return flush;
-	}
-	
-
 	/**
 	 * Get number of registered channels.
 	 * @return number of registered channels.
@@ -329,24 +371,59 @@ public class SimpleChannelSearchManagerImpl implements ChannelSearchManager, Tim
 	 */
 	public void register(SearchInstance channel, boolean penalize)
 	{
-		if (canceled)
+		register(Collections.singletonList(channel), penalize);
+	}
+
+	/**
+	 * Register channels.
+	 * @param channels channels to register.
+	 * @param penalize register with penalty (do not issue search immediately).
+	 */
+	public void register(Collection<? extends SearchInstance> channels, boolean penalize)
+	{
+		if (canceled || channels.isEmpty())
 			return;
 
-		synchronized (channels)
+		final int count = penalize ? MAX_FALLBACK_COUNT_VALUE : DEFAULT_COUNT_VALUE;
+		final List<SearchEntry> entries = new ArrayList<SearchEntry>(channels.size());
+		synchronized (this.channels)
 		{
-			// overrided if already registered
-			channels.put(channel.getChannelID(), channel);
-			channel.getUserValue().set(penalize ? MAX_FALLBACK_COUNT_VALUE : DEFAULT_COUNT_VALUE);
+			for (SearchInstance channel : channels)
+			{
+				SearchEntry entry = new SearchEntry(channel, count);
+				// overrided if already registered
+				SearchEntry previous = this.channels.put(channel.getChannelID(), entry);
+				if (previous != null)
+					previous.removed = true;
+				channel.getUserValue().set(count);
+				entries.add(entry);
+			}
 		}
 
 		// put to immediate, batched list
-		synchronized (immediateSearch) {
-			immediateSearch.add(channel);
-			if (immediateSearch.size() == 1) 
-				immediateSearch.notify();
-		}
+		enqueue(entries);
 	}
 
+	/**
+	 * Put entries to the list to be processed by the search thread.
+	 * @param entries entries to search.
+	 */
+	private void enqueue(List<SearchEntry> entries)
+	{
+		synchronized (pendingSearch) {
+			final boolean wasEmpty = pendingSearch.isEmpty();
+			for (SearchEntry entry : entries)
+			{
+				// search thread is late, do not queue twice
+				if (entry.pending)
+					continue;
+				entry.pending = true;
+				pendingSearch.add(entry);
+			}
+			if (wasEmpty && !pendingSearch.isEmpty()) 
+				pendingSearch.notify();
+		}
+	}
 
 	/**
 	 * Unregister channel.
@@ -356,7 +433,9 @@ public class SimpleChannelSearchManagerImpl implements ChannelSearchManager, Tim
 	{
 		synchronized (channels)
 		{
-			channels.remove(channel.getChannelID());
+			SearchEntry entry = channels.remove(channel.getChannelID());
+			if (entry != null)
+				entry.removed = true;
 		}
 	}
 	
@@ -371,21 +450,23 @@ public class SimpleChannelSearchManagerImpl implements ChannelSearchManager, Tim
 	public void searchResponse(GUID guid, int cid, int seqNo, byte minorRevision, InetSocketAddress serverAddress)
 	{
 		// first remove
-		SearchInstance si;
+		SearchEntry entry;
 		synchronized (channels) {
-			si = (SearchInstance)channels.remove(cid);
+			entry = channels.remove(cid);
+			if (entry != null)
+				entry.removed = true;
 		}
 		
-		if (si == null) {
+		if (entry == null) {
 			// minor hack to enable duplicate reports
-			si = context.getChannel(cid);
+			SearchInstance si = context.getChannel(cid);
 			if (si != null)
 				si.searchResponse(guid, minorRevision, serverAddress);
 			return;
 		}
 		
 		// then notify SearchInstance
-		si.searchResponse(guid, minorRevision, serverAddress);
+		entry.instance.searchResponse(guid, minorRevision, serverAddress);
 	}
 	
 	/**
@@ -404,25 +485,56 @@ public class SimpleChannelSearchManagerImpl implements ChannelSearchManager, Tim
 	private final static int MAX_COUNT_VALUE = 1 << 8;
 	private final static int MAX_FALLBACK_COUNT_VALUE = (1 << 7) + 1;
 	
+	// must be power of two, larger than the longest back-off period (in ticks)
+	private final static int WHEEL_SIZE = MAX_COUNT_VALUE;
+	
 	private void boost()
 	{
-//		synchronized (channels) {
-//			if (channels.size() == 0)
-//				return;
-//
-//			// TODO no copy when iterator is supported
-//			SearchInstance[] sis = new SearchInstance[channels.size()];
-//			channels.values().toArray(sis);
-//			
-//			
-//			for (SearchInstance si : sis)
-//				si.getUserValue().set(BOOST_VALUE);
-//		}
-        synchronized (channels) {
-            for (SearchInstance searchInstance : channels.values()) {
-                searchInstance.getUserValue().set(BOOST_VALUE);
-            }
-        }
+		synchronized (channels) {
+			final long next = tick + 1;
+			for (SearchEntry entry : channels.values()) {
+				entry.count = BOOST_VALUE;
+				entry.instance.getUserValue().set(BOOST_VALUE);
+				if (!entry.immediate)
+					schedule(entry, next);
+			}
+		}
+	}
+	
+	/**
+	 * Put entry to the wheel bucket of given tick.
+	 * Must be called while holding <code>channels</code> lock.
+	 * @param entry entry to schedule.
+	 * @param due tick of the next search.
+	 */
+	private void schedule(SearchEntry entry, long due)
+	{
+		if (entry.due == due)
+			return;
+		entry.due = due;
+		wheel.get((int)(due & (WHEEL_SIZE - 1))).add(entry);
+	}
+	
+	/**
+	 * Back-off step, called when entry count value is checked.
+	 * Count value is incremented every tick, search is done only when count value is power of two;
+	 * instead of incrementing it every tick the entry is scheduled directly to the tick when it reaches next power of two.
+	 * Must be called while holding <code>channels</code> lock.
+	 * @param entry entry to check.
+	 * @return <code>true</code> if search is to be done.
+	 */
+	private boolean advance(SearchEntry entry)
+	{
+		final boolean search = isPowerOfTwo(entry.count);
+		
+		final int next = (entry.count == MAX_COUNT_VALUE) ? MAX_FALLBACK_COUNT_VALUE : entry.count + 1;
+		final int nextSearch = Integer.highestOneBit(next - 1) << 1;
+		
+		entry.count = nextSearch;
+		entry.instance.getUserValue().set(nextSearch);
+		schedule(entry, tick + 1 + (nextSearch - next));
+		
+		return search;
 	}
 	
 	@Override
@@ -439,15 +551,33 @@ public class SimpleChannelSearchManagerImpl implements ChannelSearchManager, Tim
 
 		try 
 		{
-			SearchInstance[] sis;
+			List<SearchEntry> due;
 			synchronized (channels) {
-				if (channels.size() == 0)
+				tick++;
+				final ArrayList<SearchEntry> bucket = wheel.get((int)(tick & (WHEEL_SIZE - 1)));
+				if (bucket.isEmpty())
 					return;
-				sis = new SearchInstance[channels.size()];
-				channels.values().toArray(sis);
+				
+				due = new ArrayList<SearchEntry>(bucket.size());
+				for (SearchEntry entry : bucket)
+				{
+					// skip removed and rescheduled entries
+					if (entry.removed || entry.due != tick)
+						continue;
+					
+					// NOTE: reschedules to a different bucket 
+					if (advance(entry))
+						due.add(entry);
+				}
+				
+				// do not hold on to large buffers (e.g. after many channels were connected)
+				final boolean large = bucket.size() > 1024;
+				bucket.clear();
+				if (large)
+					bucket.trimToSize();
 			}
 			
-			send(sis);
+			enqueue(due);
 		}
 		catch (Throwable th)
 		{
@@ -464,42 +594,40 @@ public class SimpleChannelSearchManagerImpl implements ChannelSearchManager, Tim
 	private static final int MAX_FRAMES_AT_ONCE = 10;
 	private static final int DELAY_BETWEEN_FRAMES_MS = 50;
 	
-	private void send(SearchInstance[] sis) throws InterruptedException
+	private void send(List<SearchInstance> sis) throws InterruptedException
 	{
-		if (sis.length == 0)
+		final int count = sis.size();
+		if (count == 0)
 			return;
 
-		int count = 0;
-		int frameSent = 0;
-		for (SearchInstance si : sis)
+		int i = 0;
+		while (i < count)
 		{
-			
-			// no more sync needed since we check/increase value only here
-			int countValue = si.getUserValue().get();
-			boolean skip = !isPowerOfTwo(countValue);
-			
-			if (countValue == MAX_COUNT_VALUE)
-				si.getUserValue().set(MAX_FALLBACK_COUNT_VALUE);
-			else 
-				si.getUserValue().incrementAndGet();
-			
-			// back-off
-			if (skip)
-				continue;
-
-			count++;
-			
-			if (generateSearchRequestMessage(si, true, false))
-				frameSent++;
-			if (frameSent == MAX_FRAMES_AT_ONCE) 
+			// build up to MAX_FRAMES_AT_ONCE frames at once
+			synchronized (this)
 			{
-				Thread.sleep(DELAY_BETWEEN_FRAMES_MS);
-				frameSent = 0; 
+				int frameSent = 0;
+				while (i < count && frameSent < MAX_FRAMES_AT_ONCE)
+				{
+					if (generateSearchRequestMessage(sis.get(i), sendBuffer, mockTransportSendControl))
+						i++;
+					else if (sendBuffer.getShort(DATA_COUNT_POSITION) == 0)
+						// does not fit in an empty frame, skip
+						i++;
+					else
+					{
+						// buffer full, flush
+						flushSendBuffer();
+						frameSent++;
+					}
+				}
 			}
+			
+			if (i < count) 
+				Thread.sleep(DELAY_BETWEEN_FRAMES_MS);
 		}
 		
-		if (count > 0)
-			flushSendBuffer();
+		flushSendBuffer();
 	}
 	
 	@Override
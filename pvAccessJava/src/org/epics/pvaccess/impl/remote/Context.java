@@ -52,4 +52,11 @@ public interface Context extends LoggerProvider {
 	 */
 	public int getDebugLevel();
 
+	/**
+	 * Check whether transports should run their receive and send loops in virtual threads.
+	 * If not supported by the running JVM platform threads are used.
+	 * @return <code>true</code> if virtual threads are to be used.
+	 */
+	public boolean isVirtualThreads();
+
 }
@@ -31,6 +31,8 @@ import org.epics.pvdata.pv.Type;
 /**
  * PVData Structure registry.
  * Registry is used to cache introspection interfaces to minimize network traffic.
+ * IDs are per transport, while deserialized introspection interfaces themselves are shared
+ * among all the transports (see <code>FieldCreate.deserialize</code>).
  * This class is not thread safe (optimized to be used only by one thread).
  * @author msekoranja
  */
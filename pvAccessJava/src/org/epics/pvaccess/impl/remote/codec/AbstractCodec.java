@@ -5,6 +5,7 @@ import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.GatheringByteChannel;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.WritableByteChannel;
 import java.util.logging.Level;
@@ -13,7 +14,8 @@ import java.util.logging.Logger;
 import org.epics.pvaccess.PVAConstants;
 import org.epics.pvaccess.impl.remote.TransportSendControl;
 import org.epics.pvaccess.impl.remote.TransportSender;
-import org.epics.pvaccess.util.Mailbox;
+import org.epics.pvaccess.util.MpscMailbox;
+import org.epics.pvdata.pv.DirectSerializableControl;
 
 // NOTE: non-blocking
 // NOTE: not good to have readPollOne() and writePollOne() in parallel
@@ -26,7 +28,7 @@ import org.epics.pvaccess.util.Mailbox;
 // processRead -> ensureData -> pollOne -> processWrite -> enusreBuffer -> flush -> buffer full -> poolOne... same story as above
 
 public abstract class AbstractCodec
-	implements ReadableByteChannel, WritableByteChannel, TransportSendControl {
+	implements ReadableByteChannel, WritableByteChannel, TransportSendControl, DirectSerializableControl {
 
 	protected final Logger logger;
 	
@@ -39,6 +41,9 @@ public abstract class AbstractCodec
 	static public final int MAX_ENSURE_DATA_SIZE = MAX_ENSURE_SIZE/2;
 	static public final int MAX_ENSURE_BUFFER_SIZE = MAX_ENSURE_SIZE;
 
+	// smaller data is copied to the send buffer (and coalesced with other messages)
+	static public final int MIN_DIRECT_SERIALIZE_SIZE = 16*1024;
+
 	protected final ByteBuffer socketBuffer;
 	
 	public enum ReadMode { NORMAL, SPLIT, SEGMENTED };
@@ -49,6 +54,17 @@ public abstract class AbstractCodec
 	protected byte command;
 	protected int payloadSize;
 	
+	/**
+	 * Max. payload size of a received message, a segmented message counts as a whole.
+	 * Must be set before the codec starts receiving.
+	 */
+	protected int maxPayloadSize = Integer.MAX_VALUE;
+	
+	/**
+	 * Payload size of the message being received, including previous segments.
+	 */
+	private long receivedPayloadSize;
+	
 	private int storedPayloadSize;
 	private int storedPosition;
 	private int storedLimit;
@@ -140,6 +156,19 @@ public abstract class AbstractCodec
 			invalidDataStreamHandler();
 			throw new InvalidDataStreamException("invalid header received");
 		}
+		
+		// check payload size
+		if ((flags & 0x01) == 0)
+		{
+			final boolean notFirstSegment = (flags & 0x20) != 0;
+			receivedPayloadSize = notFirstSegment ? receivedPayloadSize + payloadSize : payloadSize;
+			if (receivedPayloadSize > maxPayloadSize)
+			{
+				logger.warning("Message with payload larger than " + maxPayloadSize + " bytes (EPICS_PVA_MAX_ARRAY_BYTES) received from " + getLastReadBufferSocketAddress() + ", disconnecting...");
+				invalidDataStreamHandler();
+				throw new InvalidDataStreamException("message too large");
+			}
+		}
 	}
 	
 	private final void processReadNormal() throws IOException
@@ -510,6 +539,8 @@ public abstract class AbstractCodec
 	private byte lastSegmentedMessageType = 0;
 	private byte lastSegmentedMessageCommand = 0;
 	private int nextMessagePayloadOffset = 0;
+	private int directPayloadSize = 0;
+	private final ByteBuffer[] gatheringBuffers = new ByteBuffer[2];
 	
 	/**
 	 * Cached byte-order flag. To be used only in send thread.
@@ -536,7 +567,7 @@ public abstract class AbstractCodec
 	 */
 	protected long totalBytesSent = 0;
 
-	protected final Mailbox<TransportSender> sendQueue = new Mailbox<TransportSender>();
+	protected final MpscMailbox<TransportSender> sendQueue = new MpscMailbox<TransportSender>();
 	protected final boolean blockingProcessQueue;
 
 	private Thread senderThread = null;
@@ -621,7 +652,7 @@ public abstract class AbstractCodec
 			
 			// set paylaod size (non-aligned)
 			final int payloadSize = lastPayloadBytePosition - lastMessageStartPosition -
-									PVAConstants.PVA_MESSAGE_HEADER_SIZE;
+									PVAConstants.PVA_MESSAGE_HEADER_SIZE + directPayloadSize;
 			sendBuffer.putInt(lastMessageStartPosition + (Short.SIZE/Byte.SIZE + 2),
 							  payloadSize); 
 			
@@ -728,6 +759,58 @@ public abstract class AbstractCodec
 			startMessage(lastSegmentedMessageCommand, 0);
 	}
 
+	/* (non-Javadoc)
+	 * @see org.epics.pvdata.pv.DirectSerializableControl#directSerialize(java.nio.ByteBuffer, java.nio.ByteBuffer)
+	 */
+	@Override
+	public boolean directSerialize(ByteBuffer existingBuffer, ByteBuffer toSerialize) {
+		
+		// gathering write is needed, i.e. not supported by datagram codecs
+		if (!(this instanceof GatheringByteChannel) ||
+			existingBuffer != sendBuffer ||
+			lastMessageStartPosition < 0 ||
+			toSerialize.remaining() < MIN_DIRECT_SERIALIZE_SIZE)
+			return false;
+		
+		// no padding allowed between buffered and direct data
+		if (sendBuffer.position() % PVAConstants.PVA_ALIGNMENT != 0 ||
+			toSerialize.remaining() % PVAConstants.PVA_ALIGNMENT != 0)
+			return false;
+		
+		// end segment, its payload continues with direct data
+		directPayloadSize = toSerialize.remaining();
+		endMessage(true);
+		directPayloadSize = 0;
+		
+		sendBuffer.flip();
+		
+		// buffered (coalesced) messages and direct data in one write
+		gatheringBuffers[0] = sendBuffer;
+		gatheringBuffers[1] = toSerialize.duplicate();
+		try {
+			send(gatheringBuffers);
+		} catch (IOException e) {
+			try {
+				if (isOpen())
+					close();
+			} catch (IOException iex) {
+				// noop, best-effort close
+			}
+			throw new ConnectionClosedException("Failed to send buffer.", e);
+		} finally {
+			gatheringBuffers[1] = null;
+		}
+		
+		sendBuffer.clear();
+
+		lastMessageStartPosition = -1;
+
+		// continue with next segment
+		startMessage(lastSegmentedMessageCommand, 0);
+		
+		return true;
+	}
+
 	public enum WriteMode { PROCESS_SEND_QUEUE, WAIT_FOR_READY_SIGNAL };
 	protected WriteMode writeMode = WriteMode.PROCESS_SEND_QUEUE;
 	protected boolean writeOpReady = false;
@@ -815,6 +898,73 @@ public abstract class AbstractCodec
         }
 	}
 	
+	/**
+	 * Send buffers through the transport using gathering write.
+	 * NOTE: TCP sent buffer/sending has to be synchronized (not done by this method).
+	 * @param buffers	buffers to be sent, this codec must implement <code>GatheringByteChannel</code>
+	 * @throws IOException IO exception rethrown. 
+	 */
+	protected void send(ByteBuffer[] buffers) throws IOException
+	{
+		final GatheringByteChannel gatheringChannel = (GatheringByteChannel)this;
+		
+		// see send(ByteBuffer)
+		final int maxBytesToSend = Math.min(socketSendBufferSize, remoteTransportSocketReceiveBufferSize) / 2;
+
+		int tries = 0;
+		int first = 0;
+		while (first < buffers.length)
+		{
+			if (!buffers[first].hasRemaining())
+			{
+				first++;
+				continue;
+			}
+			
+			// limit sending
+			int count = 0;
+			int bytesToSend = 0;
+			ByteBuffer limitedBuffer = null;
+			int limit = 0;
+			for (int i = first; i < buffers.length && bytesToSend < maxBytesToSend; i++)
+			{
+				count++;
+				final int remaining = buffers[i].remaining();
+				if (bytesToSend + remaining > maxBytesToSend)
+				{
+					limitedBuffer = buffers[i];
+					limit = limitedBuffer.limit();
+					limitedBuffer.limit(limitedBuffer.position() + maxBytesToSend - bytesToSend);
+					bytesToSend = maxBytesToSend;
+				}
+				else
+					bytesToSend += remaining;
+			}
+			
+			final long bytesSent;
+			try {
+				bytesSent = gatheringChannel.write(buffers, first, count);
+			} finally {
+				if (limitedBuffer != null)
+					limitedBuffer.limit(limit);
+			}
+			
+        	if (bytesSent < 0)
+        	{
+           		// connection lost
+         		close();
+        		throw new ConnectionClosedException("bytesSent < 0");
+        	}
+        	else if (bytesSent == 0)
+        	{
+        		sendBufferFull(tries++);
+        		continue;
+        	}
+			totalBytesSent += bytesSent;
+    		tries = 0;
+		}
+	}
+	
 	/*
 	// sendBufferFull for non-blocking
 				writeOpReady = false;
@@ -828,6 +978,16 @@ public abstract class AbstractCodec
 	public abstract void scheduleSend();
 	public abstract void sendCompleted();
 	
+	/**
+	 * Checked by <code>processSendQueue()</code> before a sender is processed,
+	 * the rest of the queue is left for the next <code>processWrite()</code> call if <code>true</code>.
+	 * @return <code>true</code> if too much data is waiting to be sent to queue more.
+	 */
+	protected boolean sendBacklogFull()
+	{
+		return false;
+	}
+	
 	// NOTE: code can use Thread.interrupt() to get out of blocking wait
 	// can be called anytime (no race condition problem)
 	// method ensures that messages are processed (if connection not closed) even if interrupted
@@ -836,7 +996,7 @@ public abstract class AbstractCodec
 		try
 		{
 			int senderProcessed = 0;
-			while (senderProcessed++ < MAX_MESSAGE_SEND)
+			while (senderProcessed++ < MAX_MESSAGE_SEND && !sendBacklogFull())
 			{
 				TransportSender sender = sendQueue.take(-1);
 				if (sender == null)
@@ -964,4 +1124,13 @@ public abstract class AbstractCodec
 	}
 	
 	public abstract boolean terminated();
+
+	/**
+	 * Called (once) when receive and send buffers are not used by this codec anymore,
+	 * i.e. they can be reused.
+	 */
+	protected void releaseBuffers()
+	{
+		// noop
+	}
 }
@@ -9,6 +9,7 @@ import java.util.logging.Logger;
 import org.epics.pvaccess.PVAConstants;
 import org.epics.pvaccess.impl.remote.codec.AbstractCodec;
 import org.epics.pvaccess.impl.remote.codec.ConnectionClosedException;
+import org.epics.pvaccess.util.ThreadUtil;
 
 // TODO check if send thread is terminated
 
@@ -20,9 +21,20 @@ public abstract class BlockingAbstractCodec extends AbstractCodec {
 
 	private final AtomicBoolean isOpen = new AtomicBoolean(true);
 
+	/**
+	 * Run receive and send loops in virtual threads (if supported by the JVM).
+	 */
+	private final boolean virtualThreads;
+
 	public BlockingAbstractCodec(boolean serverFlag, ByteBuffer receiveBuffer, ByteBuffer sendBuffer,
 			int socketSendBufferSize, Logger logger) {
+		this(serverFlag, receiveBuffer, sendBuffer, socketSendBufferSize, logger, false);
+	}
+
+	public BlockingAbstractCodec(boolean serverFlag, ByteBuffer receiveBuffer, ByteBuffer sendBuffer,
+			int socketSendBufferSize, Logger logger, boolean virtualThreads) {
 		super(serverFlag, receiveBuffer, sendBuffer, socketSendBufferSize, true, logger);
+		this.virtualThreads = virtualThreads;
 	}
 
 	@Override
@@ -95,20 +107,20 @@ public abstract class BlockingAbstractCodec extends AbstractCodec {
 	
 	public void start()
 	{
-		readThread = new Thread(new Runnable() {
+		readThread = ThreadUtil.newThread(new Runnable() {
 			@Override
 			public void run() {
 				receiveThread();
 			}
-		}, "receiveThread");
+		}, "receiveThread", virtualThreads);
 		readThread.start();
 		
-		sendThread = new Thread(new Runnable() {
+		sendThread = ThreadUtil.newThread(new Runnable() {
 			@Override
 			public void run() {
 				sendThread();
 			}
-		}, "sendThread");
+		}, "sendThread", virtualThreads);
 		sendThread.start();
 		
 	}
@@ -155,6 +167,10 @@ public abstract class BlockingAbstractCodec extends AbstractCodec {
 
 		// call internal destroy
 		internalDestroy();
+
+		// buffers can be reused only if read thread is really gone
+		if (!readThread.isAlive())
+			releaseBuffers();
 	}
 	
 	abstract void internalDestroy();
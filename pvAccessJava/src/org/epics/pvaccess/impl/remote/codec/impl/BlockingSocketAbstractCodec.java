@@ -7,6 +7,7 @@ import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.SocketException;
 import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
 import java.nio.channels.SocketChannel;
 import java.util.logging.Logger;
 
@@ -14,7 +15,7 @@ import java.util.logging.Logger;
  * @author msekoranja
  *
  */
-public abstract class BlockingSocketAbstractCodec extends BlockingAbstractCodec {
+public abstract class BlockingSocketAbstractCodec extends BlockingAbstractCodec implements GatheringByteChannel {
 
 	protected final SocketChannel channel;
 	protected final InetSocketAddress socketAddress;
@@ -25,7 +26,17 @@ public abstract class BlockingSocketAbstractCodec extends BlockingAbstractCodec
 			ByteBuffer receiveBuffer,
 			ByteBuffer sendBuffer,
 			Logger logger) throws SocketException {
-		super(serverFlag, receiveBuffer, sendBuffer, channel.socket().getSendBufferSize(), logger);
+		this(serverFlag, channel, receiveBuffer, sendBuffer, logger, false);
+	}
+	
+	public BlockingSocketAbstractCodec(
+			boolean serverFlag,
+			SocketChannel channel,
+			ByteBuffer receiveBuffer,
+			ByteBuffer sendBuffer,
+			Logger logger,
+			boolean virtualThreads) throws SocketException {
+		super(serverFlag, receiveBuffer, sendBuffer, channel.socket().getSendBufferSize(), logger, virtualThreads);
 		this.channel = channel;
 		this.socketAddress = (InetSocketAddress)channel.socket().getRemoteSocketAddress();
 	}
@@ -39,6 +50,16 @@ public abstract class BlockingSocketAbstractCodec extends BlockingAbstractCodec
 	public int write(ByteBuffer src) throws IOException {
 		return channel.write(src);
 	}
+
+	@Override
+	public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+		return channel.write(srcs, offset, length);
+	}
+
+	@Override
+	public long write(ByteBuffer[] srcs) throws IOException {
+		return channel.write(srcs);
+	}
 	
 	@Override
 	protected void internalDestroy() {
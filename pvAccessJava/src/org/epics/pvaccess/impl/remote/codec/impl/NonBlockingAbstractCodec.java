@@ -2,15 +2,33 @@ package org.epics.pvaccess.impl.remote.codec.impl;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.GatheringByteChannel;
 import java.nio.channels.SelectionKey;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import org.epics.pvaccess.PVAConstants;
 import org.epics.pvaccess.impl.remote.codec.AbstractCodec;
+import org.epics.pvaccess.impl.remote.codec.ConnectionClosedException;
 import org.epics.pvaccess.impl.remote.io.PollEvents;
 import org.epics.pvaccess.impl.remote.io.Poller;
+import org.epics.pvaccess.util.ByteBufferPool;
 
-public abstract class NonBlockingAbstractCodec extends AbstractCodec implements PollEvents {
+// NOTE: many codecs can share one poller (thread), therefore a codec must never
+//       block nor call poller.pollOne() reentrantly; received data is handed to the parser
+//       only as complete messages (see frameReceivedData()) and data the socket does not
+//       accept is kept in the codec until OP_WRITE is signaled (see write()); the send queue
+//       is not processed while too much data is kept (see sendBacklogFull())
+public abstract class NonBlockingAbstractCodec extends AbstractCodec implements PollEvents, GatheringByteChannel {
+
+	/**
+	 * Amount of data not accepted by the channel above which the send queue is not processed.
+	 * Since a message is always serialized completely, pending output can exceed this limit by the size of one message.
+	 */
+	static public final int PENDING_OUTPUT_HIGH_WATER_MARK = 1024 * 1024;
 
 	private final AtomicBoolean isOpen = new AtomicBoolean(true);
 
@@ -18,12 +36,43 @@ public abstract class NonBlockingAbstractCodec extends AbstractCodec implements
 
 	protected volatile SelectionKey key; // TODO sync? no... yes, accessible from outside... make it final?
 
+	/**
+	 * Set if sending was scheduled before the channel was registered to the poller.
+	 */
+	private volatile boolean sendPending = false;
+
 	public NonBlockingAbstractCodec(boolean serverFlag, Poller poller, ByteBuffer receiveBuffer, ByteBuffer sendBuffer,
 			int socketSendBufferSize, Logger logger) {
+		this(serverFlag, poller, receiveBuffer, sendBuffer, socketSendBufferSize, Integer.MAX_VALUE, logger);
+	}
+
+	/**
+	 * Constructor.
+	 * @param serverFlag server flag.
+	 * @param poller poller to register to.
+	 * @param receiveBuffer receive buffer.
+	 * @param sendBuffer send buffer.
+	 * @param socketSendBufferSize socket send buffer size.
+	 * @param maxPayloadSize max. payload size of a received message, also limits the size of an assembled message.
+	 * @param logger logger.
+	 */
+	public NonBlockingAbstractCodec(boolean serverFlag, Poller poller, ByteBuffer receiveBuffer, ByteBuffer sendBuffer,
+			int socketSendBufferSize, int maxPayloadSize, Logger logger) {
 		super(serverFlag, receiveBuffer, sendBuffer, socketSendBufferSize, false, logger);
 		this.poller = poller;
+		this.maxPayloadSize = maxPayloadSize;
+		
+		this.initialInputCapacity = receiveBuffer.capacity();
+		// payload, segment headers (and the start of the next message)
+		this.maxAssembledMessageSize = (int)Math.min((long)maxPayloadSize + initialInputCapacity, Integer.MAX_VALUE);
+		this.inputBuffer = bufferPool.acquire(initialInputCapacity);
+		this.inputBuffer.limit(0);
 	}
 
+	protected abstract int readChannel(ByteBuffer dst) throws IOException;
+	protected abstract int writeChannel(ByteBuffer src) throws IOException;
+	protected abstract long writeChannel(ByteBuffer[] srcs, int offset, int length) throws IOException;
+
 	protected abstract void ready();
 	
 	/* (non-Javadoc)
@@ -32,8 +81,24 @@ public abstract class NonBlockingAbstractCodec extends AbstractCodec implements
 	@Override
 	public void registeredNotify(SelectionKey key,
 			Throwable registrationException) {
+		if (registrationException != null)
+		{
+			logger.log(Level.FINE, "Failed to register channel to a poller.", registrationException);
+			try {
+				close();
+			} catch (IOException e) {
+				// noop, best-effort close
+			}
+			return;
+		}
+		
 		setSenderThread();
 		this.key = key;
+		
+		// senders enqueued before registration
+		if (sendPending || !sendQueue.isEmpty())
+			scheduleSend();
+		
 		ready();
 	}
 
@@ -42,41 +107,437 @@ public abstract class NonBlockingAbstractCodec extends AbstractCodec implements
 	 */
 	@Override
 	public void pollNotify(SelectionKey key) throws IOException {
-		if (key.isReadable())
-			processRead();
-		// TODO use a flag, go here immediately... avoid setting WRITE selection key
-		if (key.isWritable())	// TODO else?
-			processWrite();
+		// buffers are only accessed by the poller thread
+		if (buffersReleased)
+			return;
+		
+		try
+		{
+			processPollEvent(key);
+		}
+		finally
+		{
+			if (!isOpen())
+			{
+				buffersReleased = true;
+				releaseBuffers();
+				releaseCodecBuffers();
+			}
+		}
+	}
+
+	/**
+	 * Accessed only from the poller thread.
+	 */
+	private boolean buffersReleased = false;
+
+	private void processPollEvent(SelectionKey key) throws IOException {
+		try
+		{
+			if (key.isReadable())
+			{
+				boolean inputBufferFull;
+				do {
+					inputBufferFull = receive();
+					
+					// processRead() processes limited number of messages,
+					// make sure no complete message is left in the buffers since
+					// there might be no more socket events to get us here again
+					while (isOpen() && (socketBuffer.remaining() >= PVAConstants.PVA_MESSAGE_HEADER_SIZE || framedLimit > inputBuffer.position()))
+					{
+						final int socketBufferRemaining = socketBuffer.remaining();
+						final int inputBufferPosition = inputBuffer.position();
+						processRead();
+						// no progress (e.g. waiting for a segment that is not yet received)
+						if (socketBuffer.remaining() == socketBufferRemaining && inputBuffer.position() == inputBufferPosition)
+							break;
+					}
+				} while (isOpen() && inputBufferFull);
+				
+				if (endOfStream && isOpen())
+				{
+					close();
+					return;
+				}
+			}
+			// TODO use a flag, go here immediately... avoid setting WRITE selection key
+			if (key.isValid() && key.isWritable())	// TODO else?
+			{
+				// previously not accepted data goes first
+				if (flushPendingOutput())
+					processWrite();
+			}
+		}
+		catch (ConnectionClosedException cce) {
+			// noop, already closed
+		}
+		catch (CancelledKeyException cke) {
+			// noop, closed meanwhile
+		}
+		catch (IOException ioex) {
+			// do not let single connection to bring the (shared) poller down
+			logger.log(Level.FINER, "IO exception caught while processing poll event.", ioex);
+			close();
+		}
+		catch (RuntimeException rex) {
+			logger.log(Level.WARNING, "Unexpected exception caught while processing poll event, closing connection.", rex);
+			close();
+		}
+	}
+
+	/**
+	 * Assembled messages and pending output grow by doubling, i.e. through the pool size classes.
+	 */
+	private static final ByteBufferPool bufferPool = ByteBufferPool.getShared();
+
+	/**
+	 * Received data (in read mode), only data up to <code>framedLimit</code> is given to the parser.
+	 * Accessed only from the poller thread.
+	 */
+	private ByteBuffer inputBuffer;
+	private final int initialInputCapacity;
+	
+	/**
+	 * Max. size of a (segmented) message assembled before it is handed to the parser.
+	 */
+	private final int maxAssembledMessageSize;
+	
+	/**
+	 * Position of the next message header to be checked.
+	 */
+	private int frameScanPosition = 0;
+
+	/**
+	 * End of the last complete (non-segmented or last segment) message.
+	 */
+	private int framedLimit = 0;
+	
+	private boolean inSegmentedMessage = false;
+	private boolean framingEnabled = true;
+	private boolean endOfStream = false;
+
+	/**
+	 * Read as much as available from the channel (never blocks).
+	 * @return <code>true</code> if reading stopped because input buffer is full.
+	 * @throws IOException IO exception.
+	 */
+	private boolean receive() throws IOException
+	{
+		// discard data already given to the parser
+		final int consumed = inputBuffer.position();
+		if (consumed > 0)
+		{
+			inputBuffer.compact();
+			inputBuffer.flip();
+			frameScanPosition -= consumed;
+			framedLimit -= consumed;
+		}
+		
+		if (!inputBuffer.hasRemaining() && inputBuffer.capacity() > initialInputCapacity)
+		{
+			bufferPool.release(inputBuffer);
+			inputBuffer = bufferPool.acquire(initialInputCapacity);
+			inputBuffer.limit(0);
+		}
+		
+		while (!endOfStream)
+		{
+			if (inputBuffer.limit() == inputBuffer.capacity())
+			{
+				// let the parser consume complete messages first
+				if (framedLimit > inputBuffer.position())
+					return true;
+				
+				if (inputBuffer.capacity() >= maxAssembledMessageSize)
+				{
+					logger.warning("Message with payload larger than " + maxPayloadSize + " bytes (EPICS_PVA_MAX_ARRAY_BYTES) received from " + getLastReadBufferSocketAddress() + ", disconnecting...");
+					close();
+					throw new ConnectionClosedException("message too large");
+				}
+				
+				final ByteBuffer newBuffer = bufferPool.acquire((int)Math.min((long)inputBuffer.capacity() * 2, maxAssembledMessageSize));
+				newBuffer.put(inputBuffer);
+				newBuffer.flip();
+				bufferPool.release(inputBuffer);
+				inputBuffer = newBuffer;
+			}
+			
+			final int limit = inputBuffer.limit();
+			inputBuffer.position(limit);
+			inputBuffer.limit(inputBuffer.capacity());
+			final int bytesRead;
+			try {
+				bytesRead = readChannel(inputBuffer);
+			} finally {
+				inputBuffer.limit(inputBuffer.position());
+				inputBuffer.position(0);
+			}
+
+			if (bytesRead < 0)
+				endOfStream = true;
+			else if (bytesRead == 0)
+				break;
+			
+			frameReceivedData();
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * Advance <code>framedLimit</code> over all complete messages in the input buffer.
+	 * A segmented message is complete when its last segment is received.
+	 */
+	private void frameReceivedData()
+	{
+		final int limit = inputBuffer.limit();
+		if (!framingEnabled)
+		{
+			framedLimit = limit;
+			return;
+		}
+
+		while (limit - frameScanPosition >= PVAConstants.PVA_MESSAGE_HEADER_SIZE)
+		{
+			final int headerPosition = frameScanPosition;
+			final byte flags = inputBuffer.get(headerPosition + 2);
+			final boolean isControl = ((flags & 0x01) == 0x01);
+			
+			long messageEnd = headerPosition + PVAConstants.PVA_MESSAGE_HEADER_SIZE;
+			if (!isControl)
+			{
+				final int payloadSize = ((flags & 0x80) != 0) ?
+						inputBuffer.order(ByteOrder.BIG_ENDIAN).getInt(headerPosition + 4) :
+						inputBuffer.order(ByteOrder.LITTLE_ENDIAN).getInt(headerPosition + 4);
+				if (payloadSize < 0)
+				{
+					framingEnabled = false;
+				}
+				messageEnd += payloadSize;
+			}
+			
+			// let the parser report invalid data stream
+			if (!framingEnabled || inputBuffer.get(headerPosition) != PVAConstants.PVA_MAGIC)
+			{
+				framingEnabled = false;
+				framedLimit = limit;
+				return;
+			}
+			
+			if (messageEnd > limit)
+				return;
+			
+			frameScanPosition = (int)messageEnd;
+			if (!isControl)
+				inSegmentedMessage = (flags & 0x10) != 0;
+			if (!inSegmentedMessage)
+				framedLimit = frameScanPosition;
+		}
+	}
+
+	/**
+	 * Return message assembly and pending output buffers to the pool.
+	 * Called only once from the poller thread, when the codec gets closed.
+	 */
+	private void releaseCodecBuffers()
+	{
+		bufferPool.release(inputBuffer);
+		inputBuffer = ByteBuffer.allocate(0);
+		framedLimit = frameScanPosition = 0;
+		if (pendingOutput != null)
+		{
+			bufferPool.release(pendingOutput);
+			pendingOutput = null;
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see java.nio.channels.ReadableByteChannel#read(java.nio.ByteBuffer)
+	 */
+	@Override
+	public int read(ByteBuffer dst) throws IOException {
+		final int available = framedLimit - inputBuffer.position();
+		if (available <= 0)
+			return endOfStream ? -1 : 0;
+		
+		final int count = Math.min(available, dst.remaining());
+		final int limit = inputBuffer.limit();
+		inputBuffer.limit(inputBuffer.position() + count);
+		dst.put(inputBuffer);
+		inputBuffer.limit(limit);
+		return count;
+	}
+
+	/**
+	 * Data not (yet) accepted by the channel (in read mode), <code>null</code> if none.
+	 * Accessed only from the poller (sender) thread.
+	 */
+	private ByteBuffer pendingOutput = null;
+
+	/**
+	 * Write pending output to the channel.
+	 * @return <code>true</code> if all pending output has been written.
+	 * @throws IOException IO exception.
+	 */
+	private boolean flushPendingOutput() throws IOException
+	{
+		if (pendingOutput == null)
+			return true;
+		
+		while (pendingOutput.hasRemaining())
+		{
+			final int bytesSent = writeChannel(pendingOutput);
+			if (bytesSent < 0)
+			{
+				close();
+				throw new ConnectionClosedException("bytesSent < 0");
+			}
+			else if (bytesSent == 0)
+				return false;
+		}
+		
+		bufferPool.release(pendingOutput);
+		pendingOutput = null;
+		return true;
+	}
+	
+	/**
+	 * Keep not accepted data until the channel becomes writable.
+	 * @param src data to keep.
+	 */
+	private void keepPendingOutput(ByteBuffer src)
+	{
+		final int remaining = src.remaining();
+		if (remaining == 0)
+			return;
+		
+		if (pendingOutput == null)
+		{
+			pendingOutput = bufferPool.acquire(Math.max(remaining, sendBuffer.capacity()));
+			pendingOutput.limit(0);
+		}
+		else if (pendingOutput.capacity() - pendingOutput.remaining() < remaining)
+		{
+			final ByteBuffer newBuffer = bufferPool.acquire(Math.max(pendingOutput.remaining() + remaining, pendingOutput.capacity() * 2));
+			newBuffer.put(pendingOutput);
+			newBuffer.flip();
+			bufferPool.release(pendingOutput);
+			pendingOutput = newBuffer;
+		}
+		
+		// append, compact only if there is no room at the end
+		if (pendingOutput.capacity() - pendingOutput.limit() < remaining)
+		{
+			pendingOutput.compact();
+			pendingOutput.flip();
+		}
+		final int position = pendingOutput.position();
+		pendingOutput.position(pendingOutput.limit());
+		pendingOutput.limit(pendingOutput.capacity());
+		pendingOutput.put(src);
+		pendingOutput.limit(pendingOutput.position());
+		pendingOutput.position(position);
+		
+		// OP_WRITE will be signaled when the channel accepts data again
+		scheduleSend();
+	}
+	
+	/* (non-Javadoc)
+	 * @see java.nio.channels.WritableByteChannel#write(java.nio.ByteBuffer)
+	 */
+	@Override
+	public int write(ByteBuffer src) throws IOException {
+		final int remaining = src.remaining();
+		if (pendingOutput == null)
+		{
+			final int bytesSent = writeChannel(src);
+			if (bytesSent < 0)
+				return bytesSent;
+		}
+		keepPendingOutput(src);
+		return remaining;
+	}
+
+	@Override
+	public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+		long remaining = 0;
+		for (int i = offset; i < offset + length; i++)
+			remaining += srcs[i].remaining();
+		
+		if (pendingOutput == null)
+		{
+			final long bytesSent = writeChannel(srcs, offset, length);
+			if (bytesSent < 0)
+				return bytesSent;
+		}
+		for (int i = offset; i < offset + length; i++)
+			keepPendingOutput(srcs[i]);
+		return remaining;
+	}
+
+	@Override
+	public long write(ByteBuffer[] srcs) throws IOException {
+		return write(srcs, 0, srcs.length);
 	}
 
 	@Override
 	public void readPollOne() throws IOException {
-		poller.pollOne();
+		// complete messages are given to the parser, so this can only happen on a corrupted stream
+		close();
+		throw new ConnectionClosedException("incomplete message received");
 	}
 
 	@Override
 	public void writePollOne() throws IOException {
-		poller.pollOne();
+		// write() never reports a full send buffer
+		close();
+		throw new ConnectionClosedException("send buffer full");
 	}
 
 	@Override
 	protected void sendBufferFull(int tries) throws IOException {
-		writeOpReady = false;
-		writeMode = WriteMode.WAIT_FOR_READY_SIGNAL;
-		this.writePollOne();
-		writeMode = WriteMode.PROCESS_SEND_QUEUE;
+		writePollOne();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.epics.pvaccess.impl.remote.codec.AbstractCodec#sendBacklogFull()
+	 */
+	@Override
+	protected boolean sendBacklogFull() {
+		return pendingOutput != null && pendingOutput.remaining() > PENDING_OUTPUT_HIGH_WATER_MARK;
 	}
 
 	@Override
 	public void scheduleSend() {
 		//System.out.println("scheduleSend");
-		key.interestOps(SelectionKey.OP_WRITE);	// TODO allow read?
+		SelectionKey k = key;
+		if (k == null)
+		{
+			// not yet registered, registeredNotify() will take care of it
+			sendPending = true;
+			
+			// unless it has already checked the flag
+			k = key;
+			if (k == null)
+				return;
+		}
+		
+		try {
+			poller.modify(k, SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+		} catch (CancelledKeyException cke) {
+			// noop, closed
+		}
 	}
 
 	@Override
 	public void sendCompleted() {
 		//System.out.println("sendCompleted");
 		key.interestOps(SelectionKey.OP_READ);
+		
+		// a sender might have been enqueued after the queue was found empty,
+		// but before OP_WRITE interest was cleared
+		if (!sendQueue.isEmpty() || pendingOutput != null)
+			key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
 	}
 
 	/* (non-Javadoc)
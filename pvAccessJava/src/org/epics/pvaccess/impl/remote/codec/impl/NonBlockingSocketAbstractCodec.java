@@ -7,6 +7,7 @@ import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.SocketException;
 import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.SocketChannel;
 import java.util.logging.Logger;
@@ -17,7 +18,7 @@ import org.epics.pvaccess.impl.remote.io.Poller;
  * @author msekoranja
  *
  */
-public abstract class NonBlockingSocketAbstractCodec extends NonBlockingAbstractCodec {
+public abstract class NonBlockingSocketAbstractCodec extends NonBlockingAbstractCodec implements GatheringByteChannel {
 
 	protected final SocketChannel channel;
 	protected final InetSocketAddress socketAddress;
@@ -29,7 +30,18 @@ public abstract class NonBlockingSocketAbstractCodec extends NonBlockingAbstract
 			ByteBuffer receiveBuffer,
 			ByteBuffer sendBuffer,
 			Logger logger) throws SocketException {
-		super(serverFlag, poller, receiveBuffer, sendBuffer, channel.socket().getSendBufferSize(), logger);
+		this(serverFlag, poller, channel, receiveBuffer, sendBuffer, Integer.MAX_VALUE, logger);
+	}
+
+	public NonBlockingSocketAbstractCodec(
+			boolean serverFlag,
+			Poller poller,
+			SocketChannel channel,
+			ByteBuffer receiveBuffer,
+			ByteBuffer sendBuffer,
+			int maxPayloadSize,
+			Logger logger) throws SocketException {
+		super(serverFlag, poller, receiveBuffer, sendBuffer, channel.socket().getSendBufferSize(), maxPayloadSize, logger);
 		this.channel = channel;
 		this.socketAddress = (InetSocketAddress)channel.socket().getRemoteSocketAddress();
 	
@@ -44,15 +56,20 @@ public abstract class NonBlockingSocketAbstractCodec extends NonBlockingAbstract
 	}
 
 	@Override
-	public int read(ByteBuffer dst) throws IOException {
+	protected int readChannel(ByteBuffer dst) throws IOException {
 		return channel.read(dst);
 	}
 
 	@Override
-	public int write(ByteBuffer src) throws IOException {
+	protected int writeChannel(ByteBuffer src) throws IOException {
 		return channel.write(src);
 	}
 
+	@Override
+	protected long writeChannel(ByteBuffer[] srcs, int offset, int length) throws IOException {
+		return channel.write(srcs, offset, length);
+	}
+
 	@Override
 	protected void internalDestroy() {
 		if (channel.isOpen())
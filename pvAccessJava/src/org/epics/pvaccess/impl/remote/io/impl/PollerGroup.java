@@ -0,0 +1,72 @@
+/**
+ * Copyright information and license terms for this software can be
+ * found in the file LICENSE.TXT included with the distribution.
+ */
+package org.epics.pvaccess.impl.remote.io.impl;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.epics.pvaccess.impl.remote.io.Poller;
+
+/**
+ * A fixed group of <code>PollerImpl</code> selector loops, each running in its own thread.
+ * Channels are distributed among the loops in round-robin fashion, so that many connections
+ * are served by only a few threads.
+ */
+public class PollerGroup {
+
+	private final PollerImpl[] pollers;
+
+	private final AtomicInteger next = new AtomicInteger(0);
+
+	/**
+	 * Create and start a group of pollers.
+	 * @param size number of pollers (threads), if less than 1 number of available processors is used.
+	 * @param name name prefix of the poller threads.
+	 * @throws IOException thrown if a selector cannot be opened.
+	 */
+	public PollerGroup(int size, String name) throws IOException {
+		if (size < 1)
+			size = Runtime.getRuntime().availableProcessors();
+
+		pollers = new PollerImpl[size];
+		try
+		{
+			for (int i = 0; i < size; i++)
+				pollers[i] = new PollerImpl(name + "-" + i);
+		} catch (IOException ioex) {
+			destroy();
+			throw ioex;
+		}
+
+		for (PollerImpl poller : pollers)
+			poller.start();
+	}
+
+	/**
+	 * Get number of pollers in this group.
+	 * @return number of pollers.
+	 */
+	public int size() {
+		return pollers.length;
+	}
+
+	/**
+	 * Get next poller (round-robin) to be used to serve a new channel.
+	 * @return the poller.
+	 */
+	public Poller next() {
+		final int index = (next.getAndIncrement() & Integer.MAX_VALUE) % pollers.length;
+		return pollers[index];
+	}
+
+	/**
+	 * Stop all the pollers.
+	 */
+	public void destroy() {
+		for (PollerImpl poller : pollers)
+			if (poller != null)
+				poller.destroy();
+	}
+}
@@ -5,11 +5,14 @@ package org.epics.pvaccess.impl.remote.io.impl;
 
 import java.io.IOException;
 import java.nio.channels.CancelledKeyException;
+import java.nio.channels.Channel;
 import java.nio.channels.SelectableChannel;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
 import java.util.Iterator;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import org.epics.pvaccess.impl.remote.io.PollEvents;
 import org.epics.pvaccess.impl.remote.io.Poller;
@@ -20,21 +23,52 @@ import org.epics.pvaccess.impl.remote.io.Poller;
  */
 public class PollerImpl implements Poller, Runnable {
 
+	private static final Logger logger = Logger.getLogger(PollerImpl.class.getName());
+
 	final Selector selector;
 	
 	// wake-up time kills low-latency, this mechanism loops selectNow for some time
 	private int trottle = 0;
 
+	/**
+	 * Poller thread name.
+	 */
+	private final String name;
+
+	/**
+	 * Destroyed flag.
+	 */
+	private volatile boolean destroyed = false;
+
 	public PollerImpl() throws IOException {
+		this("PollerImpl-");
+	}
+
+	/**
+	 * Create a poller.
+	 * @param name name of the thread running the poller (set by <code>start()</code>).
+	 * @throws IOException thrown if selector cannot be opened.
+	 */
+	public PollerImpl(String name) throws IOException {
+		this.name = name;
 		selector = Selector.open();
 	}
 
 	public void start() {
-		Thread t = new Thread(this,"PollerImpl-");
+		Thread t = new Thread(this, name);
 		//t.setPriority(Thread.NORM_PRIORITY);
 		t.start();
 	}
 
+	/**
+	 * Stop the poller thread and close the selector.
+	 * Registered channels are not closed.
+	 */
+	public void destroy() {
+		destroyed = true;
+		selector.wakeup();
+	}
+
 	/* (non-Javadoc)
 	 * @see com.cosylab.jam.io.Poller#add(java.nio.channels.SelectableChannel, com.cosylab.jam.io.PollEvents, int)
 	 */
@@ -123,31 +157,58 @@ public class PollerImpl implements Poller, Runnable {
 			
 			PollEvents pollEvents = (PollEvents)key.attachment();
 
-			// callback guard
+			// callback guard, one failing handler must not bring down other handlers sharing this poller
 			try
 			{
 				pollEvents.pollNotify(key);
 			} catch (CancelledKeyException cke) {
 				// noop
+			} catch (Throwable th) {
+				logger.log(Level.WARNING, "Unexpected exception caught while processing poll event of " + pollEvents + ", closing it.", th);
+				close(key, pollEvents);
 			}
 		}
 
 		trottle = 5;	// TODO tune
 	}
 	
+	/**
+	 * Close failed poll events handler (only the handler itself if it is a channel, e.g. a codec).
+	 * @param key handler selection key.
+	 * @param pollEvents handler.
+	 */
+	private static void close(SelectionKey key, PollEvents pollEvents)
+	{
+		key.cancel();
+		try {
+			if (pollEvents instanceof Channel)
+				((Channel)pollEvents).close();
+			else
+				key.channel().close();
+		} catch (Throwable th) {
+			logger.log(Level.FINE, "Failed to close poll events handler.", th);
+		}
+	}
+	
 	@Override
 	public void run() 
 	{
 		try
 		{
-			// TODO shutdown
-			while (true)
+			while (!destroyed)
 				pollOne();
 		} catch (Throwable th) {
 			// IOException, ClosedSelectorException
 			// and any others...
-			// TODO
-			th.printStackTrace();
+			logger.log(Level.SEVERE, "Poller " + name + " terminated by an unexpected exception.", th);
+		}
+		finally
+		{
+			try {
+				selector.close();
+			} catch (IOException e) {
+				// noop, best-effort close
+			}
 		}
 	}
 
@@ -30,6 +30,7 @@ import org.epics.pvaccess.impl.remote.codec.AbstractCodec;
 import org.epics.pvaccess.impl.remote.codec.impl.BlockingSocketAbstractCodec;
 import org.epics.pvaccess.impl.remote.request.ResponseHandler;
 import org.epics.pvaccess.server.ServerContext;
+import org.epics.pvaccess.util.ByteBufferPool;
 import org.epics.pvdata.pv.Field;
 import org.epics.pvdata.pv.Status;
 
@@ -41,6 +42,11 @@ import org.epics.pvdata.pv.Status;
  */
 public abstract class BlockingTCPTransport extends BlockingSocketAbstractCodec implements Transport {
 
+	/**
+	 * Size of receive and send buffers (borrowed from the shared pool).
+	 */
+	private static final int BUFFER_SIZE = PVAConstants.MAX_TCP_RECV + AbstractCodec.MAX_ENSURE_DATA_SIZE;
+
 	/**
 	 * Context instance.
 	 */
@@ -83,7 +89,7 @@ public abstract class BlockingTCPTransport extends BlockingSocketAbstractCodec i
 	 * @param context context where transport lives in.
 	 * @param channel used socket channel.
 	 * @param responseHandler response handler used to process PVA headers.
-	 * @param receiveBufferSize receive buffer size.
+	 * @param receiveBufferSize max. payload size of a received message (EPICS_PVA_MAX_ARRAY_BYTES), messages larger than transport buffers are segmented.
 	 * @param priority transport priority.
 	 * @throws SocketException thrown on any socket exception.
 	 */
@@ -93,9 +99,10 @@ public abstract class BlockingTCPTransport extends BlockingSocketAbstractCodec i
 					   int receiveBufferSize,
 					   short priority) throws SocketException {
 		super(context instanceof ServerContext, channel, 
-				ByteBuffer.allocate(Math.max(PVAConstants.MAX_TCP_RECV + AbstractCodec.MAX_ENSURE_DATA_SIZE, receiveBufferSize)),
-				ByteBuffer.allocate(Math.max(PVAConstants.MAX_TCP_RECV + AbstractCodec.MAX_ENSURE_DATA_SIZE, receiveBufferSize)),
-				context.getLogger());
+				ByteBufferPool.getShared().acquire(BUFFER_SIZE),
+				ByteBufferPool.getShared().acquire(BUFFER_SIZE),
+				context.getLogger(), context.isVirtualThreads());
+		this.maxPayloadSize = receiveBufferSize;
 		this.context = context;
 		this.responseHandler = responseHandler;
 		this.remoteTransportRevision = 0;
@@ -106,6 +113,12 @@ public abstract class BlockingTCPTransport extends BlockingSocketAbstractCodec i
 	}
 	
 
+	@Override
+	protected void releaseBuffers() {
+		ByteBufferPool.getShared().release(socketBuffer);
+		ByteBufferPool.getShared().release(sendBuffer);
+	}
+
 	@Override
 	protected void internalDestroy() {
 		super.internalDestroy();
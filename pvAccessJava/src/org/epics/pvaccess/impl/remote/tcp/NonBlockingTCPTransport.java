@@ -31,6 +31,7 @@ import org.epics.pvaccess.impl.remote.codec.impl.NonBlockingSocketAbstractCodec;
 import org.epics.pvaccess.impl.remote.io.Poller;
 import org.epics.pvaccess.impl.remote.request.ResponseHandler;
 import org.epics.pvaccess.server.ServerContext;
+import org.epics.pvaccess.util.ByteBufferPool;
 import org.epics.pvdata.pv.Field;
 import org.epics.pvdata.pv.Status;
 
@@ -42,6 +43,11 @@ import org.epics.pvdata.pv.Status;
  */
 public abstract class NonBlockingTCPTransport extends NonBlockingSocketAbstractCodec implements Transport {
 
+	/**
+	 * Size of receive and send buffers (borrowed from the shared pool).
+	 */
+	private static final int BUFFER_SIZE = PVAConstants.MAX_TCP_RECV + AbstractCodec.MAX_ENSURE_DATA_SIZE;
+
 	/**
 	 * Context instance.
 	 */
@@ -86,7 +92,7 @@ public abstract class NonBlockingTCPTransport extends NonBlockingSocketAbstractC
 	 * @param poller poller to use. 
 	 * @param channel used socket channel.
 	 * @param responseHandler response handler used to process PVA headers.
-	 * @param receiveBufferSize receive buffer size.
+	 * @param receiveBufferSize max. payload size of a received message (EPICS_PVA_MAX_ARRAY_BYTES), messages larger than transport buffers are segmented.
 	 * @param priority transport priority.
 	 * @throws SocketException thrown on any socket exception.
 	 */
@@ -98,8 +104,9 @@ public abstract class NonBlockingTCPTransport extends NonBlockingSocketAbstractC
 					   int receiveBufferSize,
 					   short priority) throws SocketException {
 		super(context instanceof ServerContext, poller, channel, 
-				ByteBuffer.allocate(Math.max(PVAConstants.MAX_TCP_RECV + AbstractCodec.MAX_ENSURE_DATA_SIZE, receiveBufferSize)),
-				ByteBuffer.allocate(Math.max(PVAConstants.MAX_TCP_RECV + AbstractCodec.MAX_ENSURE_DATA_SIZE, receiveBufferSize)),
+				ByteBufferPool.getShared().acquire(BUFFER_SIZE),
+				ByteBufferPool.getShared().acquire(BUFFER_SIZE),
+				receiveBufferSize,
 				context.getLogger());
 		this.context = context;
 		this.responseHandler = responseHandler;
@@ -111,6 +118,12 @@ public abstract class NonBlockingTCPTransport extends NonBlockingSocketAbstractC
 	}
 	
 
+	@Override
+	protected void releaseBuffers() {
+		ByteBufferPool.getShared().release(socketBuffer);
+		ByteBufferPool.getShared().release(sendBuffer);
+	}
+
 	@Override
 	protected void internalDestroy() {
 		super.internalDestroy();
@@ -128,7 +141,11 @@ public abstract class NonBlockingTCPTransport extends NonBlockingSocketAbstractC
 	 */
 	protected void internalClose()
 	{
-		// noop
+		InetSocketAddress remoteAddress = getRemoteAddress();
+		if (remoteAddress != null)
+			context.getLogger().finer("TCP socket to " + remoteAddress + " closed.");
+		else
+			context.getLogger().finer("TCP socket to 'unknown' closed.");
 	}
 	
 	
@@ -288,6 +305,7 @@ public abstract class NonBlockingTCPTransport extends NonBlockingSocketAbstractC
 		outgoingIR.serialize(field, buffer, this);
 	}
 
+	protected boolean verifiedCalled = false;
 	protected boolean verified = false;
 	private Object verifiedMonitor = new Object();
 	
@@ -304,6 +322,7 @@ public abstract class NonBlockingTCPTransport extends NonBlockingSocketAbstractC
 				context.getLogger().fine(logMessage);
 			}
 			
+			verifiedCalled = true;
 			verified = status.isSuccess();
 			verifiedMonitor.notifyAll();
 		}
@@ -317,7 +336,7 @@ public abstract class NonBlockingTCPTransport extends NonBlockingSocketAbstractC
 		synchronized (verifiedMonitor) {
 			try {
 				final long start = System.currentTimeMillis();
-				while (!verified && (System.currentTimeMillis() - start) < timeoutMs)
+				while (!verifiedCalled && (System.currentTimeMillis() - start) < timeoutMs)
 						verifiedMonitor.wait(timeoutMs);
 			} catch (InterruptedException e) {
 				// noop
@@ -43,6 +43,7 @@ import org.epics.pvaccess.impl.remote.Context;
 import org.epics.pvaccess.impl.remote.ProtocolType;
 import org.epics.pvaccess.impl.remote.Transport;
 import org.epics.pvaccess.impl.remote.TransportRegistry;
+import org.epics.pvaccess.impl.remote.io.impl.PollerGroup;
 import org.epics.pvaccess.impl.remote.request.ResponseHandler;
 import org.epics.pvaccess.impl.remote.udp.BlockingUDPConnector;
 import org.epics.pvaccess.impl.remote.udp.BlockingUDPTransport;
@@ -50,7 +51,9 @@ import org.epics.pvaccess.plugins.SecurityPlugin;
 import org.epics.pvaccess.server.ServerContext;
 import org.epics.pvaccess.server.impl.remote.tcp.BlockingTCPAcceptor;
 import org.epics.pvaccess.server.plugins.BeaconServerStatusProvider;
+import org.epics.pvaccess.util.ByteBufferPool;
 import org.epics.pvaccess.util.InetAddressUtil;
+import org.epics.pvaccess.util.ThreadUtil;
 import org.epics.pvaccess.util.configuration.Configuration;
 import org.epics.pvaccess.util.configuration.ConfigurationProvider;
 import org.epics.pvaccess.util.configuration.impl.ConfigurationFactory;
@@ -160,9 +163,36 @@ public class ServerContextImpl implements ServerContext, Context {
 	protected int serverPort = PVAConstants.PVA_SERVER_PORT;
 	
 	/**
-	 * Length in bytes of the maximum buffer (payload) size that may pass through PVA.
+	 * Length in bytes of the maximum buffer (payload) size that may pass through PVA, larger messages close the connection.
+	 * Messages are received in pieces of transport buffer size (reactor mode assembles them), this does not size any buffer.
 	 */
-	protected int receiveBufferSize = PVAConstants.MAX_TCP_RECV;
+	protected int receiveBufferSize = PVAConstants.DEFAULT_MAX_ARRAY_BYTES;
+
+	/**
+	 * Number of selector (reactor) threads serving TCP connections.
+	 * If <code>0</code> each connection is served by its own receive and send thread,
+	 * if negative number of available processors is used.
+	 */
+	protected int reactorThreads = 0;
+
+	/**
+	 * Use virtual threads (if supported by the JVM) for TCP transport receive and send threads.
+	 */
+	protected boolean virtualThreads = false;
+
+	/**
+	 * Time (in seconds) search requests for channels not hosted by the server are
+	 * answered from a negative-result cache, i.e. without asking the channel providers.
+	 * Non-positive value (default) disables the cache, a provider that starts hosting
+	 * a channel is otherwise not searched for it until the entry expires.
+	 */
+	protected float searchNegativeCacheTTL = 0.0f;
+
+	/**
+	 * Share monitors with the same channel and pvRequest among all subscribers,
+	 * i.e. each update is polled and serialized once and the serialized bytes are sent to every subscriber.
+	 */
+	protected boolean monitorFanout = false;
 
 	/**
 	 * Timer.
@@ -174,6 +204,11 @@ public class ServerContextImpl implements ServerContext, Context {
 	 */
 	//protected Reactor reactor = null;
 
+	/**
+	 * Pollers serving TCP connections, <code>null</code> if not in reactor mode.
+	 */
+	protected PollerGroup pollerGroup = null;
+
 	/**
 	 * Leader/followers thread pool.
 	 */
@@ -355,6 +390,14 @@ public class ServerContextImpl implements ServerContext, Context {
 		channelProviderNames = config.getPropertyAsString("EPICS_PVA_PROVIDER_NAMES", channelProviderNames);
 		channelProviderNames = config.getPropertyAsString("EPICS_PVAS_PROVIDER_NAMES", channelProviderNames);
 		
+		reactorThreads = config.getPropertyAsInteger("EPICS_PVAS_REACTOR_THREADS", reactorThreads);
+
+		virtualThreads = config.getPropertyAsBoolean("EPICS_PVA_VIRTUAL_THREADS", virtualThreads);
+		virtualThreads = config.getPropertyAsBoolean("EPICS_PVAS_VIRTUAL_THREADS", virtualThreads);
+
+		searchNegativeCacheTTL = config.getPropertyAsFloat("EPICS_PVAS_SEARCH_NEGATIVE_CACHE_TTL", searchNegativeCacheTTL);
+
+		monitorFanout = config.getPropertyAsBoolean("EPICS_PVAS_MONITOR_FANOUT", monitorFanout);
 	}
 	
 	public void setChannelProviderNames(String providerNames)
@@ -489,8 +532,21 @@ public class ServerContextImpl implements ServerContext, Context {
 		}
 		*/
 		
+		if (reactorThreads != 0)
+		{
+			try
+			{
+				pollerGroup = new PollerGroup(reactorThreads, "pvAccess-server reactor");
+				logger.config("Serving TCP connections using " + pollerGroup.size() + " reactor thread(s).");
+			}
+			catch (IOException ioex)
+			{
+				throw new PVAException("Failed to initialize reactor.", ioex); 
+			}
+		}
+		
 //		acceptor = new TCPAcceptor(this, serverPort, receiveBufferSize);
-		acceptor = new BlockingTCPAcceptor(this, serverPort, receiveBufferSize);
+		acceptor = new BlockingTCPAcceptor(this, serverPort, receiveBufferSize, pollerGroup);
 		serverPort = acceptor.getBindAddress().getPort();
 
 		// setup broadcast UDP transport
@@ -727,6 +783,10 @@ public class ServerContextImpl implements ServerContext, Context {
 		
 		// this will also destroy all channels
 		destroyAllTransports();
+		
+		// stop reactor threads
+		if (pollerGroup != null)
+			pollerGroup.destroy();
 		/*
 		// shutdown reactor
 		if (reactor != null)
@@ -786,8 +846,13 @@ public class ServerContextImpl implements ServerContext, Context {
 		out.println("BEACON_PERIOD : " + beaconPeriod);
 		out.println("BROADCAST_PORT : " + broadcastPort);
 		out.println("SERVER_PORT : " + serverPort);
-		out.println("RCV_BUFFER_SIZE : " + receiveBufferSize);
+		out.println("MAX_ARRAY_BYTES : " + receiveBufferSize);
+		out.println("REACTOR_THREADS : " + (pollerGroup != null ? pollerGroup.size() : 0));
+		out.println("VIRTUAL_THREADS : " + isVirtualThreads());
+		out.println("BUFFER_POOL : " + ByteBufferPool.getShared());
 		out.println("IGNORE_ADDR_LIST: " + ignoreAddressList);
+		out.println("SEARCH_NEGATIVE_CACHE_TTL : " + searchNegativeCacheTTL);
+		out.println("MONITOR_FANOUT : " + monitorFanout);
 		out.println("STATE : " + state.name());
 	}
 
@@ -854,6 +919,11 @@ public class ServerContextImpl implements ServerContext, Context {
 	public int getDebugLevel() {
 		return debugLevel;
 	}
+
+	@Override
+	public boolean isVirtualThreads() {
+		return virtualThreads && ThreadUtil.isVirtualThreadSupported();
+	}
 	
 	/**
 	 * Get receiver buffer (payload) size.
@@ -863,6 +933,30 @@ public class ServerContextImpl implements ServerContext, Context {
 		return receiveBufferSize;
 	}
 
+	/**
+	 * Get number of reactor threads serving TCP connections.
+	 * @return number of reactor threads, <code>0</code> if each connection is served by its own threads.
+	 */
+	public int getReactorThreads() {
+		return (pollerGroup != null) ? pollerGroup.size() : reactorThreads;
+	}
+
+	/**
+	 * Get search negative-result cache time-to-live.
+	 * @return time-to-live in seconds, non-positive if disabled.
+	 */
+	public float getSearchNegativeCacheTTL() {
+		return searchNegativeCacheTTL;
+	}
+
+	/**
+	 * Check if monitors with the same channel and pvRequest are shared among subscribers.
+	 * @return <code>true</code> if monitor fan-out is enabled.
+	 */
+	public boolean isMonitorFanout() {
+		return monitorFanout;
+	}
+
 	/**
 	 * Get server port.
 	 * @return server port.
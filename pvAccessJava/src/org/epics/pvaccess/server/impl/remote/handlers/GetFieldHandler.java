@@ -83,16 +83,20 @@ public class GetFieldHandler extends AbstractServerResponseHandler {
 		 */
 		@Override
 		public void send(ByteBuffer buffer, TransportSendControl control) {
-			control.startMessage((byte)17, Integer.SIZE/Byte.SIZE);
-			buffer.putInt(ioid);
+			final Status status;
+			final Field field;
 			synchronized (this) {
-				status.serialize(buffer, control);
-				if (status.isSuccess())
-				{
-					control.cachedSerialize(field, buffer);
-					field = null;
-				}
+				status = this.status;
+				field = this.field;
+				this.field = null;
 			}
+
+			// serialize without holding the lock, serialization can flush (block on) a full send buffer
+			control.startMessage((byte)17, Integer.SIZE/Byte.SIZE);
+			buffer.putInt(ioid);
+			status.serialize(buffer, control);
+			if (status.isSuccess())
+				control.cachedSerialize(field, buffer);
 		}
 
 	};
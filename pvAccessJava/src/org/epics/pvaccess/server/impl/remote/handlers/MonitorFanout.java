@@ -0,0 +1,153 @@
+/**
+ * Copyright information and license terms for this software can be
+ * found in the file LICENSE.TXT included with the distribution.
+ */
+
+package org.epics.pvaccess.server.impl.remote.handlers;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.epics.pvaccess.client.Channel;
+import org.epics.pvaccess.client.ChannelProvider;
+import org.epics.pvaccess.impl.remote.Transport;
+import org.epics.pvaccess.plugins.SecurityPlugin.SecuritySession;
+import org.epics.pvaccess.server.impl.remote.ServerChannelImpl;
+import org.epics.pvdata.monitor.Monitor;
+import org.epics.pvdata.monitor.MonitorRequester;
+import org.epics.pvdata.pv.PVStructure;
+
+/**
+ * Registry of monitors shared by subscribers (of all transports) monitoring
+ * the same channel with the same pvRequest, priority and security session.
+ * Security sessions are compared by identity, i.e. subscribers share a monitor only if
+ * the security plugin returned the same session object for their transports.
+ * NOTE: the CA and no-security plugins return one session for all clients (they authorize
+ * all requests alike), so subscribers authenticated as different users do share a monitor;
+ * a plugin whose authorization depends on the user has to create a session per user (or per transport).
+ * Creating and starting a monitor is still authorized per subscriber, on its own channel security session.
+ * Lock order: registry, then shared monitor.
+ */
+class MonitorFanout {
+
+	/**
+	 * Shared monitor key.
+	 */
+	private static final class Key {
+		private final String providerName;
+		private final String channelName;
+		private final String request;
+		private final short priority;
+		private final SecuritySession securitySession;
+		private final int hashCode;
+
+		Key(String providerName, String channelName, String request, short priority, SecuritySession securitySession) {
+			this.providerName = providerName;
+			this.channelName = channelName;
+			this.request = request;
+			this.priority = priority;
+			this.securitySession = securitySession;
+			this.hashCode = ((providerName.hashCode() * 31 + channelName.hashCode()) * 31 + request.hashCode()) * 31 + priority;
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof Key))
+				return false;
+			final Key other = (Key)obj;
+			// security sessions are compared by identity
+			return priority == other.priority &&
+				securitySession == other.securitySession &&
+				providerName.equals(other.providerName) &&
+				channelName.equals(other.channelName) &&
+				request.equals(other.request);
+		}
+	}
+
+	/**
+	 * Shared monitors.
+	 */
+	private final Map<Key, SharedMonitor> sharedMonitors = new HashMap<Key, SharedMonitor>();
+
+	/**
+	 * Subscribe to a shared monitor, shared monitor is created if it does not exist.
+	 * The monitor of the provider is created on the channel of a subscriber.
+	 * @param channel the channel of the subscriber.
+	 * @param transport the transport of the subscriber.
+	 * @param pvRequest the pvRequest.
+	 * @param requester the requester.
+	 * @return the subscription, or <code>null</code> if the request cannot be shared (e.g. pipeline monitor).
+	 */
+	Monitor subscribe(ServerChannelImpl channel, Transport transport, PVStructure pvRequest, MonitorRequester requester)
+	{
+		final int queueSize = SharedMonitor.getQueueSize(pvRequest);
+		if (queueSize < 0)
+			return null;
+
+		final Channel providerChannel = channel.getChannel();
+		final ChannelProvider provider = providerChannel.getProvider();
+		if (provider == null)
+			return null;
+
+		// PVStructure.toString() lists all the fields and values, i.e. it is a normalized form of pvRequest
+		final Key key = new Key(provider.getProviderName(), providerChannel.getChannelName(),
+				pvRequest.toString(), transport.getPriority(), transport.getSecuritySession());
+
+		final SharedMonitor sharedMonitor;
+		final SharedMonitor.Subscription subscription;
+		synchronized (sharedMonitors) {
+			SharedMonitor sm = sharedMonitors.get(key);
+			if (sm == null)
+			{
+				sm = new SharedMonitor(this, key, pvRequest, queueSize);
+				sharedMonitors.put(key, sm);
+			}
+			sharedMonitor = sm;
+			subscription = sharedMonitor.addSubscription(requester, providerChannel);
+		}
+
+		sharedMonitor.connect(subscription);
+
+		return subscription;
+	}
+
+	/**
+	 * Unsubscribe, the shared monitor is destroyed when its last subscriber leaves.
+	 * @param sharedMonitor the shared monitor.
+	 * @param subscription the subscription to remove.
+	 */
+	void unsubscribe(SharedMonitor sharedMonitor, SharedMonitor.Subscription subscription)
+	{
+		final boolean last;
+		synchronized (sharedMonitors) {
+			last = sharedMonitor.removeSubscription(subscription);
+			if (last)
+				remove(sharedMonitor);
+		}
+
+		if (last)
+			sharedMonitor.destroy();
+		else
+			sharedMonitor.subscriptionRemoved(subscription);
+	}
+
+	/**
+	 * Remove shared monitor from the registry (e.g. when failed to connect).
+	 * @param sharedMonitor the shared monitor.
+	 */
+	void remove(SharedMonitor sharedMonitor)
+	{
+		synchronized (sharedMonitors) {
+			if (sharedMonitors.get(sharedMonitor.getKey()) == sharedMonitor)
+				sharedMonitors.remove(sharedMonitor.getKey());
+		}
+	}
+
+}
@@ -42,8 +42,14 @@ import org.epics.pvdata.pv.Structure;
  */
 public class MonitorHandler extends AbstractServerResponseHandler {
 
+	/**
+	 * Shared monitors, <code>null</code> if disabled.
+	 */
+	private final MonitorFanout monitorFanout;
+
 	public MonitorHandler(ServerContextImpl context) {
 		super(context, "Monitor request");
+		monitorFanout = context.isMonitorFanout() ? new MonitorFanout() : null;
 	}
 
 	private static class MonitorRequesterImpl extends BaseChannelRequester implements MonitorRequester, TransportSender {
@@ -55,14 +61,18 @@ public class MonitorHandler extends AbstractServerResponseHandler {
 		private volatile boolean unlisten = false;
 
 		public MonitorRequesterImpl(ServerContextImpl context, ServerChannelImpl channel, int ioid, Transport transport,
-				 PVStructure pvRequest) {
+				 PVStructure pvRequest, MonitorFanout monitorFanout) {
 			super(context, channel, ioid, transport);
 
 			startRequest(QoS.INIT.getMaskValue());
 			channel.registerRequest(ioid, this);
 			
 			try {
-				channelMonitor = channel.getChannel().createMonitor(this, pvRequest);
+				Monitor sharedMonitor = (monitorFanout != null) ? monitorFanout.subscribe(channel, transport, pvRequest, this) : null;
+				if (sharedMonitor != null)
+					channelMonitor = sharedMonitor;
+				else
+					channelMonitor = channel.getChannel().createMonitor(this, pvRequest);
 			} catch (Throwable th) {
 				// simply cannot trust code above
 				BaseChannelRequester.sendFailureMessage((byte)13, transport, ioid, (byte)QoS.INIT.getMaskValue(),
@@ -166,13 +176,20 @@ public class MonitorHandler extends AbstractServerResponseHandler {
 				buffer.putInt(ioid);
 				buffer.put((byte)request);
 				
+				final Status status;
 				synchronized (this) {
-					status.serialize(buffer, control);
+					status = this.status;
 				}
+				// serialize without holding the lock, serialization can flush (block on) a full send buffer
+				status.serialize(buffer, control);
 
 				if (status.isSuccess())
 				{
 					control.cachedSerialize(structure, buffer);
+
+					// shared monitor serializes updates in byte order of the transport
+					if (monitor instanceof SharedMonitor.Subscription)
+						((SharedMonitor.Subscription)monitor).setByteOrder(buffer.order());
 				}
 				
 				stopRequest(); startRequest(QoS.DEFAULT.getMaskValue());
@@ -180,6 +197,25 @@ public class MonitorHandler extends AbstractServerResponseHandler {
 			else
 			{
 				final Monitor monitor = this.monitor;
+				
+				// shared monitor, write already serialized update
+				if (monitor instanceof SharedMonitor.Subscription)
+				{
+					final SharedMonitor.Update update = ((SharedMonitor.Subscription)monitor).pollUpdate();
+					if (update != null)
+					{
+						try {
+							control.startMessage((byte)13, Integer.SIZE/Byte.SIZE + 1);
+							buffer.putInt(ioid);
+							buffer.put((byte)request);
+							update.send(buffer, control);
+						} finally {
+							update.release();
+						}
+						return;
+					}
+				}
+				
 				final MonitorElement element = monitor.poll();
 				if (element != null)
 				{
@@ -264,7 +300,7 @@ public class MonitorHandler extends AbstractServerResponseHandler {
 			}
 			
 			// create...
-			new MonitorRequesterImpl(context, channel, ioid, transport, pvRequest);
+			new MonitorRequesterImpl(context, channel, ioid, transport, pvRequest, monitorFanout);
 			
 			// pipelining monitor (i.e. w/ flow control)
 			final boolean ack = QoS.GET_PUT.isSet(qosCode);
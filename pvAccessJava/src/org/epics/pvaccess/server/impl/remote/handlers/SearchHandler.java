@@ -19,7 +19,9 @@ import java.net.InetSocketAddress;
 import java.net.UnknownHostException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -34,6 +36,7 @@ import org.epics.pvaccess.impl.remote.TransportSendControl;
 import org.epics.pvaccess.impl.remote.TransportSender;
 import org.epics.pvaccess.impl.remote.udp.BlockingUDPTransport;
 import org.epics.pvaccess.server.impl.remote.ServerContextImpl;
+import org.epics.pvaccess.server.plugins.ChannelNameIndex;
 import org.epics.pvaccess.util.InetAddressUtil;
 import org.epics.pvdata.factory.StatusFactory;
 import org.epics.pvdata.misc.SerializeHelper;
@@ -50,6 +53,8 @@ public class SearchHandler extends AbstractServerResponseHandler {
 
 	private final ChannelFindRequesterImplObjectPool objectPool = new ChannelFindRequesterImplObjectPool();
 	
+	private final NegativeSearchCache negativeCache = new NegativeSearchCache();
+	
 	private final Random random = new Random();
 	private static final int MAX_SERVER_SEARCH_RESPONSE_DELAY_MS = 100;
 	
@@ -147,20 +152,17 @@ public class SearchHandler extends AbstractServerResponseHandler {
 		
 		if (count > 0)
 		{
+			final int[] cids = new int[count];
+			final String[] names = new String[count];
 			for (int i = 0; i < count; i++) {
 				transport.ensureData(4);
-				final int cid = payloadBuffer.getInt();
-				final String name = SerializeHelper.deserializeString(payloadBuffer, transport);
+				cids[i] = payloadBuffer.getInt();
+				names[i] = SerializeHelper.deserializeString(payloadBuffer, transport);
 				// no name check here...
-	
-				if (allowed) 
-				{
-					List<ChannelProvider> providers = context.getChannelProviders();
-					ChannelFindRequesterImpl cfri = objectPool.get().set(context.getLogger(), searchSequenceId, name, cid, responseFrom, responseRequired, providers.size());
-					for (ChannelProvider provider : providers)
-						provider.channelFind(name, cfri);
-				}
 			}
+	
+			if (allowed) 
+				search(searchSequenceId, cids, names, count, responseFrom, responseRequired);
 		}
 		else
 		{
@@ -187,6 +189,203 @@ public class SearchHandler extends AbstractServerResponseHandler {
 		}
 	}
 
+	/**
+	 * Search for channels of one search request.
+	 * Providers implementing <code>ChannelNameIndex</code> are queried for all the channels at once
+	 * and found channels are reported in one response, other providers are asked via <code>channelFind()</code>.
+	 */
+	private void search(int searchSequenceId, int[] cids, String[] names, int count,
+			InetSocketAddress responseFrom, boolean responseRequired)
+	{
+		final long now = System.nanoTime();
+		
+		// short-circuit recent misses
+		int searchCount = 0;
+		int missCount = 0;
+		final int[] missCIDs = new int[count];
+		for (int i = 0; i < count; i++)
+		{
+			if (negativeCache.contains(names[i], now))
+				missCIDs[missCount++] = cids[i];
+			else
+			{
+				cids[searchCount] = cids[i];
+				names[searchCount] = names[i];
+				searchCount++;
+			}
+		}
+		
+		final List<ChannelProvider> providers = context.getChannelProviders();
+		final ChannelProvider[] hostedBy = new ChannelProvider[searchCount];
+		boolean[] hosted = null;
+		int nonIndexedProviders = 0;
+		if (searchCount > 0)
+		{
+			for (ChannelProvider provider : providers)
+			{
+				if (provider instanceof ChannelNameIndex)
+				{
+					if (hosted == null)
+						hosted = new boolean[searchCount];
+					((ChannelNameIndex)provider).lookup(names, searchCount, hosted);
+					for (int i = 0; i < searchCount; i++)
+					{
+						if (!hosted[i])
+							continue;
+						else if (hostedBy[i] == null)
+							hostedBy[i] = provider;
+						else
+							context.getLogger().fine("Channel '" + names[i] + "' is hosted by different channel providers!");
+					}
+				}
+				else
+					nonIndexedProviders++;
+			}
+		}
+		
+		int foundCount = 0;
+		final int[] foundCIDs = new int[searchCount];
+		for (int i = 0; i < searchCount; i++)
+		{
+			if (hostedBy[i] != null)
+			{
+				// register mapping
+				if (providers.size() > 1)
+					context.getChannelNameToProviderMap().put(names[i], hostedBy[i]);
+				foundCIDs[foundCount++] = cids[i];
+			}
+			else if (nonIndexedProviders > 0)
+			{
+				ChannelFindRequesterImpl cfri = objectPool.get().set(context.getLogger(), searchSequenceId, names[i], cids[i], responseFrom, responseRequired, nonIndexedProviders);
+				for (ChannelProvider provider : providers)
+					if (!(provider instanceof ChannelNameIndex))
+						provider.channelFind(names[i], cfri);
+			}
+			else
+			{
+				negativeCache.put(names[i], now);
+				missCIDs[missCount++] = cids[i];
+			}
+		}
+		
+		sendResponse(searchSequenceId, responseFrom, true, foundCIDs, foundCount);
+		if (responseRequired)
+			sendResponse(searchSequenceId, responseFrom, false, missCIDs, missCount);
+	}
+	
+	/**
+	 * Maximum number of CIDs in one search response (to fit in a unfragmented UDP packet).
+	 */
+	private static final int MAX_RESPONSE_CIDS = 256;
+
+	private void sendResponse(int searchSequenceId, InetSocketAddress sendTo, boolean wasFound, int[] cids, int count)
+	{
+		for (int offset = 0; offset < count; offset += MAX_RESPONSE_CIDS)
+			context.getBroadcastTransport().enqueueSendRequest(
+					new SearchResponseSender(searchSequenceId, sendTo, wasFound, cids, offset, Math.min(count - offset, MAX_RESPONSE_CIDS)));
+	}
+	
+	/**
+	 * Search response for many channels.
+	 */
+	private class SearchResponseSender implements TransportSender {
+		
+		private final int searchSequenceId;
+		private final InetSocketAddress sendTo;
+		private final boolean wasFound;
+		private final int[] cids;
+		private final int offset;
+		private final int count;
+		
+		public SearchResponseSender(int searchSequenceId, InetSocketAddress sendTo, boolean wasFound, int[] cids, int offset, int count) {
+			this.searchSequenceId = searchSequenceId;
+			this.sendTo = sendTo;
+			this.wasFound = wasFound;
+			this.cids = cids;
+			this.offset = offset;
+			this.count = count;
+		}
+
+		@Override
+		public void lock() {
+			// noop
+		}
+
+		@Override
+		public void unlock() {
+			// noop
+		}
+
+		@Override
+		public void send(ByteBuffer buffer, TransportSendControl control) {
+			control.startMessage((byte)4, 12+4+16+2);
+
+			buffer.put(context.getGUID());
+			buffer.putInt(searchSequenceId);
+			
+			// NOTE: is it possible (very likely) that address is any local address ::ffff:0.0.0.0
+			InetAddressUtil.encodeAsIPv6Address(buffer, context.getServerInetAddress());
+			buffer.putShort((short)context.getServerPort());
+			
+			SerializeHelper.serializeString(SUPPORTED_PROTOCOL, buffer, control);
+
+			buffer.put(wasFound ? (byte)1 : (byte)0);
+			
+			buffer.putShort((short)count);
+			for (int i = 0; i < count; i++)
+				buffer.putInt(cids[offset + i]);
+			
+			control.setRecipient(sendTo);
+		}
+	}
+	
+	/**
+	 * Cache of channel names recently not found by any of the providers.
+	 * Entries expire after <code>ServerContextImpl.getSearchNegativeCacheTTL()</code>.
+	 */
+	private class NegativeSearchCache {
+		
+		private static final int MAX_ENTRIES = 100000;
+		
+		// name to expiration time (System.nanoTime()), in insertion order
+		private final Map<String, Long> entries = new LinkedHashMap<String, Long>(1024, 0.75f, false) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+				return size() > MAX_ENTRIES;
+			}
+		};
+		
+		public boolean contains(String name, long now) {
+			synchronized (entries) {
+				if (entries.isEmpty())
+					return false;
+				
+				final Long expiration = entries.get(name);
+				if (expiration == null)
+					return false;
+				else if (expiration.longValue() - now > 0)
+					return true;
+				
+				entries.remove(name);
+				return false;
+			}
+		}
+		
+		public void put(String name, long now) {
+			final float ttl = context.getSearchNegativeCacheTTL();
+			if (ttl <= 0)
+				return;
+			
+			synchronized (entries) {
+				// remove first to keep insertion order
+				entries.remove(name);
+				entries.put(name, now + (long)(ttl * 1e9));
+			}
+		}
+	}
+	
 	private class ChannelFindRequesterImpl implements ChannelFindRequester, TransportSender {
 		
 		private Logger logger;
@@ -221,6 +420,7 @@ public class SearchHandler extends AbstractServerResponseHandler {
 		public ChannelFindRequesterImpl set(Logger logger, int searchSequenceId, String channelName, int cid, InetSocketAddress sendTo, boolean responseRequired, int expectedResponseCount)
 		{
 			synchronized (this) {
+				this.logger = logger;
 				this.serverSearch = false;
 				this.searchSequenceId = searchSequenceId;
 				this.channelName = channelName;
@@ -267,10 +467,13 @@ public class SearchHandler extends AbstractServerResponseHandler {
 			        return;
 			    }
 				
+				if (!serverSearch && !wasFound && !this.wasFound && responseCount == expectedResponseCount)
+					negativeCache.put(channelName, System.nanoTime());
+				
 			    if (wasFound || (responseRequired && (responseCount == expectedResponseCount)))
 			    {
 			    	// register mapping
-			        if (wasFound && expectedResponseCount > 1)
+			        if (wasFound && context.getChannelProviders().size() > 1)
 			            context.getChannelNameToProviderMap().put(channelName, channelFind.getChannelProvider());
 
 					this.wasFound = wasFound;
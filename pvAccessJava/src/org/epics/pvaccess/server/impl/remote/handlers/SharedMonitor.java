@@ -0,0 +1,858 @@
+/**
+ * Copyright information and license terms for this software can be
+ * found in the file LICENSE.TXT included with the distribution.
+ */
+
+package org.epics.pvaccess.server.impl.remote.handlers;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.epics.pvaccess.client.Channel;
+import org.epics.pvaccess.impl.remote.SerializationHelper;
+import org.epics.pvaccess.util.ByteBufferPool;
+import org.epics.pvdata.factory.ConvertFactory;
+import org.epics.pvdata.factory.PVDataFactory;
+import org.epics.pvdata.factory.StatusFactory;
+import org.epics.pvdata.misc.BitSet;
+import org.epics.pvdata.monitor.Monitor;
+import org.epics.pvdata.monitor.MonitorElement;
+import org.epics.pvdata.monitor.MonitorRequester;
+import org.epics.pvdata.pv.Convert;
+import org.epics.pvdata.pv.DirectSerializableControl;
+import org.epics.pvdata.pv.Field;
+import org.epics.pvdata.pv.MessageType;
+import org.epics.pvdata.pv.PVDataCreate;
+import org.epics.pvdata.pv.PVField;
+import org.epics.pvdata.pv.PVString;
+import org.epics.pvdata.pv.PVStructure;
+import org.epics.pvdata.pv.SerializableControl;
+import org.epics.pvdata.pv.Status;
+import org.epics.pvdata.pv.Status.StatusType;
+import org.epics.pvdata.pv.StatusCreate;
+import org.epics.pvdata.pv.Structure;
+
+/**
+ * Monitor shared by all subscribers monitoring the same channel with the same pvRequest.
+ * Monitor of the provider is created on the channel of one of the subscribers (the owner),
+ * so the provider sees the requester and priority of a real client; when the owner leaves,
+ * the monitor is re-created on the channel of another subscriber.
+ * Every update is serialized only once (per byte order in use) into a ref-counted buffer,
+ * which is then written by all the subscribers' transports.
+ * Each subscriber has its own queue (of pvRequest queueSize); when the queue is full, updates
+ * are merged and subscriber is sent a snapshot of the latest value (with overrun bits set), as
+ * monitor queue does.
+ */
+class SharedMonitor {
+
+	private static final StatusCreate statusCreate = StatusFactory.getStatusCreate();
+	private static final Status okStatus = statusCreate.getStatusOK();
+	private static final PVDataCreate pvDataCreate = PVDataFactory.getPVDataCreate();
+	private static final Convert convert = ConvertFactory.getConvert();
+	private static final ByteBufferPool bufferPool = ByteBufferPool.getShared();
+
+	private static final int BIG_ENDIAN = 0;
+	private static final int LITTLE_ENDIAN = 1;
+
+	/**
+	 * Get queue size from pvRequest (record._options.queueSize), as client monitor does.
+	 * @param pvRequest the pvRequest.
+	 * @return the queue size, or <code>-1</code> if pvRequest is invalid or requests a pipeline monitor.
+	 */
+	static int getQueueSize(PVStructure pvRequest)
+	{
+		int queueSize = 2;
+		PVField pvField = pvRequest.getSubField("record._options");
+		if (pvField instanceof PVStructure) {
+			PVStructure pvOptions = (PVStructure)pvField;
+			PVString pvString = pvOptions.getStringField("queueSize");
+			if (pvString != null) {
+				try {
+					queueSize = Integer.parseInt(pvString.get());
+					if (queueSize < 2) queueSize = 2;
+				} catch (NumberFormatException e) {
+					// error reported by the provider
+					return -1;
+				}
+			}
+
+			// pipeline (flow control) is per subscriber
+			pvString = pvOptions.getStringField("pipeline");
+			if (pvString != null && Boolean.parseBoolean(pvString.get()))
+				return -1;
+		}
+		return queueSize;
+	}
+
+	private final MonitorFanout fanout;
+	private final Object key;
+	private final PVStructure pvRequest;
+	private final int queueSize;
+
+	// guarded by this
+	private final ArrayList<Subscription> subscriptions = new ArrayList<Subscription>();
+	private final int[] startedCount = new int[2];
+	private Upstream upstream;
+	private boolean destroyed = false;
+	private boolean failed = false;
+	private Status status;
+	private Structure structure;
+	private PVStructure current;
+	private boolean hasValue = false;
+
+	// guarded by startStopLock
+	private final Object startStopLock = new Object();
+
+	SharedMonitor(MonitorFanout fanout, Object key, PVStructure pvRequest, int queueSize) {
+		this.fanout = fanout;
+		this.key = key;
+		this.pvRequest = pvRequest;
+		this.queueSize = queueSize;
+	}
+
+	/**
+	 * @return the registry key.
+	 */
+	Object getKey() {
+		return key;
+	}
+
+	/**
+	 * Monitor of the provider, created on the channel of the owner subscription.
+	 * Callbacks of a replaced (or failed) monitor are ignored.
+	 */
+	private final class Upstream implements MonitorRequester {
+		private final Subscription owner;
+		// guarded by SharedMonitor.this
+		private Monitor monitor;
+		// guarded by startStopLock
+		private boolean started = false;
+
+		private Upstream(Subscription owner) {
+			this.owner = owner;
+		}
+
+		/* (non-Javadoc)
+		 * @see org.epics.pvdata.monitor.MonitorRequester#monitorConnect(org.epics.pvdata.pv.Status, org.epics.pvdata.monitor.Monitor, org.epics.pvdata.pv.Structure)
+		 */
+		@Override
+		public void monitorConnect(Status status, Monitor monitor, Structure structure) {
+			SharedMonitor.this.monitorConnect(this, status, monitor, structure);
+		}
+
+		/* (non-Javadoc)
+		 * @see org.epics.pvdata.monitor.MonitorRequester#monitorEvent(org.epics.pvdata.monitor.Monitor)
+		 */
+		@Override
+		public void monitorEvent(Monitor monitor) {
+			SharedMonitor.this.monitorEvent(this, monitor);
+		}
+
+		/* (non-Javadoc)
+		 * @see org.epics.pvdata.monitor.MonitorRequester#unlisten(org.epics.pvdata.monitor.Monitor)
+		 */
+		@Override
+		public void unlisten(Monitor monitor) {
+			fail(this, statusCreate.createStatus(StatusType.ERROR, "monitor unlistened", null));
+		}
+
+		/* (non-Javadoc)
+		 * @see org.epics.pvdata.pv.Requester#getRequesterName()
+		 */
+		@Override
+		public String getRequesterName() {
+			return owner.requester.getRequesterName();
+		}
+
+		/* (non-Javadoc)
+		 * @see org.epics.pvdata.pv.Requester#message(java.lang.String, org.epics.pvdata.pv.MessageType)
+		 */
+		@Override
+		public void message(String message, MessageType messageType) {
+			for (Subscription subscription : getSubscriptions())
+				subscription.requester.message(message, messageType);
+		}
+	}
+
+	/**
+	 * Connect a new subscription: the first one creates the monitor,
+	 * the others are reported the connection status if already known.
+	 * @param subscription the subscription.
+	 */
+	void connect(Subscription subscription)
+	{
+		if (!createUpstream())
+			subscription.connect();
+	}
+
+	/**
+	 * Create the monitor on the channel of the first subscriber, unless it already exists.
+	 * @return <code>true</code> if the monitor creation was initiated.
+	 */
+	private boolean createUpstream()
+	{
+		final Upstream upstream;
+		synchronized (this) {
+			if (this.upstream != null || destroyed || failed || subscriptions.isEmpty())
+				return false;
+			upstream = new Upstream(subscriptions.get(0));
+			this.upstream = upstream;
+		}
+
+		try {
+			upstream.owner.channel.createMonitor(upstream, pvRequest);
+		} catch (Throwable th) {
+			// simply cannot trust code above
+			fail(upstream, statusCreate.createStatus(StatusType.FATAL, "Unexpected exception caught: " + th.getMessage(), th));
+		}
+		return true;
+	}
+
+	/**
+	 * Report failure to all subscribers, new subscribers will create a new shared monitor.
+	 * Connected subscribers are unlistened.
+	 */
+	private void fail(Upstream upstream, Status status)
+	{
+		final Monitor monitor;
+		final ArrayList<Subscription> toConnect = new ArrayList<Subscription>();
+		final ArrayList<Subscription> toUnlisten = new ArrayList<Subscription>();
+		synchronized (this) {
+			if (this.upstream != upstream || failed)
+				return;
+			failed = true;
+			this.status = status;
+			monitor = upstream.monitor;
+			upstream.monitor = null;
+			for (Subscription subscription : subscriptions)
+			{
+				if (subscription.markConnected())
+					toConnect.add(subscription);
+				else
+					toUnlisten.add(subscription);
+			}
+		}
+
+		fanout.remove(this);
+
+		if (monitor != null)
+			monitor.destroy();
+
+		for (Subscription subscription : toConnect)
+			subscription.requester.monitorConnect(status, subscription, null);
+		for (Subscription subscription : toUnlisten)
+			subscription.requester.unlisten(subscription);
+	}
+
+	private void monitorConnect(Upstream upstream, Status status, Monitor monitor, Structure structure) {
+		if (!status.isSuccess())
+		{
+			fail(upstream, status);
+			return;
+		}
+
+		final boolean stale;
+		boolean structureChanged = false;
+		final ArrayList<Subscription> toNotify = new ArrayList<Subscription>();
+		synchronized (this) {
+			stale = destroyed || failed || this.upstream != upstream;
+			if (!stale)
+			{
+				if (this.structure != null && !this.structure.equals(structure))
+				{
+					// e.g. re-created monitor of a different owner
+					upstream.monitor = monitor;
+					structureChanged = true;
+				}
+				else
+				{
+					upstream.monitor = monitor;
+					if (this.structure == null)
+					{
+						this.status = status;
+						this.structure = structure;
+						current = pvDataCreate.createPVStructure(structure);
+					}
+					for (Subscription subscription : subscriptions)
+					{
+						subscription.init();
+						if (subscription.markConnected())
+							toNotify.add(subscription);
+					}
+				}
+			}
+		}
+
+		if (stale)
+		{
+			monitor.destroy();
+			return;
+		}
+
+		if (structureChanged)
+		{
+			fail(upstream, statusCreate.createStatus(StatusType.ERROR, "monitored structure has changed", null));
+			return;
+		}
+
+		for (Subscription subscription : toNotify)
+			subscription.requester.monitorConnect(status, subscription, structure);
+
+		updateMonitorState();
+	}
+
+	private void monitorEvent(Upstream upstream, Monitor monitor) {
+		// one element per event, as MonitorHandler does
+		final MonitorElement element = monitor.poll();
+		if (element == null)
+			return;
+
+		final ArrayList<Subscription> toNotify = new ArrayList<Subscription>();
+		try {
+			distribute(upstream, element, toNotify);
+		} finally {
+			monitor.release(element);
+		}
+
+		for (Subscription subscription : toNotify)
+			subscription.requester.monitorEvent(subscription);
+	}
+
+	private synchronized void distribute(Upstream upstream, MonitorElement element, ArrayList<Subscription> toNotify)
+	{
+		final BitSet changedBitSet = element.getChangedBitSet();
+		if (destroyed || failed || this.upstream != upstream || current == null || changedBitSet == null)
+			return;
+
+		final PVStructure pvStructure = element.getPVStructure();
+		final BitSet overrunBitSet = element.getOverrunBitSet();
+
+		// keep the latest value, for snapshots
+		copyChanged(pvStructure, changedBitSet);
+		hasValue = true;
+
+		if (startedCount[BIG_ENDIAN] + startedCount[LITTLE_ENDIAN] == 0)
+			return;
+
+		final Update update = new Update((BitSet)changedBitSet.clone(),
+				overrunBitSet != null ? (BitSet)overrunBitSet.clone() : new BitSet());
+		try {
+			for (int order = BIG_ENDIAN; order <= LITTLE_ENDIAN; order++)
+				if (startedCount[order] > 0)
+					update.serialize(order, pvStructure);
+
+			for (Subscription subscription : subscriptions)
+				subscription.offer(update, toNotify);
+		} finally {
+			update.release();
+		}
+	}
+
+	private void copyChanged(PVStructure pvStructure, BitSet changedBitSet)
+	{
+		int offset = changedBitSet.nextSetBit(0);
+		if (offset == 0)
+		{
+			convert.copyStructure(pvStructure, current);
+			return;
+		}
+
+		while (offset >= 0)
+		{
+			final PVField from = pvStructure.getSubField(offset);
+			convert.copy(from, current.getSubField(offset));
+			offset = changedBitSet.nextSetBit(from.getNextFieldOffset());
+		}
+	}
+
+	private synchronized Subscription[] getSubscriptions()
+	{
+		return subscriptions.toArray(new Subscription[subscriptions.size()]);
+	}
+
+	/**
+	 * Add subscription, called under registry lock.
+	 * @param requester the requester.
+	 * @param channel the (provider) channel of the subscriber.
+	 * @return the subscription.
+	 */
+	synchronized Subscription addSubscription(MonitorRequester requester, Channel channel)
+	{
+		final Subscription subscription = new Subscription(requester, channel);
+		if (structure != null)
+			subscription.init();
+		subscriptions.add(subscription);
+		return subscription;
+	}
+
+	/**
+	 * Remove subscription, called under registry lock.
+	 * @param subscription the subscription.
+	 * @return <code>true</code> if it was the last subscription, shared monitor is to be destroyed.
+	 */
+	synchronized boolean removeSubscription(Subscription subscription)
+	{
+		if (!subscriptions.remove(subscription))
+			return false;
+
+		subscription.clear();
+		if (subscriptions.isEmpty())
+			destroyed = true;
+		return destroyed;
+	}
+
+	/**
+	 * Called when a (not last) subscription was removed.
+	 * If the monitor was created on its channel, it is re-created on the channel of another subscriber,
+	 * since the channel is destroyed together with the subscription.
+	 * @param subscription the removed subscription.
+	 */
+	void subscriptionRemoved(Subscription subscription)
+	{
+		final Monitor monitor;
+		synchronized (this) {
+			if (upstream == null || upstream.owner != subscription || destroyed || failed)
+			{
+				monitor = null;
+			}
+			else
+			{
+				monitor = upstream.monitor;
+				upstream.monitor = null;
+				upstream = null;
+			}
+		}
+
+		if (monitor != null)
+		{
+			monitor.destroy();
+			createUpstream();
+		}
+
+		updateMonitorState();
+	}
+
+	/**
+	 * Start or stop the monitor, depending on whether any subscriber is started.
+	 * Provider is called without holding the shared monitor lock.
+	 */
+	void updateMonitorState()
+	{
+		synchronized (startStopLock) {
+			final Upstream upstream;
+			final Monitor monitor;
+			final boolean start;
+			synchronized (this) {
+				upstream = (destroyed || failed) ? null : this.upstream;
+				monitor = (upstream != null) ? upstream.monitor : null;
+				start = startedCount[BIG_ENDIAN] + startedCount[LITTLE_ENDIAN] > 0;
+				if (!start)
+					hasValue = false;
+			}
+
+			if (monitor == null || start == upstream.started)
+				return;
+
+			upstream.started = start;
+			if (start)
+				monitor.start();
+			else
+				monitor.stop();
+		}
+	}
+
+	/**
+	 * Destroy the monitor, the channel belongs to the subscriber and is not destroyed.
+	 */
+	void destroy()
+	{
+		final Monitor monitor;
+		synchronized (this) {
+			destroyed = true;
+			monitor = (upstream != null) ? upstream.monitor : null;
+			if (upstream != null)
+				upstream.monitor = null;
+			upstream = null;
+		}
+
+		if (monitor != null)
+			monitor.destroy();
+	}
+
+	/**
+	 * Immutable, ref-counted serialized update: changedBitSet, data and overrunBitSet.
+	 */
+	final static class Update {
+		private final BitSet changedBitSet;
+		private final BitSet overrunBitSet;
+		private final ByteBuffer[] data = new ByteBuffer[2];
+		private final AtomicInteger refCount = new AtomicInteger(1);
+
+		private Update(BitSet changedBitSet, BitSet overrunBitSet) {
+			this.changedBitSet = changedBitSet;
+			this.overrunBitSet = overrunBitSet;
+		}
+
+		private void serialize(int order, PVStructure pvStructure)
+		{
+			final SerializingControl control = new SerializingControl(
+					order == LITTLE_ENDIAN ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+			final ByteBuffer buffer = control.getBuffer();
+			changedBitSet.serialize(buffer, control);
+			pvStructure.serialize(buffer, control, changedBitSet);
+			overrunBitSet.serialize(buffer, control);
+			data[order] = control.finish();
+		}
+
+		private void retain()
+		{
+			refCount.incrementAndGet();
+		}
+
+		/**
+		 * Release the update, buffers are returned to the pool when no longer referenced.
+		 */
+		void release()
+		{
+			if (refCount.decrementAndGet() == 0)
+			{
+				for (int order = BIG_ENDIAN; order <= LITTLE_ENDIAN; order++)
+				{
+					if (data[order] != null)
+					{
+						bufferPool.release(data[order]);
+						data[order] = null;
+					}
+				}
+			}
+		}
+
+		/**
+		 * Write serialized update.
+		 * @param buffer the buffer to write to, its byte order selects the serialized data.
+		 * @param control the serialization control.
+		 */
+		void send(ByteBuffer buffer, SerializableControl control)
+		{
+			final int order = (buffer.order() == ByteOrder.LITTLE_ENDIAN) ? LITTLE_ENDIAN : BIG_ENDIAN;
+			final ByteBuffer toSend = data[order].duplicate();
+
+			// large updates are written without copying
+			if (control instanceof DirectSerializableControl &&
+				((DirectSerializableControl)control).directSerialize(buffer, toSend))
+				return;
+
+			final int limit = toSend.limit();
+			while (toSend.hasRemaining())
+			{
+				final int length = Math.min(toSend.remaining(), buffer.remaining());
+				if (length == 0)
+				{
+					control.flushSerializeBuffer();
+					continue;
+				}
+				toSend.limit(toSend.position() + length);
+				buffer.put(toSend);
+				toSend.limit(limit);
+			}
+		}
+	}
+
+	/**
+	 * Serializes into a pooled buffer.
+	 * Introspection data is serialized inline, since transport caches cannot be shared.
+	 */
+	private static final class SerializingControl implements SerializableControl {
+		private final ByteOrder byteOrder;
+		private final ByteBuffer buffer;
+		private ByteBuffer accumulated = null;
+
+		private SerializingControl(ByteOrder byteOrder) {
+			this.byteOrder = byteOrder;
+			buffer = bufferPool.acquire(bufferPool.getBaseSize());
+			buffer.order(byteOrder);
+		}
+
+		private ByteBuffer getBuffer() {
+			return buffer;
+		}
+
+		/* (non-Javadoc)
+		 * @see org.epics.pvdata.pv.SerializableControl#flushSerializeBuffer()
+		 */
+		@Override
+		public void flushSerializeBuffer() {
+			buffer.flip();
+			if (accumulated == null)
+			{
+				accumulated = bufferPool.acquire(2 * buffer.capacity());
+				accumulated.order(byteOrder);
+			}
+			else if (accumulated.remaining() < buffer.remaining())
+			{
+				ByteBuffer larger = bufferPool.acquire(2 * (accumulated.position() + buffer.remaining()));
+				larger.order(byteOrder);
+				accumulated.flip();
+				larger.put(accumulated);
+				bufferPool.release(accumulated);
+				accumulated = larger;
+			}
+			accumulated.put(buffer);
+			// serializers keep reference to the buffer, so it has to be reused
+			buffer.clear();
+		}
+
+		/* (non-Javadoc)
+		 * @see org.epics.pvdata.pv.SerializableControl#ensureBuffer(int)
+		 */
+		@Override
+		public void ensureBuffer(int size) {
+			if (buffer.remaining() < size)
+				flushSerializeBuffer();
+		}
+
+		/* (non-Javadoc)
+		 * @see org.epics.pvdata.pv.SerializableControl#alignBuffer(int)
+		 */
+		@Override
+		public void alignBuffer(int alignment) {
+			// noop, data is copied to an arbitrary position of a transport buffer
+		}
+
+		/* (non-Javadoc)
+		 * @see org.epics.pvdata.pv.SerializableControl#cachedSerialize(org.epics.pvdata.pv.Field, java.nio.ByteBuffer)
+		 */
+		@Override
+		public void cachedSerialize(Field field, ByteBuffer buffer) {
+			if (field == null)
+				SerializationHelper.serializeNullField(buffer, this);
+			else
+				field.serialize(buffer, this);
+		}
+
+		/**
+		 * @return serialized data, ready to be read.
+		 */
+		private ByteBuffer finish()
+		{
+			if (accumulated == null)
+			{
+				buffer.flip();
+				return buffer;
+			}
+
+			flushSerializeBuffer();
+			bufferPool.release(buffer);
+			accumulated.flip();
+			return accumulated;
+		}
+	}
+
+	/**
+	 * Subscriber's monitor, with its own queue.
+	 * Its state is guarded by shared monitor lock.
+	 */
+	final class Subscription implements Monitor {
+		private final MonitorRequester requester;
+		private final Channel channel;
+		private final ArrayDeque<Update> queue = new ArrayDeque<Update>(queueSize);
+		private boolean connected = false;
+		private boolean started = false;
+		private int byteOrder = BIG_ENDIAN;
+		// updates merged into a snapshot, when queue is full
+		private boolean merging = false;
+		private BitSet changedBitSet;
+		private BitSet overrunBitSet;
+
+		private Subscription(MonitorRequester requester, Channel channel) {
+			this.requester = requester;
+			this.channel = channel;
+		}
+
+		private void init()
+		{
+			if (changedBitSet != null)
+				return;
+			final int numberFields = current.getNumberFields();
+			changedBitSet = new BitSet(numberFields, true);
+			overrunBitSet = new BitSet(numberFields, true);
+		}
+
+		private boolean markConnected()
+		{
+			if (connected)
+				return false;
+			connected = true;
+			return true;
+		}
+
+		/**
+		 * Report connection status if shared monitor is already connected (or has failed).
+		 */
+		void connect()
+		{
+			final Status status;
+			final Structure structure;
+			synchronized (SharedMonitor.this) {
+				status = SharedMonitor.this.status;
+				structure = SharedMonitor.this.structure;
+				if (status == null || !markConnected())
+					return;
+			}
+			requester.monitorConnect(status, this, status.isSuccess() ? structure : null);
+		}
+
+		/**
+		 * Set byte order of the subscriber's transport.
+		 * @param order the byte order.
+		 */
+		void setByteOrder(ByteOrder order)
+		{
+			final int newOrder = (order == ByteOrder.LITTLE_ENDIAN) ? LITTLE_ENDIAN : BIG_ENDIAN;
+			synchronized (SharedMonitor.this) {
+				if (started)
+				{
+					startedCount[byteOrder]--;
+					startedCount[newOrder]++;
+				}
+				byteOrder = newOrder;
+			}
+		}
+
+		private void offer(Update update, ArrayList<Subscription> toNotify)
+		{
+			if (!started)
+				return;
+
+			if (merging || queue.size() >= queueSize || update.data[byteOrder] == null)
+			{
+				if (!merging)
+				{
+					merging = true;
+					toNotify.add(this);
+				}
+				changedBitSet.orWithOverrun(update.changedBitSet, overrunBitSet);
+				overrunBitSet.or(update.overrunBitSet);
+			}
+			else
+			{
+				update.retain();
+				queue.add(update);
+				toNotify.add(this);
+			}
+		}
+
+		/**
+		 * Poll next update, caller must release it.
+		 * @return the update, <code>null</code> if none.
+		 */
+		Update pollUpdate()
+		{
+			synchronized (SharedMonitor.this) {
+				Update update = queue.poll();
+				if (update != null || !merging)
+					return update;
+
+				// snapshot of the latest value
+				merging = false;
+				update = new Update((BitSet)changedBitSet.clone(), (BitSet)overrunBitSet.clone());
+				changedBitSet.clear();
+				overrunBitSet.clear();
+				update.serialize(byteOrder, current);
+				return update;
+			}
+		}
+
+		private void clear()
+		{
+			if (started)
+			{
+				started = false;
+				startedCount[byteOrder]--;
+			}
+
+			Update update;
+			while ((update = queue.poll()) != null)
+				update.release();
+
+			merging = false;
+			if (changedBitSet != null)
+			{
+				changedBitSet.clear();
+				overrunBitSet.clear();
+			}
+		}
+
+		/* (non-Javadoc)
+		 * @see org.epics.pvdata.monitor.Monitor#start()
+		 */
+		@Override
+		public Status start() {
+			boolean notify = false;
+			synchronized (SharedMonitor.this) {
+				if (started || destroyed)
+					return okStatus;
+
+				// late subscriber gets a snapshot of the latest value
+				final boolean running = startedCount[BIG_ENDIAN] + startedCount[LITTLE_ENDIAN] > 0;
+				started = true;
+				startedCount[byteOrder]++;
+				if (running && hasValue && changedBitSet != null)
+				{
+					merging = true;
+					changedBitSet.set(0);
+					notify = true;
+				}
+			}
+
+			if (notify)
+				requester.monitorEvent(this);
+
+			updateMonitorState();
+			return okStatus;
+		}
+
+		/* (non-Javadoc)
+		 * @see org.epics.pvdata.monitor.Monitor#stop()
+		 */
+		@Override
+		public Status stop() {
+			synchronized (SharedMonitor.this) {
+				if (!started)
+					return okStatus;
+				clear();
+			}
+
+			updateMonitorState();
+			return okStatus;
+		}
+
+		/* (non-Javadoc)
+		 * @see org.epics.pvdata.monitor.Monitor#poll()
+		 */
+		@Override
+		public MonitorElement poll() {
+			// updates are polled via pollUpdate()
+			return null;
+		}
+
+		/* (non-Javadoc)
+		 * @see org.epics.pvdata.monitor.Monitor#release(org.epics.pvdata.monitor.MonitorElement)
+		 */
+		@Override
+		public void release(MonitorElement monitorElement) {
+			// noop
+		}
+
+		/* (non-Javadoc)
+		 * @see org.epics.pvdata.misc.Destroyable#destroy()
+		 */
+		@Override
+		public void destroy() {
+			fanout.unsubscribe(SharedMonitor.this, this);
+		}
+	}
+}
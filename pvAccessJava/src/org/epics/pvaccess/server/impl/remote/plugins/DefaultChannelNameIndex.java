@@ -0,0 +1,143 @@
+/**
+ * Copyright information and license terms for this software can be
+ * found in the file LICENSE.TXT included with the distribution.
+ */
+package org.epics.pvaccess.server.impl.remote.plugins;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.epics.pvaccess.server.plugins.ChannelNameIndex;
+import org.epics.pvaccess.util.WildcharMatcher;
+
+/**
+ * Channel name index, to be used (or extended) by <code>ChannelProvider</code> implementations.
+ * Channel names are matched by (in this order):
+ * <ul>
+ * <li>exact name (hash lookup),</li>
+ * <li>name prefix (hash lookup per distinct prefix length),</li>
+ * <li>wildcard pattern (see <code>WildcharMatcher</code>), patterns are checked one by one.</li>
+ * </ul>
+ * All the methods are thread-safe, lookups are not blocked by modifications.
+ */
+public class DefaultChannelNameIndex implements ChannelNameIndex {
+
+	private final Set<String> names = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+	private final Set<String> prefixes = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+	
+	/**
+	 * Sorted distinct lengths of <code>prefixes</code>, replaced on change.
+	 */
+	private volatile int[] prefixLengths = new int[0];
+	
+	private final CopyOnWriteArrayList<String> patterns = new CopyOnWriteArrayList<String>();
+	
+	/**
+	 * Add channel name.
+	 * @param name channel name.
+	 */
+	public void addName(String name) {
+		names.add(name);
+	}
+	
+	/**
+	 * Remove channel name.
+	 * @param name channel name.
+	 */
+	public void removeName(String name) {
+		names.remove(name);
+	}
+	
+	/**
+	 * Add name prefix, i.e. all the channel names starting with this prefix are hosted.
+	 * @param prefix non-empty name prefix.
+	 */
+	public synchronized void addPrefix(String prefix) {
+		if (prefix.length() == 0)
+			throw new IllegalArgumentException("empty prefix");
+		if (prefixes.add(prefix))
+			updatePrefixLengths();
+	}
+	
+	/**
+	 * Remove name prefix.
+	 * @param prefix name prefix.
+	 */
+	public synchronized void removePrefix(String prefix) {
+		if (prefixes.remove(prefix))
+			updatePrefixLengths();
+	}
+	
+	// assumes synchronization on this instance
+	private void updatePrefixLengths() {
+		int[] lengths = new int[prefixes.size()];
+		int count = 0;
+		for (String prefix : prefixes)
+			lengths[count++] = prefix.length();
+		Arrays.sort(lengths);
+		
+		// remove duplicates
+		int distinct = 0;
+		for (int i = 0; i < count; i++)
+			if (distinct == 0 || lengths[distinct - 1] != lengths[i])
+				lengths[distinct++] = lengths[i];
+		
+		prefixLengths = Arrays.copyOf(lengths, distinct);
+	}
+	
+	/**
+	 * Add wildcard pattern (see <code>WildcharMatcher</code>).
+	 * @param pattern wildcard pattern.
+	 */
+	public void addPattern(String pattern) {
+		patterns.addIfAbsent(pattern);
+	}
+
+	/**
+	 * Remove wildcard pattern.
+	 * @param pattern wildcard pattern.
+	 */
+	public void removePattern(String pattern) {
+		patterns.remove(pattern);
+	}
+	
+	/**
+	 * Check if given channel is hosted.
+	 * @param channelName channel name.
+	 * @return <code>true</code> if channel name matches any of the names, prefixes or patterns.
+	 */
+	public boolean contains(String channelName) {
+		if (names.contains(channelName))
+			return true;
+		
+		final int length = channelName.length();
+		for (int prefixLength : prefixLengths)
+		{
+			if (prefixLength > length)
+				break;
+			if (prefixes.contains(channelName.substring(0, prefixLength)))
+				return true;
+		}
+		
+		if (!patterns.isEmpty())
+			for (String pattern : patterns)
+				if (WildcharMatcher.match(pattern, channelName))
+					return true;
+		
+		return false;
+	}
+	
+	/* (non-Javadoc)
+	 * @see org.epics.pvaccess.server.plugins.ChannelNameIndex#lookup(java.lang.String[], int, boolean[])
+	 */
+	@Override
+	public void lookup(String[] channelNames, int count, boolean[] hosted) {
+		for (int i = 0; i < count; i++)
+			hosted[i] = contains(channelNames[i]);
+	}
+
+}
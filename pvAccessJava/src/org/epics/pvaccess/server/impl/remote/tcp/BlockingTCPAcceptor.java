@@ -27,6 +27,7 @@ import java.util.logging.Level;
 import org.epics.pvaccess.PVAException;
 import org.epics.pvaccess.impl.remote.Context;
 import org.epics.pvaccess.impl.remote.Transport;
+import org.epics.pvaccess.impl.remote.io.impl.PollerGroup;
 import org.epics.pvaccess.server.impl.remote.ServerContextImpl;
 
 /**
@@ -61,21 +62,29 @@ public class BlockingTCPAcceptor {
 	 */
 	private AtomicBoolean destroyed = new AtomicBoolean(false);
 
-	//private final PollerImpl poller;
+	/**
+	 * Pollers serving accepted connections, <code>null</code> if each connection uses its own threads.
+	 */
+	private final PollerGroup pollerGroup;
 
 	public BlockingTCPAcceptor(Context context, int port, int receiveBufferSize) throws PVAException {
+		this(context, port, receiveBufferSize, null);
+	}
+
+	/**
+	 * Create acceptor.
+	 * @param context context where accepted transports live in.
+	 * @param port port to listen to.
+	 * @param receiveBufferSize receive buffer size.
+	 * @param pollerGroup pollers to multiplex accepted connections on,
+	 * 		if <code>null</code> blocking transport with its own receive and send thread is created per connection.
+	 * @throws PVAException thrown on initialization failure.
+	 */
+	public BlockingTCPAcceptor(Context context, int port, int receiveBufferSize, PollerGroup pollerGroup) throws PVAException {
 		this.context = context;
 		this.receiveBufferSize = receiveBufferSize;
+		this.pollerGroup = pollerGroup;
 
-		/*
-		// TODO!!!
-		try {
-			poller = new PollerImpl();
-		} catch (IOException e) {
-			throw new RuntimeException(e);
-		}
-		poller.start();
-		 */
 		initialize(port);
 	}
 
@@ -105,8 +114,11 @@ public class BlockingTCPAcceptor {
 				// do NOT tune socket buffer sizes, this will disable auto-tuning
 				
 				// create transport
-				final Transport transport = new BlockingServerTCPTransport(context, socket, ((ServerContextImpl)context).getServerResponseHandler(), receiveBufferSize);
-				//final Transport transport = new NonBlockingServerTCPTransport(context, poller, socket, ((ServerContextImpl)context).getServerResponseHandler(), receiveBufferSize);
+				final Transport transport;
+				if (pollerGroup != null)
+					transport = new NonBlockingServerTCPTransport(context, pollerGroup.next(), socket, ((ServerContextImpl)context).getServerResponseHandler(), receiveBufferSize);
+				else
+					transport = new BlockingServerTCPTransport(context, socket, ((ServerContextImpl)context).getServerResponseHandler(), receiveBufferSize);
 	
 				// validate connection
 				if (!validateConnection(transport, address))
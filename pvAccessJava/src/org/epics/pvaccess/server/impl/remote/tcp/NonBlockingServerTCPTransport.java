@@ -478,6 +478,8 @@ public class NonBlockingServerTCPTransport extends NonBlockingTCPTransport
 	 */
 	@Override
 	protected void ready() {
-		enqueueSendRequest(this);
+		// validation request might have been enqueued by verify() before registration completed
+		if (!sendQueue.isEmpty())
+			scheduleSend();
 	}	
 }
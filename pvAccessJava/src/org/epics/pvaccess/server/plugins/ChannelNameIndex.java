@@ -0,0 +1,26 @@
+/**
+ * Copyright information and license terms for this software can be
+ * found in the file LICENSE.TXT included with the distribution.
+ */
+package org.epics.pvaccess.server.plugins;
+
+/**
+ * Optional interface implemented by a <code>ChannelProvider</code> that can tell
+ * which channels it hosts without blocking.
+ * Server search handling queries such providers for all the channels of a search request at once,
+ * instead of calling <code>ChannelProvider.channelFind()</code> for each channel.
+ * @see org.epics.pvaccess.server.impl.remote.plugins.DefaultChannelNameIndex
+ */
+public interface ChannelNameIndex {
+
+	/**
+	 * Check which of the given channels are hosted.
+	 * Called by the search request receiving thread, must not block.
+	 * @param channelNames names of the channels.
+	 * @param count number of names (from the beginning of the array) to check.
+	 * @param hosted result array, <code>hosted[i]</code> is set to <code>true</code> if
+	 * 		channel <code>channelNames[i]</code> is hosted, to <code>false</code> otherwise.
+	 */
+	public void lookup(String[] channelNames, int count, boolean[] hosted);
+
+}
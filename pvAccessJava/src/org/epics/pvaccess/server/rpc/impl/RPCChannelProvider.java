@@ -14,6 +14,7 @@ import org.epics.pvaccess.client.ChannelFindRequester;
 import org.epics.pvaccess.client.ChannelListRequester;
 import org.epics.pvaccess.client.ChannelProvider;
 import org.epics.pvaccess.client.ChannelRequester;
+import org.epics.pvaccess.server.plugins.ChannelNameIndex;
 import org.epics.pvaccess.server.rpc.Service;
 import org.epics.pvaccess.util.WildcharMatcher;
 import org.epics.pvdata.factory.StatusFactory;
@@ -25,7 +26,7 @@ import org.epics.pvdata.pv.StatusCreate;
  * @author msekoranja
  *
  */
-public class RPCChannelProvider implements ChannelProvider {
+public class RPCChannelProvider implements ChannelProvider, ChannelNameIndex {
 
 	public static final String PROVIDER_NAME = "rpcService";
 
@@ -99,6 +100,18 @@ public class RPCChannelProvider implements ChannelProvider {
 		return channelFind;
 	}
 
+	/* (non-Javadoc)
+	 * @see org.epics.pvaccess.server.plugins.ChannelNameIndex#lookup(java.lang.String[], int, boolean[])
+	 */
+	@Override
+	public void lookup(String[] channelNames, int count, boolean[] hosted) {
+		synchronized (services) {
+			for (int i = 0; i < count; i++)
+				hosted[i] = services.containsKey(channelNames[i]) ||
+						(findWildService(channelNames[i]) != null);
+		}
+	}
+
 	@Override
 	public ChannelFind channelList(ChannelListRequester channelListRequester) {
 		channelListRequester.channelListResult(okStatus, channelFind, services.keySet(), false);
@@ -0,0 +1,233 @@
+/**
+ * Copyright information and license terms for this software can be
+ * found in the file LICENSE.TXT included with the distribution.
+ */
+package org.epics.pvaccess.util;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.epics.pvaccess.PVAConstants;
+import org.epics.pvaccess.impl.remote.codec.AbstractCodec;
+
+/**
+ * Size-classed pool of direct byte buffers.
+ * Size classes are <code>baseSize * 2^n</code>, a buffer of the smallest class that fits the requested size is returned.
+ * Requests larger than the largest class are served by non-pooled buffers.
+ * Transport buffers use the smallest class, buffers that grow by doubling (e.g. messages assembled
+ * by non-blocking codecs, see <code>NonBlockingAbstractCodec</code>) move through the larger classes.
+ * Released buffers are kept for reuse up to <code>maxIdleBytes</code>, the rest is left to GC.
+ */
+public class ByteBufferPool {
+
+	/**
+	 * Shared pool, base size is size of TCP transport buffers.
+	 */
+	private static final ByteBufferPool SHARED = new ByteBufferPool(
+			PVAConstants.MAX_TCP_RECV + AbstractCodec.MAX_ENSURE_DATA_SIZE, 11,
+			Long.getLong("org.epics.pvaccess.util.ByteBufferPool.maxIdleBytes", 64*1024*1024));
+
+	/**
+	 * Get shared pool.
+	 * @return shared pool instance.
+	 */
+	public static ByteBufferPool getShared()
+	{
+		return SHARED;
+	}
+
+	private final int baseSize;
+	private final int[] classSizes;
+	private final long maxIdleBytes;
+
+	private final ConcurrentLinkedQueue<ByteBuffer>[] idle;
+	private final AtomicInteger[] idleCount;
+	private final AtomicInteger[] inUseCount;
+
+	private final AtomicLong idleBytes = new AtomicLong();
+	private final AtomicLong inUseBytes = new AtomicLong();
+	private final AtomicLong allocatedCount = new AtomicLong();
+	private final AtomicLong reusedCount = new AtomicLong();
+
+	/**
+	 * Constructor.
+	 * @param baseSize size of the smallest size class.
+	 * @param classes number of size classes.
+	 * @param maxIdleBytes maximum number of bytes kept in idle buffers.
+	 */
+	@SuppressWarnings("unchecked")
+	public ByteBufferPool(int baseSize, int classes, long maxIdleBytes)
+	{
+		if (baseSize <= 0)
+			throw new IllegalArgumentException("baseSize <= 0");
+		if (classes <= 0 || ((long)baseSize << (classes - 1)) > Integer.MAX_VALUE)
+			throw new IllegalArgumentException("invalid number of classes");
+
+		this.baseSize = baseSize;
+		this.maxIdleBytes = maxIdleBytes;
+
+		classSizes = new int[classes];
+		idle = new ConcurrentLinkedQueue[classes];
+		idleCount = new AtomicInteger[classes];
+		inUseCount = new AtomicInteger[classes];
+		for (int i = 0; i < classes; i++)
+		{
+			classSizes[i] = baseSize << i;
+			idle[i] = new ConcurrentLinkedQueue<ByteBuffer>();
+			idleCount[i] = new AtomicInteger();
+			inUseCount[i] = new AtomicInteger();
+		}
+	}
+
+	private int sizeClass(int capacity)
+	{
+		for (int i = 0; i < classSizes.length; i++)
+			if (capacity <= classSizes[i])
+				return i;
+		return -1;
+	}
+
+	/**
+	 * Acquire a (cleared, big endian) buffer.
+	 * @param size minimal capacity of the buffer.
+	 * @return the buffer, its capacity can be greater than requested.
+	 */
+	public ByteBuffer acquire(int size)
+	{
+		final int sizeClass = sizeClass(size);
+		if (sizeClass < 0)
+		{
+			// non-pooled
+			allocatedCount.incrementAndGet();
+			return ByteBuffer.allocateDirect(size);
+		}
+
+		ByteBuffer buffer = idle[sizeClass].poll();
+		if (buffer != null)
+		{
+			idleCount[sizeClass].decrementAndGet();
+			idleBytes.addAndGet(-buffer.capacity());
+			reusedCount.incrementAndGet();
+			buffer.clear();
+			buffer.order(ByteOrder.BIG_ENDIAN);
+		}
+		else
+		{
+			buffer = ByteBuffer.allocateDirect(classSizes[sizeClass]);
+			allocatedCount.incrementAndGet();
+		}
+
+		inUseCount[sizeClass].incrementAndGet();
+		inUseBytes.addAndGet(buffer.capacity());
+		return buffer;
+	}
+
+	/**
+	 * Return a buffer acquired from this pool.
+	 * Caller must not use the buffer anymore.
+	 * @param buffer buffer to release.
+	 */
+	public void release(ByteBuffer buffer)
+	{
+		final int capacity = buffer.capacity();
+		final int sizeClass = sizeClass(capacity);
+		// non-pooled
+		if (sizeClass < 0 || classSizes[sizeClass] != capacity || !buffer.isDirect())
+			return;
+
+		inUseCount[sizeClass].decrementAndGet();
+		inUseBytes.addAndGet(-capacity);
+
+		if (idleBytes.addAndGet(capacity) > maxIdleBytes)
+		{
+			// pool full, leave it to GC
+			idleBytes.addAndGet(-capacity);
+			return;
+		}
+
+		idleCount[sizeClass].incrementAndGet();
+		idle[sizeClass].offer(buffer);
+	}
+
+	/**
+	 * Get size of the smallest size class.
+	 * @return size in bytes.
+	 */
+	public int getBaseSize() {
+		return baseSize;
+	}
+
+	/**
+	 * Get number of pooled buffers in use.
+	 * @return number of buffers.
+	 */
+	public int getInUseCount() {
+		int count = 0;
+		for (AtomicInteger c : inUseCount)
+			count += c.get();
+		return count;
+	}
+
+	/**
+	 * Get number of bytes of pooled buffers in use.
+	 * @return number of bytes.
+	 */
+	public long getInUseBytes() {
+		return inUseBytes.get();
+	}
+
+	/**
+	 * Get number of idle buffers.
+	 * @return number of buffers.
+	 */
+	public int getIdleCount() {
+		int count = 0;
+		for (AtomicInteger c : idleCount)
+			count += c.get();
+		return count;
+	}
+
+	/**
+	 * Get number of bytes of idle buffers.
+	 * @return number of bytes.
+	 */
+	public long getIdleBytes() {
+		return idleBytes.get();
+	}
+
+	/**
+	 * Get total number of allocated buffers.
+	 * @return number of buffers.
+	 */
+	public long getAllocatedCount() {
+		return allocatedCount.get();
+	}
+
+	/**
+	 * Get total number of reused buffers.
+	 * @return number of buffers.
+	 */
+	public long getReusedCount() {
+		return reusedCount.get();
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("inUse: ").append(getInUseCount()).append(" (").append(getInUseBytes()).append(" bytes)");
+		sb.append(", idle: ").append(getIdleCount()).append(" (").append(getIdleBytes()).append(" bytes)");
+		sb.append(", allocated: ").append(getAllocatedCount());
+		sb.append(", reused: ").append(getReusedCount());
+		sb.append(", classes [size:inUse/idle]:");
+		for (int i = 0; i < classSizes.length; i++)
+			if (inUseCount[i].get() != 0 || idleCount[i].get() != 0)
+				sb.append(' ').append(classSizes[i]).append(':').append(inUseCount[i].get()).append('/').append(idleCount[i].get());
+		return sb.toString();
+	}
+}
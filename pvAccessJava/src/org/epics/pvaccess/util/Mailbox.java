@@ -1,28 +1,39 @@
 package org.epics.pvaccess.util;
 
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * @author msekoranja
  * @param <E> element type.
  */
+// NOTE: j.u.c. lock is used instead of a monitor, waiting on a monitor pins virtual thread to its carrier thread
 public class Mailbox<E> {
 
 	private final ConcurrentLinkedQueue<E> queue = new ConcurrentLinkedQueue<E>();
 	private final AtomicInteger elements = new AtomicInteger(0);
 	private final AtomicBoolean wakeup = new AtomicBoolean(false);
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition notEmpty = lock.newCondition();
 
 	public void put(E msg)
 	{
 		queue.add(msg);
 		if (elements.incrementAndGet() == 1)
 		{
-		    synchronized (elements)
-		    {
-		        elements.notify();
-		    }
+			lock.lock();
+			try
+			{
+				notEmpty.signal();
+			}
+			finally
+			{
+				lock.unlock();
+			}
 		}
 	}
 	
@@ -33,28 +44,36 @@ public class Mailbox<E> {
 			E val = queue.poll();
 			if (val == null)
 			{
-			    synchronized (elements)
-			    {
-			    	boolean isEmpty = queue.isEmpty();
-			    	if (isEmpty && timeout < 0)
-			    		return null;
-			    	
-			        while (isEmpty)
-			        {
-			        	elements.wait(timeout);		
-			        	isEmpty = queue.isEmpty();
-			        	if (isEmpty)
-			        	{
-			        		if (timeout > 0)	// TODO spurious wakeup, but not critical
-			        			return null;
-			        		else // if (timeout == 0)	cannot be negative
-			        		{
-			        			if (wakeup.getAndSet(false))
-			        				return null;
-			        		}
-			        	}
-			        }
-			    }
+				lock.lock();
+				try
+				{
+					boolean isEmpty = queue.isEmpty();
+					if (isEmpty && timeout < 0)
+						return null;
+					
+					while (isEmpty)
+					{
+						if (timeout > 0)
+							notEmpty.await(timeout, TimeUnit.MILLISECONDS);
+						else
+							notEmpty.await();
+						isEmpty = queue.isEmpty();
+						if (isEmpty)
+						{
+							if (timeout > 0)	// TODO spurious wakeup, but not critical
+								return null;
+							else // if (timeout == 0)	cannot be negative
+							{
+								if (wakeup.getAndSet(false))
+									return null;
+							}
+						}
+					}
+				}
+				finally
+				{
+					lock.unlock();
+				}
 			}
 			else
 			{
@@ -79,9 +98,14 @@ public class Mailbox<E> {
 	{
 		if (!wakeup.getAndSet(true))
 		{
-			synchronized (elements)
+			lock.lock();
+			try
+			{
+				notEmpty.signalAll();
+			}
+			finally
 			{
-				elements.notifyAll();
+				lock.unlock();
 			}
 		}
 	}
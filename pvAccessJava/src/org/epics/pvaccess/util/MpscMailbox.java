@@ -0,0 +1,296 @@
+/**
+ * Copyright information and license terms for this software can be
+ * found in the file LICENSE.TXT included with the distribution.
+ */
+package org.epics.pvaccess.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Lock-free multi-producer/single-consumer mailbox, a drop-in replacement for <code>Mailbox</code>.
+ * Elements are stored in a growable array ring (algorithm of JCTools <code>MpscGrowableArrayQueue</code>):
+ * when a ring gets full a new one of double size is linked and the old one is dropped once drained,
+ * therefore no allocation is done in steady state. Producers wake up a waiting consumer using park/unpark.
+ * <code>take</code> and <code>clear</code> must be called only by a single (consumer) thread.
+ * @param <E> element type.
+ */
+public class MpscMailbox<E> {
+
+	private static final int DEFAULT_INITIAL_CAPACITY = 64;
+	private static final int MAX_CAPACITY = 1 << 30;
+
+	// marks the slot where producer moved to the next (linked) buffer
+	private static final Object JUMP = new Object();
+
+	private static final int CONTINUE_TO_P_INDEX_CAS = 0;
+	private static final int RETRY = 1;
+	private static final int QUEUE_FULL = 2;
+	private static final int QUEUE_RESIZE = 3;
+
+	private static final AtomicLongFieldUpdater<MpscMailbox> PRODUCER_INDEX =
+		AtomicLongFieldUpdater.newUpdater(MpscMailbox.class, "producerIndex");
+	private static final AtomicLongFieldUpdater<MpscMailbox> PRODUCER_LIMIT =
+		AtomicLongFieldUpdater.newUpdater(MpscMailbox.class, "producerLimit");
+	private static final AtomicLongFieldUpdater<MpscMailbox> CONSUMER_INDEX =
+		AtomicLongFieldUpdater.newUpdater(MpscMailbox.class, "consumerIndex");
+
+	// NOTE: all indices are doubled, odd producer index marks resize in progress
+	private final long maxQueueCapacity = 2L * MAX_CAPACITY;
+
+	private volatile long producerIndex = 0;
+	private volatile long producerLimit;
+	private volatile long producerMask;
+	private volatile AtomicReferenceArray<Object> producerBuffer;
+
+	private volatile long consumerIndex = 0;
+	private long consumerMask;
+	private AtomicReferenceArray<Object> consumerBuffer;
+
+	private volatile Thread waiter = null;
+	private final AtomicBoolean wakeup = new AtomicBoolean(false);
+
+	public MpscMailbox()
+	{
+		this(DEFAULT_INITIAL_CAPACITY);
+	}
+
+	/**
+	 * Constructor.
+	 * @param initialCapacity initial capacity, rounded up to power of 2.
+	 */
+	public MpscMailbox(int initialCapacity)
+	{
+		if (initialCapacity < 2)
+			initialCapacity = 2;
+		else if (initialCapacity > MAX_CAPACITY)
+			initialCapacity = MAX_CAPACITY;
+		int capacity = Integer.highestOneBit(initialCapacity - 1) << 1;
+
+		// last element holds a link to the next buffer
+		AtomicReferenceArray<Object> buffer = new AtomicReferenceArray<Object>(capacity + 1);
+		long mask = (long)(capacity - 1) << 1;
+
+		producerBuffer = buffer;
+		producerMask = mask;
+		consumerBuffer = buffer;
+		consumerMask = mask;
+		producerLimit = mask;
+	}
+
+	public void put(E msg)
+	{
+		if (msg == null)
+			throw new NullPointerException("msg == null");
+
+		offer(msg);
+
+		final Thread consumer = waiter;
+		if (consumer != null)
+			LockSupport.unpark(consumer);
+	}
+
+	/**
+	 * Take an element.
+	 * @param timeout negative value for non-blocking call, 0 to wait until an element is available
+	 * 	or <code>wakeup()</code> is called, otherwise timeout in milliseconds.
+	 * @return an element, <code>null</code> if non available.
+	 * @throws InterruptedException thrown if consumer thread gets interrupted while waiting.
+	 */
+	public E take(long timeout) throws InterruptedException
+	{
+		E val = poll();
+		if (val != null || timeout < 0)
+			return val;
+
+		final long deadline = (timeout > 0) ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout) : 0;
+
+		// announce waiting before re-checking, producers check waiter after publishing an element
+		waiter = Thread.currentThread();
+		try
+		{
+			while (true)
+			{
+				val = poll();
+				if (val != null)
+					return val;
+
+				if (wakeup.getAndSet(false))
+					return null;
+
+				if (Thread.interrupted())
+					throw new InterruptedException();
+
+				if (timeout > 0)
+				{
+					final long remaining = deadline - System.nanoTime();
+					if (remaining <= 0)
+						return null;
+					LockSupport.parkNanos(this, remaining);
+				}
+				else
+					LockSupport.park(this);
+			}
+		}
+		finally
+		{
+			waiter = null;
+		}
+	}
+
+	public boolean isEmpty()
+	{
+		return consumerIndex == producerIndex;
+	}
+
+	public void clear()
+	{
+		while (poll() != null);
+	}
+
+	public void wakeup()
+	{
+		if (!wakeup.getAndSet(true))
+		{
+			final Thread consumer = waiter;
+			if (consumer != null)
+				LockSupport.unpark(consumer);
+		}
+	}
+
+	private static int offset(long index, long mask)
+	{
+		return (int)((index & mask) >> 1);
+	}
+
+	private static int nextBufferOffset(long mask)
+	{
+		return (int)(mask >> 1) + 1;
+	}
+
+	private long currentBufferCapacity(long mask)
+	{
+		// one slot is reserved for JUMP, unless buffer cannot grow anymore
+		return (mask + 2 == maxQueueCapacity) ? maxQueueCapacity : mask;
+	}
+
+	private void offer(E e)
+	{
+		long mask;
+		AtomicReferenceArray<Object> buffer;
+		long pIndex;
+
+		while (true)
+		{
+			final long pLimit = producerLimit;
+			pIndex = producerIndex;
+			// resize in progress
+			if ((pIndex & 1) == 1)
+				continue;
+
+			mask = producerMask;
+			buffer = producerBuffer;
+
+			if (pLimit <= pIndex)
+			{
+				final int result = offerSlowPath(mask, pIndex, pLimit);
+				if (result == RETRY)
+					continue;
+				else if (result == QUEUE_RESIZE)
+				{
+					resize(mask, buffer, pIndex, e);
+					return;
+				}
+				else if (result == QUEUE_FULL)
+					throw new IllegalStateException("mailbox full");
+				// CONTINUE_TO_P_INDEX_CAS
+			}
+
+			if (PRODUCER_INDEX.compareAndSet(this, pIndex, pIndex + 2))
+				break;
+		}
+
+		buffer.lazySet(offset(pIndex, mask), e);
+	}
+
+	private int offerSlowPath(long mask, long pIndex, long pLimit)
+	{
+		final long cIndex = consumerIndex;
+		final long bufferCapacity = currentBufferCapacity(mask);
+
+		if (cIndex + bufferCapacity > pIndex)
+			return PRODUCER_LIMIT.compareAndSet(this, pLimit, cIndex + bufferCapacity) ? CONTINUE_TO_P_INDEX_CAS : RETRY;
+		else if (maxQueueCapacity - (pIndex - cIndex) <= 0)
+			return QUEUE_FULL;
+		// odd index blocks other producers until resize is done
+		else if (PRODUCER_INDEX.compareAndSet(this, pIndex, pIndex + 1))
+			return QUEUE_RESIZE;
+		else
+			return RETRY;
+	}
+
+	private void resize(long oldMask, AtomicReferenceArray<Object> oldBuffer, long pIndex, E e)
+	{
+		final int newBufferLength = 2 * (oldBuffer.length() - 1) + 1;
+		final AtomicReferenceArray<Object> newBuffer = new AtomicReferenceArray<Object>(newBufferLength);
+		final long newMask = (long)(newBufferLength - 2) << 1;
+
+		producerBuffer = newBuffer;
+		producerMask = newMask;
+
+		newBuffer.lazySet(offset(pIndex, newMask), e);
+		oldBuffer.lazySet(nextBufferOffset(oldMask), newBuffer);
+
+		final long cIndex = consumerIndex;
+		final long availableInQueue = maxQueueCapacity - (pIndex - cIndex);
+		producerLimit = pIndex + Math.min(newMask, availableInQueue);
+
+		// release other producers
+		PRODUCER_INDEX.lazySet(this, pIndex + 2);
+
+		// consumer follows the link
+		oldBuffer.lazySet(offset(pIndex, oldMask), JUMP);
+	}
+
+	@SuppressWarnings("unchecked")
+	private E poll()
+	{
+		AtomicReferenceArray<Object> buffer = consumerBuffer;
+		final long index = consumerIndex;
+		long mask = consumerMask;
+
+		int offset = offset(index, mask);
+		Object e = buffer.get(offset);
+		if (e == null)
+		{
+			if (index == producerIndex)
+				return null;
+
+			// slot already claimed by a producer, but not yet written
+			do {
+				e = buffer.get(offset);
+			} while (e == null);
+		}
+
+		if (e == JUMP)
+		{
+			final AtomicReferenceArray<Object> nextBuffer =
+				(AtomicReferenceArray<Object>)buffer.get(nextBufferOffset(mask));
+			buffer = nextBuffer;
+			mask = (long)(nextBuffer.length() - 2) << 1;
+			consumerBuffer = buffer;
+			consumerMask = mask;
+
+			// element is written before JUMP
+			offset = offset(index, mask);
+			e = buffer.get(offset);
+		}
+
+		buffer.lazySet(offset, null);
+		CONSUMER_INDEX.lazySet(this, index + 2);
+		return (E)e;
+	}
+}
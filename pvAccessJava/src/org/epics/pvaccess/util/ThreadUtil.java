@@ -0,0 +1,83 @@
+/**
+ * Copyright information and license terms for this software can be
+ * found in the file LICENSE.TXT included with the distribution.
+ */
+package org.epics.pvaccess.util;
+
+import java.lang.reflect.Method;
+
+/**
+ * Thread creation utility methods.
+ * Virtual threads (Java 21+) are accessed via reflection so that the library still runs on older JVMs.
+ */
+public class ThreadUtil {
+
+	private static final Method OF_VIRTUAL;
+	private static final Method BUILDER_NAME;
+	private static final Method BUILDER_UNSTARTED;
+
+	static
+	{
+		Method ofVirtual = null;
+		Method builderName = null;
+		Method builderUnstarted = null;
+		try
+		{
+			ofVirtual = Thread.class.getMethod("ofVirtual");
+			Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+			builderName = builderClass.getMethod("name", String.class);
+			builderUnstarted = builderClass.getMethod("unstarted", Runnable.class);
+
+			// preview feature on some JVMs, check if really available
+			builderUnstarted.invoke(ofVirtual.invoke(null), new Runnable() {
+				@Override
+				public void run() {
+					// noop
+				}
+			});
+		}
+		catch (Throwable th)
+		{
+			ofVirtual = null;
+		}
+
+		OF_VIRTUAL = ofVirtual;
+		BUILDER_NAME = builderName;
+		BUILDER_UNSTARTED = builderUnstarted;
+	}
+
+	/**
+	 * Check whether virtual threads are supported by the running JVM.
+	 * @return <code>true</code> if virtual threads are supported.
+	 */
+	public static boolean isVirtualThreadSupported()
+	{
+		return OF_VIRTUAL != null;
+	}
+
+	/**
+	 * Create a new (unstarted) thread.
+	 * @param runnable thread body.
+	 * @param name thread name.
+	 * @param virtual create a virtual thread, if supported by the running JVM,
+	 * 	otherwise a platform thread is created.
+	 * @return a new thread.
+	 */
+	public static Thread newThread(Runnable runnable, String name, boolean virtual)
+	{
+		if (virtual && OF_VIRTUAL != null)
+		{
+			try
+			{
+				Object builder = BUILDER_NAME.invoke(OF_VIRTUAL.invoke(null), name);
+				return (Thread)BUILDER_UNSTARTED.invoke(builder, runnable);
+			}
+			catch (Throwable th)
+			{
+				// fallback to platform thread
+			}
+		}
+
+		return new Thread(runnable, name);
+	}
+}
@@ -0,0 +1,257 @@
+/**
+ * Copyright information and license terms for this software can be
+ * found in the file LICENSE.TXT included with the distribution.
+ */
+package org.epics.pvaccess.client.test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+import org.epics.pvaccess.PVAConstants;
+import org.epics.pvaccess.client.Channel;
+import org.epics.pvaccess.client.Channel.ConnectionState;
+import org.epics.pvaccess.client.ChannelGet;
+import org.epics.pvaccess.client.ChannelGetRequester;
+import org.epics.pvaccess.client.ChannelProvider;
+import org.epics.pvaccess.client.ChannelRequester;
+import org.epics.pvaccess.client.impl.remote.ClientContextImpl;
+import org.epics.pvaccess.server.impl.remote.ServerContextImpl;
+import org.epics.pvaccess.server.test.TestChannelProviderImpl;
+import org.epics.pvdata.copy.CreateRequest;
+import org.epics.pvdata.misc.BitSet;
+import org.epics.pvdata.monitor.Monitor;
+import org.epics.pvdata.monitor.MonitorElement;
+import org.epics.pvdata.monitor.MonitorRequester;
+import org.epics.pvdata.pv.ArrayChunkListener;
+import org.epics.pvdata.pv.DoubleArrayData;
+import org.epics.pvdata.pv.MessageType;
+import org.epics.pvdata.pv.PVDoubleArray;
+import org.epics.pvdata.pv.PVScalarArray;
+import org.epics.pvdata.pv.PVStructure;
+import org.epics.pvdata.pv.Status;
+import org.epics.pvdata.pv.Structure;
+
+/**
+ * Arrays received in chunks over a pvAccess connection.
+ * The array is much larger than the client receive buffer, i.e. it is received
+ * from many socket reads and, since it is also larger than the server send buffer, in a segmented message.
+ */
+public class ArrayStreamingTest extends TestCase {
+
+	// 8 MB of doubles, values are 0, 1, 2, ...
+	private static final int ARRAY_LENGTH = 1024*1024;
+	private static final String CHANNEL_NAME = "testArray" + ARRAY_LENGTH;
+	private static final long TIMEOUT_SEC = 10;
+
+	protected ServerContextImpl serverContext;
+	protected ClientContextImpl context;
+
+	@Override
+	protected void setUp() throws Exception {
+		serverContext = new ServerContextImpl();
+		serverContext.initialize(new TestChannelProviderImpl());
+		new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					serverContext.run(0);
+				} catch (Throwable th) {
+					th.printStackTrace();
+				}
+			}
+		}, "pvAccess server").start();
+
+		context = new ClientContextImpl();
+		context.initialize();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		context.dispose();
+		serverContext.dispose();
+	}
+
+	/**
+	 * Checks chunks as they arrive.
+	 */
+	static class ChunkChecker implements ArrayChunkListener {
+		volatile int length = -1;
+		volatile int received = 0;
+		volatile int chunks = 0;
+		volatile int maxChunk = 0;
+		volatile boolean ended = false;
+		volatile String error = null;
+		private final DoubleArrayData data = new DoubleArrayData();
+
+		@Override
+		public boolean arrayStart(PVScalarArray pvArray, int length) {
+			this.length = length;
+			received = 0;
+			chunks = 0;
+			ended = false;
+			return true;
+		}
+
+		@Override
+		public void arrayChunk(PVScalarArray pvArray, int offset, int count) {
+			if (offset != received)
+				error = "chunk at " + offset + ", expected " + received;
+			((PVDoubleArray)pvArray).get(0, count, data);
+			for (int i = 0; i < count; i++)
+				if (data.data[data.offset + i] != offset + i)
+				{
+					error = "invalid element at " + (offset + i) + ": " + data.data[data.offset + i];
+					break;
+				}
+			received += count;
+			chunks++;
+			maxChunk = Math.max(maxChunk, count);
+		}
+
+		@Override
+		public void arrayEnd(PVScalarArray pvArray) {
+			ended = true;
+		}
+
+		void check(PVStructure pvStructure)
+		{
+			assertNull(error, error);
+			assertTrue(ended);
+			assertEquals(ARRAY_LENGTH, length);
+			assertEquals(ARRAY_LENGTH, received);
+			assertTrue(chunks > 1);
+			// array itself holds no more than a chunk, and is left empty
+			assertTrue(maxChunk < ARRAY_LENGTH);
+			assertEquals(0, ((PVScalarArray)pvStructure.getSubField("value")).getLength());
+		}
+	}
+
+	private Channel connect() throws InterruptedException
+	{
+		final CountDownLatch connected = new CountDownLatch(1);
+		Channel channel = context.getProvider().createChannel(CHANNEL_NAME, new ChannelRequester() {
+			@Override
+			public String getRequesterName() {
+				return "ArrayStreamingTest";
+			}
+
+			@Override
+			public void message(String message, MessageType messageType) {
+				System.err.println("[" + messageType + "] " + message);
+			}
+
+			@Override
+			public void channelCreated(Status status, Channel channel) {
+			}
+
+			@Override
+			public void channelStateChange(Channel channel, ConnectionState connectionState) {
+				if (connectionState == ConnectionState.CONNECTED)
+					connected.countDown();
+			}
+		}, ChannelProvider.PRIORITY_DEFAULT);
+		assertTrue("channel not connected", connected.await(TIMEOUT_SEC, TimeUnit.SECONDS));
+		return channel;
+	}
+
+	static class GetRequester extends ChunkChecker implements ChannelGetRequester {
+		final CountDownLatch done = new CountDownLatch(1);
+		volatile Status status;
+		volatile PVStructure pvStructure;
+
+		@Override
+		public String getRequesterName() {
+			return "GetRequester";
+		}
+
+		@Override
+		public void message(String message, MessageType messageType) {
+			System.err.println("[" + messageType + "] " + message);
+		}
+
+		@Override
+		public void channelGetConnect(Status status, ChannelGet channelGet, Structure structure) {
+			if (status.isSuccess())
+				channelGet.get();
+			else
+			{
+				this.status = status;
+				done.countDown();
+			}
+		}
+
+		@Override
+		public void getDone(Status status, ChannelGet channelGet, PVStructure pvStructure, BitSet bitSet) {
+			this.status = status;
+			this.pvStructure = pvStructure;
+			done.countDown();
+		}
+	}
+
+	public void testGetInChunks() throws Throwable
+	{
+		assertTrue(ARRAY_LENGTH * 8 > PVAConstants.MAX_TCP_RECV);
+		assertTrue(ARRAY_LENGTH * 8 <= context.getReceiveBufferSize());
+
+		Channel channel = connect();
+		GetRequester requester = new GetRequester();
+		channel.createChannelGet(requester, CreateRequest.create().createRequest("field(value)"));
+		assertTrue("get timed out", requester.done.await(TIMEOUT_SEC, TimeUnit.SECONDS));
+		assertTrue(requester.status.getMessage(), requester.status.isSuccess());
+		requester.check(requester.pvStructure);
+		channel.destroy();
+	}
+
+	static class MonitorRequesterImpl extends ChunkChecker implements MonitorRequester {
+		final CountDownLatch event = new CountDownLatch(1);
+		volatile Status status;
+		volatile PVStructure pvStructure;
+
+		@Override
+		public String getRequesterName() {
+			return "MonitorRequesterImpl";
+		}
+
+		@Override
+		public void message(String message, MessageType messageType) {
+			System.err.println("[" + messageType + "] " + message);
+		}
+
+		@Override
+		public void monitorConnect(Status status, Monitor monitor, Structure structure) {
+			this.status = status;
+			if (status.isSuccess())
+				monitor.start();
+			else
+				event.countDown();
+		}
+
+		@Override
+		public void monitorEvent(Monitor monitor) {
+			MonitorElement element = monitor.poll();
+			if (element == null)
+				return;
+			pvStructure = element.getPVStructure();
+			monitor.release(element);
+			event.countDown();
+		}
+
+		@Override
+		public void unlisten(Monitor monitor) {
+		}
+	}
+
+	public void testMonitorInChunks() throws Throwable
+	{
+		Channel channel = connect();
+		MonitorRequesterImpl requester = new MonitorRequesterImpl();
+		Monitor monitor = channel.createMonitor(requester, CreateRequest.create().createRequest("field(value)"));
+		assertTrue("monitor timed out", requester.event.await(TIMEOUT_SEC, TimeUnit.SECONDS));
+		assertTrue(requester.status.getMessage(), requester.status.isSuccess());
+		requester.check(requester.pvStructure);
+		monitor.destroy();
+		channel.destroy();
+	}
+}
@@ -0,0 +1,32 @@
+/**
+ * Copyright information and license terms for this software can be
+ * found in the file LICENSE.TXT included with the distribution.
+ */
+package org.epics.pvaccess.client.test;
+
+import org.epics.pvaccess.util.ThreadUtil;
+
+/**
+ * Arrays received in chunks, with the client and server transports running in virtual threads
+ * (<code>EPICS_PVA_VIRTUAL_THREADS</code>, platform threads on JVMs without virtual thread support).
+ * The client receive thread reads the socket while it deserializes the chunks of a monitor update,
+ * if it pinned its carrier thread there the server could not send the rest of the array on a single carrier.
+ */
+public class ArrayStreamingVirtualThreadsTest extends ArrayStreamingTest {
+
+	@Override
+	protected void setUp() throws Exception {
+		System.setProperty("EPICS_PVA_VIRTUAL_THREADS", "true");
+		try {
+			super.setUp();
+		} finally {
+			System.clearProperty("EPICS_PVA_VIRTUAL_THREADS");
+		}
+	}
+
+	public void testVirtualThreadsEnabled()
+	{
+		assertEquals(ThreadUtil.isVirtualThreadSupported(), context.isVirtualThreads());
+		assertEquals(ThreadUtil.isVirtualThreadSupported(), serverContext.isVirtualThreads());
+	}
+}
@@ -14,7 +14,9 @@
 
 package org.epics.pvaccess.client.test;
 
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -301,6 +303,46 @@ public abstract class ChannelAccessIFTest extends TestCase {
 		}
 	}
 
+	public void testCreateChannels() throws Throwable
+	{
+		final ChannelProvider provider = getChannelProvider();
+		
+		final List<String> names = Arrays.asList("counter", "valueOnly", "simpleCounter", "arrayDouble", "sum");
+		final Set<String> connected = new HashSet<String>();
+		
+		ChannelRequesterCreatedTestImpl crcti = new ChannelRequesterCreatedTestImpl() {
+			@Override
+			public synchronized void channelStateChange(Channel c, ConnectionState connectionState) {
+				if (connectionState == ConnectionState.CONNECTED)
+					connected.add(c.getChannelName());
+				super.channelStateChange(c, connectionState);
+			}
+		};
+		
+		synchronized (crcti) {
+			List<Channel> channels = provider.createChannels(names, crcti, ChannelProvider.PRIORITY_DEFAULT);
+			assertEquals(names.size(), channels.size());
+			for (int i = 0; i < names.size(); i++)
+			{
+				Channel channel = channels.get(i);
+				registerChannelForDestruction(channel);
+				assertNotNull(channel);
+				assertEquals(names.get(i), channel.getChannelName());
+			}
+			assertEquals(names.size(), crcti.createdCount);
+			assertTrue(crcti.status.isSuccess());
+
+			final long timeout = System.currentTimeMillis() + getTimeoutMs();
+			while (connected.size() < names.size())
+			{
+				final long wait = timeout - System.currentTimeMillis();
+				if (wait <= 0)
+					break;
+				crcti.wait(wait);
+			}
+			assertEquals(new HashSet<String>(names), connected);
+		}
+	}
 	
 	public void testFindChannel() throws Throwable
 	{
@@ -0,0 +1,133 @@
+/**
+ * Copyright information and license terms for this software can be
+ * found in the file LICENSE.TXT included with the distribution.
+ */
+package org.epics.pvaccess.client.test.perf;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.epics.pvaccess.client.Channel;
+import org.epics.pvaccess.client.Channel.ConnectionState;
+import org.epics.pvaccess.client.ChannelProvider;
+import org.epics.pvaccess.client.ChannelRequester;
+import org.epics.pvaccess.client.impl.remote.ClientContextImpl;
+import org.epics.pvaccess.server.impl.remote.ServerContextImpl;
+import org.epics.pvaccess.server.test.IndexedTestChannelProviderImpl;
+import org.epics.pvdata.pv.MessageType;
+import org.epics.pvdata.pv.Status;
+
+/**
+ * Measures time needed to create and connect many channels to a local (stub) server,
+ * one by one (<code>createChannel</code>) vs. in a batch (<code>createChannels</code>).
+ * Additional non-existent channels are created to keep many searches outstanding.
+ * Usage: [channels] [missingChannels]
+ */
+public class ChannelConnectPerformance {
+
+	static class ConnectRequester implements ChannelRequester {
+
+		final CountDownLatch connected;
+
+		ConnectRequester(int count) {
+			connected = new CountDownLatch(count);
+		}
+
+		@Override
+		public String getRequesterName() {
+			return getClass().getName();
+		}
+
+		@Override
+		public void message(String message, MessageType messageType) {
+			System.err.println("[" + messageType + "] " + message);
+		}
+
+		@Override
+		public void channelCreated(Status status, Channel channel) {
+		}
+
+		@Override
+		public void channelStateChange(Channel channel, ConnectionState connectionState) {
+			if (connectionState == ConnectionState.CONNECTED)
+				connected.countDown();
+		}
+	}
+
+	static void run(int channelCount, int missingCount, boolean batch) throws Throwable
+	{
+		final ClientContextImpl context = new ClientContextImpl();
+		context.initialize();
+		final ChannelProvider provider = context.getProvider();
+
+		final ConnectRequester missing = new ConnectRequester(missingCount);
+		final List<String> missingNames = new ArrayList<String>(missingCount);
+		for (int i = 0; i < missingCount; i++)
+			missingNames.add("missing" + i);
+		if (batch)
+			provider.createChannels(missingNames, missing, ChannelProvider.PRIORITY_DEFAULT);
+		else
+			for (String name : missingNames)
+				provider.createChannel(name, missing, ChannelProvider.PRIORITY_DEFAULT);
+
+		// "test" prefixed channels are hosted by the test provider
+		final ConnectRequester requester = new ConnectRequester(channelCount);
+		final List<String> names = new ArrayList<String>(channelCount);
+		for (int i = 0; i < channelCount; i++)
+			names.add("test" + i);
+
+		final long start = System.nanoTime();
+		if (batch)
+			provider.createChannels(names, requester, ChannelProvider.PRIORITY_DEFAULT);
+		else
+			for (String name : names)
+				provider.createChannel(name, requester, ChannelProvider.PRIORITY_DEFAULT);
+		final long created = System.nanoTime();
+
+		final boolean allConnected = requester.connected.await(5, TimeUnit.MINUTES);
+		final long connected = System.nanoTime();
+
+		System.out.println((batch ? "createChannels" : "createChannel ") +
+				": channels: " + channelCount +
+				", missing: " + missingCount +
+				", create: " + (created - start) / 1000000 + " ms" +
+				", connect: " + (connected - start) / 1000000 + " ms" +
+				(allConnected ? "" : " (timeout, " + requester.connected.getCount() + " not connected)") +
+				", outstanding searches: " + context.getChannelSearchManager().registeredCount());
+
+		context.dispose();
+	}
+
+	public static void main(String[] args) throws Throwable {
+		final int channelCount = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+		final int missingCount = args.length > 1 ? Integer.parseInt(args[1]) : 100000;
+
+		// missing channels are searched repeatedly
+		System.setProperty("EPICS_PVAS_SEARCH_NEGATIVE_CACHE_TTL", "1");
+
+		final ServerContextImpl serverContext = new ServerContextImpl();
+		serverContext.initialize(new IndexedTestChannelProviderImpl());
+		new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					serverContext.run(0);
+				} catch (Throwable th) {
+					th.printStackTrace();
+				}
+			}
+		}, "pvAccess server").start();
+
+		// warmup
+		run(channelCount / 10, 0, false);
+		run(channelCount / 10, 0, true);
+
+		run(channelCount, missingCount, false);
+		run(channelCount, missingCount, true);
+
+		serverContext.dispose();
+		System.exit(0);
+	}
+}
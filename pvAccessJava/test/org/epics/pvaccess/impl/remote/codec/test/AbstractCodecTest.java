@@ -6,6 +6,7 @@ import java.net.InetSocketAddress;
 import java.net.UnknownHostException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.channels.GatheringByteChannel;
 import java.util.ArrayList;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Logger;
@@ -291,6 +292,29 @@ public class AbstractCodecTest extends TestCase {
 		}
 	}
 	
+	static class GatheringTestCodec extends TestCodec implements GatheringByteChannel
+	{
+		int gatheringWriteCount = 0;
+		
+		public GatheringTestCodec(int bufferSize) throws IOException {
+			super(bufferSize);
+		}
+
+		@Override
+		public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+			gatheringWriteCount++;
+			long bytesWritten = 0;
+			for (int i = offset; i < offset + length; i++)
+				bytesWritten += write(srcs[i]);
+			return bytesWritten;
+		}
+
+		@Override
+		public long write(ByteBuffer[] srcs) throws IOException {
+			return write(srcs, 0, srcs.length);
+		}
+	}
+	
 	private static int DEFAULT_BUFFER_SIZE = 10240;
 	
 	public void testHeaderProcess() throws Throwable
@@ -1178,6 +1202,63 @@ public class AbstractCodecTest extends TestCase {
 			assertEquals((byte)i, msg.payload.get());
 	}
 
+	public void testDirectSerialize() throws Throwable
+	{
+		final int directSize = AbstractCodec.MIN_DIRECT_SERIALIZE_SIZE + 3*PVAConstants.PVA_ALIGNMENT;
+		final byte[] data = new byte[directSize];
+		for (int i = 0; i < directSize; i++)
+			data[i] = (byte)(i + 2*PVAConstants.PVA_ALIGNMENT);
+		
+		// not supported without gathering write
+		TestCodec codec = new TestCodec(4*directSize);
+		codec.startMessage((byte)0x01, 0);
+		assertFalse(codec.directSerialize(codec.getSendBuffer(), ByteBuffer.wrap(data)));
+
+		// too small
+		codec = new GatheringTestCodec(4*directSize);
+		codec.startMessage((byte)0x01, 0);
+		assertFalse(codec.directSerialize(codec.getSendBuffer(), ByteBuffer.wrap(data, 0, 16)));
+		
+		final GatheringTestCodec gcodec = new GatheringTestCodec(4*directSize);
+		gcodec.readPayload = true;
+		
+		gcodec.startMessage((byte)0x01, 0);
+		
+		int c = 0;
+		for (int i = 0; i < 2*PVAConstants.PVA_ALIGNMENT; i++)
+			gcodec.getSendBuffer().put((byte)(c++));
+		
+		final ByteBuffer toSerialize = ByteBuffer.wrap(data);
+		assertTrue(gcodec.directSerialize(gcodec.getSendBuffer(), toSerialize));
+		assertEquals(0, toSerialize.position());
+		assertEquals(directSize, toSerialize.limit());
+		assertTrue(gcodec.gatheringWriteCount > 0);
+		c += directSize;
+		
+		final int payloadSizeEnd = PVAConstants.PVA_ALIGNMENT;
+		for (int i = 0; i < payloadSizeEnd; i++)
+			gcodec.getSendBuffer().put((byte)(c++));
+		gcodec.endMessage();
+		
+		gcodec.transferToReadBuffer();
+		
+		gcodec.forcePayloadRead = c;
+		
+		gcodec.processRead();
+		
+		assertEquals(0, gcodec.invalidDataStreamCount);
+		assertEquals(0, gcodec.closedCount);
+		assertEquals(0, gcodec.receivedControlMessages.size());
+		assertEquals(1, gcodec.receivedAppMessages.size());
+
+		PVAMessage msg = gcodec.receivedAppMessages.get(0);
+		assertNotNull(msg.payload);
+		msg.payload.flip();
+		assertEquals(c, msg.payload.limit());
+		for (int i = 0; i < c; i++)
+			assertEquals((byte)i, msg.payload.get());
+	}
+
 	public void testStartMessageSegmentedMessageAlignment() throws Throwable
 	{
 		for (int firstMessagePayloadSize = 1;	// cannot be zero
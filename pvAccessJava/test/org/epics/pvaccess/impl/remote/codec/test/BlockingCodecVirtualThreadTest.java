@@ -0,0 +1,106 @@
+/**
+ * Copyright information and license terms for this software can be
+ * found in the file LICENSE.TXT included with the distribution.
+ */
+package org.epics.pvaccess.impl.remote.codec.test;
+
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+import org.epics.pvaccess.impl.remote.codec.AbstractCodec;
+import org.epics.pvaccess.impl.remote.codec.test.perf.CodecThreadScalePerformance.EchoCodec;
+import org.epics.pvaccess.util.ThreadUtil;
+
+/**
+ * Blocking codecs with receive and send loops in virtual threads
+ * (platform threads on JVMs without virtual thread support), on loopback connections.
+ * A bounded version of <code>CodecThreadScalePerformance</code>.
+ */
+public class BlockingCodecVirtualThreadTest extends TestCase {
+
+	private static final int CONNECTIONS = 200;
+	private static final int MESSAGES = 20;
+	private static final long TIMEOUT_SEC = 30;
+
+	private static boolean isVirtual(Thread thread) throws Exception {
+		if (!ThreadUtil.isVirtualThreadSupported())
+			return false;
+		Method isVirtual = Thread.class.getMethod("isVirtual");
+		return (Boolean)isVirtual.invoke(thread);
+	}
+
+	public void testNewThread() throws Throwable {
+		final CountDownLatch done = new CountDownLatch(1);
+		Runnable runnable = new Runnable() {
+			@Override
+			public void run() {
+				done.countDown();
+			}
+		};
+
+		Thread thread = ThreadUtil.newThread(runnable, "virtualTest", true);
+		assertEquals("virtualTest", thread.getName());
+		assertEquals(ThreadUtil.isVirtualThreadSupported(), isVirtual(thread));
+		thread.start();
+		assertTrue(done.await(TIMEOUT_SEC, TimeUnit.SECONDS));
+
+		assertFalse(isVirtual(ThreadUtil.newThread(runnable, "platformTest", false)));
+	}
+
+	public void testEcho() throws Throwable {
+		final ServerSocketChannel serverSocket = ServerSocketChannel.open();
+		final List<AbstractCodec> codecs = new ArrayList<AbstractCodec>(2 * CONNECTIONS);
+		try
+		{
+			serverSocket.socket().bind(new InetSocketAddress("127.0.0.1", 0), CONNECTIONS);
+			final InetSocketAddress address = new InetSocketAddress("127.0.0.1", serverSocket.socket().getLocalPort());
+
+			final int threadsBefore = Thread.activeCount();
+			final CountDownLatch received = new CountDownLatch(CONNECTIONS * MESSAGES);
+			final List<EchoCodec> clients = new ArrayList<EchoCodec>(CONNECTIONS);
+			for (int i = 0; i < CONNECTIONS; i++)
+			{
+				SocketChannel clientChannel = SocketChannel.open(address);
+				SocketChannel serverChannel = serverSocket.accept();
+
+				EchoCodec server = new EchoCodec(serverChannel, true, null);
+				codecs.add(server);
+				server.start();
+
+				EchoCodec client = new EchoCodec(clientChannel, true, received);
+				codecs.add(client);
+				client.start();
+				clients.add(client);
+			}
+
+			// virtual threads are not counted as active threads
+			if (ThreadUtil.isVirtualThreadSupported())
+				assertTrue(Thread.activeCount() - threadsBefore < CONNECTIONS);
+
+			for (int m = 0; m < MESSAGES; m++)
+				for (EchoCodec client : clients)
+					client.enqueueSendRequest(client);
+			assertTrue("echoes missing: " + received.getCount(), received.await(TIMEOUT_SEC, TimeUnit.SECONDS));
+
+			for (EchoCodec client : clients)
+			{
+				assertTrue(client.isOpen());
+				assertEquals(ThreadUtil.isVirtualThreadSupported(), isVirtual(client.processingThread));
+			}
+		}
+		finally
+		{
+			for (AbstractCodec codec : codecs)
+				codec.close();
+			serverSocket.close();
+		}
+	}
+}
@@ -0,0 +1,372 @@
+/**
+ * Copyright information and license terms for this software can be
+ * found in the file LICENSE.TXT included with the distribution.
+ */
+package org.epics.pvaccess.impl.remote.codec.test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+import junit.framework.TestCase;
+
+import org.epics.pvaccess.PVAConstants;
+import org.epics.pvaccess.impl.remote.TransportSendControl;
+import org.epics.pvaccess.impl.remote.TransportSender;
+import org.epics.pvaccess.impl.remote.codec.AbstractCodec;
+import org.epics.pvaccess.impl.remote.codec.impl.NonBlockingAbstractCodec;
+import org.epics.pvaccess.impl.remote.codec.impl.NonBlockingSocketAbstractCodec;
+import org.epics.pvaccess.impl.remote.io.Poller;
+import org.epics.pvaccess.impl.remote.io.impl.PollerImpl;
+import org.epics.pvdata.pv.Field;
+
+/**
+ * Codecs sharing one poller thread must never block it, neither
+ * in the middle of a received message nor when the socket send buffer is full.
+ */
+public class NonBlockingCodecTest extends TestCase {
+
+	private static final int BUFFER_SIZE = 10240;
+
+	static class SocketTestCodec extends NonBlockingSocketAbstractCodec
+	{
+		final BlockingQueue<ByteBuffer> receivedAppMessages = new ArrayBlockingQueue<ByteBuffer>(16);
+
+		// segmented message payload size is not known in advance
+		volatile int forcePayloadRead = -1;
+
+		public SocketTestCodec(Poller poller, SocketChannel channel) throws SocketException {
+			this(poller, channel, Integer.MAX_VALUE);
+		}
+
+		public SocketTestCodec(Poller poller, SocketChannel channel, int maxPayloadSize) throws SocketException {
+			super(true, poller, channel, ByteBuffer.allocate(BUFFER_SIZE), ByteBuffer.allocate(BUFFER_SIZE), maxPayloadSize, Logger.getLogger("SocketTestCodec"));
+		}
+
+		@Override
+		protected void ready() {
+		}
+
+		@Override
+		public void processControlMessage() {
+		}
+
+		@Override
+		public void processApplicationMessage() throws IOException {
+			ByteBuffer payload = ByteBuffer.allocate(forcePayloadRead >= 0 ? forcePayloadRead : payloadSize);
+			while (payload.hasRemaining())
+			{
+				ensureData(Math.min(payload.remaining(), AbstractCodec.MAX_ENSURE_DATA_SIZE));
+				final int limit = socketBuffer.limit();
+				if (socketBuffer.remaining() > payload.remaining())
+					socketBuffer.limit(socketBuffer.position() + payload.remaining());
+				payload.put(socketBuffer);
+				socketBuffer.limit(limit);
+			}
+			payload.flip();
+			receivedAppMessages.add(payload);
+		}
+
+		@Override
+		public void cachedSerialize(Field field, ByteBuffer buffer) {
+			field.serialize(buffer, this);
+		}
+	}
+
+	private ServerSocketChannel serverChannel;
+	private PollerImpl poller;
+
+	@Override
+	protected void setUp() throws Exception {
+		serverChannel = ServerSocketChannel.open();
+		serverChannel.socket().bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+		poller = new PollerImpl("NonBlockingCodecTest");
+		poller.start();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		poller.destroy();
+		serverChannel.close();
+	}
+
+	private SocketChannel[] connect() throws IOException
+	{
+		SocketChannel peer = SocketChannel.open(serverChannel.socket().getLocalSocketAddress());
+		SocketChannel accepted = serverChannel.accept();
+		return new SocketChannel[] { peer, accepted };
+	}
+
+	private static ByteBuffer message(byte flags, int payloadSize, int firstValue)
+	{
+		ByteBuffer buffer = ByteBuffer.allocate(PVAConstants.PVA_MESSAGE_HEADER_SIZE + payloadSize);
+		buffer.order(ByteOrder.BIG_ENDIAN);
+		buffer.put(PVAConstants.PVA_MAGIC);
+		buffer.put(PVAConstants.PVA_VERSION);
+		buffer.put((byte)(flags | 0x80));
+		buffer.put((byte)0x01);
+		buffer.putInt(payloadSize);
+		for (int i = 0; i < payloadSize; i++)
+			buffer.put((byte)(firstValue + i));
+		buffer.flip();
+		return buffer;
+	}
+
+	private static void writeFully(SocketChannel channel, ByteBuffer buffer) throws IOException
+	{
+		while (buffer.hasRemaining())
+			channel.write(buffer);
+	}
+
+	private static void assertPayload(ByteBuffer payload, int size)
+	{
+		assertNotNull(payload);
+		assertEquals(size, payload.remaining());
+		for (int i = 0; i < size; i++)
+			assertEquals((byte)i, payload.get());
+	}
+
+	public void testIncompleteMessageDoesNotBlockPoller() throws Throwable
+	{
+		SocketChannel[] stalled = connect();
+		SocketChannel[] other = connect();
+		SocketTestCodec stalledCodec = new SocketTestCodec(poller, stalled[1]);
+		SocketTestCodec otherCodec = new SocketTestCodec(poller, other[1]);
+
+		// header and a half of the payload, the rest never comes (yet)
+		final int payloadSize = 3 * BUFFER_SIZE;
+		ByteBuffer stalledMessage = message((byte)0x00, payloadSize, 0);
+		stalledMessage.limit(PVAConstants.PVA_MESSAGE_HEADER_SIZE + payloadSize / 2);
+		writeFully(stalled[0], stalledMessage);
+		Thread.sleep(100);
+
+		writeFully(other[0], message((byte)0x00, 10, 0));
+		assertPayload(otherCodec.receivedAppMessages.poll(1, TimeUnit.SECONDS), 10);
+		assertNull(stalledCodec.receivedAppMessages.poll());
+
+		stalledMessage.limit(stalledMessage.capacity());
+		writeFully(stalled[0], stalledMessage);
+		assertPayload(stalledCodec.receivedAppMessages.poll(1, TimeUnit.SECONDS), payloadSize);
+		assertTrue(stalledCodec.isOpen());
+
+		stalledCodec.close();
+		otherCodec.close();
+		stalled[0].close();
+		other[0].close();
+	}
+
+	public void testSegmentedMessageReceivedInPieces() throws Throwable
+	{
+		SocketChannel[] channels = connect();
+		SocketTestCodec codec = new SocketTestCodec(poller, channels[1]);
+
+		final int segmentSize = BUFFER_SIZE - 100;
+		codec.forcePayloadRead = 3 * segmentSize;
+
+		// first, in-between, control message and last segment, sent in small pieces
+		ByteBuffer stream = ByteBuffer.allocate(4 * segmentSize);
+		stream.put(message((byte)0x10, segmentSize, 0));
+		stream.put(message((byte)0x30, segmentSize, segmentSize));
+		stream.put(message((byte)0x01, 0, 0));
+		stream.put(message((byte)0x20, segmentSize, 2 * segmentSize));
+		stream.flip();
+
+		while (stream.hasRemaining())
+		{
+			ByteBuffer piece = stream.slice();
+			piece.limit(Math.min(piece.remaining(), 3333));
+			writeFully(channels[0], piece);
+			stream.position(stream.position() + piece.limit());
+			Thread.sleep(5);
+		}
+
+		assertPayload(codec.receivedAppMessages.poll(1, TimeUnit.SECONDS), 3 * segmentSize);
+		assertTrue(codec.isOpen());
+
+		codec.close();
+		channels[0].close();
+	}
+
+	public void testMessageLargerThanMaxPayloadSize() throws Throwable
+	{
+		SocketChannel[] channels = connect();
+		SocketTestCodec codec = new SocketTestCodec(poller, channels[1], 2 * BUFFER_SIZE);
+
+		// every segment is smaller, but the whole message is larger
+		final int segmentSize = BUFFER_SIZE - 100;
+		codec.forcePayloadRead = 3 * segmentSize;
+		writeFully(channels[0], message((byte)0x10, segmentSize, 0));
+		writeFully(channels[0], message((byte)0x30, segmentSize, segmentSize));
+		writeFully(channels[0], message((byte)0x20, segmentSize, 2 * segmentSize));
+
+		long timeout = System.currentTimeMillis() + 1000;
+		while (codec.isOpen())
+		{
+			assertTrue("connection not closed", System.currentTimeMillis() < timeout);
+			Thread.sleep(10);
+		}
+		assertNull(codec.receivedAppMessages.poll());
+
+		channels[0].close();
+	}
+
+	/**
+	 * Sends one message of <code>chunks * CHUNK_SIZE</code> bytes, values are <code>offset % CHUNK_SIZE</code>.
+	 */
+	static class ChunkSender implements TransportSender
+	{
+		static final int CHUNK_SIZE = 1000;
+		
+		final int chunks;
+		final AtomicInteger sent = new AtomicInteger();
+
+		ChunkSender(int chunks) {
+			this.chunks = chunks;
+		}
+
+		@Override
+		public void lock() {
+		}
+
+		@Override
+		public void unlock() {
+		}
+
+		@Override
+		public void send(ByteBuffer buffer, TransportSendControl control) {
+			control.startMessage((byte)0x01, 0);
+			for (int i = 0; i < chunks; i++)
+			{
+				control.ensureBuffer(CHUNK_SIZE);
+				for (int j = 0; j < CHUNK_SIZE; j++)
+					buffer.put((byte)j);
+			}
+			control.endMessage();
+			sent.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Read (and check) payload of messages sent by <code>ChunkSender</code>, skipping headers.
+	 * Reading is non-blocking and fails if not all data is received in <code>timeoutMs</code>.
+	 */
+	private static void readPayload(SocketChannel channel, long expectedPayloadBytes, long timeoutMs) throws IOException
+	{
+		final long deadline = System.currentTimeMillis() + timeoutMs;
+		channel.configureBlocking(false);
+		final Selector selector = Selector.open();
+		try
+		{
+			channel.register(selector, SelectionKey.OP_READ);
+			
+			ByteBuffer header = ByteBuffer.allocate(PVAConstants.PVA_MESSAGE_HEADER_SIZE);
+			long payloadBytes = 0;
+			while (payloadBytes < expectedPayloadBytes)
+			{
+				header.clear();
+				readFully(channel, selector, header, deadline);
+				header.flip();
+				assertEquals(PVAConstants.PVA_MAGIC, header.get(0));
+				final byte flags = header.get(2);
+				header.order((flags & 0x80) != 0 ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN);
+				if ((flags & 0x01) != 0)
+					continue;
+				
+				ByteBuffer payload = ByteBuffer.allocate(header.getInt(4));
+				readFully(channel, selector, payload, deadline);
+				payload.flip();
+				while (payload.hasRemaining())
+					assertEquals((byte)(payloadBytes++ % ChunkSender.CHUNK_SIZE), payload.get());
+			}
+			assertEquals(expectedPayloadBytes, payloadBytes);
+		}
+		finally
+		{
+			selector.close();
+		}
+	}
+	
+	private static void readFully(SocketChannel channel, Selector selector, ByteBuffer buffer, long deadline) throws IOException
+	{
+		while (buffer.hasRemaining())
+		{
+			final int bytesRead = channel.read(buffer);
+			if (bytesRead < 0)
+				fail("connection closed");
+			else if (bytesRead == 0)
+			{
+				final long timeout = deadline - System.currentTimeMillis();
+				if (timeout <= 0)
+					fail("timed out, " + buffer.remaining() + " bytes not received");
+				selector.select(timeout);
+				selector.selectedKeys().clear();
+			}
+		}
+	}
+
+	public void testFullSendBufferDoesNotBlockPoller() throws Throwable
+	{
+		SocketChannel[] slowReader = connect();
+		SocketChannel[] other = connect();
+		final SocketTestCodec sendingCodec = new SocketTestCodec(poller, slowReader[1]);
+		SocketTestCodec otherCodec = new SocketTestCodec(poller, other[1]);
+
+		// much more than socket buffers can hold, peer is not reading;
+		// enqueued before the codec is (surely) registered to the poller
+		final int chunks = 16 * 1024;
+		ChunkSender sender = new ChunkSender(chunks);
+		sendingCodec.enqueueSendRequest(sender);
+		Thread.sleep(200);
+		assertEquals(1, sender.sent.get());
+
+		writeFully(other[0], message((byte)0x00, 10, 0));
+		assertPayload(otherCodec.receivedAppMessages.poll(1, TimeUnit.SECONDS), 10);
+
+		readPayload(slowReader[0], (long)chunks * ChunkSender.CHUNK_SIZE, 10000);
+		assertTrue(sendingCodec.isOpen());
+
+		sendingCodec.close();
+		otherCodec.close();
+		slowReader[0].close();
+		other[0].close();
+	}
+
+	public void testSendQueueNotProcessedWhileBacklogFull() throws Throwable
+	{
+		SocketChannel[] slowReader = connect();
+		final SocketTestCodec sendingCodec = new SocketTestCodec(poller, slowReader[1]);
+
+		// 1 MB messages, peer is not reading
+		final int messages = 64;
+		ChunkSender sender = new ChunkSender(1000);
+		for (int i = 0; i < messages; i++)
+			sendingCodec.enqueueSendRequest(sender);
+		Thread.sleep(500);
+
+		// socket buffers and the high-water mark hold only a few messages
+		final long messageSize = 1000L * ChunkSender.CHUNK_SIZE;
+		assertTrue(NonBlockingAbstractCodec.PENDING_OUTPUT_HIGH_WATER_MARK < 2 * messageSize);
+		final int sentWhileStalled = sender.sent.get();
+		assertTrue("sent while stalled: " + sentWhileStalled, sentWhileStalled > 0 && sentWhileStalled < messages / 2);
+
+		// sending is resumed when the peer reads
+		readPayload(slowReader[0], messages * messageSize, 10000);
+		assertEquals(messages, sender.sent.get());
+		assertTrue(sendingCodec.isOpen());
+
+		sendingCodec.close();
+		slowReader[0].close();
+	}
+}
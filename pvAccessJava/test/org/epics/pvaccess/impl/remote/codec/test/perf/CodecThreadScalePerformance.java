@@ -0,0 +1,157 @@
+/**
+ * Copyright information and license terms for this software can be
+ * found in the file LICENSE.TXT included with the distribution.
+ */
+package org.epics.pvaccess.impl.remote.codec.test.perf;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import org.epics.pvaccess.PVAConstants;
+import org.epics.pvaccess.impl.remote.TransportSendControl;
+import org.epics.pvaccess.impl.remote.TransportSender;
+import org.epics.pvaccess.impl.remote.codec.AbstractCodec;
+import org.epics.pvaccess.impl.remote.codec.impl.BlockingSocketAbstractCodec;
+import org.epics.pvaccess.util.ThreadUtil;
+import org.epics.pvdata.pv.Field;
+
+/**
+ * Scale test of blocking codecs (receive and send thread per codec) on loopback connections,
+ * using platform or virtual threads.
+ * Every client codec sends a number of control messages, server codec echoes them back.
+ * Usage: [connections] [messagesPerConnection] [virtual]
+ */
+public class CodecThreadScalePerformance {
+
+	static final Logger LOGGER = Logger.getLogger(CodecThreadScalePerformance.class.getName());
+
+	/**
+	 * Codec that echoes control messages (server) or counts them (client).
+	 */
+	public static class EchoCodec extends BlockingSocketAbstractCodec implements TransportSender {
+
+		final CountDownLatch received;
+		/**
+		 * Thread that processed the last control message.
+		 */
+		public volatile Thread processingThread;
+
+		/**
+		 * Create a codec.
+		 * @param channel socket channel.
+		 * @param virtualThreads run receive and send loops in virtual threads.
+		 * @param received counted down per control message received, <code>null</code> to echo them instead.
+		 * @throws SocketException thrown if socket options cannot be read.
+		 */
+		public EchoCodec(SocketChannel channel, boolean virtualThreads, CountDownLatch received) throws SocketException {
+			super(received == null, channel, ByteBuffer.allocate(4096), ByteBuffer.allocate(4096), LOGGER, virtualThreads);
+			this.received = received;
+		}
+
+		@Override
+		public void processControlMessage() {
+			processingThread = Thread.currentThread();
+			if (received != null)
+				received.countDown();
+			else
+				enqueueSendRequest(this);
+		}
+
+		@Override
+		public void processApplicationMessage() throws IOException {
+			// noop
+		}
+
+		@Override
+		public void send(ByteBuffer buffer, TransportSendControl control) {
+			control.ensureBuffer(PVAConstants.PVA_MESSAGE_HEADER_SIZE);
+			putControlMessage((byte)3, 0);
+		}
+
+		@Override
+		public void lock() {
+			// noop
+		}
+
+		@Override
+		public void unlock() {
+			// noop
+		}
+
+		@Override
+		public void cachedSerialize(Field field, ByteBuffer buffer) {
+			field.serialize(buffer, this);
+		}
+	}
+
+	public static void main(String[] args) throws Throwable {
+		final int connections = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+		final int messages = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+		final boolean virtual = args.length > 2 ? Boolean.parseBoolean(args[2]) : true;
+
+		System.out.println("virtual threads requested: " + virtual + ", supported: " + ThreadUtil.isVirtualThreadSupported());
+
+		final Runtime runtime = Runtime.getRuntime();
+		System.gc();
+		final long memoryBefore = runtime.totalMemory() - runtime.freeMemory();
+		final int threadsBefore = Thread.activeCount();
+
+		final ServerSocketChannel serverSocket = ServerSocketChannel.open();
+		serverSocket.socket().bind(new InetSocketAddress("127.0.0.1", 0), connections);
+		final InetSocketAddress address = new InetSocketAddress("127.0.0.1", serverSocket.socket().getLocalPort());
+
+		final CountDownLatch received = new CountDownLatch(connections * messages);
+		final List<AbstractCodec> codecs = new ArrayList<AbstractCodec>(2 * connections);
+
+		long start = System.nanoTime();
+		List<EchoCodec> clients = new ArrayList<EchoCodec>(connections);
+		for (int i = 0; i < connections; i++)
+		{
+			SocketChannel clientChannel = SocketChannel.open(address);
+			SocketChannel serverChannel = serverSocket.accept();
+
+			EchoCodec server = new EchoCodec(serverChannel, virtual, null);
+			server.start();
+			codecs.add(server);
+
+			EchoCodec client = new EchoCodec(clientChannel, virtual, received);
+			client.start();
+			codecs.add(client);
+			clients.add(client);
+		}
+		final long connectTime = System.nanoTime() - start;
+
+		final int threadsConnected = Thread.activeCount();
+		System.gc();
+		final long memoryConnected = runtime.totalMemory() - runtime.freeMemory();
+
+		start = System.nanoTime();
+		for (int m = 0; m < messages; m++)
+			for (EchoCodec client : clients)
+				client.enqueueSendRequest(client);
+		final boolean completed = received.await(60, TimeUnit.SECONDS);
+		final long echoTime = System.nanoTime() - start;
+
+		System.out.println("connections: " + connections +
+				", connect time: " + connectTime / 1000000 + " ms" +
+				", platform threads: " + (threadsConnected - threadsBefore) +
+				", memory: " + (memoryConnected - memoryBefore) / (1024 * 1024) + " MB" +
+				", echoes: " + (connections * messages - received.getCount()) + (completed ? "" : " (timeout)") +
+				", throughput: " + (long)((connections * messages - received.getCount()) / (echoTime / 1e9)) + " msg/s");
+
+		for (AbstractCodec codec : codecs)
+			codec.close();
+		serverSocket.close();
+
+		System.exit(0);
+	}
+}
@@ -0,0 +1,453 @@
+/**
+ * Copyright information and license terms for this software can be
+ * found in the file LICENSE.TXT included with the distribution.
+ */
+package org.epics.pvaccess.server.impl.remote.handlers;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+
+import junit.framework.TestCase;
+
+import org.epics.pvaccess.client.Channel;
+import org.epics.pvaccess.client.ChannelProvider;
+import org.epics.pvaccess.impl.remote.Transport;
+import org.epics.pvaccess.impl.security.NoSecurityPlugin;
+import org.epics.pvaccess.server.impl.remote.ServerChannelImpl;
+import org.epics.pvdata.copy.CreateRequest;
+import org.epics.pvdata.factory.PVDataFactory;
+import org.epics.pvdata.factory.StandardFieldFactory;
+import org.epics.pvdata.factory.StatusFactory;
+import org.epics.pvdata.misc.BitSet;
+import org.epics.pvdata.monitor.Monitor;
+import org.epics.pvdata.monitor.MonitorElement;
+import org.epics.pvdata.monitor.MonitorRequester;
+import org.epics.pvdata.pv.DeserializableControl;
+import org.epics.pvdata.pv.Field;
+import org.epics.pvdata.pv.MessageType;
+import org.epics.pvdata.pv.PVStructure;
+import org.epics.pvdata.pv.ScalarType;
+import org.epics.pvdata.pv.SerializableControl;
+import org.epics.pvdata.pv.Status;
+import org.epics.pvdata.pv.Structure;
+
+/**
+ * <code>MonitorFanout</code> and <code>SharedMonitor</code> test.
+ */
+public class SharedMonitorTest extends TestCase {
+
+	private static final Status okStatus = StatusFactory.getStatusCreate().getStatusOK();
+	private static final Structure structure = StandardFieldFactory.getStandardField().scalar(ScalarType.pvDouble, "alarm");
+
+	/**
+	 * Provider monitor, updates are pushed by the test.
+	 */
+	static class TestMonitor implements Monitor, MonitorElement {
+		final MonitorRequester requester;
+		final PVStructure pvStructure = PVDataFactory.getPVDataCreate().createPVStructure(structure);
+		final BitSet changedBitSet = new BitSet();
+		final BitSet overrunBitSet = new BitSet();
+		boolean started = false;
+		boolean destroyed = false;
+		boolean pending = false;
+
+		TestMonitor(MonitorRequester requester) {
+			this.requester = requester;
+		}
+
+		void update(double value)
+		{
+			pvStructure.getDoubleField("value").put(value);
+			changedBitSet.clear();
+			changedBitSet.set(pvStructure.getSubField("value").getFieldOffset());
+			pending = true;
+			requester.monitorEvent(this);
+		}
+
+		@Override
+		public Status start() {
+			started = true;
+			return okStatus;
+		}
+
+		@Override
+		public Status stop() {
+			started = false;
+			return okStatus;
+		}
+
+		@Override
+		public MonitorElement poll() {
+			if (!pending)
+				return null;
+			pending = false;
+			return this;
+		}
+
+		@Override
+		public void release(MonitorElement monitorElement) {
+		}
+
+		@Override
+		public void destroy() {
+			destroyed = true;
+		}
+
+		@Override
+		public PVStructure getPVStructure() {
+			return pvStructure;
+		}
+
+		@Override
+		public BitSet getChangedBitSet() {
+			return changedBitSet;
+		}
+
+		@Override
+		public BitSet getOverrunBitSet() {
+			return overrunBitSet;
+		}
+	}
+
+	static class Subscriber implements MonitorRequester {
+		Monitor monitor;
+		Status status;
+		Structure structure;
+		int events = 0;
+		int unlistens = 0;
+
+		@Override
+		public String getRequesterName() {
+			return "subscriber";
+		}
+
+		@Override
+		public void message(String message, MessageType messageType) {
+		}
+
+		@Override
+		public void monitorConnect(Status status, Monitor monitor, Structure structure) {
+			this.status = status;
+			this.structure = structure;
+		}
+
+		@Override
+		public void monitorEvent(Monitor monitor) {
+			events++;
+		}
+
+		@Override
+		public void unlisten(Monitor monitor) {
+			unlistens++;
+		}
+	}
+
+	static class Control implements SerializableControl, DeserializableControl {
+		@Override
+		public void flushSerializeBuffer() {
+		}
+
+		@Override
+		public void ensureBuffer(int size) {
+		}
+
+		@Override
+		public void alignBuffer(int alignment) {
+		}
+
+		@Override
+		public void cachedSerialize(Field field, ByteBuffer buffer) {
+		}
+
+		@Override
+		public void ensureData(int size) {
+		}
+
+		@Override
+		public void alignData(int alignment) {
+		}
+
+		@Override
+		public Field cachedDeserialize(ByteBuffer buffer) {
+			return null;
+		}
+	}
+
+	/**
+	 * Deserialized update.
+	 */
+	static class Received {
+		final BitSet changedBitSet = new BitSet();
+		final PVStructure pvStructure = PVDataFactory.getPVDataCreate().createPVStructure(structure);
+		final BitSet overrunBitSet = new BitSet();
+
+		double value() {
+			return pvStructure.getDoubleField("value").get();
+		}
+	}
+
+	private static final PVStructure pvRequest = CreateRequest.create().createRequest("field()");
+
+	private final MonitorFanout fanout = new MonitorFanout();
+	private final ArrayList<TestMonitor> monitors = new ArrayList<TestMonitor>();
+	private final ArrayList<Channel> destroyedChannels = new ArrayList<Channel>();
+
+	private ChannelProvider provider;
+
+	@Override
+	protected void setUp() throws Exception {
+		provider = (ChannelProvider)Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { ChannelProvider.class },
+				new InvocationHandler() {
+					@Override
+					public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+						if (method.getName().equals("getProviderName"))
+							return "test";
+						return null;
+					}
+				});
+	}
+
+	private Channel createChannel(final String channelName)
+	{
+		return (Channel)Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { Channel.class },
+				new InvocationHandler() {
+					@Override
+					public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+						final String name = method.getName();
+						if (name.equals("getProvider"))
+							return provider;
+						else if (name.equals("getChannelName"))
+							return channelName;
+						else if (name.equals("createMonitor"))
+						{
+							TestMonitor monitor = new TestMonitor((MonitorRequester)args[0]);
+							monitors.add(monitor);
+							monitor.requester.monitorConnect(okStatus, monitor, structure);
+							return monitor;
+						}
+						else if (name.equals("destroy"))
+							destroyedChannels.add((Channel)proxy);
+						return null;
+					}
+				});
+	}
+
+	private static Transport createTransport(final short priority)
+	{
+		return (Transport)Proxy.newProxyInstance(SharedMonitorTest.class.getClassLoader(),
+				new Class<?>[] { Transport.class },
+				new InvocationHandler() {
+					@Override
+					public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+						final String name = method.getName();
+						if (name.equals("getPriority"))
+							return Short.valueOf(priority);
+						else if (name.equals("getSecuritySession"))
+							return NoSecurityPlugin.INSTANCE;
+						return null;
+					}
+				});
+	}
+
+	private final Transport transport = createTransport((short)0);
+
+	private Subscriber subscribe(String channelName)
+	{
+		return subscribe(channelName, transport);
+	}
+
+	private Subscriber subscribe(String channelName, Transport transport)
+	{
+		Subscriber subscriber = new Subscriber();
+		ServerChannelImpl channel = new ServerChannelImpl(createChannel(channelName), 0, 0, NoSecurityPlugin.INSTANCE);
+		subscriber.monitor = fanout.subscribe(channel, transport, pvRequest, subscriber);
+		assertNotNull(subscriber.monitor);
+		assertTrue(subscriber.status.isSuccess());
+		assertEquals(structure, subscriber.structure);
+		return subscriber;
+	}
+
+	private static Received poll(Subscriber subscriber)
+	{
+		final SharedMonitor.Update update = ((SharedMonitor.Subscription)subscriber.monitor).pollUpdate();
+		if (update == null)
+			return null;
+
+		final Control control = new Control();
+		final ByteBuffer buffer = ByteBuffer.allocate(1024);
+		try {
+			update.send(buffer, control);
+		} finally {
+			update.release();
+		}
+		buffer.flip();
+
+		final Received received = new Received();
+		received.changedBitSet.deserialize(buffer, control);
+		received.pvStructure.deserialize(buffer, control, received.changedBitSet);
+		received.overrunBitSet.deserialize(buffer, control);
+		assertFalse(buffer.hasRemaining());
+		return received;
+	}
+
+	private static int valueOffset()
+	{
+		return PVDataFactory.getPVDataCreate().createPVStructure(structure).getSubField("value").getFieldOffset();
+	}
+
+	public void testFanOut()
+	{
+		final int subscribers = 5;
+		Subscriber[] s = new Subscriber[subscribers];
+		for (int i = 0; i < subscribers; i++)
+		{
+			s[i] = subscribe("ch");
+			s[i].monitor.start();
+		}
+
+		// one monitor for all
+		assertEquals(1, monitors.size());
+		TestMonitor monitor = monitors.get(0);
+		assertTrue(monitor.started);
+
+		monitor.update(1.0);
+		monitor.update(2.0);
+		for (int i = 0; i < subscribers; i++)
+		{
+			assertEquals(2, s[i].events);
+			Received received = poll(s[i]);
+			assertEquals(1.0, received.value());
+			assertTrue(received.changedBitSet.get(valueOffset()));
+			assertTrue(received.overrunBitSet.isEmpty());
+			assertEquals(2.0, poll(s[i]).value());
+			assertNull(poll(s[i]));
+		}
+
+		// other channel, other priority: not shared
+		subscribe("ch2");
+		subscribe("ch", createTransport((short)10));
+		assertEquals(3, monitors.size());
+	}
+
+	public void testLateJoinerGetsCurrentValue()
+	{
+		Subscriber first = subscribe("ch");
+		first.monitor.start();
+		TestMonitor monitor = monitors.get(0);
+		monitor.update(5.0);
+		assertEquals(5.0, poll(first).value());
+
+		Subscriber late = subscribe("ch");
+		assertEquals(0, late.events);
+		late.monitor.start();
+		assertEquals(1, late.events);
+
+		Received snapshot = poll(late);
+		assertTrue(snapshot.changedBitSet.get(0));
+		assertEquals(5.0, snapshot.value());
+		assertNull(poll(late));
+
+		// and then updates as the others
+		monitor.update(6.0);
+		assertEquals(6.0, poll(late).value());
+		assertEquals(6.0, poll(first).value());
+		assertEquals(1, monitors.size());
+	}
+
+	public void testUnsubscribe()
+	{
+		Subscriber owner = subscribe("ch");
+		Subscriber other = subscribe("ch");
+		Subscriber last = subscribe("ch");
+		owner.monitor.start();
+		other.monitor.start();
+		last.monitor.start();
+		TestMonitor monitor = monitors.get(0);
+
+		// monitor is re-created on the channel of another subscriber
+		owner.monitor.destroy();
+		assertTrue(monitor.destroyed);
+		assertEquals(2, monitors.size());
+		monitor = monitors.get(1);
+		assertTrue(monitor.started);
+
+		monitor.update(3.0);
+		assertEquals(0, owner.events);
+		assertEquals(3.0, poll(other).value());
+		assertEquals(3.0, poll(last).value());
+
+		// not an owner
+		last.monitor.destroy();
+		assertFalse(monitor.destroyed);
+		monitor.update(4.0);
+		assertEquals(4.0, poll(other).value());
+		assertNull(poll(last));
+
+		// stopped subscribers stop the monitor
+		other.monitor.stop();
+		assertFalse(monitor.started);
+		other.monitor.start();
+		assertTrue(monitor.started);
+
+		// last subscriber destroys the monitor, but not the channel of the subscriber
+		other.monitor.destroy();
+		assertTrue(monitor.destroyed);
+		assertTrue(destroyedChannels.isEmpty());
+
+		// new subscriber creates new shared monitor
+		subscribe("ch");
+		assertEquals(3, monitors.size());
+	}
+
+	public void testUnlisten()
+	{
+		Subscriber subscriber = subscribe("ch");
+		subscriber.monitor.start();
+		TestMonitor monitor = monitors.get(0);
+		monitor.requester.unlisten(monitor);
+		assertEquals(1, subscriber.unlistens);
+
+		// not shared anymore
+		subscribe("ch");
+		assertEquals(2, monitors.size());
+	}
+
+	public void testOverrunPerSubscriber()
+	{
+		Subscriber slow = subscribe("ch");
+		Subscriber fast = subscribe("ch");
+		slow.monitor.start();
+		fast.monitor.start();
+		TestMonitor monitor = monitors.get(0);
+
+		// default queueSize is 2
+		for (int i = 1; i <= 5; i++)
+		{
+			monitor.update(i);
+			Received received = poll(fast);
+			assertEquals((double)i, received.value());
+			assertTrue(received.overrunBitSet.isEmpty());
+		}
+
+		assertEquals(1.0, poll(slow).value());
+		assertEquals(2.0, poll(slow).value());
+		Received merged = poll(slow);
+		assertEquals(5.0, merged.value());
+		assertTrue(merged.changedBitSet.get(valueOffset()));
+		assertTrue(merged.overrunBitSet.get(valueOffset()));
+		assertEquals(1, merged.overrunBitSet.cardinality());
+		assertNull(poll(slow));
+
+		// overrun is cleared
+		monitor.update(6.0);
+		Received received = poll(slow);
+		assertEquals(6.0, received.value());
+		assertTrue(received.overrunBitSet.isEmpty());
+		assertEquals(6.0, poll(fast).value());
+	}
+}
@@ -0,0 +1,90 @@
+/**
+ * Copyright information and license terms for this software can be
+ * found in the file LICENSE.TXT included with the distribution.
+ */
+package org.epics.pvaccess.server.test;
+
+import junit.framework.TestCase;
+
+import org.epics.pvaccess.server.impl.remote.plugins.DefaultChannelNameIndex;
+
+/**
+ * <code>DefaultChannelNameIndex</code> test.
+ */
+public class ChannelNameIndexTest extends TestCase {
+
+	public void testNames()
+	{
+		DefaultChannelNameIndex index = new DefaultChannelNameIndex();
+		assertFalse(index.contains("record1"));
+		
+		index.addName("record1");
+		index.addName("record2");
+		assertTrue(index.contains("record1"));
+		assertTrue(index.contains("record2"));
+		assertFalse(index.contains("record"));
+		assertFalse(index.contains("record10"));
+		
+		index.removeName("record1");
+		assertFalse(index.contains("record1"));
+		assertTrue(index.contains("record2"));
+	}
+
+	public void testPrefixes()
+	{
+		DefaultChannelNameIndex index = new DefaultChannelNameIndex();
+		index.addPrefix("IOC1:");
+		index.addPrefix("IOC2:");
+		index.addPrefix("LINAC:RF:");
+		assertTrue(index.contains("IOC1:"));
+		assertTrue(index.contains("IOC1:ai1"));
+		assertTrue(index.contains("IOC2:bo1"));
+		assertTrue(index.contains("LINAC:RF:amp"));
+		assertFalse(index.contains("IOC3:ai1"));
+		assertFalse(index.contains("IOC"));
+		assertFalse(index.contains("LINAC:BPM:x"));
+		
+		index.removePrefix("IOC1:");
+		assertFalse(index.contains("IOC1:ai1"));
+		assertTrue(index.contains("IOC2:bo1"));
+		
+		try {
+			index.addPrefix("");
+			fail("empty prefix accepted");
+		} catch (IllegalArgumentException iae) {
+			// OK
+		}
+	}
+
+	public void testPatterns()
+	{
+		DefaultChannelNameIndex index = new DefaultChannelNameIndex();
+		index.addPattern("BPM[0-9]:?");
+		assertTrue(index.contains("BPM1:x"));
+		assertTrue(index.contains("BPM7:y"));
+		assertFalse(index.contains("BPMA:x"));
+		assertFalse(index.contains("BPM1:xy"));
+		
+		index.removePattern("BPM[0-9]:?");
+		assertFalse(index.contains("BPM1:x"));
+	}
+
+	public void testLookup()
+	{
+		DefaultChannelNameIndex index = new DefaultChannelNameIndex();
+		index.addName("exact");
+		index.addPrefix("pre:");
+		index.addPattern("*.wild");
+		
+		String[] names = { "exact", "pre:fix", "some.wild", "none", "unused" };
+		boolean[] hosted = { false, false, true, true, true };
+		index.lookup(names, 4, hosted);
+		
+		assertTrue(hosted[0]);
+		assertTrue(hosted[1]);
+		assertTrue(hosted[2]);
+		assertFalse(hosted[3]);
+		// not touched
+		assertTrue(hosted[4]);
+	}
+}
@@ -0,0 +1,40 @@
+/**
+ * Copyright information and license terms for this software can be
+ * found in the file LICENSE.TXT included with the distribution.
+ */
+package org.epics.pvaccess.server.test;
+
+import java.util.Set;
+
+import org.epics.pvaccess.client.ChannelFind;
+import org.epics.pvaccess.client.ChannelListRequester;
+import org.epics.pvaccess.server.impl.remote.plugins.DefaultChannelNameIndex;
+import org.epics.pvaccess.server.plugins.ChannelNameIndex;
+import org.epics.pvdata.pv.Status;
+
+/**
+ * <code>TestChannelProviderImpl</code> that also implements <code>ChannelNameIndex</code>,
+ * i.e. it is searched by the server through the index instead of <code>channelFind()</code>.
+ */
+public class IndexedTestChannelProviderImpl extends TestChannelProviderImpl implements ChannelNameIndex {
+
+	private final DefaultChannelNameIndex index = new DefaultChannelNameIndex();
+
+	public IndexedTestChannelProviderImpl() {
+		channelList(new ChannelListRequester() {
+			@Override
+			public void channelListResult(Status status, ChannelFind channelFind,
+					Set<String> channelNames, boolean hasDynamic) {
+				for (String name : channelNames)
+					index.addName(name);
+			}
+		});
+		// dynamic channels, see TestChannelProviderImpl.channelFind()
+		index.addPrefix("test");
+	}
+
+	@Override
+	public void lookup(String[] channelNames, int count, boolean[] hosted) {
+		index.lookup(channelNames, count, hosted);
+	}
+}
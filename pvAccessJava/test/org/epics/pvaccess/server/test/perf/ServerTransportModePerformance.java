@@ -0,0 +1,174 @@
+/**
+ * Copyright information and license terms for this software can be
+ * found in the file LICENSE.TXT included with the distribution.
+ */
+package org.epics.pvaccess.server.test.perf;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.epics.pvaccess.client.Channel;
+import org.epics.pvaccess.client.Channel.ConnectionState;
+import org.epics.pvaccess.client.ChannelGet;
+import org.epics.pvaccess.client.ChannelGetRequester;
+import org.epics.pvaccess.client.ChannelProvider;
+import org.epics.pvaccess.client.ChannelRequester;
+import org.epics.pvaccess.client.impl.remote.ClientContextImpl;
+import org.epics.pvaccess.server.impl.remote.ServerContextImpl;
+import org.epics.pvaccess.server.test.TestChannelProviderImpl;
+import org.epics.pvdata.copy.CreateRequest;
+import org.epics.pvdata.misc.BitSet;
+import org.epics.pvdata.pv.MessageType;
+import org.epics.pvdata.pv.PVStructure;
+import org.epics.pvdata.pv.Status;
+import org.epics.pvdata.pv.Structure;
+
+/**
+ * Compares thread-per-connection and reactor (<code>EPICS_PVAS_REACTOR_THREADS</code>) server modes.
+ * Every client context opens its own TCP connection and issues sequential gets, all clients run in parallel.
+ * Usage: [clients] [getsPerClient] [reactorThreads]
+ */
+public class ServerTransportModePerformance {
+
+	static class Client implements ChannelRequester, ChannelGetRequester, Runnable {
+
+		final ClientContextImpl context;
+		final CountDownLatch connected = new CountDownLatch(1);
+		final Semaphore done = new Semaphore(0);
+		final int gets;
+		final long[] latencies;
+		volatile ChannelGet channelGet;
+
+		Client(int gets) throws Throwable {
+			this.gets = gets;
+			this.latencies = new long[gets];
+			context = new ClientContextImpl();
+			context.initialize();
+
+			Channel channel = context.getProvider().createChannel("valueOnly", this, ChannelProvider.PRIORITY_DEFAULT);
+			PVStructure pvRequest = CreateRequest.create().createRequest("field()");
+			channel.createChannelGet(this, pvRequest);
+		}
+
+		@Override
+		public void run() {
+			for (int i = 0; i < gets; i++)
+			{
+				final long start = System.nanoTime();
+				channelGet.get();
+				try {
+					if (!done.tryAcquire(5, TimeUnit.SECONDS))
+						throw new RuntimeException("get timeout");
+				} catch (InterruptedException e) {
+					return;
+				}
+				latencies[i] = System.nanoTime() - start;
+			}
+		}
+
+		@Override
+		public String getRequesterName() {
+			return getClass().getName();
+		}
+
+		@Override
+		public void message(String message, MessageType messageType) {
+			System.err.println("[" + messageType + "] " + message);
+		}
+
+		@Override
+		public void channelCreated(Status status, Channel channel) {
+		}
+
+		@Override
+		public void channelStateChange(Channel channel, ConnectionState connectionState) {
+		}
+
+		@Override
+		public void channelGetConnect(Status status, ChannelGet channelGet, Structure structure) {
+			this.channelGet = channelGet;
+			connected.countDown();
+		}
+
+		@Override
+		public void getDone(Status status, ChannelGet channelGet, PVStructure pvStructure, BitSet changedBitSet) {
+			done.release();
+		}
+	}
+
+	static void runMode(int clientCount, int gets, int reactorThreads) throws Throwable
+	{
+		System.setProperty("EPICS_PVAS_REACTOR_THREADS", String.valueOf(reactorThreads));
+
+		final int threadsBefore = Thread.activeCount();
+
+		final ServerContextImpl serverContext = new ServerContextImpl();
+		serverContext.initialize(new TestChannelProviderImpl());
+		new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					serverContext.run(0);
+				} catch (Throwable th) {
+					th.printStackTrace();
+				}
+			}
+		}, "pvAccess server").start();
+
+		Client[] clients = new Client[clientCount];
+		for (int i = 0; i < clientCount; i++)
+			clients[i] = new Client(gets);
+		for (Client client : clients)
+			if (!client.connected.await(10, TimeUnit.SECONDS))
+				throw new RuntimeException("failed to connect");
+
+		final int threadsConnected = Thread.activeCount();
+
+		Thread[] threads = new Thread[clientCount];
+		final long start = System.nanoTime();
+		for (int i = 0; i < clientCount; i++)
+		{
+			threads[i] = new Thread(clients[i]);
+			threads[i].start();
+		}
+		for (Thread thread : threads)
+			thread.join();
+		final long duration = System.nanoTime() - start;
+
+		long[] all = new long[clientCount * gets];
+		for (int i = 0; i < clientCount; i++)
+			System.arraycopy(clients[i].latencies, 0, all, i * gets, gets);
+		Arrays.sort(all);
+
+		System.out.println("reactor threads: " + serverContext.getReactorThreads() +
+				", clients: " + clientCount +
+				", threads: " + (threadsConnected - threadsBefore) +
+				", throughput: " + (long)(all.length / (duration / 1e9)) + " gets/s" +
+				", latency avg/p50/p99: " + (Arrays.stream(all).sum() / all.length / 1000) + "/" +
+				(all[all.length / 2] / 1000) + "/" + (all[(int)(all.length * 0.99)] / 1000) + " us");
+
+		for (Client client : clients)
+			client.context.dispose();
+		serverContext.dispose();
+
+		// let the threads go away
+		Thread.sleep(3000);
+	}
+
+	public static void main(String[] args) throws Throwable {
+		final int clientCount = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+		final int gets = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+		final int reactorThreads = args.length > 2 ? Integer.parseInt(args[2]) : -1;
+
+		// warmup
+		runMode(clientCount, gets / 10, 0);
+		runMode(clientCount, gets / 10, reactorThreads);
+
+		runMode(clientCount, gets, 0);
+		runMode(clientCount, gets, reactorThreads);
+
+		System.exit(0);
+	}
+}
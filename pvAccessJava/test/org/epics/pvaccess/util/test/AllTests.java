@@ -33,6 +33,8 @@ public class AllTests {
         suite.addTestSuite(CircularBufferTest.class);
         suite.addTestSuite(GrowingCircularBufferTest.class);
         suite.addTestSuite(WildcardMatcherTest.class);
+        suite.addTestSuite(MpscMailboxTest.class);
+        suite.addTestSuite(ByteBufferPoolTest.class);
         //$JUnit-END$
         return suite;
     }
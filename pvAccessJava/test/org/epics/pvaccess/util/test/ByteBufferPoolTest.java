@@ -0,0 +1,115 @@
+/**
+ * Copyright information and license terms for this software can be
+ * found in the file LICENSE.TXT included with the distribution.
+ */
+package org.epics.pvaccess.util.test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import junit.framework.TestCase;
+
+import org.epics.pvaccess.util.ByteBufferPool;
+
+public class ByteBufferPoolTest extends TestCase {
+
+	public ByteBufferPoolTest(String methodName) {
+		super(methodName);
+	}
+
+	public void testSizeClasses()
+	{
+		ByteBufferPool pool = new ByteBufferPool(1024, 3, Long.MAX_VALUE);
+		assertEquals(1024, pool.getBaseSize());
+
+		ByteBuffer b1 = pool.acquire(1);
+		assertTrue(b1.isDirect());
+		assertEquals(1024, b1.capacity());
+		assertEquals(1024, pool.acquire(1024).capacity());
+		assertEquals(2048, pool.acquire(1025).capacity());
+		assertEquals(4096, pool.acquire(4096).capacity());
+
+		// non-pooled
+		ByteBuffer large = pool.acquire(4097);
+		assertEquals(4097, large.capacity());
+
+		assertEquals(4, pool.getInUseCount());
+		assertEquals(1024 + 1024 + 2048 + 4096, pool.getInUseBytes());
+		assertEquals(5, pool.getAllocatedCount());
+
+		pool.release(large);
+		assertEquals(4, pool.getInUseCount());
+		assertEquals(0, pool.getIdleCount());
+	}
+
+	public void testReuse()
+	{
+		ByteBufferPool pool = new ByteBufferPool(1024, 3, Long.MAX_VALUE);
+
+		ByteBuffer b = pool.acquire(100);
+		b.putInt(12);
+		b.order(ByteOrder.LITTLE_ENDIAN);
+		pool.release(b);
+
+		assertEquals(0, pool.getInUseCount());
+		assertEquals(0, pool.getInUseBytes());
+		assertEquals(1, pool.getIdleCount());
+		assertEquals(1024, pool.getIdleBytes());
+
+		ByteBuffer b2 = pool.acquire(1000);
+		assertSame(b, b2);
+		assertEquals(0, b2.position());
+		assertEquals(b2.capacity(), b2.limit());
+		assertEquals(ByteOrder.BIG_ENDIAN, b2.order());
+		assertEquals(1, pool.getReusedCount());
+		assertEquals(1, pool.getAllocatedCount());
+		assertEquals(0, pool.getIdleCount());
+
+		// other size class
+		assertNotSame(b, pool.acquire(2000));
+	}
+
+	public void testGrowByDoubling()
+	{
+		ByteBufferPool pool = new ByteBufferPool(1024, 3, Long.MAX_VALUE);
+
+		// as a non-blocking codec assembling a large message does
+		ByteBuffer b = pool.acquire(pool.getBaseSize());
+		for (int i = 0; i < 2; i++)
+		{
+			ByteBuffer larger = pool.acquire(2 * b.capacity());
+			assertEquals(2 * b.capacity(), larger.capacity());
+			pool.release(b);
+			b = larger;
+		}
+		pool.release(b);
+		assertEquals(3, pool.getIdleCount());
+		assertEquals(1024 + 2048 + 4096, pool.getIdleBytes());
+
+		// next message reuses all the classes
+		b = pool.acquire(pool.getBaseSize());
+		for (int i = 0; i < 2; i++)
+		{
+			ByteBuffer larger = pool.acquire(2 * b.capacity());
+			pool.release(b);
+			b = larger;
+		}
+		assertEquals(3, pool.getAllocatedCount());
+		assertEquals(3, pool.getReusedCount());
+	}
+
+	public void testMaxIdleBytes()
+	{
+		ByteBufferPool pool = new ByteBufferPool(1024, 3, 2048);
+
+		ByteBuffer[] buffers = new ByteBuffer[3];
+		for (int i = 0; i < buffers.length; i++)
+			buffers[i] = pool.acquire(1024);
+		for (ByteBuffer b : buffers)
+			pool.release(b);
+
+		assertEquals(0, pool.getInUseCount());
+		assertEquals(2, pool.getIdleCount());
+		assertEquals(2048, pool.getIdleBytes());
+	}
+}
@@ -0,0 +1,122 @@
+/**
+ * Copyright information and license terms for this software can be
+ * found in the file LICENSE.TXT included with the distribution.
+ */
+package org.epics.pvaccess.util.test;
+
+import junit.framework.TestCase;
+
+import org.epics.pvaccess.util.MpscMailbox;
+
+public class MpscMailboxTest extends TestCase {
+
+	public MpscMailboxTest(String methodName) {
+		super(methodName);
+	}
+
+	/**
+	 * FIFO test, including growth of the buffer.
+	 */
+	public void testFIFO() throws InterruptedException
+	{
+		MpscMailbox<Integer> mb = new MpscMailbox<Integer>(4);
+
+		assertTrue(mb.isEmpty());
+		assertNull(mb.take(-1));
+
+		for (int round = 0; round < 3; round++)
+		{
+			final int COUNT = 100;
+			for (int i = 0; i < COUNT; i++)
+			{
+				mb.put(i);
+				assertFalse(mb.isEmpty());
+			}
+
+			for (int i = 0; i < COUNT; i++)
+				assertEquals(Integer.valueOf(i), mb.take(-1));
+
+			assertTrue(mb.isEmpty());
+			assertNull(mb.take(-1));
+		}
+	}
+
+	public void testClear() throws InterruptedException
+	{
+		MpscMailbox<Integer> mb = new MpscMailbox<Integer>(4);
+		for (int i = 0; i < 10; i++)
+			mb.put(i);
+		mb.clear();
+		assertTrue(mb.isEmpty());
+		assertNull(mb.take(-1));
+
+		mb.put(11);
+		assertEquals(Integer.valueOf(11), mb.take(-1));
+	}
+
+	public void testTimeoutAndWakeup() throws InterruptedException
+	{
+		final MpscMailbox<Integer> mb = new MpscMailbox<Integer>();
+
+		long start = System.currentTimeMillis();
+		assertNull(mb.take(100));
+		assertTrue(System.currentTimeMillis() - start >= 90);
+
+		// wakeup before take must not be lost
+		mb.wakeup();
+		assertNull(mb.take(0));
+
+		new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try { Thread.sleep(100); } catch (InterruptedException e) { /* noop */ }
+				mb.wakeup();
+			}
+		}).start();
+		assertNull(mb.take(0));
+
+		new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try { Thread.sleep(100); } catch (InterruptedException e) { /* noop */ }
+				mb.put(7);
+			}
+		}).start();
+		assertEquals(Integer.valueOf(7), mb.take(0));
+	}
+
+	/**
+	 * Concurrent producers, order of elements of each producer must be preserved.
+	 */
+	public void testMultipleProducers() throws InterruptedException
+	{
+		final int PRODUCERS = 4;
+		final int COUNT = 100000;
+		final MpscMailbox<Integer> mb = new MpscMailbox<Integer>(2);
+
+		for (int p = 0; p < PRODUCERS; p++)
+		{
+			final int producer = p;
+			new Thread(new Runnable() {
+				@Override
+				public void run() {
+					for (int i = 0; i < COUNT; i++)
+						mb.put(producer * COUNT + i);
+				}
+			}).start();
+		}
+
+		int[] next = new int[PRODUCERS];
+		for (int i = 0; i < PRODUCERS * COUNT; i++)
+		{
+			Integer val = mb.take(5000);
+			assertNotNull(val);
+			int producer = val / COUNT;
+			assertEquals(next[producer]++, val % COUNT);
+		}
+
+		assertNull(mb.take(-1));
+		for (int p = 0; p < PRODUCERS; p++)
+			assertEquals(COUNT, next[p]);
+	}
+}
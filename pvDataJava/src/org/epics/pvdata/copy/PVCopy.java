@@ -81,6 +81,17 @@ public interface PVCopy {
      * @param bitSet The bitSet which shows which fields should be updated.
      */
     void updateCopyFromBitSet(PVStructure copyPVStructure,BitSet bitSet);
+    /**
+     * Update PVStructure from master, copying only the fields that changed in master.
+     * Unlike updateCopySetBitSet no fields are compared and the copy is not traversed:
+     * the master offsets are mapped to the copy offsets by tables precomputed when the PVCopy
+     * was created, which are shared by all PVCopy of the same master type and field subset.
+     * @param copyPVStructure The PVStructure.
+     * @param masterBitSet The offsets within master that have changed, e.g. published by the record.
+     * A set structure offset means that all its subfields have changed.
+     * @param bitSet The BitSet which shows the fields in PVStructure that were modified.
+     */
+    void updateCopyFromMasterBitSet(PVStructure copyPVStructure,BitSet masterBitSet,BitSet bitSet);
     /**
      * Update the fields in master with data from PVStructure. Only fields
      * that have the offset in bitSet set to true are modified.
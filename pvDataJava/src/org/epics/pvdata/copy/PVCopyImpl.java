@@ -14,6 +14,7 @@ import org.epics.pvdata.pv.Field;
 import org.epics.pvdata.pv.FieldCreate;
 import org.epics.pvdata.pv.PVDataCreate;
 import org.epics.pvdata.pv.PVField;
+import org.epics.pvdata.pv.PVScalarArray;
 import org.epics.pvdata.pv.PVString;
 import org.epics.pvdata.pv.PVStructure;
 import org.epics.pvdata.pv.Structure;
@@ -66,6 +67,11 @@ class PVCopyImpl implements PVCopy{
     private Structure structure = null;
     private Node headNode = null;
     private PVStructure cacheInitStructure = null;
+    private PVCopyOffsetMap offsetMap = null;
+    // master fields indexed by offset
+    private PVField[] masterPVFields = null;
+    // master offset 0 only, i.e. entire master changed
+    private final BitSet entireMasterBitSet = new BitSet(1);
 
     private PVCopyImpl(PVStructure pvMaster) {
         this.pvMaster = pvMaster;
@@ -99,8 +105,23 @@ class PVCopyImpl implements PVCopy{
             return save;
         }
         PVStructure pvStructure =  pvDataCreate.createPVStructure(structure);
+        shareArraysOnCopy(pvStructure);
         return pvStructure;
     }
+    /**
+     * Arrays of a copy share the value array of the master copy-on-write instead of copying the elements,
+     * a master array then allocates a new value array when it is next written.
+     * @param pvStructure the copy.
+     */
+    private static void shareArraysOnCopy(PVStructure pvStructure) {
+        for(PVField pvField : pvStructure.getPVFields()) {
+            if(pvField instanceof PVScalarArray) {
+                ((PVScalarArray)pvField).setShareOnCopy(true);
+            } else if(pvField instanceof PVStructure) {
+                shareArraysOnCopy((PVStructure)pvField);
+            }
+        }
+    }
     /* (non-Javadoc)
      * @see org.epics.pvdata.copy.PVCopy#getCopyOffset(org.epics.pvdata.pv.PVField)
      */
@@ -164,8 +185,8 @@ class PVCopyImpl implements PVCopy{
      * @see org.epics.pvdata.copy.PVCopy#initCopy(org.epics.pvdata.pv.PVStructure, org.epics.pvdata.misc.BitSet)
      */
     public void initCopy(PVStructure copyPVStructure, BitSet bitSet) {
+        updateCopyFromMasterBitSet(copyPVStructure,entireMasterBitSet,bitSet);
         bitSet.set(0,copyPVStructure.getNumberFields(),true);
-        updateCopyFromBitSet(copyPVStructure,headNode,bitSet);
     }
     /* (non-Javadoc)
      * @see org.epics.pvioc.pvCopy.PVCopy#updateCopySetBitSet(org.epics.pvdata.pv.PVStructure, org.epics.pvdata.misc.BitSet)
@@ -178,9 +199,43 @@ class PVCopyImpl implements PVCopy{
      * @see org.epics.pvdata.pvCopy.PVCopy#updateCopyFromBitSet(org.epics.pvdata.pv.PVStructure, org.epics.pvdata.misc.BitSet)
      */
     public void updateCopyFromBitSet(PVStructure copyPVStructure,BitSet bitSet) {
-        if(bitSet.get(0)) bitSet.set(0,copyPVStructure.getNumberFields(),true);
+        if(bitSet.get(0)) {
+            // entire copy, no need to traverse
+            initCopy(copyPVStructure,bitSet);
+            return;
+        }
         updateCopyFromBitSet(copyPVStructure,headNode,bitSet);
     }
+    /* (non-Javadoc)
+     * @see org.epics.pvdata.copy.PVCopy#updateCopyFromMasterBitSet(org.epics.pvdata.pv.PVStructure, org.epics.pvdata.misc.BitSet, org.epics.pvdata.misc.BitSet)
+     */
+    public void updateCopyFromMasterBitSet(PVStructure copyPVStructure,BitSet masterBitSet,BitSet bitSet) {
+        final int[] masterToCopy = offsetMap.masterToCopy;
+        final int[] masterNextOffset = offsetMap.masterNextOffset;
+        final boolean[] partial = offsetMap.partial;
+        final int numberFields = masterToCopy.length;
+        // offsets below expandEnd are within a changed structure, i.e. changed
+        int expandEnd = 0;
+        int offset = masterBitSet.nextSetBit(0);
+        while(offset>=0 && offset<numberFields) {
+            int next;
+            int copyOffset = masterToCopy[offset];
+            if(copyOffset<0) {
+                // neither the field nor its subfields are in the copy
+                next = masterNextOffset[offset];
+            } else if(partial[offset]) {
+                // only some subfields in the copy, check each of them
+                expandEnd = Math.max(expandEnd,masterNextOffset[offset]);
+                next = offset + 1;
+            } else {
+                PVField pvCopy = (copyOffset==0) ? copyPVStructure : copyPVStructure.getSubField(copyOffset);
+                convert.copy(masterPVFields[offset],pvCopy);
+                bitSet.set(copyOffset);
+                next = masterNextOffset[offset];
+            }
+            offset = (next<expandEnd) ? next : masterBitSet.nextSetBit(next);
+        }
+    }
     /* (non-Javadoc)
      * @see org.epics.pvdata.pvCopy.PVCopy#updateRecord(org.epics.pvdata.pv.PVStructure, org.epics.pvdata.misc.BitSet)
      */
@@ -318,6 +373,24 @@ class PVCopyImpl implements PVCopy{
         }
     }
 
+    private static int flatten(PVField pvField,PVField[] pvFields,int offset) {
+        pvFields[offset++] = pvField;
+        if(pvField.getField().getType()==Type.structure) {
+            PVField[] pvSubFields = ((PVStructure)pvField).getPVFields();
+            for(int i=0; i<pvSubFields.length; i++) {
+                offset = flatten(pvSubFields[i],pvFields,offset);
+            }
+        }
+        return offset;
+    }
+
+    private void initOffsetMap() {
+        offsetMap = PVCopyOffsetMap.get(pvMaster.getStructure(),structure);
+        masterPVFields = new PVField[pvMaster.getNumberFields()];
+        flatten(pvMaster,masterPVFields,0);
+        entireMasterBitSet.set(0);
+    }
+
     private boolean  init(PVStructure pvRequest) {
         PVStructure pvMasterStructure = pvMaster;
         int len = pvRequest.getPVFields().length;
@@ -337,12 +410,14 @@ class PVCopyImpl implements PVCopy{
             node.structureOffset = 0;
             node.masterPVField = pvMasterStructure;
             node.nfields = pvMasterStructure.getNumberFields();
+            initOffsetMap();
             return true;
         }
         structure = createStructure(pvMasterStructure,pvRequest);
         if(structure==null) return false;
         cacheInitStructure = createPVStructure();
         headNode = createStructureNodes(pvMaster,pvRequest,cacheInitStructure);
+        initOffsetMap();
         return true;
     }
 
@@ -0,0 +1,134 @@
+/*
+ * The License for this software can be found in the file LICENSE that is included with the distribution
+ */
+package org.epics.pvdata.copy;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.epics.pvdata.pv.Field;
+import org.epics.pvdata.pv.Structure;
+import org.epics.pvdata.pv.Type;
+
+/**
+ * Precomputed mapping of master field offsets to copy field offsets.
+ * It depends only on the introspection interfaces of the master and of the copy,
+ * so it is shared by all PVCopy instances of the same master type and the same field subset
+ * (e.g. many clients monitoring the same set of fields).
+ * Master types are weakly referenced and only the most recently used field subsets
+ * of each master type are kept.
+ */
+final class PVCopyOffsetMap {
+    /**
+     * Max number of field subsets kept per master type.
+     */
+    private static final int MAX_COPY_STRUCTURES = 32;
+
+    private static final Map<Structure,Map<Structure,PVCopyOffsetMap>> cache =
+        new WeakHashMap<Structure,Map<Structure,PVCopyOffsetMap>>();
+
+    /**
+     * Get the (shared) offset map.
+     * @param masterStructure The introspection interface of the master.
+     * @param copyStructure The introspection interface of the copy.
+     * @return The offset map.
+     */
+    static PVCopyOffsetMap get(Structure masterStructure,Structure copyStructure) {
+        synchronized(cache) {
+            Map<Structure,PVCopyOffsetMap> offsetMaps = cache.get(masterStructure);
+            if(offsetMaps==null) {
+                offsetMaps = new LinkedHashMap<Structure,PVCopyOffsetMap>(16,0.75f,true) {
+                    private static final long serialVersionUID = 1L;
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<Structure,PVCopyOffsetMap> eldest) {
+                        return size()>MAX_COPY_STRUCTURES;
+                    }
+                };
+                cache.put(masterStructure,offsetMaps);
+            }
+            // entire master is kept under null key, the value must not reference the weak key
+            Structure key = copyStructure.equals(masterStructure) ? null : copyStructure;
+            PVCopyOffsetMap offsetMap = offsetMaps.get(key);
+            if(offsetMap==null) {
+                offsetMap = new PVCopyOffsetMap(masterStructure,copyStructure);
+                offsetMaps.put(key,offsetMap);
+            }
+            return offsetMap;
+        }
+    }
+
+    /**
+     * For each master offset, the copy offset or -1 if the field is not in the copy.
+     */
+    final int[] masterToCopy;
+    /**
+     * For each master offset, the offset of the next field that is not a subfield.
+     */
+    final int[] masterNextOffset;
+    /**
+     * For each master offset, true if the field is a structure of which only some subfields are in the copy.
+     */
+    final boolean[] partial;
+
+    private PVCopyOffsetMap(Structure masterStructure,Structure copyStructure) {
+        int numberFields = numberFields(masterStructure);
+        masterToCopy = new int[numberFields];
+        masterNextOffset = new int[numberFields];
+        partial = new boolean[numberFields];
+        for(int i=0; i<numberFields; i++) masterToCopy[i] = -1;
+        setNextOffsets(masterStructure,0);
+        map(masterStructure,0,copyStructure,0);
+    }
+
+    private void map(Field masterField,int masterOffset,Field copyField,int copyOffset) {
+        masterToCopy[masterOffset] = copyOffset;
+        if(masterField.equals(copyField)) {
+            // entire field (and all subfields) copied
+            int nfields = numberFields(masterField);
+            for(int i=0; i<nfields; i++) {
+                masterToCopy[masterOffset + i] = copyOffset + i;
+            }
+            return;
+        }
+        partial[masterOffset] = true;
+        Structure masterStructure = (Structure)masterField;
+        Structure copyStructure = (Structure)copyField;
+        String[] masterNames = masterStructure.getFieldNames();
+        Field[] masterFields = masterStructure.getFields();
+        String[] copyNames = copyStructure.getFieldNames();
+        Field[] copyFields = copyStructure.getFields();
+        int copySubOffset = copyOffset + 1;
+        for(int i=0; i<copyFields.length; i++) {
+            int masterSubOffset = masterOffset + 1;
+            for(int j=0; j<masterNames.length; j++) {
+                if(masterNames[j].equals(copyNames[i])) {
+                    map(masterFields[j],masterSubOffset,copyFields[i],copySubOffset);
+                    break;
+                }
+                masterSubOffset += numberFields(masterFields[j]);
+            }
+            copySubOffset += numberFields(copyFields[i]);
+        }
+    }
+
+    private int setNextOffsets(Field field,int offset) {
+        int nextOffset = offset + 1;
+        if(field.getType()==Type.structure) {
+            Field[] fields = ((Structure)field).getFields();
+            for(int i=0; i<fields.length; i++) {
+                nextOffset = setNextOffsets(fields[i],nextOffset);
+            }
+        }
+        masterNextOffset[offset] = nextOffset;
+        return nextOffset;
+    }
+
+    private static int numberFields(Field field) {
+        if(field.getType()!=Type.structure) return 1;
+        int number = 1;
+        Field[] fields = ((Structure)field).getFields();
+        for(int i=0; i<fields.length; i++) number += numberFields(fields[i]);
+        return number;
+    }
+}
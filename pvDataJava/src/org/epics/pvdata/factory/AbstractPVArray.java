@@ -32,6 +32,15 @@ public abstract class AbstractPVArray extends AbstractPVField implements PVArray
      * For use by derived classes.
      */
     protected boolean capacityMutable = true;
+    /**
+     * Set if the value array is (or was) shared with another array by {@link #shareValue(AbstractPVArray)},
+     * the value array is then copied before it is modified.
+     */
+    protected boolean copyOnWrite = false;
+    /**
+     * Set if entire arrays copied into this array are shared copy-on-write instead of copied element by element.
+     */
+    private boolean shareOnCopy = false;
 
     /**
      * Constructor that derived classes must call.
@@ -79,6 +88,7 @@ public abstract class AbstractPVArray extends AbstractPVField implements PVArray
         
         Object oldValue = getValue();
         allocate(newCapacity);
+        copyOnWrite = false;
 
         if (length > newCapacity)
         	length = newCapacity;
@@ -109,9 +119,11 @@ public abstract class AbstractPVArray extends AbstractPVField implements PVArray
         {
         	checkLength(newLength);
         	setCapacity(newLength);
-        	value = getValue();
         	length = newLength;
         }
+        // all the elements are overwritten, no need to copy them
+        prepareWrite(offset == 0 && len >= length);
+        value = getValue();
         
         System.arraycopy(from, fromOffset, value, offset, len);
         super.postPut();
@@ -129,6 +141,7 @@ public abstract class AbstractPVArray extends AbstractPVField implements PVArray
         	setCapacity(newLength);
         	length = newLength;
         }
+        prepareWrite(offset == 0 && list.size() >= length);
         
         CollectionNumbers.toList(getValue()).setAll(offset, list);
         super.postPut();
@@ -154,6 +167,73 @@ public abstract class AbstractPVArray extends AbstractPVField implements PVArray
     	
     	setValue(from);
     	capacity = length = len;
+    	copyOnWrite = false;
+    }
+
+    /**
+     * Share the value array of another array of the same element type, copy-on-write.
+     * No elements are copied: both arrays reference the same value array, and each copies it
+     * (once) before it modifies it, i.e. by put, deserialization or a capacity change.
+     * Neither array is made immutable, an immutable array is shared the same way as a mutable one.
+     * NOTE: as for any array, elements returned by <code>get</code> must not be modified by the caller.
+     * @param from the array to share the value array of.
+     * @return <code>true</code> if shared, <code>false</code> if this array is immutable, the element types differ,
+     * or the capacity of <code>from</code> is not valid for this array (the caller must then copy the elements).
+     */
+    boolean shareValue(AbstractPVArray from) {
+    	if (from == this)
+    		return true;
+    	if (super.isImmutable())
+    		return false;
+    	Object value = from.getValue();
+    	if (value.getClass() != getValue().getClass())
+    		return false;
+    	int newCapacity = from.capacity;
+    	if (newCapacity != capacity) {
+    		if (!capacityMutable)
+    			return false;
+    		Array.ArraySizeType type = getArray().getArraySizeType();
+    		if (type != Array.ArraySizeType.variable && newCapacity > getArray().getMaximumCapacity())
+    			return false;
+    	}
+    	setValue(value);
+    	capacity = newCapacity;
+    	length = from.length;
+    	copyOnWrite = true;
+    	from.copyOnWrite = true;
+    	super.postPut();
+    	return true;
+    }
+
+    /* (non-Javadoc)
+     * @see org.epics.pvdata.pv.PVArray#setShareOnCopy(boolean)
+     */
+    @Override
+    public void setShareOnCopy(boolean shareOnCopy) {
+    	this.shareOnCopy = shareOnCopy;
+    }
+
+    /* (non-Javadoc)
+     * @see org.epics.pvdata.pv.PVArray#isShareOnCopy()
+     */
+    @Override
+    public boolean isShareOnCopy() {
+    	return shareOnCopy;
+    }
+
+    /**
+     * Make the value array writable, i.e. copy it if it is shared.
+     * Must be called before the elements of the value array are modified.
+     * @param overwrite <code>true</code> if all the elements are going to be overwritten, so they need not be copied.
+     */
+    protected void prepareWrite(boolean overwrite) {
+    	if (!copyOnWrite)
+    		return;
+    	Object oldValue = getValue();
+    	allocate(capacity);
+    	if (!overwrite && length > 0)
+    		System.arraycopy(oldValue, 0, getValue(), 0, length);
+    	copyOnWrite = false;
     }
 
     /* (non-Javadoc)
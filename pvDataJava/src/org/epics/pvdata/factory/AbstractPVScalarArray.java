@@ -8,10 +8,13 @@ import java.nio.ByteBuffer;
 
 import org.epics.pvdata.misc.SerializeHelper;
 import org.epics.pvdata.pv.Array;
+import org.epics.pvdata.pv.ArrayChunkListener;
 import org.epics.pvdata.pv.DeserializableControl;
+import org.epics.pvdata.pv.DirectSerializableControl;
 import org.epics.pvdata.pv.PVScalarArray;
 import org.epics.pvdata.pv.ScalarArray;
 import org.epics.pvdata.pv.SerializableControl;
+import org.epics.pvdata.pv.StreamingDeserializableControl;
 
 /**
  * Abstract base class for any scalar PVArray field.
@@ -19,6 +22,9 @@ import org.epics.pvdata.pv.SerializableControl;
  */
 public abstract class AbstractPVScalarArray extends AbstractPVArray implements PVScalarArray {
 
+	// maximum size of a chunk of a streamed array
+	private static final int STREAM_CHUNK_BYTES = 64*1024;
+
 	protected AbstractPVScalarArray(ScalarArray array) {
         super(array);
     }
@@ -52,7 +58,10 @@ public abstract class AbstractPVScalarArray extends AbstractPVArray implements P
 		
 		// write elements
 		final int elementSize = getElementSize();
-		if (elementSize <= 0)
+		if (count > 0 && flusher instanceof DirectSerializableControl &&
+			directSerialize(buffer, (DirectSerializableControl)flusher, offset, count))
+			return;
+		else if (elementSize <= 0)
 			putToBuffer(buffer, flusher, offset, count);
 		else
 		{
@@ -82,11 +91,20 @@ public abstract class AbstractPVScalarArray extends AbstractPVArray implements P
 			getArray().getMaximumCapacity();
 			
 		if (size >= 0) {
+			final int elementSize = getElementSize();
+			if (elementSize > 0 && capacityMutable && control instanceof StreamingDeserializableControl) {
+				final ArrayChunkListener listener = ((StreamingDeserializableControl)control).getArrayChunkListener();
+				if (listener != null && listener.arrayStart(this, size)) {
+					deserializeChunks(buffer, control, listener, size, elementSize);
+					return;
+				}
+			}
 			// prepare array, if necessary
 			if (size > capacity)
 				setCapacity(size);
+			// all the elements are overwritten
+			prepareWrite(true);
 			// retrieve value from the buffer
-			final int elementSize = getElementSize();
 			if (elementSize <= 0)
 				getFromBuffer(buffer, control, 0, size);
 			else
@@ -107,6 +125,34 @@ public abstract class AbstractPVScalarArray extends AbstractPVArray implements P
 		}
 		// TODO null arrays (size == -1) not supported
 	}
+
+	/**
+	 * Deserialize elements in chunks of at most <code>STREAM_CHUNK_BYTES</code> and pass each chunk to the listener.
+	 * Only a chunk is held by this array at any time, the array is left empty.
+	 */
+	private void deserializeChunks(ByteBuffer buffer, DeserializableControl control,
+			ArrayChunkListener listener, int size, int elementSize) {
+		final int chunkCapacity = Math.min(size, Math.max(1, STREAM_CHUNK_BYTES/elementSize));
+		if (capacity != chunkCapacity) {
+			length = 0;
+			setCapacity(chunkCapacity);
+		}
+		prepareWrite(true);
+		int offset = 0;
+		while (offset < size)
+		{
+			final int n = Math.min(Math.min(size-offset, chunkCapacity), buffer.remaining()/elementSize);
+			if (n == 0) {
+				control.ensureData(elementSize);
+				continue;
+			}
+			length = getFromBuffer(buffer, control, 0, n);
+			listener.arrayChunk(this, offset, length);
+			offset += length;
+		}
+		length = 0;
+		listener.arrayEnd(this);
+	}
     
     private static final int[] elementSizeLUT =
     {
@@ -129,6 +175,19 @@ public abstract class AbstractPVScalarArray extends AbstractPVArray implements P
     	return elementSizeLUT[getScalarArray().getElementType().ordinal()];
     }
 
+	/**
+	 * Serialize elements without copying them to the buffer, if supported by the array type.
+	 * @param buffer the buffer being serialized to.
+	 * @param control the direct serialization control.
+	 * @param offset offset of the first element.
+	 * @param length number of elements.
+	 * @return <code>true</code> if elements were serialized.
+	 */
+	protected boolean directSerialize(ByteBuffer buffer, DirectSerializableControl control, int offset, int length)
+	{
+		return false;
+	}
+
 	protected abstract int putToBuffer(ByteBuffer buffer, SerializableControl control, int offset, int length);
 	protected abstract int getFromBuffer(ByteBuffer buffer, DeserializableControl control, int offset, int length);
 }
@@ -56,7 +56,7 @@ public class BasePVDoubleArray extends AbstractPVScalarArray implements PVDouble
     @Override
 	protected int putToBuffer(ByteBuffer buffer, SerializableControl control, int offset, int length)
 	{
-		buffer.asDoubleBuffer().put(value, offset, length);
+		BufferViews.asDoubleBuffer(buffer).put(value, offset, length);
 		buffer.position(buffer.position() + length*8);
 		return length;
 	}
@@ -64,7 +64,7 @@ public class BasePVDoubleArray extends AbstractPVScalarArray implements PVDouble
     @Override
 	protected int getFromBuffer(ByteBuffer buffer, DeserializableControl control, int offset, int length)
 	{
-    	buffer.asDoubleBuffer().get(value, offset, length).position();
+    	BufferViews.asDoubleBuffer(buffer).get(value, offset, length);
 		buffer.position(buffer.position() + length*8);
 		return length;
 	}
@@ -55,7 +55,7 @@ public class BasePVFloatArray extends AbstractPVScalarArray implements PVFloatAr
     @Override
 	protected int putToBuffer(ByteBuffer buffer, SerializableControl control, int offset, int length)
 	{
-		buffer.asFloatBuffer().put(value, offset, length);
+		BufferViews.asFloatBuffer(buffer).put(value, offset, length);
 		buffer.position(buffer.position() + length*4);
 		return length;
 	}
@@ -63,7 +63,7 @@ public class BasePVFloatArray extends AbstractPVScalarArray implements PVFloatAr
     @Override
 	protected int getFromBuffer(ByteBuffer buffer, DeserializableControl control, int offset, int length)
 	{
-		buffer.asFloatBuffer().get(value, offset, length);
+		BufferViews.asFloatBuffer(buffer).get(value, offset, length);
 		buffer.position(buffer.position() + length*4);
 		return length;
 	}
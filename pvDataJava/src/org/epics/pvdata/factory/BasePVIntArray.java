@@ -55,7 +55,7 @@ public class BasePVIntArray extends AbstractPVScalarArray implements PVIntArray
     @Override
 	protected int putToBuffer(ByteBuffer buffer, SerializableControl control, int offset, int length)
 	{
-		buffer.asIntBuffer().put(value, offset, length);
+		BufferViews.asIntBuffer(buffer).put(value, offset, length);
 		buffer.position(buffer.position() + length*4);
 		return length;
 	}
@@ -63,7 +63,7 @@ public class BasePVIntArray extends AbstractPVScalarArray implements PVIntArray
     @Override
 	protected int getFromBuffer(ByteBuffer buffer, DeserializableControl control, int offset, int length)
 	{
-		buffer.asIntBuffer().get(value, offset, length);
+		BufferViews.asIntBuffer(buffer).get(value, offset, length);
 		buffer.position(buffer.position() + length*4);
 		return length;
 	}
@@ -55,7 +55,7 @@ public class BasePVLongArray extends AbstractPVScalarArray implements PVLongArra
     @Override
 	protected int putToBuffer(ByteBuffer buffer, SerializableControl control, int offset, int length)
 	{
-		buffer.asLongBuffer().put(value, offset, length);
+		BufferViews.asLongBuffer(buffer).put(value, offset, length);
 		buffer.position(buffer.position() + length*8);
 		return length;
 	}
@@ -63,7 +63,7 @@ public class BasePVLongArray extends AbstractPVScalarArray implements PVLongArra
     @Override
 	protected int getFromBuffer(ByteBuffer buffer, DeserializableControl control, int offset, int length)
 	{
-		buffer.asLongBuffer().get(value, offset, length);
+		BufferViews.asLongBuffer(buffer).get(value, offset, length);
 		buffer.position(buffer.position() + length*8);
 		return length;
 	}
@@ -55,7 +55,7 @@ public class BasePVShortArray extends AbstractPVScalarArray implements PVShortAr
     @Override
 	protected int putToBuffer(ByteBuffer buffer, SerializableControl control, int offset, int length)
 	{
-		buffer.asShortBuffer().put(value, offset, length);
+		BufferViews.asShortBuffer(buffer).put(value, offset, length);
 		buffer.position(buffer.position() + length*2);
 		return length;
 	}
@@ -63,7 +63,7 @@ public class BasePVShortArray extends AbstractPVScalarArray implements PVShortAr
     @Override
 	protected int getFromBuffer(ByteBuffer buffer, DeserializableControl control, int offset, int length)
 	{
-		buffer.asShortBuffer().get(value, offset, length);
+		BufferViews.asShortBuffer(buffer).get(value, offset, length);
 		buffer.position(buffer.position() + length*2);
 		return length;
 	}
@@ -9,6 +9,7 @@ import java.util.Arrays;
 
 import org.epics.pvdata.pv.ByteArrayData;
 import org.epics.pvdata.pv.DeserializableControl;
+import org.epics.pvdata.pv.DirectSerializableControl;
 import org.epics.pvdata.pv.PVUByteArray;
 import org.epics.pvdata.pv.ScalarArray;
 import org.epics.pvdata.pv.SerializableControl;
@@ -59,6 +60,12 @@ public class BasePVUByteArray extends AbstractPVScalarArray implements PVUByteAr
 		return length;
 	}
 	
+    @Override
+	protected boolean directSerialize(ByteBuffer buffer, DirectSerializableControl control, int offset, int length)
+	{
+		return control.directSerialize(buffer, ByteBuffer.wrap(value, offset, length));
+	}
+
     @Override
 	protected int getFromBuffer(ByteBuffer buffer, DeserializableControl control, int offset, int length)
 	{
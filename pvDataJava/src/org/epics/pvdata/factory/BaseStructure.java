@@ -29,6 +29,9 @@ public class BaseStructure extends BaseField implements Structure {
     private final String id;
     private Field[] fields;
     private String[] fieldNames;
+    private int hash;
+    // created by the first Convert.copyStructure between PVStructures of this type
+    StructureCopyPlan copyPlan;
     /**
      * Constructor for a structure field.
      * @param fieldNames The field names for the subfields
@@ -268,9 +271,15 @@ public class BaseStructure extends BaseField implements Structure {
 	 */
 	@Override
 	public int hashCode() {
-		final int PRIME = 31;
-		return id.hashCode() + PRIME *
-			(PRIME * Arrays.hashCode(fieldNames) + Arrays.hashCode(fields));
+		// immutable, cache hash (used by introspection interfaces cache)
+		int h = hash;
+		if (h == 0) {
+			final int PRIME = 31;
+			h = id.hashCode() + PRIME *
+				(PRIME * Arrays.hashCode(fieldNames) + Arrays.hashCode(fields));
+			hash = h;
+		}
+		return h;
 	}
 	/* (non-Javadoc)
 	 * @see java.lang.Object#equals(java.lang.Object)
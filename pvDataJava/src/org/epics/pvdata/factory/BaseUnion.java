@@ -26,6 +26,7 @@ public class BaseUnion extends BaseField implements Union {
     private final String id;
     private final Field[] fields;
     private String[] fieldNames;
+    private int hash;
 
     /**
 	 * Default unrestricted union (aka any type) ID.
@@ -235,9 +236,15 @@ public class BaseUnion extends BaseField implements Union {
 	 */
 	@Override
 	public int hashCode() {
-		final int PRIME = 37;
-		return id.hashCode() + PRIME *
-			(PRIME * Arrays.hashCode(fieldNames) + Arrays.hashCode(fields));
+		// immutable, cache hash (used by introspection interfaces cache)
+		int h = hash;
+		if (h == 0) {
+			final int PRIME = 37;
+			h = id.hashCode() + PRIME *
+				(PRIME * Arrays.hashCode(fieldNames) + Arrays.hashCode(fields));
+			hash = h;
+		}
+		return h;
 	}
 	/* (non-Javadoc)
 	 * @see java.lang.Object#equals(java.lang.Object)
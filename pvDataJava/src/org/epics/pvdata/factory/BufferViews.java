@@ -0,0 +1,182 @@
+/*
+ * Copyright information and license terms for this software can be
+ * found in the file LICENSE that is included with the distribution
+ */
+package org.epics.pvdata.factory;
+
+import java.lang.ref.WeakReference;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.ShortBuffer;
+import java.util.Arrays;
+
+/**
+ * Per-thread cache of typed view buffers used for bulk (de)serialization of primitive arrays.
+ * <code>ByteBuffer.asXXXBuffer()</code> allocates a new view on every call; a view is instead
+ * created once per buffer, element type and alignment offset and then repositioned to the current
+ * position (and limit) of the buffer. Bulk get/put on a view is a memory copy, with byte swapping
+ * done by the JDK when byte order of the buffer is not native.
+ * <p>
+ * Views of the two last used buffers are cached, so that (de)serialization using one buffer
+ * for sending and one for receiving per thread (the common case) does not allocate.
+ * Returned view is only valid until the next call by the same thread.
+ * Cached views are only weakly referenced by the thread, i.e. they do not keep buffers
+ * (or their memory) from being garbage collected, and get recreated after they are collected.
+ */
+final class BufferViews {
+
+	@SuppressWarnings("unchecked")
+	private static final ThreadLocal<WeakReference<BufferViews>[]> VIEWS = new ThreadLocal<WeakReference<BufferViews>[]>() {
+		@Override
+		protected WeakReference<BufferViews>[] initialValue() {
+			return new WeakReference[] { new WeakReference<BufferViews>(null), new WeakReference<BufferViews>(null) };
+		}
+	};
+
+	private ByteBuffer buffer;
+	private ByteOrder order;
+
+	// indexed by alignment offset
+	private final ShortBuffer[] shortViews = new ShortBuffer[2];
+	private final IntBuffer[] intViews = new IntBuffer[4];
+	private final LongBuffer[] longViews = new LongBuffer[8];
+	private final FloatBuffer[] floatViews = new FloatBuffer[4];
+	private final DoubleBuffer[] doubleViews = new DoubleBuffer[8];
+
+	private BufferViews(ByteBuffer buffer) {
+		reset(buffer);
+	}
+
+	private static BufferViews of(ByteBuffer buffer) {
+		final WeakReference<BufferViews>[] cache = VIEWS.get();
+		BufferViews views = cache[0].get();
+		if (views == null || views.buffer != buffer)
+		{
+			// most recently used first, least recently used is replaced
+			final WeakReference<BufferViews> other = cache[1];
+			cache[1] = cache[0];
+			views = other.get();
+			if (views != null && views.buffer == buffer)
+				cache[0] = other;
+			else
+			{
+				views = new BufferViews(buffer);
+				cache[0] = new WeakReference<BufferViews>(views);
+			}
+		}
+		if (views.order != buffer.order())
+			views.reset(buffer);
+		return views;
+	}
+
+	private void reset(ByteBuffer buffer) {
+		this.buffer = buffer;
+		this.order = buffer.order();
+		Arrays.fill(shortViews, null);
+		Arrays.fill(intViews, null);
+		Arrays.fill(longViews, null);
+		Arrays.fill(floatViews, null);
+		Arrays.fill(doubleViews, null);
+	}
+
+	/**
+	 * Create a view source of the whole buffer starting at the given offset.
+	 * @param offset alignment offset.
+	 * @return duplicate of the buffer.
+	 */
+	private ByteBuffer duplicate(int offset) {
+		final ByteBuffer duplicate = buffer.duplicate();
+		duplicate.clear();
+		duplicate.position(offset);
+		// duplicate does not preserve byte order
+		duplicate.order(order);
+		return duplicate;
+	}
+
+	/**
+	 * Set view position and limit to match the buffer.
+	 * @param view the view.
+	 * @param offset alignment offset of the view.
+	 * @param shift log2 of the element size.
+	 */
+	private <T extends Buffer> T position(T view, int offset, int shift) {
+		view.limit((buffer.limit() - offset) >> shift);
+		view.position((buffer.position() - offset) >> shift);
+		return view;
+	}
+
+	/**
+	 * Get a short view of the buffer, starting at the current position of the buffer.
+	 * @param buffer the buffer.
+	 * @return the view.
+	 */
+	static ShortBuffer asShortBuffer(ByteBuffer buffer) {
+		final BufferViews views = of(buffer);
+		final int offset = buffer.position() & 1;
+		ShortBuffer view = views.shortViews[offset];
+		if (view == null)
+			view = views.shortViews[offset] = views.duplicate(offset).asShortBuffer();
+		return views.position(view, offset, 1);
+	}
+
+	/**
+	 * Get an int view of the buffer, starting at the current position of the buffer.
+	 * @param buffer the buffer.
+	 * @return the view.
+	 */
+	static IntBuffer asIntBuffer(ByteBuffer buffer) {
+		final BufferViews views = of(buffer);
+		final int offset = buffer.position() & 3;
+		IntBuffer view = views.intViews[offset];
+		if (view == null)
+			view = views.intViews[offset] = views.duplicate(offset).asIntBuffer();
+		return views.position(view, offset, 2);
+	}
+
+	/**
+	 * Get a long view of the buffer, starting at the current position of the buffer.
+	 * @param buffer the buffer.
+	 * @return the view.
+	 */
+	static LongBuffer asLongBuffer(ByteBuffer buffer) {
+		final BufferViews views = of(buffer);
+		final int offset = buffer.position() & 7;
+		LongBuffer view = views.longViews[offset];
+		if (view == null)
+			view = views.longViews[offset] = views.duplicate(offset).asLongBuffer();
+		return views.position(view, offset, 3);
+	}
+
+	/**
+	 * Get a float view of the buffer, starting at the current position of the buffer.
+	 * @param buffer the buffer.
+	 * @return the view.
+	 */
+	static FloatBuffer asFloatBuffer(ByteBuffer buffer) {
+		final BufferViews views = of(buffer);
+		final int offset = buffer.position() & 3;
+		FloatBuffer view = views.floatViews[offset];
+		if (view == null)
+			view = views.floatViews[offset] = views.duplicate(offset).asFloatBuffer();
+		return views.position(view, offset, 2);
+	}
+
+	/**
+	 * Get a double view of the buffer, starting at the current position of the buffer.
+	 * @param buffer the buffer.
+	 * @return the view.
+	 */
+	static DoubleBuffer asDoubleBuffer(ByteBuffer buffer) {
+		final BufferViews views = of(buffer);
+		final int offset = buffer.position() & 7;
+		DoubleBuffer view = views.doubleViews[offset];
+		if (view == null)
+			view = views.doubleViews[offset] = views.duplicate(offset).asDoubleBuffer();
+		return views.position(view, offset, 3);
+	}
+}
@@ -514,6 +514,14 @@ public final class ConvertFactory {
                 throw new IllegalArgumentException(
                         "Convert.copyUnionArray fromOffset+count > from.getLength()");
             }
+            if (offset == 0 && toOffset == 0 && count == from.getLength()
+                    && to instanceof AbstractPVArray && ((AbstractPVArray) to).isShareOnCopy()
+                    && from instanceof AbstractPVArray
+                    && from.getScalarArray().getElementType() == to.getScalarArray().getElementType()) {
+                // entire array, opted in to share copy-on-write instead of copying the elements
+                if (((AbstractPVArray) to).shareValue((AbstractPVArray) from))
+                    return count;
+            }
             if(!to.isCapacityMutable()) {
                 int toCapacity = to.getCapacity();
                 if(toCapacity<count+toOffset) {
@@ -647,6 +655,8 @@ public final class ConvertFactory {
         @Override
         public boolean isCopyStructureCompatible(Structure fromStruct,
                 Structure toStruct) {
+            if (fromStruct == toStruct)
+                return true;
             Field[] fromFields = fromStruct.getFields();
             Field[] toFields = toStruct.getFields();
             int length = fromFields.length;
@@ -720,6 +730,12 @@ public final class ConvertFactory {
             }
             if (from == to)
                 return;
+            // same introspection interface, no compatibility checks or conversions needed
+            StructureCopyPlan copyPlan = StructureCopyPlan.get(from.getStructure(), to.getStructure());
+            if (copyPlan != null) {
+                copyPlan.copy(from, to, this);
+                return;
+            }
             PVField[] fromDatas = from.getPVFields();
             PVField[] toDatas = to.getPVFields();
             if (fromDatas.length != toDatas.length) {
@@ -2264,43 +2280,52 @@ public final class ConvertFactory {
             }
             case pvShort: {
                 PVShortArray pvdata = (PVShortArray) pv;
-                short[] data = new short[1];
+                short[] data = new short[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    data[0] = (short) from[fromOffset];
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    byteToShort(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
             case pvInt: {
                 PVIntArray pvdata = (PVIntArray) pv;
-                int[] data = new int[1];
+                int[] data = new int[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    data[0] = (int) from[fromOffset];
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    byteToInt(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
             case pvLong: {
                 PVLongArray pvdata = (PVLongArray) pv;
-                long[] data = new long[1];
+                long[] data = new long[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    data[0] = (long) from[fromOffset];
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    byteToLong(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
@@ -2320,74 +2345,86 @@ public final class ConvertFactory {
             }
             case pvUShort: {
                 PVUShortArray pvdata = (PVUShortArray) pv;
-                short[] data = new short[1];
+                short[] data = new short[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                	short value = from[fromOffset];
-                    data[0] = value;
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    byteToShort(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
             case pvUInt: {
                 PVUIntArray pvdata = (PVUIntArray) pv;
-                int[] data = new int[1];
+                int[] data = new int[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    int value = from[fromOffset];
-                    data[0] = value;
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    byteToInt(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
             case pvULong: {
                 PVULongArray pvdata = (PVULongArray) pv;
-                long[] data = new long[1];
+                long[] data = new long[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    long value = from[fromOffset];
-                    data[0] = value;
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    byteToLong(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
             case pvFloat: {
                 PVFloatArray pvdata = (PVFloatArray) pv;
-                float[] data = new float[1];
+                float[] data = new float[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    data[0] = from[fromOffset];
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    byteToFloat(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
             case pvDouble: {
                 PVDoubleArray pvdata = (PVDoubleArray) pv;
-                double[] data = new double[1];
+                double[] data = new double[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    data[0] = from[fromOffset];
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    byteToDouble(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
@@ -2434,46 +2471,52 @@ public final class ConvertFactory {
             }
             case pvShort: {
                 PVShortArray pvdata = (PVShortArray) pv;
-                short[] data = new short[1];
+                short[] data = new short[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    short value = widenUnsigned(from[fromOffset]);
-                    data[0] = value;
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    ubyteToShort(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
             case pvInt: {
                 PVIntArray pvdata = (PVIntArray) pv;
-                int[] data = new int[1];
+                int[] data = new int[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    short value = widenUnsigned(from[fromOffset]);
-                    data[0] = (int)value;
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    ubyteToInt(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
             case pvLong: {
                 PVLongArray pvdata = (PVLongArray) pv;
-                long[] data = new long[1];
+                long[] data = new long[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    short value = widenUnsigned(from[fromOffset]);
-                    data[0] = (long)value;
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    ubyteToLong(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
@@ -2493,76 +2536,86 @@ public final class ConvertFactory {
             }
             case pvUShort: {
                 PVUShortArray pvdata = (PVUShortArray) pv;
-                short[] data = new short[1];
+                short[] data = new short[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    short value = widenUnsigned(from[fromOffset]);
-                    data[0] = value;
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    ubyteToShort(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
             case pvUInt: {
                 PVUIntArray pvdata = (PVUIntArray) pv;
-                int[] data = new int[1];
+                int[] data = new int[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    short value = widenUnsigned(from[fromOffset]);
-                    data[0] = (int)value;
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    ubyteToInt(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
             case pvULong: {
                 PVULongArray pvdata = (PVULongArray) pv;
-                long[] data = new long[1];
+                long[] data = new long[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    short value = widenUnsigned(from[fromOffset]);
-                    data[0] = (long)value;
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    ubyteToLong(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
             case pvFloat: {
                 PVFloatArray pvdata = (PVFloatArray) pv;
-                float[] data = new float[1];
+                float[] data = new float[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    short value = widenUnsigned(from[fromOffset]);
-                    data[0] = (float)value;
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    ubyteToFloat(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
             case pvDouble: {
                 PVDoubleArray pvdata = (PVDoubleArray) pv;
-                double[] data = new double[1];
+                double[] data = new double[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    short value = widenUnsigned(from[fromOffset]);
-                    data[0] = (double)value;;
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    ubyteToDouble(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
@@ -2625,8 +2678,7 @@ public final class ConvertFactory {
                         break;
                     short[] dataArray = data.data;
                     int dataOffset = data.offset;
-                    for (int i = 0; i < num; i++)
-                        to[i + toOffset] = (byte) dataArray[i + dataOffset];
+                    shortToByte(dataArray, dataOffset, to, toOffset, num);
                     len -= num;
                     offset += num;
                     toOffset += num;
@@ -2644,8 +2696,7 @@ public final class ConvertFactory {
                         break;
                     int[] dataArray = data.data;
                     int dataOffset = data.offset;
-                    for (int i = 0; i < num; i++)
-                        to[i + toOffset] = (byte) dataArray[i + dataOffset];
+                    intToByte(dataArray, dataOffset, to, toOffset, num);
                     len -= num;
                     offset += num;
                     toOffset += num;
@@ -2663,8 +2714,7 @@ public final class ConvertFactory {
                         break;
                     long[] dataArray = data.data;
                     int dataOffset = data.offset;
-                    for (int i = 0; i < num; i++)
-                        to[i + toOffset] = (byte) dataArray[i + dataOffset];
+                    longToByte(dataArray, dataOffset, to, toOffset, num);
                     len -= num;
                     offset += num;
                     toOffset += num;
@@ -2704,8 +2754,7 @@ public final class ConvertFactory {
                         break;
                     short[] dataArray = data.data;
                     int dataOffset = data.offset;
-                    for (int i = 0; i < num; i++)
-                        to[i + toOffset] = (byte) dataArray[i + dataOffset];
+                    shortToByte(dataArray, dataOffset, to, toOffset, num);
                     len -= num;
                     offset += num;
                     toOffset += num;
@@ -2723,8 +2772,7 @@ public final class ConvertFactory {
                         break;
                     int[] dataArray = data.data;
                     int dataOffset = data.offset;
-                    for (int i = 0; i < num; i++)
-                        to[i + toOffset] = (byte) dataArray[i + dataOffset];
+                    intToByte(dataArray, dataOffset, to, toOffset, num);
                     len -= num;
                     offset += num;
                     toOffset += num;
@@ -2742,8 +2790,7 @@ public final class ConvertFactory {
                         break;
                     long[] dataArray = data.data;
                     int dataOffset = data.offset;
-                    for (int i = 0; i < num; i++)
-                        to[i + toOffset] = (byte) dataArray[i + dataOffset];
+                    longToByte(dataArray, dataOffset, to, toOffset, num);
                     len -= num;
                     offset += num;
                     toOffset += num;
@@ -2760,8 +2807,7 @@ public final class ConvertFactory {
                         break;
                     float[] dataArray = data.data;
                     int dataOffset = data.offset;
-                    for (int i = 0; i < num; i++)
-                        to[i + toOffset] = (byte) dataArray[i + dataOffset];
+                    floatToByte(dataArray, dataOffset, to, toOffset, num);
                     len -= num;
                     offset += num;
                     toOffset += num;
@@ -2778,8 +2824,7 @@ public final class ConvertFactory {
                         break;
                     double[] dataArray = data.data;
                     int dataOffset = data.offset;
-                    for (int i = 0; i < num; i++)
-                        to[i + toOffset] = (byte) dataArray[i + dataOffset];
+                    doubleToByte(dataArray, dataOffset, to, toOffset, num);
                     len -= num;
                     offset += num;
                     toOffset += num;
@@ -2821,15 +2866,18 @@ public final class ConvertFactory {
                         "convert from short[] to BooleanArray not legal");
             case pvByte: {
                 PVByteArray pvdata = (PVByteArray) pv;
-                byte[] data = new byte[1];
+                byte[] data = new byte[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    data[0] = (byte) from[fromOffset];
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    shortToByte(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
@@ -2848,43 +2896,52 @@ public final class ConvertFactory {
             }
             case pvInt: {
                 PVIntArray pvdata = (PVIntArray) pv;
-                int[] data = new int[1];
+                int[] data = new int[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    data[0] = (int) from[fromOffset];
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    shortToInt(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
             case pvLong: {
                 PVLongArray pvdata = (PVLongArray) pv;
-                long[] data = new long[1];
+                long[] data = new long[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    data[0] = (long) from[fromOffset];
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
-                }
-                return ntransfered;
-            }
+                    int num = Math.min(len, data.length);
+                    shortToLong(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
+                }
+                return ntransfered;
+            }
             case pvUByte: {
                 PVUByteArray pvdata = (PVUByteArray) pv;
-                byte[] data = new byte[1];
+                byte[] data = new byte[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    data[0] = (byte) from[fromOffset];
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    shortToByte(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
@@ -2903,59 +2960,69 @@ public final class ConvertFactory {
             }
             case pvUInt: {
                 PVUIntArray pvdata = (PVUIntArray) pv;
-                int[] data = new int[1];
+                int[] data = new int[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                	short value = from[fromOffset];
-                    data[0] = (int)value;
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    shortToInt(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
             case pvULong: {
                 PVULongArray pvdata = (PVULongArray) pv;
-                long[] data = new long[1];
+                long[] data = new long[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                	short value = from[fromOffset];
-                    data[0] = (long)value;
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    shortToLong(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
             case pvFloat: {
                 PVFloatArray pvdata = (PVFloatArray) pv;
-                float[] data = new float[1];
+                float[] data = new float[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    data[0] = from[fromOffset];
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    shortToFloat(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
             case pvDouble: {
                 PVDoubleArray pvdata = (PVDoubleArray) pv;
-                double[] data = new double[1];
+                double[] data = new double[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                	data[0] = from[fromOffset];
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    shortToDouble(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
@@ -2988,15 +3055,18 @@ public final class ConvertFactory {
                         "convert from short[] to BooleanArray not legal");
             case pvByte: {
                 PVByteArray pvdata = (PVByteArray) pv;
-                byte[] data = new byte[1];
+                byte[] data = new byte[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    data[0] = (byte) from[fromOffset];
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    shortToByte(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
@@ -3015,45 +3085,52 @@ public final class ConvertFactory {
             }
             case pvInt: {
                 PVIntArray pvdata = (PVIntArray) pv;
-                int[] data = new int[1];
+                int[] data = new int[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    int value = widenUnsigned(from[fromOffset]);
-                    data[0] = value;
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    ushortToInt(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
             case pvLong: {
                 PVLongArray pvdata = (PVLongArray) pv;
-                long[] data = new long[1];
+                long[] data = new long[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    int value = widenUnsigned(from[fromOffset]);
-                    data[0] = (long)value;
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    ushortToLong(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
             case pvUByte: {
                 PVUByteArray pvdata = (PVUByteArray) pv;
-                byte[] data = new byte[1];
+                byte[] data = new byte[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    data[0] = (byte) from[fromOffset];
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    shortToByte(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
@@ -3072,61 +3149,69 @@ public final class ConvertFactory {
             }
             case pvUInt: {
                 PVUIntArray pvdata = (PVUIntArray) pv;
-                int[] data = new int[1];
+                int[] data = new int[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    int value = widenUnsigned(from[fromOffset]);
-                    data[0] = value;
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    ushortToInt(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
             case pvULong: {
                 PVULongArray pvdata = (PVULongArray) pv;
-                long[] data = new long[1];
+                long[] data = new long[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    int value = widenUnsigned(from[fromOffset]);
-                    data[0] = (long)value;
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    ushortToLong(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
             case pvFloat: {
                 PVFloatArray pvdata = (PVFloatArray) pv;
-                float[] data = new float[1];
+                float[] data = new float[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    int value = widenUnsigned(from[fromOffset]);
-                    data[0] = (float)value;
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    ushortToFloat(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
             case pvDouble: {
                 PVDoubleArray pvdata = (PVDoubleArray) pv;
-                double[] data = new double[1];
+                double[] data = new double[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    int value = widenUnsigned(from[fromOffset]);
-                    data[0] = (double)value;;
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    ushortToDouble(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
@@ -3167,8 +3252,7 @@ public final class ConvertFactory {
                         break;
                     byte[] dataArray = data.data;
                     int dataOffset = data.offset;
-                    for (int i = 0; i < num; i++)
-                        to[i + toOffset] = (short) dataArray[i + dataOffset];
+                    byteToShort(dataArray, dataOffset, to, toOffset, num);
                     len -= num;
                     offset += num;
                     toOffset += num;
@@ -3209,8 +3293,7 @@ public final class ConvertFactory {
                         break;
                     int[] dataArray = data.data;
                     int dataOffset = data.offset;
-                    for (int i = 0; i < num; i++)
-                        to[i + toOffset] = (short) dataArray[i + dataOffset];
+                    intToShort(dataArray, dataOffset, to, toOffset, num);
                     len -= num;
                     offset += num;
                     toOffset += num;
@@ -3228,8 +3311,7 @@ public final class ConvertFactory {
                         break;
                     long[] dataArray = data.data;
                     int dataOffset = data.offset;
-                    for (int i = 0; i < num; i++)
-                        to[i + toOffset] = (short) dataArray[i + dataOffset];
+                    longToShort(dataArray, dataOffset, to, toOffset, num);
                     len -= num;
                     offset += num;
                     toOffset += num;
@@ -3247,12 +3329,7 @@ public final class ConvertFactory {
                         break;
                     byte[] dataArray = data.data;
                     int dataOffset = data.offset;
-                    for (int i = 0; i < num; i++) {
-                        byte val = dataArray[i + dataOffset];
-                        short value = val;
-                        if(val<0) value &= 0x0ff;
-                        to[i + toOffset] = value;
-                    }
+                    ubyteToShort(dataArray, dataOffset, to, toOffset, num);
                     len -= num;
                     offset += num;
                     toOffset += num;
@@ -3292,8 +3369,7 @@ public final class ConvertFactory {
                         break;
                     int[] dataArray = data.data;
                     int dataOffset = data.offset;
-                    for (int i = 0; i < num; i++)
-                        to[i + toOffset] = (short) dataArray[i + dataOffset];
+                    intToShort(dataArray, dataOffset, to, toOffset, num);
                     len -= num;
                     offset += num;
                     toOffset += num;
@@ -3311,8 +3387,7 @@ public final class ConvertFactory {
                         break;
                     long[] dataArray = data.data;
                     int dataOffset = data.offset;
-                    for (int i = 0; i < num; i++)
-                        to[i + toOffset] = (short) dataArray[i + dataOffset];
+                    longToShort(dataArray, dataOffset, to, toOffset, num);
                     len -= num;
                     offset += num;
                     toOffset += num;
@@ -3329,8 +3404,7 @@ public final class ConvertFactory {
                         break;
                     float[] dataArray = data.data;
                     int dataOffset = data.offset;
-                    for (int i = 0; i < num; i++)
-                        to[i + toOffset] = (short) dataArray[i + dataOffset];
+                    floatToShort(dataArray, dataOffset, to, toOffset, num);
                     len -= num;
                     offset += num;
                     toOffset += num;
@@ -3347,8 +3421,7 @@ public final class ConvertFactory {
                         break;
                     double[] dataArray = data.data;
                     int dataOffset = data.offset;
-                    for (int i = 0; i < num; i++)
-                        to[i + toOffset] = (short) dataArray[i + dataOffset];
+                    doubleToShort(dataArray, dataOffset, to, toOffset, num);
                     len -= num;
                     offset += num;
                     toOffset += num;
@@ -3390,30 +3463,36 @@ public final class ConvertFactory {
             case pvByte:
             {
                 PVByteArray pvdata = (PVByteArray) pv;
-                byte[] data = new byte[1];
+                byte[] data = new byte[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    data[0] = (byte) from[fromOffset];
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    intToByte(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
             case pvShort:
             {
                 PVShortArray pvdata = (PVShortArray) pv;
-                short[] data = new short[1];
+                short[] data = new short[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    data[0] = (short) from[fromOffset];
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    intToShort(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
@@ -3433,45 +3512,54 @@ public final class ConvertFactory {
             }
             case pvLong: {
                 PVLongArray pvdata = (PVLongArray) pv;
-                long[] data = new long[1];
+                long[] data = new long[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    data[0] = (long) from[fromOffset];
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    intToLong(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
             case pvUByte:
             {
                 PVUByteArray pvdata = (PVUByteArray) pv;
-                byte[] data = new byte[1];
+                byte[] data = new byte[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    data[0] = (byte) from[fromOffset];
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    intToByte(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
             case pvUShort:
             {
                 PVUShortArray pvdata = (PVUShortArray) pv;
-                short[] data = new short[1];
+                short[] data = new short[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    data[0] = (short) from[fromOffset];
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    intToShort(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
@@ -3491,44 +3579,52 @@ public final class ConvertFactory {
             }
             case pvULong: {
                 PVULongArray pvdata = (PVULongArray) pv;
-                long[] data = new long[1];
+                long[] data = new long[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    long value = from[fromOffset];
-                    data[0] = value;
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    intToLong(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
             case pvFloat: {
                 PVFloatArray pvdata = (PVFloatArray) pv;
-                float[] data = new float[1];
+                float[] data = new float[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    data[0] = from[fromOffset];
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    intToFloat(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
             case pvDouble: {
                 PVDoubleArray pvdata = (PVDoubleArray) pv;
-                double[] data = new double[1];
+                double[] data = new double[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    data[0] = from[fromOffset];
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    intToDouble(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
@@ -3562,30 +3658,36 @@ public final class ConvertFactory {
             case pvByte:
             {
                 PVByteArray pvdata = (PVByteArray) pv;
-                byte[] data = new byte[1];
+                byte[] data = new byte[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    data[0] = (byte) from[fromOffset];
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    intToByte(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
             case pvShort:
             {
                 PVShortArray pvdata = (PVShortArray) pv;
-                short[] data = new short[1];
+                short[] data = new short[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    data[0] = (short) from[fromOffset];
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    intToShort(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
@@ -3605,46 +3707,54 @@ public final class ConvertFactory {
             }
             case pvLong: {
                 PVLongArray pvdata = (PVLongArray) pv;
-                long[] data = new long[1];
+                long[] data = new long[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    long value = widenUnsigned(from[fromOffset]);
-                    data[0] = value;
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    uintToLong(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
             case pvUByte:
             {
                 PVUByteArray pvdata = (PVUByteArray) pv;
-                byte[] data = new byte[1];
+                byte[] data = new byte[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    data[0] = (byte) from[fromOffset];
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    intToByte(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
             case pvUShort:
             {
                 PVUShortArray pvdata = (PVUShortArray) pv;
-                short[] data = new short[1];
+                short[] data = new short[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    data[0] = (short) from[fromOffset];
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    intToShort(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
@@ -3664,46 +3774,52 @@ public final class ConvertFactory {
             }
             case pvULong: {
                 PVULongArray pvdata = (PVULongArray) pv;
-                long[] data = new long[1];
+                long[] data = new long[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    long value = widenUnsigned(from[fromOffset]);
-                    data[0] = value;
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    uintToLong(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
             case pvFloat: {
                 PVFloatArray pvdata = (PVFloatArray) pv;
-                float[] data = new float[1];
+                float[] data = new float[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    long value = widenUnsigned(from[fromOffset]); 
-                    data[0] = (float)value;
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    uintToFloat(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
             case pvDouble: {
                 PVDoubleArray pvdata = (PVDoubleArray) pv;
-                double[] data = new double[1];
+                double[] data = new double[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    long value = widenUnsigned(from[fromOffset]); 
-                    data[0] = (double)value;;
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    uintToDouble(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
@@ -3743,8 +3859,7 @@ public final class ConvertFactory {
                         break;
                     byte[] dataArray = data.data;
                     int dataOffset = data.offset;
-                    for (int i = 0; i < num; i++)
-                        to[i + toOffset] = (int) dataArray[i + dataOffset];
+                    byteToInt(dataArray, dataOffset, to, toOffset, num);
                     len -= num;
                     offset += num;
                     toOffset += num;
@@ -3761,8 +3876,7 @@ public final class ConvertFactory {
                         break;
                     short[] dataArray = data.data;
                     int dataOffset = data.offset;
-                    for (int i = 0; i < num; i++)
-                        to[i + toOffset] = (int) dataArray[i + dataOffset];
+                    shortToInt(dataArray, dataOffset, to, toOffset, num);
                     len -= num;
                     offset += num;
                     toOffset += num;
@@ -3802,8 +3916,7 @@ public final class ConvertFactory {
                         break;
                     long[] dataArray = data.data;
                     int dataOffset = data.offset;
-                    for (int i = 0; i < num; i++)
-                        to[i + toOffset] = (int) dataArray[i + dataOffset];
+                    longToInt(dataArray, dataOffset, to, toOffset, num);
                     len -= num;
                     offset += num;
                     toOffset += num;
@@ -3820,12 +3933,7 @@ public final class ConvertFactory {
                         break;
                     byte[] dataArray = data.data;
                     int dataOffset = data.offset;
-                    for (int i = 0; i < num; i++) {
-                        byte val = dataArray[i + dataOffset];
-                        short value = val;
-                        if(val<0) value &= 0x0ff;
-                        to[i + toOffset] = value;
-                    }
+                    ubyteToInt(dataArray, dataOffset, to, toOffset, num);
                     len -= num;
                     offset += num;
                     toOffset += num;
@@ -3842,12 +3950,7 @@ public final class ConvertFactory {
                         break;
                     short[] dataArray = data.data;
                     int dataOffset = data.offset;
-                    for (int i = 0; i < num; i++) {
-                        short val = dataArray[i + dataOffset];
-                        int value = val;
-                        if(val<0) value &= 0x0ffff;
-                        to[i + toOffset] = value;
-                    }
+                    ushortToInt(dataArray, dataOffset, to, toOffset, num);
                     len -= num;
                     offset += num;
                     toOffset += num;
@@ -3887,8 +3990,7 @@ public final class ConvertFactory {
                         break;
                     long[] dataArray = data.data;
                     int dataOffset = data.offset;
-                    for (int i = 0; i < num; i++)
-                        to[i + toOffset] = (int) dataArray[i + dataOffset];
+                    longToInt(dataArray, dataOffset, to, toOffset, num);
                     len -= num;
                     offset += num;
                     toOffset += num;
@@ -3905,8 +4007,7 @@ public final class ConvertFactory {
                         break;
                     float[] dataArray = data.data;
                     int dataOffset = data.offset;
-                    for (int i = 0; i < num; i++)
-                        to[i + toOffset] = (int) dataArray[i + dataOffset];
+                    floatToInt(dataArray, dataOffset, to, toOffset, num);
                     len -= num;
                     offset += num;
                     toOffset += num;
@@ -3923,8 +4024,7 @@ public final class ConvertFactory {
                         break;
                     double[] dataArray = data.data;
                     int dataOffset = data.offset;
-                    for (int i = 0; i < num; i++)
-                        to[i + toOffset] = (int) dataArray[i + dataOffset];
+                    doubleToInt(dataArray, dataOffset, to, toOffset, num);
                     len -= num;
                     offset += num;
                     toOffset += num;
@@ -3966,45 +4066,54 @@ public final class ConvertFactory {
             case pvByte: 
             {
                 PVByteArray pvdata = (PVByteArray) pv;
-                byte[] data = new byte[1];
+                byte[] data = new byte[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    data[0] = (byte) from[fromOffset];
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    longToByte(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
             case pvShort:
             {
                 PVShortArray pvdata = (PVShortArray) pv;
-                short[] data = new short[1];
+                short[] data = new short[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    data[0] = (short) from[fromOffset];
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    longToShort(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
             case pvInt:
             {
                 PVIntArray pvdata = (PVIntArray) pv;
-                int[] data = new int[1];
+                int[] data = new int[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    data[0] = (int) from[fromOffset];
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    longToInt(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
@@ -4025,45 +4134,54 @@ public final class ConvertFactory {
             case pvUByte:
             {
                 PVUByteArray pvdata = (PVUByteArray) pv;
-                byte[] data = new byte[1];
+                byte[] data = new byte[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    data[0] = (byte) from[fromOffset];
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    longToByte(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
             case pvUShort:
             {
                 PVUShortArray pvdata = (PVUShortArray) pv;
-                short[] data = new short[1];
+                short[] data = new short[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    data[0] = (short) from[fromOffset];
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    longToShort(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
             case pvUInt:
             {
                 PVUIntArray pvdata = (PVUIntArray) pv;
-                int[] data = new int[1];
+                int[] data = new int[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    data[0] = (int) from[fromOffset];
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    longToInt(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
@@ -4083,29 +4201,35 @@ public final class ConvertFactory {
             }
             case pvFloat: {
                 PVFloatArray pvdata = (PVFloatArray) pv;
-                float[] data = new float[1];
+                float[] data = new float[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    data[0] = (float) from[fromOffset];
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    longToFloat(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
             case pvDouble: {
                 PVDoubleArray pvdata = (PVDoubleArray) pv;
-                double[] data = new double[1];
+                double[] data = new double[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    data[0] = (double) from[fromOffset];
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    longToDouble(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
@@ -4139,45 +4263,54 @@ public final class ConvertFactory {
             case pvByte: 
             {
                 PVByteArray pvdata = (PVByteArray) pv;
-                byte[] data = new byte[1];
+                byte[] data = new byte[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    data[0] = (byte) from[fromOffset];
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    longToByte(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
             case pvShort:
             {
                 PVShortArray pvdata = (PVShortArray) pv;
-                short[] data = new short[1];
+                short[] data = new short[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    data[0] = (short) from[fromOffset];
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    longToShort(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
             case pvInt:
             {
                 PVIntArray pvdata = (PVIntArray) pv;
-                int[] data = new int[1];
+                int[] data = new int[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    data[0] = (int) from[fromOffset];
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    longToInt(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
@@ -4198,45 +4331,54 @@ public final class ConvertFactory {
             case pvUByte:
             {
                 PVUByteArray pvdata = (PVUByteArray) pv;
-                byte[] data = new byte[1];
+                byte[] data = new byte[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    data[0] = (byte) from[fromOffset];
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    longToByte(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
             case pvUShort:
             {
                 PVUShortArray pvdata = (PVUShortArray) pv;
-                short[] data = new short[1];
+                short[] data = new short[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    data[0] = (short) from[fromOffset];
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    longToShort(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
             case pvUInt:
             {
                 PVUIntArray pvdata = (PVUIntArray) pv;
-                int[] data = new int[1];
+                int[] data = new int[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    data[0] = (int) from[fromOffset];
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    longToInt(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
@@ -4256,31 +4398,35 @@ public final class ConvertFactory {
             }
             case pvFloat: {
                 PVFloatArray pvdata = (PVFloatArray) pv;
-                float[] data = new float[1];
+                float[] data = new float[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    float value = ulongToFloat(from[fromOffset]); 
-                    data[0] = value;
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    ulongToFloat(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
             case pvDouble: {
                 PVDoubleArray pvdata = (PVDoubleArray) pv;
-                double[] data = new double[1];
+                double[] data = new double[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    double value = ulongToDouble(from[fromOffset]); 
-                    data[0] = value;;
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    ulongToDouble(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
@@ -4320,8 +4466,7 @@ public final class ConvertFactory {
                         break;
                     byte[] dataArray = data.data;
                     int dataOffset = data.offset;
-                    for (int i = 0; i < num; i++)
-                        to[i + toOffset] = (long) dataArray[i + dataOffset];
+                    byteToLong(dataArray, dataOffset, to, toOffset, num);
                     len -= num;
                     offset += num;
                     toOffset += num;
@@ -4338,8 +4483,7 @@ public final class ConvertFactory {
                         break;
                     short[] dataArray = data.data;
                     int dataOffset = data.offset;
-                    for (int i = 0; i < num; i++)
-                        to[i + toOffset] = (long) dataArray[i + dataOffset];
+                    shortToLong(dataArray, dataOffset, to, toOffset, num);
                     len -= num;
                     offset += num;
                     toOffset += num;
@@ -4356,8 +4500,7 @@ public final class ConvertFactory {
                         break;
                     int[] dataArray = data.data;
                     int dataOffset = data.offset;
-                    for (int i = 0; i < num; i++)
-                        to[i + toOffset] = (long) dataArray[i + dataOffset];
+                    intToLong(dataArray, dataOffset, to, toOffset, num);
                     len -= num;
                     offset += num;
                     toOffset += num;
@@ -4396,12 +4539,7 @@ public final class ConvertFactory {
                         break;
                     byte[] dataArray = data.data;
                     int dataOffset = data.offset;
-                    for (int i = 0; i < num; i++) {
-                        byte val = dataArray[i + dataOffset];
-                        short value = val;
-                        if(val<0) value &= 0x0ff;
-                        to[i + toOffset] = value;
-                    }
+                    ubyteToLong(dataArray, dataOffset, to, toOffset, num);
                     len -= num;
                     offset += num;
                     toOffset += num;
@@ -4419,12 +4557,7 @@ public final class ConvertFactory {
                         break;
                     short[] dataArray = data.data;
                     int dataOffset = data.offset;
-                    for (int i = 0; i < num; i++) {
-                        short val = dataArray[i + dataOffset];
-                        int value = val;
-                        if(val<0) value &= 0x0ffff;
-                        to[i + toOffset] = value;
-                    }
+                    ushortToLong(dataArray, dataOffset, to, toOffset, num);
                     len -= num;
                     offset += num;
                     toOffset += num;
@@ -4441,12 +4574,7 @@ public final class ConvertFactory {
                         break;
                     int[] dataArray = data.data;
                     int dataOffset = data.offset;
-                    for (int i = 0; i < num; i++) {
-                        int val = dataArray[i + dataOffset];
-                        long value = val;
-                        if(val<0) value &= 0x0ffffffffL;
-                        to[i + toOffset] = value;
-                    }
+                    uintToLong(dataArray, dataOffset, to, toOffset, num);
                     len -= num;
                     offset += num;
                     toOffset += num;
@@ -4485,8 +4613,7 @@ public final class ConvertFactory {
                         break;
                     float[] dataArray = data.data;
                     int dataOffset = data.offset;
-                    for (int i = 0; i < num; i++)
-                        to[i + toOffset] = (long) dataArray[i + dataOffset];
+                    floatToLong(dataArray, dataOffset, to, toOffset, num);
                     len -= num;
                     offset += num;
                     toOffset += num;
@@ -4503,8 +4630,7 @@ public final class ConvertFactory {
                         break;
                     double[] dataArray = data.data;
                     int dataOffset = data.offset;
-                    for (int i = 0; i < num; i++)
-                        to[i + toOffset] = (long) dataArray[i + dataOffset];
+                    doubleToLong(dataArray, dataOffset, to, toOffset, num);
                     len -= num;
                     offset += num;
                     toOffset += num;
@@ -4545,117 +4671,137 @@ public final class ConvertFactory {
                         "convert from float[] to BooleanArray not legal");
             case pvByte: {
                 PVByteArray pvdata = (PVByteArray) pv;
-                byte[] data = new byte[1];
+                byte[] data = new byte[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    data[0] = (byte) from[fromOffset];
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    floatToByte(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
             case pvShort: {
                 PVShortArray pvdata = (PVShortArray) pv;
-                short[] data = new short[1];
+                short[] data = new short[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    data[0] = (short) from[fromOffset];
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    floatToShort(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
             case pvInt: {
                 PVIntArray pvdata = (PVIntArray) pv;
-                int[] data = new int[1];
+                int[] data = new int[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    data[0] = (int) from[fromOffset];
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    floatToInt(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
             case pvLong: {
                 PVLongArray pvdata = (PVLongArray) pv;
-                long[] data = new long[1];
+                long[] data = new long[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    data[0] = (long) from[fromOffset];
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    floatToLong(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
             case pvUByte: {
                 PVUByteArray pvdata = (PVUByteArray) pv;
-                byte[] data = new byte[1];
+                byte[] data = new byte[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    //data[0] = (byte) from[fromOffset];
-                	data[0] = floatToUByte(from[fromOffset]);
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    floatToUByte(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
             case pvUShort: {
                 PVUShortArray pvdata = (PVUShortArray) pv;
-                short[] data = new short[1];
+                short[] data = new short[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    //data[0] = (short) from[fromOffset];
-                	data[0] = floatToUShort(from[fromOffset]);
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    floatToUShort(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
             case pvUInt: {
                 PVUIntArray pvdata = (PVUIntArray) pv;
-                int[] data = new int[1];
+                int[] data = new int[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    //data[0] = (int) from[fromOffset];
-                	data[0] = floatToUInt(from[fromOffset]);
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    floatToUInt(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
             case pvULong: {
                 PVULongArray pvdata = (PVULongArray) pv;
-                long[] data = new long[1];
+                long[] data = new long[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    //data[0] = (long) from[fromOffset];
-                	data[0] = floatToULong(from[fromOffset]);
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    floatToULong(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
@@ -4670,19 +4816,22 @@ public final class ConvertFactory {
                     fromOffset += n;
                     ntransfered += n;
                 }
-                return ntransfered;
-            }
-            case pvDouble: {
-                PVDoubleArray pvdata = (PVDoubleArray) pv;
-                double[] data = new double[1];
-                while (len > 0) {
-                    data[0] = (double) from[fromOffset];
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                return ntransfered;
+            }
+            case pvDouble: {
+                PVDoubleArray pvdata = (PVDoubleArray) pv;
+                double[] data = new double[chunkLength(len)];
+                extendLength(pvdata, offset + len);
+                while (len > 0) {
+                    int num = Math.min(len, data.length);
+                    floatToDouble(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
@@ -4722,8 +4871,7 @@ public final class ConvertFactory {
                         break;
                     byte[] dataArray = data.data;
                     int dataOffset = data.offset;
-                    for (int i = 0; i < num; i++)
-                        to[i + toOffset] = (float) dataArray[i + dataOffset];
+                    byteToFloat(dataArray, dataOffset, to, toOffset, num);
                     len -= num;
                     offset += num;
                     toOffset += num;
@@ -4740,8 +4888,7 @@ public final class ConvertFactory {
                         break;
                     short[] dataArray = data.data;
                     int dataOffset = data.offset;
-                    for (int i = 0; i < num; i++)
-                        to[i + toOffset] = (float) dataArray[i + dataOffset];
+                    shortToFloat(dataArray, dataOffset, to, toOffset, num);
                     len -= num;
                     offset += num;
                     toOffset += num;
@@ -4758,8 +4905,7 @@ public final class ConvertFactory {
                         break;
                     int[] dataArray = data.data;
                     int dataOffset = data.offset;
-                    for (int i = 0; i < num; i++)
-                        to[i + toOffset] = (float) dataArray[i + dataOffset];
+                    intToFloat(dataArray, dataOffset, to, toOffset, num);
                     len -= num;
                     offset += num;
                     toOffset += num;
@@ -4776,8 +4922,7 @@ public final class ConvertFactory {
                         break;
                     long[] dataArray = data.data;
                     int dataOffset = data.offset;
-                    for (int i = 0; i < num; i++)
-                        to[i + toOffset] = (float) dataArray[i + dataOffset];
+                    longToFloat(dataArray, dataOffset, to, toOffset, num);
                     len -= num;
                     offset += num;
                     toOffset += num;
@@ -4794,8 +4939,7 @@ public final class ConvertFactory {
                         break;
                     byte[] dataArray = data.data;
                     int dataOffset = data.offset;
-                    for (int i = 0; i < num; i++)
-                        to[i + toOffset] = (float)widenUnsigned(dataArray[i + dataOffset]);
+                    ubyteToFloat(dataArray, dataOffset, to, toOffset, num);
                     len -= num;
                     offset += num;
                     toOffset += num;
@@ -4812,8 +4956,7 @@ public final class ConvertFactory {
                         break;
                     short[] dataArray = data.data;
                     int dataOffset = data.offset;
-                    for (int i = 0; i < num; i++)
-                        to[i + toOffset] = (float)widenUnsigned(dataArray[i + dataOffset]);
+                    ushortToFloat(dataArray, dataOffset, to, toOffset, num);
                     len -= num;
                     offset += num;
                     toOffset += num;
@@ -4830,8 +4973,7 @@ public final class ConvertFactory {
                         break;
                     int[] dataArray = data.data;
                     int dataOffset = data.offset;
-                    for (int i = 0; i < num; i++)
-                        to[i + toOffset] = (float)widenUnsigned(dataArray[i + dataOffset]);;
+                    uintToFloat(dataArray, dataOffset, to, toOffset, num);
                     len -= num;
                     offset += num;
                     toOffset += num;
@@ -4848,8 +4990,7 @@ public final class ConvertFactory {
                         break;
                     long[] dataArray = data.data;
                     int dataOffset = data.offset;
-                    for (int i = 0; i < num; i++)
-                        to[i + toOffset] = ulongToFloat(dataArray[i + dataOffset]);
+                    ulongToFloat(dataArray, dataOffset, to, toOffset, num);
                     len -= num;
                     offset += num;
                     toOffset += num;
@@ -4887,8 +5028,7 @@ public final class ConvertFactory {
                         break;
                     double[] dataArray = data.data;
                     int dataOffset = data.offset;
-                    for (int i = 0; i < num; i++)
-                        to[i + toOffset] = (float) dataArray[i + dataOffset];
+                    doubleToFloat(dataArray, dataOffset, to, toOffset, num);
                     len -= num;
                     offset += num;
                     toOffset += num;
@@ -4929,131 +5069,154 @@ public final class ConvertFactory {
                         "convert from double[] to BooleanArray not legal");
             case pvByte: {
                 PVByteArray pvdata = (PVByteArray) pv;
-                byte[] data = new byte[1];
+                byte[] data = new byte[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    data[0] = (byte) from[fromOffset];
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    doubleToByte(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
             case pvShort: {
                 PVShortArray pvdata = (PVShortArray) pv;
-                short[] data = new short[1];
+                short[] data = new short[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    data[0] = (short) from[fromOffset];
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    doubleToShort(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
             case pvInt: {
                 PVIntArray pvdata = (PVIntArray) pv;
-                int[] data = new int[1];
+                int[] data = new int[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    data[0] = (int) from[fromOffset];
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    doubleToInt(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
             case pvLong: {
                 PVLongArray pvdata = (PVLongArray) pv;
-                long[] data = new long[1];
+                long[] data = new long[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    data[0] = (long) from[fromOffset];
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    doubleToLong(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
             case pvUByte: {
                 PVUByteArray pvdata = (PVUByteArray) pv;
-                byte[] data = new byte[1];
+                byte[] data = new byte[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    //data[0] = (byte) from[fromOffset];
-                	data[0] = doubleToUByte(from[fromOffset]);
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    doubleToUByte(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
             case pvUShort: {
                 PVUShortArray pvdata = (PVUShortArray) pv;
-                short[] data = new short[1];
+                short[] data = new short[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    //data[0] = (short) from[fromOffset];
-                	data[0] = doubleToUShort(from[fromOffset]);
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    doubleToUShort(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
             case pvUInt: {
                 PVUIntArray pvdata = (PVUIntArray) pv;
-                int[] data = new int[1];
+                int[] data = new int[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    //data[0] = (int) from[fromOffset];
-                	data[0] = doubleToUInt(from[fromOffset]);
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    doubleToUInt(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
             case pvULong: {
                 PVULongArray pvdata = (PVULongArray) pv;
-                long[] data = new long[1];
+                long[] data = new long[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    //data[0] = (long) from[fromOffset];
-                	data[0] = doubleToULong(from[fromOffset]);
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    doubleToULong(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
             case pvFloat: {
                 PVFloatArray pvdata = (PVFloatArray) pv;
-                float[] data = new float[1];
+                float[] data = new float[chunkLength(len)];
+                extendLength(pvdata, offset + len);
                 while (len > 0) {
-                    data[0] = (float) from[fromOffset];
-                    if (pvdata.put(offset, 1, data, 0) == 0)
-                        return ntransfered;
-                    --len;
-                    ++ntransfered;
-                    ++offset;
-                    ++fromOffset;
+                    int num = Math.min(len, data.length);
+                    doubleToFloat(from, fromOffset, data, 0, num);
+                    int n = pvdata.put(offset, num, data, 0);
+                    if (n == 0)
+                        break;
+                    len -= n;
+                    offset += n;
+                    fromOffset += n;
+                    ntransfered += n;
                 }
                 return ntransfered;
             }
@@ -5106,8 +5269,7 @@ public final class ConvertFactory {
                         break;
                     byte[] dataArray = data.data;
                     int dataOffset = data.offset;
-                    for (int i = 0; i < num; i++)
-                        to[i + toOffset] = (double) dataArray[i + dataOffset];
+                    byteToDouble(dataArray, dataOffset, to, toOffset, num);
                     len -= num;
                     offset += num;
                     toOffset += num;
@@ -5124,8 +5286,7 @@ public final class ConvertFactory {
                         break;
                     short[] dataArray = data.data;
                     int dataOffset = data.offset;
-                    for (int i = 0; i < num; i++)
-                        to[i + toOffset] = (double) dataArray[i + dataOffset];
+                    shortToDouble(dataArray, dataOffset, to, toOffset, num);
                     len -= num;
                     offset += num;
                     toOffset += num;
@@ -5142,8 +5303,7 @@ public final class ConvertFactory {
                         break;
                     int[] dataArray = data.data;
                     int dataOffset = data.offset;
-                    for (int i = 0; i < num; i++)
-                        to[i + toOffset] = (double) dataArray[i + dataOffset];
+                    intToDouble(dataArray, dataOffset, to, toOffset, num);
                     len -= num;
                     offset += num;
                     toOffset += num;
@@ -5160,8 +5320,7 @@ public final class ConvertFactory {
                         break;
                     long[] dataArray = data.data;
                     int dataOffset = data.offset;
-                    for (int i = 0; i < num; i++)
-                        to[i + toOffset] = (double) dataArray[i + dataOffset];
+                    longToDouble(dataArray, dataOffset, to, toOffset, num);
                     len -= num;
                     offset += num;
                     toOffset += num;
@@ -5178,8 +5337,7 @@ public final class ConvertFactory {
                         break;
                     byte[] dataArray = data.data;
                     int dataOffset = data.offset;
-                    for (int i = 0; i < num; i++)
-                        to[i + toOffset] = (double)widenUnsigned(dataArray[i + dataOffset]);
+                    ubyteToDouble(dataArray, dataOffset, to, toOffset, num);
                     len -= num;
                     offset += num;
                     toOffset += num;
@@ -5196,8 +5354,7 @@ public final class ConvertFactory {
                         break;
                     short[] dataArray = data.data;
                     int dataOffset = data.offset;
-                    for (int i = 0; i < num; i++)
-                        to[i + toOffset] = (double)widenUnsigned(dataArray[i + dataOffset]);
+                    ushortToDouble(dataArray, dataOffset, to, toOffset, num);
                     len -= num;
                     offset += num;
                     toOffset += num;
@@ -5214,8 +5371,7 @@ public final class ConvertFactory {
                         break;
                     int[] dataArray = data.data;
                     int dataOffset = data.offset;
-                    for (int i = 0; i < num; i++)
-                        to[i + toOffset] = (double)widenUnsigned(dataArray[i + dataOffset]);;
+                    uintToDouble(dataArray, dataOffset, to, toOffset, num);
                     len -= num;
                     offset += num;
                     toOffset += num;
@@ -5232,8 +5388,7 @@ public final class ConvertFactory {
                         break;
                     long[] dataArray = data.data;
                     int dataOffset = data.offset;
-                    for (int i = 0; i < num; i++)
-                        to[i + toOffset] = ulongToDouble(dataArray[i + dataOffset]);
+                    ulongToDouble(dataArray, dataOffset, to, toOffset, num);
                     len -= num;
                     offset += num;
                     toOffset += num;
@@ -5251,8 +5406,7 @@ public final class ConvertFactory {
                         break;
                     float[] dataArray = data.data;
                     int dataOffset = data.offset;
-                    for (int i = 0; i < num; i++)
-                        to[i + toOffset] = (double) dataArray[i + dataOffset];
+                    floatToDouble(dataArray, dataOffset, to, toOffset, num);
                     len -= num;
                     offset += num;
                     toOffset += num;
@@ -6660,6 +6814,284 @@ public final class ConvertFactory {
             return ncopy;
         }
 
+        // The convertFromXXXArray methods convert chunks of the source array into a temporary array
+        // and put a chunk at a time, instead of putting (and posting) element by element.
+        // Chunks are small enough to stay in cache and the array is extended only once.
+        private static final int CONVERT_CHUNK_SIZE = 2048;
+
+        private static int chunkLength(int len) {
+            return len < CONVERT_CHUNK_SIZE ? Math.max(len, 0) : CONVERT_CHUNK_SIZE;
+        }
+
+        private static void extendLength(PVArray pv, int length) {
+            if (length > pv.getLength())
+                pv.setLength(length);
+        }
+
+        // bulk conversions between primitive arrays, plain counted loops so that they can be
+        // unrolled and vectorized by the JIT compiler; narrowing is the same for signed and unsigned types;
+        // the convertToXXXArray methods apply them directly to the (shared, not copied) data of the source array
+
+        private static void byteToShort(byte[] from, int fromOffset, short[] to, int toOffset, int len) {
+            for (int i = 0; i < len; i++)
+                to[toOffset + i] = (short) from[fromOffset + i];
+        }
+
+        private static void byteToInt(byte[] from, int fromOffset, int[] to, int toOffset, int len) {
+            for (int i = 0; i < len; i++)
+                to[toOffset + i] = (int) from[fromOffset + i];
+        }
+
+        private static void byteToLong(byte[] from, int fromOffset, long[] to, int toOffset, int len) {
+            for (int i = 0; i < len; i++)
+                to[toOffset + i] = (long) from[fromOffset + i];
+        }
+
+        private static void byteToFloat(byte[] from, int fromOffset, float[] to, int toOffset, int len) {
+            for (int i = 0; i < len; i++)
+                to[toOffset + i] = (float) from[fromOffset + i];
+        }
+
+        private static void byteToDouble(byte[] from, int fromOffset, double[] to, int toOffset, int len) {
+            for (int i = 0; i < len; i++)
+                to[toOffset + i] = (double) from[fromOffset + i];
+        }
+
+        private static void shortToByte(short[] from, int fromOffset, byte[] to, int toOffset, int len) {
+            for (int i = 0; i < len; i++)
+                to[toOffset + i] = (byte) from[fromOffset + i];
+        }
+
+        private static void shortToInt(short[] from, int fromOffset, int[] to, int toOffset, int len) {
+            for (int i = 0; i < len; i++)
+                to[toOffset + i] = (int) from[fromOffset + i];
+        }
+
+        private static void shortToLong(short[] from, int fromOffset, long[] to, int toOffset, int len) {
+            for (int i = 0; i < len; i++)
+                to[toOffset + i] = (long) from[fromOffset + i];
+        }
+
+        private static void shortToFloat(short[] from, int fromOffset, float[] to, int toOffset, int len) {
+            for (int i = 0; i < len; i++)
+                to[toOffset + i] = (float) from[fromOffset + i];
+        }
+
+        private static void shortToDouble(short[] from, int fromOffset, double[] to, int toOffset, int len) {
+            for (int i = 0; i < len; i++)
+                to[toOffset + i] = (double) from[fromOffset + i];
+        }
+
+        private static void intToByte(int[] from, int fromOffset, byte[] to, int toOffset, int len) {
+            for (int i = 0; i < len; i++)
+                to[toOffset + i] = (byte) from[fromOffset + i];
+        }
+
+        private static void intToShort(int[] from, int fromOffset, short[] to, int toOffset, int len) {
+            for (int i = 0; i < len; i++)
+                to[toOffset + i] = (short) from[fromOffset + i];
+        }
+
+        private static void intToLong(int[] from, int fromOffset, long[] to, int toOffset, int len) {
+            for (int i = 0; i < len; i++)
+                to[toOffset + i] = (long) from[fromOffset + i];
+        }
+
+        private static void intToFloat(int[] from, int fromOffset, float[] to, int toOffset, int len) {
+            for (int i = 0; i < len; i++)
+                to[toOffset + i] = (float) from[fromOffset + i];
+        }
+
+        private static void intToDouble(int[] from, int fromOffset, double[] to, int toOffset, int len) {
+            for (int i = 0; i < len; i++)
+                to[toOffset + i] = (double) from[fromOffset + i];
+        }
+
+        private static void longToByte(long[] from, int fromOffset, byte[] to, int toOffset, int len) {
+            for (int i = 0; i < len; i++)
+                to[toOffset + i] = (byte) from[fromOffset + i];
+        }
+
+        private static void longToShort(long[] from, int fromOffset, short[] to, int toOffset, int len) {
+            for (int i = 0; i < len; i++)
+                to[toOffset + i] = (short) from[fromOffset + i];
+        }
+
+        private static void longToInt(long[] from, int fromOffset, int[] to, int toOffset, int len) {
+            for (int i = 0; i < len; i++)
+                to[toOffset + i] = (int) from[fromOffset + i];
+        }
+
+        private static void longToFloat(long[] from, int fromOffset, float[] to, int toOffset, int len) {
+            for (int i = 0; i < len; i++)
+                to[toOffset + i] = (float) from[fromOffset + i];
+        }
+
+        private static void longToDouble(long[] from, int fromOffset, double[] to, int toOffset, int len) {
+            for (int i = 0; i < len; i++)
+                to[toOffset + i] = (double) from[fromOffset + i];
+        }
+
+        private static void ubyteToShort(byte[] from, int fromOffset, short[] to, int toOffset, int len) {
+            for (int i = 0; i < len; i++)
+                to[toOffset + i] = (short) (from[fromOffset + i] & 0x0ff);
+        }
+
+        private static void ubyteToInt(byte[] from, int fromOffset, int[] to, int toOffset, int len) {
+            for (int i = 0; i < len; i++)
+                to[toOffset + i] = (int) (from[fromOffset + i] & 0x0ff);
+        }
+
+        private static void ubyteToLong(byte[] from, int fromOffset, long[] to, int toOffset, int len) {
+            for (int i = 0; i < len; i++)
+                to[toOffset + i] = (long) (from[fromOffset + i] & 0x0ff);
+        }
+
+        private static void ubyteToFloat(byte[] from, int fromOffset, float[] to, int toOffset, int len) {
+            for (int i = 0; i < len; i++)
+                to[toOffset + i] = (float) (from[fromOffset + i] & 0x0ff);
+        }
+
+        private static void ubyteToDouble(byte[] from, int fromOffset, double[] to, int toOffset, int len) {
+            for (int i = 0; i < len; i++)
+                to[toOffset + i] = (double) (from[fromOffset + i] & 0x0ff);
+        }
+
+        private static void ushortToInt(short[] from, int fromOffset, int[] to, int toOffset, int len) {
+            for (int i = 0; i < len; i++)
+                to[toOffset + i] = (int) (from[fromOffset + i] & 0x0ffff);
+        }
+
+        private static void ushortToLong(short[] from, int fromOffset, long[] to, int toOffset, int len) {
+            for (int i = 0; i < len; i++)
+                to[toOffset + i] = (long) (from[fromOffset + i] & 0x0ffff);
+        }
+
+        private static void ushortToFloat(short[] from, int fromOffset, float[] to, int toOffset, int len) {
+            for (int i = 0; i < len; i++)
+                to[toOffset + i] = (float) (from[fromOffset + i] & 0x0ffff);
+        }
+
+        private static void ushortToDouble(short[] from, int fromOffset, double[] to, int toOffset, int len) {
+            for (int i = 0; i < len; i++)
+                to[toOffset + i] = (double) (from[fromOffset + i] & 0x0ffff);
+        }
+
+        private static void uintToLong(int[] from, int fromOffset, long[] to, int toOffset, int len) {
+            for (int i = 0; i < len; i++)
+                to[toOffset + i] = (long) (from[fromOffset + i] & 0x0ffffffffL);
+        }
+
+        private static void uintToFloat(int[] from, int fromOffset, float[] to, int toOffset, int len) {
+            for (int i = 0; i < len; i++)
+                to[toOffset + i] = (float) (from[fromOffset + i] & 0x0ffffffffL);
+        }
+
+        private static void uintToDouble(int[] from, int fromOffset, double[] to, int toOffset, int len) {
+            for (int i = 0; i < len; i++)
+                to[toOffset + i] = (double) (from[fromOffset + i] & 0x0ffffffffL);
+        }
+
+        private static void ulongToFloat(long[] from, int fromOffset, float[] to, int toOffset, int len) {
+            for (int i = 0; i < len; i++)
+                to[toOffset + i] = ulongToFloat(from[fromOffset + i]);
+        }
+
+        private static void ulongToDouble(long[] from, int fromOffset, double[] to, int toOffset, int len) {
+            for (int i = 0; i < len; i++)
+                to[toOffset + i] = ulongToDouble(from[fromOffset + i]);
+        }
+
+        private static void floatToByte(float[] from, int fromOffset, byte[] to, int toOffset, int len) {
+            for (int i = 0; i < len; i++)
+                to[toOffset + i] = (byte) from[fromOffset + i];
+        }
+
+        private static void floatToShort(float[] from, int fromOffset, short[] to, int toOffset, int len) {
+            for (int i = 0; i < len; i++)
+                to[toOffset + i] = (short) from[fromOffset + i];
+        }
+
+        private static void floatToInt(float[] from, int fromOffset, int[] to, int toOffset, int len) {
+            for (int i = 0; i < len; i++)
+                to[toOffset + i] = (int) from[fromOffset + i];
+        }
+
+        private static void floatToLong(float[] from, int fromOffset, long[] to, int toOffset, int len) {
+            for (int i = 0; i < len; i++)
+                to[toOffset + i] = (long) from[fromOffset + i];
+        }
+
+        private static void floatToDouble(float[] from, int fromOffset, double[] to, int toOffset, int len) {
+            for (int i = 0; i < len; i++)
+                to[toOffset + i] = (double) from[fromOffset + i];
+        }
+
+        private static void floatToUByte(float[] from, int fromOffset, byte[] to, int toOffset, int len) {
+            for (int i = 0; i < len; i++)
+                to[toOffset + i] = floatToUByte(from[fromOffset + i]);
+        }
+
+        private static void floatToUShort(float[] from, int fromOffset, short[] to, int toOffset, int len) {
+            for (int i = 0; i < len; i++)
+                to[toOffset + i] = floatToUShort(from[fromOffset + i]);
+        }
+
+        private static void floatToUInt(float[] from, int fromOffset, int[] to, int toOffset, int len) {
+            for (int i = 0; i < len; i++)
+                to[toOffset + i] = floatToUInt(from[fromOffset + i]);
+        }
+
+        private static void floatToULong(float[] from, int fromOffset, long[] to, int toOffset, int len) {
+            for (int i = 0; i < len; i++)
+                to[toOffset + i] = floatToULong(from[fromOffset + i]);
+        }
+
+        private static void doubleToByte(double[] from, int fromOffset, byte[] to, int toOffset, int len) {
+            for (int i = 0; i < len; i++)
+                to[toOffset + i] = (byte) from[fromOffset + i];
+        }
+
+        private static void doubleToShort(double[] from, int fromOffset, short[] to, int toOffset, int len) {
+            for (int i = 0; i < len; i++)
+                to[toOffset + i] = (short) from[fromOffset + i];
+        }
+
+        private static void doubleToInt(double[] from, int fromOffset, int[] to, int toOffset, int len) {
+            for (int i = 0; i < len; i++)
+                to[toOffset + i] = (int) from[fromOffset + i];
+        }
+
+        private static void doubleToLong(double[] from, int fromOffset, long[] to, int toOffset, int len) {
+            for (int i = 0; i < len; i++)
+                to[toOffset + i] = (long) from[fromOffset + i];
+        }
+
+        private static void doubleToFloat(double[] from, int fromOffset, float[] to, int toOffset, int len) {
+            for (int i = 0; i < len; i++)
+                to[toOffset + i] = (float) from[fromOffset + i];
+        }
+
+        private static void doubleToUByte(double[] from, int fromOffset, byte[] to, int toOffset, int len) {
+            for (int i = 0; i < len; i++)
+                to[toOffset + i] = doubleToUByte(from[fromOffset + i]);
+        }
+
+        private static void doubleToUShort(double[] from, int fromOffset, short[] to, int toOffset, int len) {
+            for (int i = 0; i < len; i++)
+                to[toOffset + i] = doubleToUShort(from[fromOffset + i]);
+        }
+
+        private static void doubleToUInt(double[] from, int fromOffset, int[] to, int toOffset, int len) {
+            for (int i = 0; i < len; i++)
+                to[toOffset + i] = doubleToUInt(from[fromOffset + i]);
+        }
+
+        private static void doubleToULong(double[] from, int fromOffset, long[] to, int toOffset, int len) {
+            for (int i = 0; i < len; i++)
+                to[toOffset + i] = doubleToULong(from[fromOffset + i]);
+        }
+
         // used in unsigned integer conversions
         private static final BigInteger twoToTheSixtyFour = new BigInteger("10000000000000000", 16);
         private static final double twoToTheSixtyFourReal = Math.pow(2.0, 64); 
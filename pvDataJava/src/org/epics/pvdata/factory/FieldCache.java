@@ -0,0 +1,94 @@
+/*
+ * Copyright information and license terms for this software can be
+ * found in the file LICENSE that is included with the distribution
+ */
+package org.epics.pvdata.factory;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.epics.pvdata.pv.Field;
+
+/**
+ * Global interning cache of (immutable) introspection interfaces.
+ * Equal deserialized introspection interfaces (e.g. the same normative type received
+ * over many connections) are shared instead of being kept as separate copies.
+ * Interfaces are weakly referenced, i.e. removed from the cache when no longer used.
+ * The cache is a concurrent map, transports deserializing in parallel do not contend on a lock.
+ */
+final class FieldCache {
+
+	/**
+	 * Weak reference to a cached interface, equal to other references to an equal interface.
+	 */
+	private static final class FieldReference extends WeakReference<Field> {
+
+		private final int hash;
+
+		FieldReference(Field field, ReferenceQueue<Field> queue) {
+			super(field, queue);
+			this.hash = field.hashCode();
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (obj == this)
+				return true;
+			if (!(obj instanceof FieldReference))
+				return false;
+			final Field field = get();
+			final Field other = ((FieldReference)obj).get();
+			// cleared references are equal only to themselves
+			return field != null && other != null && field.equals(other);
+		}
+	}
+
+	private static final ConcurrentHashMap<FieldReference, FieldReference> cache =
+			new ConcurrentHashMap<FieldReference, FieldReference>();
+
+	private static final ReferenceQueue<Field> clearedReferences = new ReferenceQueue<Field>();
+
+	private FieldCache() {
+	}
+
+	/**
+	 * Remove entries of interfaces that are no longer used.
+	 */
+	private static void expungeClearedReferences() {
+		Object ref;
+		while ((ref = clearedReferences.poll()) != null)
+			cache.remove(ref, ref);
+	}
+
+	/**
+	 * Get canonical instance equal to given introspection interface.
+	 * @param field introspection interface, its subfields should already be interned.
+	 * @param <T> introspection interface type.
+	 * @return cached instance, or <code>field</code> itself if none is cached.
+	 */
+	@SuppressWarnings("unchecked")
+	static <T extends Field> T intern(T field) {
+		expungeClearedReferences();
+
+		final FieldReference ref = new FieldReference(field, clearedReferences);
+		while (true)
+		{
+			final FieldReference cachedRef = cache.putIfAbsent(ref, ref);
+			if (cachedRef == null)
+				return field;
+
+			final Field cached = cachedRef.get();
+			if (cached != null)
+				return (T)cached;
+
+			// cleared meanwhile, but not yet expunged
+			cache.remove(cachedRef, cachedRef);
+		}
+	}
+}
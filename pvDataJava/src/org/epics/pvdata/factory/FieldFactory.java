@@ -296,12 +296,12 @@ public final class FieldFactory {
     			else if (typeCode == 0x80)
     			{
     				// Type type = Type.structure;
-    				return BaseStructure.deserializeStructureField(buffer, control);
+    				return FieldCache.intern(BaseStructure.deserializeStructureField(buffer, control));
     			}
     			else if (typeCode == 0x81)
     			{
     				// Type type = union;
-    				return BaseUnion.deserializeUnionField(buffer, control);
+    				return FieldCache.intern(BaseUnion.deserializeUnionField(buffer, control));
     			}
     			else if (typeCode == 0x82)
     			{
@@ -310,10 +310,9 @@ public final class FieldFactory {
     			}
     			else if (typeCode == 0x83)
     			{
-    				// TODO cache some sizes?
     				// bounded string
     				int maxLength = SerializeHelper.readSize(buffer, control);
-    				return new BaseBoundedString(maxLength);
+    				return FieldCache.intern(new BaseBoundedString(maxLength));
     			}
     			else
     				throw new IllegalArgumentException("invalid type encoding");
@@ -335,9 +334,9 @@ public final class FieldFactory {
     				if (isVariable)
     					return scalarArrays[scalarType.ordinal()];
     				else if (isFixed)
-						return new BaseScalarFixedArray(scalarType, size);
+						return FieldCache.intern(new BaseScalarFixedArray(scalarType, size));
 					else
-						return new BaseScalarBoundedArray(scalarType, size);
+						return FieldCache.intern(new BaseScalarBoundedArray(scalarType, size));
     			}
     			else if (typeCode == 0x80)
     			{
@@ -347,7 +346,7 @@ public final class FieldFactory {
     				    				
     				// Type type = Type.structureArray;
     				final Structure elementStructure = (Structure)control.cachedDeserialize(buffer);
-    				return new BaseStructureArray(elementStructure);
+    				return FieldCache.intern(new BaseStructureArray(elementStructure));
     			}
     			else if (typeCode == 0x81)
     			{
@@ -357,7 +356,7 @@ public final class FieldFactory {
     				
     				// Type type = unionArray;
     				final Union elementUnion = (Union)control.cachedDeserialize(buffer);
-    				return new BaseUnionArray(elementUnion);
+    				return FieldCache.intern(new BaseUnionArray(elementUnion));
     			}
     			else if (typeCode == 0x82)
     			{
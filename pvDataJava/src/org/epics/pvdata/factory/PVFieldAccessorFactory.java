@@ -0,0 +1,197 @@
+/*
+ * Copyright information and license terms for this software can be
+ * found in the file LICENSE that is included with the distribution
+ */
+package org.epics.pvdata.factory;
+
+import org.epics.pvdata.pv.Convert;
+import org.epics.pvdata.pv.Field;
+import org.epics.pvdata.pv.PVBoolean;
+import org.epics.pvdata.pv.PVField;
+import org.epics.pvdata.pv.PVFieldAccessor;
+import org.epics.pvdata.pv.PVScalar;
+import org.epics.pvdata.pv.PVScalarArray;
+import org.epics.pvdata.pv.PVStructure;
+import org.epics.pvdata.pv.Structure;
+import org.epics.pvdata.pv.Type;
+
+/**
+ * Factory that creates PVFieldAccessor.
+ */
+public class PVFieldAccessorFactory {
+    private PVFieldAccessorFactory() {} // don't create
+    private static final Convert convert = ConvertFactory.getConvert();
+
+    /**
+     * Create an accessor of a subfield of the given structure.
+     * <p>fieldName is the full name of the field relative to the structure,
+     * i.e. the names of the structure subfields separated by periods, e.g. value.alarm.severity.
+     *
+     * @param structure the introspection interface of the structures the accessor will be used with
+     * @param fieldName the full name of the subfield
+     * @return the accessor or null if the subfield does not exist
+     */
+    public static PVFieldAccessor create(Structure structure, String fieldName) {
+        if(structure==null || fieldName==null || fieldName.length()<1) return null;
+        String[] names = fieldName.split("\\.", -1);
+        int[] indexes = new int[names.length];
+        Field field = structure;
+        for(int level=0; level<names.length; level++) {
+            if(field.getType()!=Type.structure) return null;
+            Structure subStructure = (Structure)field;
+            String[] fieldNames = subStructure.getFieldNames();
+            int index = -1;
+            for(int i=0; i<fieldNames.length; i++) {
+                if(fieldNames[i].equals(names[level])) {
+                    index = i;
+                    break;
+                }
+            }
+            if(index<0) return null;
+            indexes[level] = index;
+            field = subStructure.getField(index);
+        }
+        return new PVFieldAccessorImpl(structure,fieldName,field,indexes);
+    }
+
+    private static final class PVFieldAccessorImpl implements PVFieldAccessor {
+        private final Structure structure;
+        private final String fieldName;
+        private final Field field;
+        private final int[] indexes;
+        private final int last;
+
+        private PVFieldAccessorImpl(Structure structure, String fieldName, Field field, int[] indexes) {
+            this.structure = structure;
+            this.fieldName = fieldName;
+            this.field = field;
+            this.indexes = indexes;
+            this.last = indexes.length - 1;
+        }
+        /* (non-Javadoc)
+         * @see org.epics.pvdata.pv.PVFieldAccessor#getStructure()
+         */
+        public Structure getStructure() {
+            return structure;
+        }
+        /* (non-Javadoc)
+         * @see org.epics.pvdata.pv.PVFieldAccessor#getFieldName()
+         */
+        public String getFieldName() {
+            return fieldName;
+        }
+        /* (non-Javadoc)
+         * @see org.epics.pvdata.pv.PVFieldAccessor#getField()
+         */
+        public Field getField() {
+            return field;
+        }
+        /* (non-Javadoc)
+         * @see org.epics.pvdata.pv.PVFieldAccessor#get(org.epics.pvdata.pv.PVStructure)
+         */
+        public PVField get(PVStructure pvStructure) {
+            Structure pvStructureType = pvStructure.getStructure();
+            // shared (cached) introspection interfaces are identical, equals is only a fallback
+            if(pvStructureType!=structure && !structure.equals(pvStructureType)) {
+                throw new IllegalArgumentException("PVStructure is not of the type the accessor was created for");
+            }
+            for(int level=0; level<last; level++) {
+                pvStructure = (PVStructure)pvStructure.getPVFields()[indexes[level]];
+            }
+            return pvStructure.getPVFields()[indexes[last]];
+        }
+        /* (non-Javadoc)
+         * @see org.epics.pvdata.pv.PVFieldAccessor#get(java.lang.Class, org.epics.pvdata.pv.PVStructure)
+         */
+        public <T extends PVField> T get(Class<T> c, PVStructure pvStructure) {
+            PVField pvField = get(pvStructure);
+            if(c.isInstance(pvField)) return c.cast(pvField);
+            return null;
+        }
+        private PVScalar getScalar(PVStructure pvStructure) {
+            PVField pvField = get(pvStructure);
+            if(pvField.getField().getType()!=Type.scalar) {
+                throw new IllegalArgumentException(fieldName + " is not a scalar");
+            }
+            return (PVScalar)pvField;
+        }
+        private PVScalarArray getScalarArray(PVStructure pvStructure) {
+            PVField pvField = get(pvStructure);
+            if(pvField.getField().getType()!=Type.scalarArray) {
+                throw new IllegalArgumentException(fieldName + " is not a scalar array");
+            }
+            return (PVScalarArray)pvField;
+        }
+        /* (non-Javadoc)
+         * @see org.epics.pvdata.pv.PVFieldAccessor#getBoolean(org.epics.pvdata.pv.PVStructure)
+         */
+        public boolean getBoolean(PVStructure pvStructure) {
+            PVScalar pvScalar = getScalar(pvStructure);
+            if(!(pvScalar instanceof PVBoolean)) {
+                throw new IllegalArgumentException(fieldName + " is not a boolean");
+            }
+            return ((PVBoolean)pvScalar).get();
+        }
+        /* (non-Javadoc)
+         * @see org.epics.pvdata.pv.PVFieldAccessor#getInt(org.epics.pvdata.pv.PVStructure)
+         */
+        public int getInt(PVStructure pvStructure) {
+            return convert.toInt(getScalar(pvStructure));
+        }
+        /* (non-Javadoc)
+         * @see org.epics.pvdata.pv.PVFieldAccessor#getLong(org.epics.pvdata.pv.PVStructure)
+         */
+        public long getLong(PVStructure pvStructure) {
+            return convert.toLong(getScalar(pvStructure));
+        }
+        /* (non-Javadoc)
+         * @see org.epics.pvdata.pv.PVFieldAccessor#getDouble(org.epics.pvdata.pv.PVStructure)
+         */
+        public double getDouble(PVStructure pvStructure) {
+            return convert.toDouble(getScalar(pvStructure));
+        }
+        /* (non-Javadoc)
+         * @see org.epics.pvdata.pv.PVFieldAccessor#getString(org.epics.pvdata.pv.PVStructure)
+         */
+        public String getString(PVStructure pvStructure) {
+            return convert.toString(getScalar(pvStructure));
+        }
+        /* (non-Javadoc)
+         * @see org.epics.pvdata.pv.PVFieldAccessor#getLength(org.epics.pvdata.pv.PVStructure)
+         */
+        public int getLength(PVStructure pvStructure) {
+            return getScalarArray(pvStructure).getLength();
+        }
+        /* (non-Javadoc)
+         * @see org.epics.pvdata.pv.PVFieldAccessor#toIntArray(org.epics.pvdata.pv.PVStructure, int, int, int[], int)
+         */
+        public int toIntArray(PVStructure pvStructure, int offset, int length, int[] to, int toOffset) {
+            return convert.toIntArray(getScalarArray(pvStructure), offset, length, to, toOffset);
+        }
+        /* (non-Javadoc)
+         * @see org.epics.pvdata.pv.PVFieldAccessor#toLongArray(org.epics.pvdata.pv.PVStructure, int, int, long[], int)
+         */
+        public int toLongArray(PVStructure pvStructure, int offset, int length, long[] to, int toOffset) {
+            return convert.toLongArray(getScalarArray(pvStructure), offset, length, to, toOffset);
+        }
+        /* (non-Javadoc)
+         * @see org.epics.pvdata.pv.PVFieldAccessor#toDoubleArray(org.epics.pvdata.pv.PVStructure, int, int, double[], int)
+         */
+        public int toDoubleArray(PVStructure pvStructure, int offset, int length, double[] to, int toOffset) {
+            return convert.toDoubleArray(getScalarArray(pvStructure), offset, length, to, toOffset);
+        }
+        /* (non-Javadoc)
+         * @see org.epics.pvdata.pv.PVFieldAccessor#toStringArray(org.epics.pvdata.pv.PVStructure, int, int, java.lang.String[], int)
+         */
+        public int toStringArray(PVStructure pvStructure, int offset, int length, String[] to, int toOffset) {
+            return convert.toStringArray(getScalarArray(pvStructure), offset, length, to, toOffset);
+        }
+        /* (non-Javadoc)
+         * @see java.lang.Object#toString()
+         */
+        @Override
+        public String toString() {
+            return fieldName;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright information and license terms for this software can be
+ * found in the file LICENSE that is included with the distribution
+ */
+package org.epics.pvdata.factory;
+
+import org.epics.pvdata.pv.Convert;
+import org.epics.pvdata.pv.Field;
+import org.epics.pvdata.pv.PVBoolean;
+import org.epics.pvdata.pv.PVByte;
+import org.epics.pvdata.pv.PVDouble;
+import org.epics.pvdata.pv.PVField;
+import org.epics.pvdata.pv.PVFloat;
+import org.epics.pvdata.pv.PVInt;
+import org.epics.pvdata.pv.PVLong;
+import org.epics.pvdata.pv.PVScalar;
+import org.epics.pvdata.pv.PVScalarArray;
+import org.epics.pvdata.pv.PVShort;
+import org.epics.pvdata.pv.PVString;
+import org.epics.pvdata.pv.PVStructure;
+import org.epics.pvdata.pv.PVStructureArray;
+import org.epics.pvdata.pv.PVUByte;
+import org.epics.pvdata.pv.PVUInt;
+import org.epics.pvdata.pv.PVULong;
+import org.epics.pvdata.pv.PVUShort;
+import org.epics.pvdata.pv.PVUnion;
+import org.epics.pvdata.pv.PVUnionArray;
+import org.epics.pvdata.pv.Scalar;
+import org.epics.pvdata.pv.ScalarType;
+import org.epics.pvdata.pv.Structure;
+import org.epics.pvdata.pv.Type;
+
+/**
+ * Copy plan used by <code>Convert.copyStructure</code> when the source and the destination
+ * have the same introspection interface.
+ * Types of the subfields are resolved once, when the plan is created, so a copy neither
+ * re-checks compatibility nor converts: scalars are copied by a typed get/put and scalar arrays
+ * by a single array copy (data of an immutable source array is shared, and arrays that opted in
+ * by <code>PVArray.setShareOnCopy</code> share data copy-on-write).
+ * A plan is created on first use and cached by the (immutable) structure itself.
+ */
+final class StructureCopyPlan {
+    private final Type[] types;
+    private final ScalarType[] scalarTypes;
+    // last structure equal to, but not the same instance as, the structure of the plan
+    private volatile Structure equalStructure;
+
+    private StructureCopyPlan(Structure structure) {
+        Field[] fields = structure.getFields();
+        types = new Type[fields.length];
+        scalarTypes = new ScalarType[fields.length];
+        for(int i=0; i<fields.length; i++) {
+            types[i] = fields[i].getType();
+            if(types[i]==Type.scalar) scalarTypes[i] = ((Scalar)fields[i]).getScalarType();
+        }
+    }
+
+    /**
+     * Get the copy plan for a pair of structures.
+     * @param from the introspection interface of the source.
+     * @param to the introspection interface of the destination.
+     * @return the plan, or <code>null</code> if the structures are not equal.
+     */
+    static StructureCopyPlan get(Structure from, Structure to) {
+        if(!(from instanceof BaseStructure)) return null;
+        BaseStructure baseStructure = (BaseStructure)from;
+        StructureCopyPlan plan = baseStructure.copyPlan;
+        if(plan==null) {
+            plan = new StructureCopyPlan(from);
+            baseStructure.copyPlan = plan;
+        }
+        if(to==from || to==plan.equalStructure) return plan;
+        if(!from.equals(to)) return null;
+        plan.equalStructure = to;
+        return plan;
+    }
+
+    /**
+     * Copy the subfields.
+     * @param from the source.
+     * @param to the destination, it must not be immutable.
+     * @param convert convert used for the subfields that are not copied directly.
+     */
+    void copy(PVStructure from, PVStructure to, Convert convert) {
+        PVField[] fromFields = from.getPVFields();
+        PVField[] toFields = to.getPVFields();
+        for(int i=0; i<types.length; i++) {
+            PVField fromField = fromFields[i];
+            PVField toField = toFields[i];
+            switch(types[i]) {
+            case scalar:
+                if(toField.isImmutable()) {
+                    convert.copyScalar((PVScalar)fromField,(PVScalar)toField);
+                } else {
+                    copyScalar(scalarTypes[i],fromField,toField);
+                }
+                break;
+            case scalarArray:
+                copyScalarArray((PVScalarArray)fromField,(PVScalarArray)toField,convert);
+                break;
+            case structure:
+                convert.copyStructure((PVStructure)fromField,(PVStructure)toField);
+                break;
+            case structureArray:
+                convert.copyStructureArray((PVStructureArray)fromField,(PVStructureArray)toField);
+                break;
+            case union:
+                convert.copyUnion((PVUnion)fromField,(PVUnion)toField);
+                break;
+            case unionArray:
+                convert.copyUnionArray((PVUnionArray)fromField,(PVUnionArray)toField);
+                break;
+            }
+        }
+    }
+
+    private static void copyScalar(ScalarType scalarType, PVField from, PVField to) {
+        switch(scalarType) {
+        case pvBoolean: ((PVBoolean)to).put(((PVBoolean)from).get()); return;
+        case pvByte: ((PVByte)to).put(((PVByte)from).get()); return;
+        case pvShort: ((PVShort)to).put(((PVShort)from).get()); return;
+        case pvInt: ((PVInt)to).put(((PVInt)from).get()); return;
+        case pvLong: ((PVLong)to).put(((PVLong)from).get()); return;
+        case pvUByte: ((PVUByte)to).put(((PVUByte)from).get()); return;
+        case pvUShort: ((PVUShort)to).put(((PVUShort)from).get()); return;
+        case pvUInt: ((PVUInt)to).put(((PVUInt)from).get()); return;
+        case pvULong: ((PVULong)to).put(((PVULong)from).get()); return;
+        case pvFloat: ((PVFloat)to).put(((PVFloat)from).get()); return;
+        case pvDouble: ((PVDouble)to).put(((PVDouble)from).get()); return;
+        case pvString: ((PVString)to).put(((PVString)from).get()); return;
+        }
+    }
+
+    private static void copyScalarArray(PVScalarArray from, PVScalarArray to, Convert convert) {
+        // shared copy-on-write only if the destination opted in
+        if(to instanceof AbstractPVArray && ((AbstractPVArray)to).isShareOnCopy()
+                && from instanceof AbstractPVArray && ((AbstractPVArray)to).shareValue((AbstractPVArray)from)) return;
+        if(!from.isImmutable() && !to.isImmutable() && to.isCapacityMutable()
+                && from instanceof AbstractPVArray && to instanceof AbstractPVArray) {
+            AbstractPVArray fromArray = (AbstractPVArray)from;
+            AbstractPVArray toArray = (AbstractPVArray)to;
+            int length = fromArray.getLength();
+            if(length>0) toArray.internalPut(0,length,fromArray.getValue(),0);
+            if(toArray.getLength()!=length) toArray.setLength(length);
+            return;
+        }
+        // shares data of an immutable source
+        int length = convert.copyScalarArray(from,0,to,0,from.getLength());
+        if(to.getLength()!=length) to.setLength(length);
+    }
+}
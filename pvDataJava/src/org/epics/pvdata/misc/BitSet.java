@@ -106,6 +106,11 @@ public final class BitSet implements Cloneable, java.io.Serializable, org.epics.
      */
     private transient int wordsInUse = 0;
 
+    /**
+     * Whether the size of "words" is fixed, i.e. it is never reallocated.
+     */
+    private transient boolean fixedCapacity = false;
+
     /**
      * Whether the size of "words" is user-specified.  If so, we assume
      * the user knows what he's doing and try harder to preserve it.
@@ -164,6 +169,33 @@ public final class BitSet implements Cloneable, java.io.Serializable, org.epics.
         // COMMETED FROM ORIGINAL sizeIsSticky = true;
     }
 
+    /**
+     * Creates a bit set whose size is large enough to explicitly
+     * represent bits with indices in the range {@code 0} through
+     * {@code nbits-1}. All bits are initially {@code false}.
+     * A fixed capacity bit set never reallocates its internal storage,
+     * operations that would require more space throw {@code IndexOutOfBoundsException}.
+     * Use e.g. for change tracking of a structure with known number of fields.
+     *
+     * @param  nbits the size of the bit set
+     * @param  fixedCapacity if the size of the bit set is fixed
+     * @throws NegativeArraySizeException if the specified size
+     *         is negative
+     */
+    public BitSet(int nbits, boolean fixedCapacity) {
+        this(nbits);
+        this.fixedCapacity = fixedCapacity;
+    }
+
+    /**
+     * Returns true if this bit set never reallocates its internal storage.
+     *
+     * @return true if this bit set has fixed capacity
+     */
+    public boolean isFixedCapacity() {
+        return fixedCapacity;
+    }
+
     private void initWords(int nbits) {
         words = new long[wordIndex(nbits-1) + 1];
     }
@@ -331,6 +363,8 @@ public final class BitSet implements Cloneable, java.io.Serializable, org.epics.
      */
     private void ensureCapacity(int wordsRequired) {
         if (words.length < wordsRequired) {
+            if (fixedCapacity)
+                throw new IndexOutOfBoundsException("fixed capacity of " + (words.length * BITS_PER_WORD) + " bits exceeded");
             // Allocate larger of doubled size or required size
             int request = Math.max(2 * words.length, wordsRequired);
             words = Arrays.copyOf(words, request);
@@ -475,12 +509,59 @@ public final class BitSet implements Cloneable, java.io.Serializable, org.epics.
      */
     public void set(BitSet src) {
         // we ensure that words array size is adequate (and not wordsInUse to ensure capacity to the future)
-        if (src.words.length > this.words.length)
+        if (fixedCapacity)
+            ensureCapacity(src.wordsInUse);
+        else if (src.words.length > this.words.length)
             this.words = new long[src.words.length];
         
         System.arraycopy(src.words, 0, this.words, 0, src.wordsInUse);
+        // clear words no longer in use
+        for (int i = src.wordsInUse; i < this.wordsInUse; i++)
+            this.words[i] = 0;
         this.wordsInUse = src.wordsInUse;
     }
+
+    /**
+     * Sets the bits from the specified {@code fromIndex} (inclusive) to the
+     * specified {@code toIndex} (exclusive) to the values of the same bits
+     * of the source bit set. Bits outside of the range are not modified.
+     * No objects are allocated (unless this bit set needs to grow).
+     *
+     * @param  src bit set to be copied from
+     * @param  fromIndex index of the first bit to be copied
+     * @param  toIndex index after the last bit to be copied
+     * @throws IndexOutOfBoundsException if {@code fromIndex} is negative,
+     *         or {@code toIndex} is negative, or {@code fromIndex} is
+     *         larger than {@code toIndex}
+     */
+    public void set(BitSet src, int fromIndex, int toIndex) {
+        checkRange(fromIndex, toIndex);
+
+        if (fromIndex == toIndex || this == src)
+            return;
+
+        // Only the part of the range set in src can make this bit set grow
+        int startWordIndex = wordIndex(fromIndex);
+        int endWordIndex = wordIndex(toIndex - 1);
+        int lastSrcWordIndex = Math.min(endWordIndex, src.wordsInUse - 1);
+        if (lastSrcWordIndex >= startWordIndex)
+            expandTo(lastSrcWordIndex);
+
+        long firstWordMask = WORD_MASK << fromIndex;
+        long lastWordMask  = WORD_MASK >>> -toIndex;
+        int lastWordIndex = Math.min(endWordIndex, wordsInUse - 1);
+        for (int i = startWordIndex; i <= lastWordIndex; i++) {
+            long mask = WORD_MASK;
+            if (i == startWordIndex)
+                mask &= firstWordMask;
+            if (i == endWordIndex)
+                mask &= lastWordMask;
+            long srcWord = (i < src.wordsInUse) ? src.words[i] : 0;
+            words[i] = (words[i] & ~mask) | (srcWord & mask);
+        }
+
+        recalculateWordsInUse();
+    }
     
     /**
      * Sets the bit at the specified index to the specified value.
@@ -945,8 +1026,7 @@ public final class BitSet implements Cloneable, java.io.Serializable, org.epics.
 
         // ensure capacity
         if (wordsInUse < inUse) {
-            if (inUse > words.length)
-            	words = Arrays.copyOf(words, inUse);
+            ensureCapacity(inUse);
             wordsInUse = inUse;
         }
         
@@ -954,6 +1034,53 @@ public final class BitSet implements Cloneable, java.io.Serializable, org.epics.
         for (int i = 0; i < inUse; i++)
             words[i] |= (set1.words[i] & set2.words[i]);
     }
+
+    /**
+     * Performs a logical <b>OR</b> of this bit set with the bit set
+     * argument, and records overrun: bits that were already set in both
+     * this and the argument bit set are set in the {@code overrunBitSet}.
+     * It is equivalent to {@code overrunBitSet.or_and(this, set); this.or(set);}
+     * but done in one pass, in place.
+     * Used to merge a change into a monitor element that was not yet consumed.
+     *
+     * @param set a bit set (changes) to be merged into this bit set
+     * @param overrunBitSet a bit set where to set overrun bits
+     */
+    public void orWithOverrun(BitSet set, BitSet overrunBitSet) {
+        if (this == set) {
+            overrunBitSet.or(set);
+            return;
+        }
+
+        int wordsInCommon = Math.min(wordsInUse, set.wordsInUse);
+
+        if (wordsInUse < set.wordsInUse)
+            ensureCapacity(set.wordsInUse);
+        overrunBitSet.ensureCapacity(wordsInCommon);
+
+        if (overrunBitSet.wordsInUse < wordsInCommon)
+            overrunBitSet.wordsInUse = wordsInCommon;
+        if (wordsInUse < set.wordsInUse)
+            wordsInUse = set.wordsInUse;
+
+        // Perform logical OR and record overrun on words in common
+        final long[] overrunWords = overrunBitSet.words;
+        for (int i = 0; i < wordsInCommon; i++) {
+            final long word = words[i];
+            final long setWord = set.words[i];
+            overrunWords[i] |= (word & setWord);
+            words[i] = word | setWord;
+        }
+
+        // Copy any remaining words
+        if (wordsInCommon < set.wordsInUse)
+            System.arraycopy(set.words, wordsInCommon,
+                             words, wordsInCommon,
+                             wordsInUse - wordsInCommon);
+
+        // overrun words in common might be zero
+        overrunBitSet.recalculateWordsInUse();
+    }
     
     /**
      * Performs a logical <b>OR</b> of this bit set with the bit set
@@ -1228,6 +1355,28 @@ public final class BitSet implements Cloneable, java.io.Serializable, org.epics.
         return words;
     }
     
+    /**
+     * Returns the number of bytes of the serialized bit set, including the size.
+     * It is computed from the last word in use, without serializing.
+     *
+     * @return the number of bytes written by {@code serialize}
+     */
+    public int getSerializedSize() {
+        final int len = serializedLength();
+        return (len < 254 ? 1 : 5) + len;
+    }
+
+    /**
+     * Returns the number of bytes of the (serialized) bit set data,
+     * i.e. trailing zero bytes of the last word in use are not counted.
+     */
+    private int serializedLength() {
+        final int n = wordsInUse;
+        if (n == 0)
+            return 0;
+        return 8 * (n-1) + (BITS_PER_WORD - Long.numberOfLeadingZeros(words[n - 1]) + 7) / 8;
+    }
+
     /**
      * NOTE: word is atomic unit here; some bytes might be saved, but it's not worth it. 
      * @see org.epics.pvdata.pv.Serializable#serialize(java.nio.ByteBuffer, org.epics.pvdata.pv.SerializableControl)
@@ -1249,19 +1398,13 @@ public final class BitSet implements Cloneable, java.io.Serializable, org.epics.
         }
         */
         
-        int n = wordsInUse;
-        if (n == 0) {
-            SerializeHelper.writeSize(0, buffer, flusher);
+        final int len = serializedLength();
+        SerializeHelper.writeSize(len, buffer, flusher);
+        if (len == 0)
             return;
-        }
-        int len = 8 * (n-1);
-        for (long x = words[n - 1]; x != 0; x >>>= 8)
-            len++;
-        
-         SerializeHelper.writeSize(len, buffer, flusher);
         flusher.ensureBuffer(len);
 
-        n = len / 8;
+        final int n = len / 8;
         for (int i = 0; i < n; i++)
             buffer.putLong(words[i]);
         
@@ -1278,9 +1421,20 @@ public final class BitSet implements Cloneable, java.io.Serializable, org.epics.
 
         final int bytes = SerializeHelper.readSize(buffer, control);    // in bytes
         
-        wordsInUse = (bytes + 7) / 8;
-        if (wordsInUse > words.length)
-            words = new long[wordsInUse];
+        final int newWordsInUse = (bytes + 7) / 8;
+        if (newWordsInUse > words.length) {
+            // validate before any mutation, the set stays intact on failure
+            if (fixedCapacity)
+                throw new IndexOutOfBoundsException("fixed capacity of " + (words.length * BITS_PER_WORD) + " bits exceeded");
+            words = new long[newWordsInUse];
+        }
+
+        final int oldWordsInUse = wordsInUse;
+        wordsInUse = newWordsInUse;
+
+        // clear words no longer in use
+        for (int j = wordsInUse; j < oldWordsInUse; j++)
+            words[j] = 0;
 
         if (wordsInUse == 0)
             return;
@@ -4,8 +4,11 @@
  */
 package org.epics.pvdata.misc;
 
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.PriorityQueue;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import org.epics.pvdata.misc.Timer.TimerCallback;
 import org.epics.pvdata.misc.Timer.TimerNode;
@@ -18,6 +21,28 @@ import org.epics.pvdata.misc.Timer.TimerNode;
  *
  */
 public class TimerFactory {
+    /**
+     * Timer implementation type.
+     */
+    public enum TimerType {
+        /**
+         * Nodes are kept in a priority queue ordered by the time to run, millisecond resolution.
+         * Schedule and cancel are O(log n).
+         */
+        PRIORITY_QUEUE,
+        /**
+         * Nodes are kept in a hashed timing wheel with <code>TIMING_WHEEL_TICK</code> resolution.
+         * Schedule and cancel are O(1), callbacks are called up to one tick late.
+         * Suitable for many (e.g. per-connection) timeouts.
+         */
+        TIMING_WHEEL
+    }
+
+    /**
+     * Tick (resolution) of the <code>TIMING_WHEEL</code> timer in seconds.
+     */
+    public static final double TIMING_WHEEL_TICK = 0.01;
+
     /**
      * Create and return a Timer.
      *
@@ -29,6 +54,23 @@ public class TimerFactory {
         return new TimerInstance(threadName,priority);
     }
 
+    /**
+     * Create and return a Timer of given type.
+     *
+     * @param threadName the thread name for the timer thread
+     * @param priority the priority for the timer thread
+     * @param type the timer implementation type
+     * @return the new timer
+     */
+    static public Timer create(String threadName, ThreadPriority priority, TimerType type) {
+        switch(type) {
+        case TIMING_WHEEL:
+            return new TimingWheelInstance(threadName,priority);
+        default:
+            return create(threadName,priority);
+        }
+    }
+
     /**
      * Create a TimerNode that can be passed to the schedule methods.
      *
@@ -189,6 +231,217 @@ public class TimerFactory {
         }
     }
 
+    /**
+     * Hashed timing wheel timer.
+     * Nodes are kept in doubly linked lists (buckets) indexed by the tick they expire at,
+     * modulo the wheel size; nodes more than one wheel revolution away stay in their bucket
+     * until their tick is reached. The timer thread sleeps until the tick of the next
+     * non-empty bucket. Expired nodes are collected under the lock and their callbacks
+     * are called in a batch, without holding the lock. Deadlines use System.nanoTime().
+     */
+    static private class TimingWheelInstance implements Timer, RunnableReady {
+        private static final Logger logger = Logger.getLogger(TimerFactory.class.getPackage().getName());
+        private static final long TICK_NANOS = (long)(TIMING_WHEEL_TICK*1e9);
+        // must be power of two
+        private static final int WHEEL_SIZE = 1024;
+        private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+        private final TimerNodeImpl[] buckets = new TimerNodeImpl[WHEEL_SIZE];
+        private final long startTime = System.nanoTime();
+        // last processed tick, guarded by buckets
+        private long currentTick = 0;
+        // tick the timer thread sleeps until, guarded by buckets
+        private long wakeTick = Long.MAX_VALUE;
+        // number of scheduled nodes, guarded by buckets
+        private int count = 0;
+        private volatile boolean isStopped = false;
+        // used only by the timer thread
+        private final ArrayList<TimerNodeImpl> expired = new ArrayList<TimerNodeImpl>();
+
+        private TimingWheelInstance(String threadName, ThreadPriority priority) {
+            threadCreate.create(threadName, priority.getJavaPriority(), this);
+        }
+
+        private long tickOf(long time) {
+            return (time - startTime + TICK_NANOS - 1) / TICK_NANOS;
+        }
+
+        // assumes synchronization on buckets
+        private void add(TimerNodeImpl timerNode, long timeToRun) {
+            long tick = tickOf(timeToRun);
+            if(tick<=currentTick) tick = currentTick + 1;
+            timerNode.timeToRun = tick;
+            final int index = (int)(tick & WHEEL_MASK);
+            final TimerNodeImpl head = buckets[index];
+            timerNode.prev = null;
+            timerNode.next = head;
+            if(head!=null) head.prev = timerNode;
+            buckets[index] = timerNode;
+        }
+
+        // assumes synchronization on buckets
+        private void remove(TimerNodeImpl timerNode) {
+            final TimerNodeImpl prev = timerNode.prev;
+            final TimerNodeImpl next = timerNode.next;
+            if(prev!=null) prev.next = next;
+            else buckets[(int)(timerNode.timeToRun & WHEEL_MASK)] = next;
+            if(next!=null) next.prev = prev;
+            timerNode.prev = null;
+            timerNode.next = null;
+        }
+
+        // assumes synchronization on buckets and count>0
+        private long nextOccupiedTick() {
+            for(long tick=currentTick+1; tick<=currentTick+WHEEL_SIZE; tick++) {
+                if(buckets[(int)(tick & WHEEL_MASK)]!=null) return tick;
+            }
+            return currentTick + WHEEL_SIZE;
+        }
+
+        /* (non-Javadoc)
+         * @see org.epics.pvdata.misc.Timer#scheduleAfterDelay(org.epics.pvdata.misc.Timer.TimerNode, double)
+         */
+        public void scheduleAfterDelay(TimerNode timerNode, double delay) {
+            schedulePeriodic(timerNode,delay,-.1);
+        }
+        /* (non-Javadoc)
+         * @see org.epics.pvdata.misc.Timer#schedulePeriodic(org.epics.pvdata.misc.Timer.TimerNode, double, double)
+         */
+        public void schedulePeriodic(TimerNode timerNode, double delayDouble, double periodDouble) {
+            long delay = (long)(delayDouble*1e9);
+            long period = (long)(periodDouble*1e9);
+            TimerNodeImpl timerNodeImpl = (TimerNodeImpl)timerNode;
+            if(timerNodeImpl.isQueued) {
+                throw new IllegalStateException("already scheduled");
+            }
+            if(isStopped) {
+                timerNodeImpl.timerCallback.timerStopped();
+                return;
+            }
+            timerNodeImpl.isCanceled = false;
+            if(delay<0) delay = 0;
+            if(period<0) period = 0;
+            timerNodeImpl.period = period;
+            final long now = System.nanoTime();
+            synchronized(buckets) {
+                if(!timerNodeImpl.isCanceled) {
+                    if(count==0) {
+                        // idle, nothing to process up to now
+                        currentTick = Math.max(currentTick, tickOf(now) - 1);
+                    }
+                    timerNodeImpl.isQueued = true;
+                    timerNodeImpl.wheelInstance = this;
+                    add(timerNodeImpl, now + delay);
+                    count++;
+                    // expires before the timer thread wakes up
+                    if(timerNodeImpl.timeToRun<wakeTick) buckets.notify();
+                }
+            }
+        }
+
+        private void cancel(TimerNodeImpl timerNode) {
+            synchronized(buckets) {
+                if(timerNode.isQueued && timerNode.wheelInstance==this) {
+                    remove(timerNode);
+                    count--;
+                }
+                timerNode.isQueued = false;
+                timerNode.wheelInstance = null;
+            }
+        }
+        /* (non-Javadoc)
+         * @see org.epics.pvdata.misc.Timer#stop()
+         */
+        public void stop() {
+            ArrayList<TimerNodeImpl> nodes = new ArrayList<TimerNodeImpl>();
+            synchronized(buckets) {
+                isStopped = true;
+                for(int i=0; i<WHEEL_SIZE; i++) {
+                    TimerNodeImpl timerNode = buckets[i];
+                    while(timerNode!=null) {
+                        TimerNodeImpl next = timerNode.next;
+                        timerNode.prev = null;
+                        timerNode.next = null;
+                        timerNode.isQueued = false;
+                        timerNode.wheelInstance = null;
+                        nodes.add(timerNode);
+                        timerNode = next;
+                    }
+                    buckets[i] = null;
+                }
+                count = 0;
+                buckets.notifyAll();
+            }
+            for(TimerNodeImpl timerNode : nodes) {
+                timerNode.timerCallback.timerStopped();
+            }
+        }
+
+        // assumes synchronization on buckets
+        private void expire(long tick, long now) {
+            TimerNodeImpl timerNode = buckets[(int)(tick & WHEEL_MASK)];
+            while(timerNode!=null) {
+                final TimerNodeImpl next = timerNode.next;
+                if(timerNode.timeToRun<=tick) {
+                    remove(timerNode);
+                    if(!timerNode.isCanceled) {
+                        expired.add(timerNode);
+                    }
+                    if(timerNode.period>0 && !timerNode.isCanceled) {
+                        add(timerNode, now + timerNode.period);
+                    } else {
+                        timerNode.isQueued = false;
+                        timerNode.wheelInstance = null;
+                        count--;
+                    }
+                }
+                timerNode = next;
+            }
+        }
+
+        /* (non-Javadoc)
+         * @see org.epics.pvdata.misc.RunnableReady#run(org.epics.pvdata.misc.ThreadReady)
+         */
+        public void run(ThreadReady threadReady) {
+            threadReady.ready();
+            while(!isStopped) {
+                try {
+                    synchronized(buckets) {
+                        final long now = System.nanoTime();
+                        final long nowTick = (now - startTime) / TICK_NANOS;
+                        while(currentTick<nowTick && count>0) {
+                            currentTick++;
+                            expire(currentTick, now);
+                        }
+                        if(expired.isEmpty() && !isStopped) {
+                            if(count==0) {
+                                wakeTick = Long.MAX_VALUE;
+                                buckets.wait();
+                            } else {
+                                wakeTick = nextOccupiedTick();
+                                final long delay = startTime + wakeTick*TICK_NANOS - now;
+                                if(delay>0) buckets.wait(delay/1000000, (int)(delay%1000000));
+                            }
+                        }
+                    }
+                    // batched callbacks, without holding the lock
+                    final int size = expired.size();
+                    for(int i=0; i<size; i++) {
+                        final TimerNodeImpl timerNode = expired.get(i);
+                        if(!timerNode.isCanceled) {
+                            try {
+                                timerNode.timerCallback.callback();
+                            } catch (Throwable th) {
+                                logger.log(Level.SEVERE, "Unexpected exception caught in timer callback.", th);
+                            }
+                        }
+                    }
+                    expired.clear();
+                } catch(InterruptedException e) {}
+            }
+        }
+    }
+
     private static class TimerNodeImpl implements Timer.TimerNode {
         private TimerInstance timerInstance = null;
         private TimerCallback timerCallback;
@@ -196,6 +449,10 @@ public class TimerFactory {
         private long period = 0;
         private volatile boolean isQueued = false;
         private volatile boolean isCanceled = false;
+        // TimingWheelInstance the node is scheduled on and its bucket list
+        private TimingWheelInstance wheelInstance = null;
+        private TimerNodeImpl prev = null;
+        private TimerNodeImpl next = null;
 
         private TimerNodeImpl(TimerCallback timerCallback) {
             this.timerCallback = timerCallback;
@@ -213,6 +470,10 @@ public class TimerFactory {
                     isQueued = false;
                 }
             }
+            TimingWheelInstance wheelInstance = this.wheelInstance;
+            if(wheelInstance!=null) {
+                wheelInstance.cancel(this);
+            }
         }
 
 		/* (non-Javadoc)
@@ -4,10 +4,14 @@
  */
 package org.epics.pvdata.monitor;
 
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
 import org.epics.pvdata.misc.BitSet;
 import org.epics.pvdata.misc.Queue;
 import org.epics.pvdata.misc.QueueCreate;
 import org.epics.pvdata.misc.QueueElement;
+import org.epics.pvdata.pv.PVField;
+import org.epics.pvdata.pv.PVScalarArray;
 import org.epics.pvdata.pv.PVStructure;
 
 /**
@@ -41,15 +45,48 @@ public class MonitorQueueFactory {
         return new MonitorQueueImpl(queue);
     }
     
+    /**
+     * Create a lock-free single-producer/single-consumer MonitorQueue.
+     * <p>getFree and setUsed must be called by one (producer) thread and getUsed and releaseUsed
+     * by one (consumer) thread, the two threads do not need to synchronize.
+     * getNumberFree is exact only if called by the producer.
+     * clear must not be called concurrently with any other method.
+     *
+     * @param monitorElements a MonitorElement array. Each monitorElement
+     * must be created by calling MonitorQueueFactory.createMonitorElement.
+     * @return the MonitorQueue interface.
+     * @throws IllegalStateException if the queue size is not at least 2
+     */
+    public static MonitorQueue createLockFree(MonitorElement[] monitorElements) {
+        if(monitorElements.length<2) {
+            throw new IllegalStateException("queueSize must be at least 2 ");
+        }
+        return new LockFreeMonitorQueueImpl(monitorElements.clone());
+    }
+
     /**
      * Create a MonitorElement.
+     * The scalar arrays of the data structure are set to share, copy-on-write, the value array
+     * of an entire array copied into them (see <code>PVArray.setShareOnCopy</code>),
+     * i.e. an array copied into the element from the monitored data is not copied element by element.
      *
      * @param pvStructure The data structure for the monitorElement
      * @return the monitorElement
      */
     public static MonitorElement createMonitorElement(PVStructure pvStructure) {
+        if(pvStructure!=null) shareArraysOnCopy(pvStructure);
         return new MonitorElementImlp(pvStructure);
     }
+
+    private static void shareArraysOnCopy(PVStructure pvStructure) {
+        for(PVField pvField : pvStructure.getPVFields()) {
+            if(pvField instanceof PVScalarArray) {
+                ((PVScalarArray)pvField).setShareOnCopy(true);
+            } else if(pvField instanceof PVStructure) {
+                shareArraysOnCopy((PVStructure)pvField);
+            }
+        }
+    }
     
     private static final QueueCreate<MonitorElement> queueCreate = new QueueCreate<MonitorElement>();
     
@@ -173,4 +210,133 @@ public class MonitorQueueFactory {
             return queue.toString();
         }
     }
+
+    /*
+     * Sequences of the producer and the consumer are padded to be on separate cache lines.
+     */
+    private static class LhsPadding {
+        protected long p1, p2, p3, p4, p5, p6, p7;
+    }
+
+    private static class Sequence extends LhsPadding {
+        private static final AtomicLongFieldUpdater<Sequence> publishedUpdater =
+            AtomicLongFieldUpdater.newUpdater(Sequence.class, "published");
+        // written by the owner only, read by the other side
+        protected volatile long published = 0;
+        // owner only
+        protected long next = 0;
+        // owner only, last seen published of the other side
+        protected long cached = 0;
+
+        protected void lazySetPublished(long value) {
+            publishedUpdater.lazySet(this, value);
+        }
+    }
+
+    private static final class PaddedSequence extends Sequence {
+        protected long p9, p10, p11, p12, p13, p14, p15;
+    }
+
+    private static class LockFreeMonitorQueueImpl implements MonitorQueue {
+        private final MonitorElement[] monitorElements;
+        private final int number;
+        // published is number of setUsed calls, next is number of getFree calls
+        private final PaddedSequence producer = new PaddedSequence();
+        // published is number of releaseUsed calls, next is number of getUsed calls
+        private final PaddedSequence consumer = new PaddedSequence();
+
+        LockFreeMonitorQueueImpl(MonitorElement[] monitorElements) {
+            this.monitorElements = monitorElements;
+            number = monitorElements.length;
+        }
+
+        private MonitorElement element(long sequence) {
+            return monitorElements[(int)(sequence % number)];
+        }
+        /* (non-Javadoc)
+         * @see org.epics.pvdata.monitor.MonitorQueue#clear()
+         */
+        @Override
+        public void clear() {
+            producer.next = 0;
+            producer.cached = 0;
+            consumer.next = 0;
+            consumer.cached = 0;
+            producer.published = 0;
+            consumer.published = 0;
+        }
+        /* (non-Javadoc)
+         * @see org.epics.pvdata.monitor.MonitorQueue#capacity()
+         */
+        @Override
+        public int capacity() {
+            return number;
+        }
+        /* (non-Javadoc)
+         * @see org.epics.pvdata.monitor.MonitorQueue#getNumberFree()
+         */
+        @Override
+        public int getNumberFree() {
+            return number - (int)(producer.next - consumer.published);
+        }
+        /* (non-Javadoc)
+         * @see org.epics.pvdata.monitor.MonitorQueue#getFree()
+         */
+        @Override
+        public MonitorElement getFree() {
+            final long next = producer.next;
+            if(next - producer.cached >= number) {
+                producer.cached = consumer.published;
+                if(next - producer.cached >= number) return null;
+            }
+            producer.next = next + 1;
+            return element(next);
+        }
+        /* (non-Javadoc)
+         * @see org.epics.pvdata.monitor.MonitorQueue#setUsed(org.epics.pvdata.monitor.MonitorElement)
+         */
+        @Override
+        public void setUsed(MonitorElement monitorElement) {
+            final long used = producer.published;
+            if(used>=producer.next || monitorElement!=element(used)) {
+                throw new IllegalStateException("not correct monitorElement");
+            }
+            // consumer is notified by the caller, no need for a full fence
+            producer.lazySetPublished(used + 1);
+        }
+        /* (non-Javadoc)
+         * @see org.epics.pvdata.monitor.MonitorQueue#getUsed()
+         */
+        @Override
+        public MonitorElement getUsed() {
+            final long next = consumer.next;
+            if(next>=consumer.cached) {
+                consumer.cached = producer.published;
+                if(next>=consumer.cached) return null;
+            }
+            consumer.next = next + 1;
+            return element(next);
+        }
+        /* (non-Javadoc)
+         * @see org.epics.pvdata.monitor.MonitorQueue#releaseUsed(org.epics.pvdata.monitor.MonitorElement)
+         */
+        @Override
+        public void releaseUsed(MonitorElement monitorElement) {
+            final long released = consumer.published;
+            if(released>=consumer.next || monitorElement!=element(released)) {
+                throw new IllegalStateException("not monitorElement returned by last call to getUsed");
+            }
+            // volatile write, producer checks free elements after announcing overrun
+            consumer.published = released + 1;
+        }
+        /* (non-Javadoc)
+         * @see java.lang.Object#toString()
+         */
+        @Override
+        public String toString() {
+            return "number " + number + " numberFree " + getNumberFree()
+                 + " nextGetFree " + producer.next + " nextSetUsed " + producer.published
+                 + " nextGetUsed " + consumer.next + " nextReleaseUsed " + consumer.published;
+        }
+    }
 }
@@ -10,6 +10,9 @@ import org.epics.pvdata.pv.Structure;
 
 /**
  * Requester for ChannelMonitor.
+ * A requester can also implement <code>ArrayChunkListener</code> to receive (huge) numeric arrays in chunks,
+ * as they arrive, instead of in the monitor element, if supported by the provider (pvAccess client).
+ * Chunks are delivered on the network thread while the request is locked, see <code>ArrayChunkListener</code>.
  * @author mrk
  *
  */
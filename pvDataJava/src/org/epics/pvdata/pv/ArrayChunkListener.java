@@ -0,0 +1,43 @@
+/*
+ * Copyright information and license terms for this software can be
+ * found in the file LICENSE that is included with the distribution
+ */
+package org.epics.pvdata.pv;
+
+
+/**
+ * Listener that receives the elements of a (large) numeric scalar array in chunks, as they are deserialized,
+ * instead of having the entire array deserialized to the <code>PVScalarArray</code>.
+ * Used with a {@link StreamingDeserializableControl}.
+ * <p>
+ * Methods are called by the deserializing thread (e.g. the network thread of a pvAccess client)
+ * while the request being deserialized is locked. Implementations must return quickly and must not block,
+ * i.e. copy or process the elements and hand off any longer work to another thread;
+ * they must not wait for another thread that is calling the same request.
+ */
+public interface ArrayChunkListener {
+
+    /**
+     * Deserialization of an array is starting.
+     * @param pvArray the array being deserialized.
+     * @param length the number of elements of the array.
+     * @return <code>true</code> to receive the elements by <code>arrayChunk</code> calls,
+     * <code>false</code> to deserialize the array as usual.
+     */
+    boolean arrayStart(PVScalarArray pvArray, int length);
+
+    /**
+     * A chunk of elements has been deserialized.
+     * Elements are held by <code>pvArray</code> (from index 0 to <code>count</code>) only until the call returns.
+     * @param pvArray the array being deserialized.
+     * @param offset the index of the first element of the chunk in the entire array.
+     * @param count the number of elements of the chunk.
+     */
+    void arrayChunk(PVScalarArray pvArray, int offset, int count);
+
+    /**
+     * All the elements have been delivered, <code>pvArray</code> is left empty.
+     * @param pvArray the array that was deserialized.
+     */
+    void arrayEnd(PVScalarArray pvArray);
+}
@@ -0,0 +1,28 @@
+/*
+ * Copyright information and license terms for this software can be
+ * found in the file LICENSE that is included with the distribution
+ */
+package org.epics.pvdata.pv;
+
+import java.nio.ByteBuffer;
+
+
+/**
+ * Serialization control interface that can serialize (large) data
+ * without copying it to the serialization buffer.
+ */
+public interface DirectSerializableControl extends SerializableControl {
+
+    /**
+     * Serialize bytes directly, i.e. without copying them to the serialization buffer.
+     * Content of <code>toSerialize</code> must not be modified until the call returns,
+     * neither position nor limit of <code>toSerialize</code> are changed.
+     *
+     * @param existingBuffer the buffer being serialized to
+     * @param toSerialize bytes to be serialized (from position to limit)
+     * @return <code>true</code> if bytes were serialized, <code>false</code> if
+     * direct serialization is not possible and caller needs to serialize bytes to <code>existingBuffer</code>
+     */
+    boolean directSerialize(ByteBuffer existingBuffer, ByteBuffer toSerialize);
+
+}
@@ -161,7 +161,9 @@ public interface FieldCreate {
     Union createUnion(String id, String[] fieldNames, Field[] fields);
 
     /**
-     * Deserialize <i>Field</i> instance from given byte buffer
+     * Deserialize <i>Field</i> instance from given byte buffer.
+     * Equal deserialized (immutable) instances are shared, i.e. the same instance is returned
+     * for the same type description received, e.g., over different connections.
      *
      * @param buffer the buffer containing serialized <i>Field</i> instance
      * @param control the deserialization control instance
@@ -62,4 +62,24 @@ public interface PVArray extends PVField, SerializableArray {
      * @param isMutable the new value for capacityMutable
      */
     void setCapacityMutable(boolean isMutable);
+
+    /**
+     * Select how an entire array of the same element type is copied into this array
+     * by <code>Convert.copyScalarArray</code> or <code>Convert.copy</code>.
+     * By default the elements are copied into the existing value array.
+     * If sharing is enabled, the value array of the source is shared copy-on-write,
+     * which saves the copy, but the source or this array allocates a new value array
+     * when it is next written.
+     *
+     * @param shareOnCopy <code>true</code> to share, <code>false</code> to copy the elements
+     */
+    void setShareOnCopy(boolean shareOnCopy);
+
+    /**
+     * Is the value array of a copied entire array shared copy-on-write?
+     *
+     * @return <code>true</code> if shared, <code>false</code> if the elements are copied
+     * @see #setShareOnCopy(boolean)
+     */
+    boolean isShareOnCopy();
 }
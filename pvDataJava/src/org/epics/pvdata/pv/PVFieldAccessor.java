@@ -0,0 +1,161 @@
+/*
+ * Copyright information and license terms for this software can be
+ * found in the file LICENSE that is included with the distribution
+ */
+package org.epics.pvdata.pv;
+
+/**
+ * Accessor of a subfield, compiled for a given <i>Structure</i> introspection interface.
+ * <p>The field name (e.g. value.alarm.severity) is resolved once, when the accessor is created,
+ * into the indexes of the subfields at each level. The accessor can then be used with
+ * every <i>PVStructure</i> of that introspection type, without any name lookup or allocation.
+ * <p>Accessors are immutable and can be shared between threads.
+ */
+public interface PVFieldAccessor {
+    /**
+     * Get the introspection interface the accessor was created for.
+     *
+     * @return the structure introspection interface
+     */
+    Structure getStructure();
+
+    /**
+     * Get the full name of the subfield relative to the structure.
+     *
+     * @return the field name, e.g. value.alarm.severity
+     */
+    String getFieldName();
+
+    /**
+     * Get the introspection interface of the subfield.
+     *
+     * @return the introspection interface of the subfield
+     */
+    Field getField();
+
+    /**
+     * Get the PVField subfield.
+     *
+     * @param pvStructure the structure, must be of the type the accessor was created for
+     * @return the PVField
+     * @throws IllegalArgumentException if pvStructure is not of the type the accessor was created for
+     */
+    PVField get(PVStructure pvStructure);
+
+    /**
+     * Get the PVField subfield of expected type.
+     *
+     * @param <T> the expected type of the PVField of the requested field
+     * @param c class object modeling the class T of expected type of the requested field
+     * @param pvStructure the structure, must be of the type the accessor was created for
+     * @return the PVField or null if the field is not of type <code>T</code>
+     * @throws IllegalArgumentException if pvStructure is not of the type the accessor was created for
+     */
+    <T extends PVField> T get(Class<T> c, PVStructure pvStructure);
+
+    /**
+     * Get the value of a boolean subfield.
+     *
+     * @param pvStructure the structure, must be of the type the accessor was created for
+     * @return the value
+     * @throws IllegalArgumentException if the subfield is not a boolean scalar
+     */
+    boolean getBoolean(PVStructure pvStructure);
+
+    /**
+     * Get the value of a numeric scalar subfield converted to int.
+     *
+     * @param pvStructure the structure, must be of the type the accessor was created for
+     * @return the value
+     * @throws IllegalArgumentException if the subfield is not a numeric scalar
+     */
+    int getInt(PVStructure pvStructure);
+
+    /**
+     * Get the value of a numeric scalar subfield converted to long.
+     *
+     * @param pvStructure the structure, must be of the type the accessor was created for
+     * @return the value
+     * @throws IllegalArgumentException if the subfield is not a numeric scalar
+     */
+    long getLong(PVStructure pvStructure);
+
+    /**
+     * Get the value of a numeric scalar subfield converted to double.
+     *
+     * @param pvStructure the structure, must be of the type the accessor was created for
+     * @return the value
+     * @throws IllegalArgumentException if the subfield is not a numeric scalar
+     */
+    double getDouble(PVStructure pvStructure);
+
+    /**
+     * Get the value of a scalar subfield converted to String.
+     *
+     * @param pvStructure the structure, must be of the type the accessor was created for
+     * @return the value
+     * @throws IllegalArgumentException if the subfield is not a scalar
+     */
+    String getString(PVStructure pvStructure);
+
+    /**
+     * Get the length of a scalar array subfield.
+     *
+     * @param pvStructure the structure, must be of the type the accessor was created for
+     * @return the array length
+     * @throws IllegalArgumentException if the subfield is not a scalar array
+     */
+    int getLength(PVStructure pvStructure);
+
+    /**
+     * Convert elements of a numeric scalar array subfield to int array.
+     *
+     * @param pvStructure the structure, must be of the type the accessor was created for
+     * @param offset the offset of the first element to convert
+     * @param length the number of elements to convert
+     * @param to where to put the elements
+     * @param toOffset the offset into to
+     * @return the number of elements converted
+     * @throws IllegalArgumentException if the subfield is not a numeric scalar array
+     */
+    int toIntArray(PVStructure pvStructure, int offset, int length, int[] to, int toOffset);
+
+    /**
+     * Convert elements of a numeric scalar array subfield to long array.
+     *
+     * @param pvStructure the structure, must be of the type the accessor was created for
+     * @param offset the offset of the first element to convert
+     * @param length the number of elements to convert
+     * @param to where to put the elements
+     * @param toOffset the offset into to
+     * @return the number of elements converted
+     * @throws IllegalArgumentException if the subfield is not a numeric scalar array
+     */
+    int toLongArray(PVStructure pvStructure, int offset, int length, long[] to, int toOffset);
+
+    /**
+     * Convert elements of a numeric scalar array subfield to double array.
+     *
+     * @param pvStructure the structure, must be of the type the accessor was created for
+     * @param offset the offset of the first element to convert
+     * @param length the number of elements to convert
+     * @param to where to put the elements
+     * @param toOffset the offset into to
+     * @return the number of elements converted
+     * @throws IllegalArgumentException if the subfield is not a numeric scalar array
+     */
+    int toDoubleArray(PVStructure pvStructure, int offset, int length, double[] to, int toOffset);
+
+    /**
+     * Convert elements of a scalar array subfield to String array.
+     *
+     * @param pvStructure the structure, must be of the type the accessor was created for
+     * @param offset the offset of the first element to convert
+     * @param length the number of elements to convert
+     * @param to where to put the elements
+     * @param toOffset the offset into to
+     * @return the number of elements converted
+     * @throws IllegalArgumentException if the subfield is not a scalar array
+     */
+    int toStringArray(PVStructure pvStructure, int offset, int length, String[] to, int toOffset);
+}
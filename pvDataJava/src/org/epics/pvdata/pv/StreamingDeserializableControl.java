@@ -0,0 +1,20 @@
+/*
+ * Copyright information and license terms for this software can be
+ * found in the file LICENSE that is included with the distribution
+ */
+package org.epics.pvdata.pv;
+
+
+/**
+ * Deserialization control interface that can deliver (large) numeric arrays in chunks,
+ * so that the entire array is never held in memory.
+ */
+public interface StreamingDeserializableControl extends DeserializableControl {
+
+    /**
+     * Get the listener to which the arrays being deserialized are offered.
+     * @return the listener, or <code>null</code> if arrays are deserialized as usual.
+     */
+    ArrayChunkListener getArrayChunkListener();
+
+}
@@ -72,6 +72,103 @@ public class BitSetTest extends TestCase {
 
 	}
 	
+	public void testSetBitSetRange() {
+		BitSet src = new BitSet(256);
+		src.set(3);
+		src.set(64);
+		src.set(130);
+		src.set(200);
+
+		BitSet dest = new BitSet(256);
+		dest.set(1);
+		dest.set(65);
+		dest.set(250);
+
+		// bits outside of the range are kept
+		dest.set(src, 2, 131);
+		BitSet expected = new BitSet();
+		expected.set(1);
+		expected.set(3);
+		expected.set(64);
+		expected.set(130);
+		expected.set(250);
+		assertEquals(expected, dest);
+
+		// range beyond set bits of src clears bits
+		dest.set(src, 240, 256);
+		expected.clear(250);
+		assertEquals(expected, dest);
+
+		// empty range
+		dest.set(src, 10, 10);
+		assertEquals(expected, dest);
+	}
+
+	public void testOrWithOverrun() {
+		BitSet changed = new BitSet(16);
+		changed.set(1);
+		changed.set(2);
+
+		BitSet remote = new BitSet(200);
+		remote.set(2);
+		remote.set(3);
+		remote.set(150);
+
+		BitSet overrun = new BitSet(16);
+		overrun.set(0);
+
+		// compare with or_and + or
+		BitSet expectedChanged = (BitSet)changed.clone();
+		BitSet expectedOverrun = (BitSet)overrun.clone();
+		expectedOverrun.or_and(expectedChanged, remote);
+		expectedChanged.or(remote);
+
+		changed.orWithOverrun(remote, overrun);
+		assertEquals(expectedChanged, changed);
+		assertEquals(expectedOverrun, overrun);
+		assertEquals(3, overrun.length());
+
+		// no overrun
+		overrun.clear();
+		BitSet other = new BitSet(16);
+		other.set(4);
+		changed.orWithOverrun(other, overrun);
+		assertTrue(overrun.isEmpty());
+		assertTrue(changed.get(4));
+	}
+
+	public void testFixedCapacity() {
+		BitSet fixed = new BitSet(100, true);
+		assertTrue(fixed.isFixedCapacity());
+		final long[] words = fixed.getBitArray();
+		fixed.set(127);
+		fixed.set(0, 100);
+
+		BitSet src = new BitSet(128);
+		src.set(5);
+		fixed.set(src);
+		fixed.or(src);
+		fixed.orWithOverrun(src, new BitSet(128, true));
+		assertSame(words, fixed.getBitArray());
+
+		try {
+			fixed.set(128);
+			fail("fixed capacity exceeded");
+		} catch (IndexOutOfBoundsException ioobe) {
+			// OK
+		}
+
+		BitSet large = new BitSet(256);
+		large.set(255);
+		try {
+			fixed.or(large);
+			fail("fixed capacity exceeded");
+		} catch (IndexOutOfBoundsException ioobe) {
+			// OK
+		}
+		assertSame(words, fixed.getBitArray());
+	}
+
 	static class SerControl implements SerializableControl, DeserializableControl
 	{
 
@@ -117,6 +214,7 @@ public class BitSetTest extends TestCase {
 			BitSet s1 = new BitSet();
 			if (i >= 0) s1.set(i);
 			s1.serialize(b, t);
+			assertEquals(b.position(), s1.getSerializedSize());
 			
 			b.flip();
 			
@@ -126,4 +224,57 @@ public class BitSetTest extends TestCase {
 			assertEquals(s1, s2);
 		}		
 	}
+
+	public void testBitSetDeserializationReuse()
+	{
+		ByteBuffer b = ByteBuffer.allocate(129+1);
+		SerControl t = new SerControl();
+
+		BitSet large = new BitSet(1024);
+		large.set(1000);
+		large.set(3);
+		BitSet small = new BitSet(1024);
+		small.set(5);
+
+		BitSet s = new BitSet(1024, true);
+		large.serialize(b, t);
+		small.serialize(b, t);
+		b.flip();
+
+		s.deserialize(b, t);
+		assertEquals(large, s);
+
+		// no stale bits from previous deserialization
+		s.deserialize(b, t);
+		assertEquals(small, s);
+		s.set(999);
+		assertFalse(s.get(1000));
+	}
+
+	public void testFixedCapacityDeserializationOverflow()
+	{
+		ByteBuffer b = ByteBuffer.allocate(129+1);
+		SerControl t = new SerControl();
+
+		BitSet large = new BitSet(256);
+		large.set(255);
+		large.serialize(b, t);
+		b.flip();
+
+		BitSet fixed = new BitSet(128, true);
+		fixed.set(3);
+		fixed.set(127);
+		BitSet expected = (BitSet)fixed.clone();
+		try {
+			fixed.deserialize(b, t);
+			fail("fixed capacity exceeded");
+		} catch (IndexOutOfBoundsException ioobe) {
+			// OK
+		}
+
+		// set is left intact
+		assertEquals(expected, fixed);
+		assertEquals(128, fixed.length());
+		assertEquals(2, fixed.cardinality());
+	}
 }
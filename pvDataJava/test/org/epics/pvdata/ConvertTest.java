@@ -8,8 +8,12 @@ package org.epics.pvdata;
 import junit.framework.TestCase;
 
 import org.epics.pvdata.factory.ConvertFactory;
+import org.epics.pvdata.factory.FieldFactory;
 import org.epics.pvdata.factory.PVDataFactory;
 import org.epics.pvdata.pv.Convert;
+import org.epics.pvdata.pv.DoubleArrayData;
+import org.epics.pvdata.pv.FieldCreate;
+import org.epics.pvdata.pv.IntArrayData;
 import org.epics.pvdata.pv.PVByte;
 import org.epics.pvdata.pv.PVByteArray;
 import org.epics.pvdata.pv.PVDataCreate;
@@ -23,6 +27,8 @@ import org.epics.pvdata.pv.PVLong;
 import org.epics.pvdata.pv.PVLongArray;
 import org.epics.pvdata.pv.PVShort;
 import org.epics.pvdata.pv.PVShortArray;
+import org.epics.pvdata.pv.PVString;
+import org.epics.pvdata.pv.PVStructure;
 import org.epics.pvdata.pv.PVUByte;
 import org.epics.pvdata.pv.PVUByteArray;
 import org.epics.pvdata.pv.PVUInt;
@@ -32,6 +38,8 @@ import org.epics.pvdata.pv.PVULongArray;
 import org.epics.pvdata.pv.PVUShort;
 import org.epics.pvdata.pv.PVUShortArray;
 import org.epics.pvdata.pv.ScalarType;
+import org.epics.pvdata.pv.ShortArrayData;
+import org.epics.pvdata.pv.Structure;
 
 /**
  * JUnit test for BitSet.
@@ -499,4 +507,251 @@ public class ConvertTest extends TestCase {
         convert.copyScalarArray(pvULong,0, pvDouble,0,length);
         print("double from unsigned " +pvDouble.toString());
 	}
+
+	public void testConvertScalarArrayBulk() {
+        PVDoubleArray pvDouble = (PVDoubleArray)pvDataCreate.createPVScalarArray(ScalarType.pvDouble);
+        PVUIntArray pvUInt = (PVUIntArray)pvDataCreate.createPVScalarArray(ScalarType.pvUInt);
+        PVShortArray pvShort = (PVShortArray)pvDataCreate.createPVScalarArray(ScalarType.pvShort);
+        DoubleArrayData doubleData = new DoubleArrayData();
+        IntArrayData intData = new IntArrayData();
+        ShortArrayData shortData = new ShortArrayData();
+
+        int length = 100000;
+        int[] iarray = new int[length];
+        for (int i = 0; i < length; i++) iarray[i] = i - length/2;
+        assertEquals(length, convert.fromIntArray(pvDouble, 0, length, iarray, 0));
+        assertEquals(length, pvDouble.getLength());
+        pvDouble.get(0, length, doubleData);
+        for (int i = 0; i < length; i++) assertEquals((double)iarray[i], doubleData.data[i]);
+
+        // offsets, array is extended
+        assertEquals(2, convert.fromIntArray(pvDouble, length, 2, iarray, 1));
+        assertEquals(length + 2, pvDouble.getLength());
+        pvDouble.get(0, length + 2, doubleData);
+        assertEquals((double)iarray[length - 1], doubleData.data[length - 1]);
+        assertEquals((double)iarray[1], doubleData.data[length]);
+        assertEquals((double)iarray[2], doubleData.data[length + 1]);
+
+        // unsigned sources are widened
+        byte[] barray = new byte[] { -1, -128, 127, 0 };
+        convert.fromUByteArray(pvShort, 0, barray.length, barray, 0);
+        pvShort.get(0, barray.length, shortData);
+        assertEquals(255, shortData.data[0]);
+        assertEquals(128, shortData.data[1]);
+        assertEquals(127, shortData.data[2]);
+        convert.fromByteArray(pvShort, 0, barray.length, barray, 0);
+        assertEquals(-1, shortData.data[0]);
+        int[] uarray = new int[] { -1, Integer.MIN_VALUE };
+        convert.fromUIntArray(pvDouble, 0, uarray.length, uarray, 0);
+        pvDouble.get(0, uarray.length, doubleData);
+        assertEquals(4294967295.0, doubleData.data[0]);
+        assertEquals(2147483648.0, doubleData.data[1]);
+        long[] larray = new long[] { -1L, Long.MIN_VALUE };
+        convert.fromULongArray(pvDouble, 0, larray.length, larray, 0);
+        assertEquals(18446744073709551615.0, doubleData.data[0]);
+        assertEquals(9223372036854775808.0, doubleData.data[1]);
+
+        // floating point to unsigned is clamped
+        double[] darray = new double[] { -1.0, 4294967295.0, 1e10, 2.5 };
+        convert.fromDoubleArray(pvUInt, 0, darray.length, darray, 0);
+        pvUInt.get(0, darray.length, intData);
+        assertEquals(0, intData.data[0]);
+        assertEquals(-1, intData.data[1]);
+        assertEquals(-1, intData.data[2]);
+        assertEquals(2, intData.data[3]);
+
+        // copy between arrays of different types
+        PVFloatArray pvFloat = (PVFloatArray)pvDataCreate.createPVScalarArray(ScalarType.pvFloat);
+        assertEquals(4, convert.copyScalarArray(pvUInt, 0, pvFloat, 0, 4));
+        float[] farray = new float[4];
+        assertEquals(4, convert.toFloatArray(pvFloat, 0, 4, farray, 0));
+        assertEquals(0.0f, farray[0]);
+        assertEquals(4294967295.0f, farray[1]);
+        assertEquals(2.0f, farray[3]);
+
+        // conversion to Java arrays, unsigned sources are widened
+        PVIntArray pvInt = (PVIntArray)pvDataCreate.createPVScalarArray(ScalarType.pvInt);
+        pvInt.put(0, length, iarray, 0);
+        double[] dresult = new double[length + 1];
+        assertEquals(length, convert.toDoubleArray(pvInt, 0, length, dresult, 1));
+        byte[] bresult = new byte[length];
+        assertEquals(length, convert.toByteArray(pvInt, 0, length, bresult, 0));
+        for (int i = 0; i < length; i++) {
+            assertEquals((double)iarray[i], dresult[i + 1]);
+            assertEquals((byte)iarray[i], bresult[i]);
+        }
+        PVUShortArray pvUShort = (PVUShortArray)pvDataCreate.createPVScalarArray(ScalarType.pvUShort);
+        pvUShort.put(0, 3, new short[] { -1, Short.MIN_VALUE, 1 }, 0);
+        int[] iresult = new int[3];
+        assertEquals(3, convert.toIntArray(pvUShort, 0, 3, iresult, 0));
+        assertEquals(65535, iresult[0]);
+        assertEquals(32768, iresult[1]);
+        assertEquals(1, iresult[2]);
+        PVULongArray pvULong = (PVULongArray)pvDataCreate.createPVScalarArray(ScalarType.pvULong);
+        pvULong.put(0, larray.length, larray, 0);
+        assertEquals(2, convert.toDoubleArray(pvULong, 0, 2, dresult, 0));
+        assertEquals(18446744073709551615.0, dresult[0]);
+        assertEquals(9223372036854775808.0, dresult[1]);
+	}
+
+	private static Structure createCopyStructure(FieldCreate fieldCreate) {
+	    return fieldCreate.createFieldBuilder().
+	        add("value", ScalarType.pvDouble).
+	        addArray("array", ScalarType.pvInt).
+	        add("name", ScalarType.pvString).
+	        addNestedStructure("alarm").
+	            add("severity", ScalarType.pvInt).
+	            add("message", ScalarType.pvString).
+	            endNested().
+	        addNestedStructureArray("items").
+	            add("count", ScalarType.pvULong).
+	            endNested().
+	        createStructure();
+	}
+
+	public void testCopyStructure() {
+	    FieldCreate fieldCreate = FieldFactory.getFieldCreate();
+	    Structure structure = createCopyStructure(fieldCreate);
+	    PVStructure pvFrom = pvDataCreate.createPVStructure(structure);
+	    PVStructure pvTo = pvDataCreate.createPVStructure(structure);
+	    pvFrom.getSubField(PVDouble.class, "value").put(1.5);
+	    pvFrom.getSubField(PVIntArray.class, "array").put(0, 3, new int[] { 1, 2, 3 }, 0);
+	    pvFrom.getSubField(PVString.class, "name").put("name");
+	    pvFrom.getSubField(PVInt.class, "alarm.severity").put(2);
+	    pvFrom.getSubField(PVString.class, "alarm.message").put("major");
+	    convert.copy(pvFrom, pvTo);
+	    assertEquals(pvFrom, pvTo);
+
+	    // shorter array, destination is truncated
+	    pvFrom.getSubField(PVIntArray.class, "array").setLength(1);
+	    pvFrom.getSubField(PVDouble.class, "value").put(2.5);
+	    convert.copy(pvFrom, pvTo);
+	    assertEquals(pvFrom, pvTo);
+	    assertEquals(1, pvTo.getSubField(PVIntArray.class, "array").getLength());
+
+	    // data of an immutable array is shared
+	    PVIntArray pvFromArray = pvFrom.getSubField(PVIntArray.class, "array");
+	    pvFromArray.put(0, 3, new int[] { 4, 5, 6 }, 0);
+	    pvFromArray.setImmutable();
+	    convert.copy(pvFrom, pvTo);
+	    IntArrayData fromData = new IntArrayData();
+	    IntArrayData toData = new IntArrayData();
+	    pvFromArray.get(0, 3, fromData);
+	    pvTo.getSubField(PVIntArray.class, "array").get(0, 3, toData);
+	    assertSame(fromData.data, toData.data);
+
+	    // equal structure, but a different instance
+	    PVStructure pvOther = pvDataCreate.createPVStructure(createCopyStructure(fieldCreate));
+	    convert.copy(pvFrom, pvOther);
+	    assertEquals(pvFrom, pvOther);
+
+	    // immutable destination
+	    pvTo.setImmutable();
+	    convert.copy(pvFrom, pvTo);
+	    pvFrom.getSubField(PVDouble.class, "value").put(3.5);
+	    try {
+	        convert.copy(pvFrom, pvTo);
+	        fail("copy to immutable structure");
+	    } catch (IllegalArgumentException e) {
+	        // OK
+	    }
+	}
+
+	public void testCopyIntoExistingArray() {
+	    PVDoubleArray pvFrom = (PVDoubleArray)pvDataCreate.createPVScalarArray(ScalarType.pvDouble);
+	    PVDoubleArray pvTo = (PVDoubleArray)pvDataCreate.createPVScalarArray(ScalarType.pvDouble);
+	    assertFalse(pvTo.isShareOnCopy());
+	    pvFrom.put(0, 4, new double[] { 1, 2, 3, 4 }, 0);
+	    pvTo.setLength(4);
+	    DoubleArrayData fromData = new DoubleArrayData();
+	    DoubleArrayData toData = new DoubleArrayData();
+	    pvTo.get(0, 4, toData);
+	    final double[] toValue = toData.data;
+
+	    // by default the elements are copied into the existing value array
+	    assertEquals(4, convert.copyScalarArray(pvFrom, 0, pvTo, 0, 4));
+	    assertEquals(pvFrom, pvTo);
+	    pvFrom.get(0, 4, fromData);
+	    pvTo.get(0, 4, toData);
+	    assertNotSame(fromData.data, toData.data);
+	    assertSame(toValue, toData.data);
+
+	    Structure structure = createCopyStructure(FieldFactory.getFieldCreate());
+	    PVStructure pvFromStructure = pvDataCreate.createPVStructure(structure);
+	    PVStructure pvToStructure = pvDataCreate.createPVStructure(structure);
+	    pvFromStructure.getSubField(PVIntArray.class, "array").put(0, 3, new int[] { 1, 2, 3 }, 0);
+	    convert.copy(pvFromStructure, pvToStructure);
+	    IntArrayData fromIntData = new IntArrayData();
+	    IntArrayData toIntData = new IntArrayData();
+	    pvFromStructure.getSubField(PVIntArray.class, "array").get(0, 3, fromIntData);
+	    pvToStructure.getSubField(PVIntArray.class, "array").get(0, 3, toIntData);
+	    assertNotSame(fromIntData.data, toIntData.data);
+	    assertEquals(pvFromStructure, pvToStructure);
+
+	    // opted in
+	    pvToStructure.getSubField(PVIntArray.class, "array").setShareOnCopy(true);
+	    pvFromStructure.getSubField(PVIntArray.class, "array").put(0, 1, new int[] { 10 }, 0);
+	    convert.copy(pvFromStructure, pvToStructure);
+	    pvFromStructure.getSubField(PVIntArray.class, "array").get(0, 3, fromIntData);
+	    pvToStructure.getSubField(PVIntArray.class, "array").get(0, 3, toIntData);
+	    assertSame(fromIntData.data, toIntData.data);
+	}
+
+	public void testCopyOnWrite() {
+	    PVDoubleArray pvFrom = (PVDoubleArray)pvDataCreate.createPVScalarArray(ScalarType.pvDouble);
+	    PVDoubleArray pvTo = (PVDoubleArray)pvDataCreate.createPVScalarArray(ScalarType.pvDouble);
+	    pvTo.setShareOnCopy(true);
+	    pvFrom.put(0, 4, new double[] { 1, 2, 3, 4 }, 0);
+	    assertEquals(4, convert.copyScalarArray(pvFrom, 0, pvTo, 0, 4));
+	    assertEquals(pvFrom, pvTo);
+	    DoubleArrayData fromData = new DoubleArrayData();
+	    DoubleArrayData toData = new DoubleArrayData();
+	    pvFrom.get(0, 4, fromData);
+	    pvTo.get(0, 4, toData);
+	    assertSame(fromData.data, toData.data);
+
+	    // a put to the destination does not change the source
+	    pvTo.put(1, 1, new double[] { 20 }, 0);
+	    pvTo.get(0, 4, toData);
+	    assertNotSame(fromData.data, toData.data);
+	    assertEquals(2.0, fromData.data[1]);
+	    assertEquals(20.0, toData.data[1]);
+	    assertEquals(4.0, toData.data[3]);
+
+	    // a put to the source does not change the destination
+	    convert.copyScalarArray(pvFrom, 0, pvTo, 0, 4);
+	    pvFrom.put(0, 1, new double[] { 10 }, 0);
+	    pvFrom.get(0, 4, fromData);
+	    pvTo.get(0, 4, toData);
+	    assertNotSame(fromData.data, toData.data);
+	    assertEquals(10.0, fromData.data[0]);
+	    assertEquals(1.0, toData.data[0]);
+
+	    // growing a shared array
+	    convert.copyScalarArray(pvFrom, 0, pvTo, 0, 4);
+	    pvTo.put(4, 1, new double[] { 5 }, 0);
+	    assertEquals(4, pvFrom.getLength());
+	    assertEquals(5, pvTo.getLength());
+	    pvTo.get(0, 5, toData);
+	    assertEquals(10.0, toData.data[0]);
+
+	    // partial copy and conversion copy the elements
+	    convert.copyScalarArray(pvFrom, 1, pvTo, 0, 3);
+	    pvTo.get(0, 3, toData);
+	    assertNotSame(fromData.data, toData.data);
+	    PVIntArray pvInt = (PVIntArray)pvDataCreate.createPVScalarArray(ScalarType.pvInt);
+	    pvInt.setShareOnCopy(true);
+	    assertEquals(4, convert.copyScalarArray(pvFrom, 0, pvInt, 0, 4));
+	    IntArrayData intData = new IntArrayData();
+	    pvInt.get(0, 4, intData);
+	    assertEquals(10, intData.data[0]);
+
+	    // fixed size destination of a different capacity is copied into
+	    PVDoubleArray pvFixed = (PVDoubleArray)pvDataCreate.createPVScalarArray(
+	            FieldFactory.getFieldCreate().createFixedScalarArray(ScalarType.pvDouble, 2));
+	    pvFixed.setShareOnCopy(true);
+	    assertEquals(2, convert.copyScalarArray(pvFrom, 0, pvFixed, 0, 2));
+	    pvFixed.get(0, 2, toData);
+	    assertNotSame(fromData.data, toData.data);
+	}
 }
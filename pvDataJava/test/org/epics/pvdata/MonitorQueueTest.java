@@ -0,0 +1,134 @@
+/*
+ * Copyright information and license terms for this software can be
+ * found in the file LICENSE that is included with the distribution
+ */
+package org.epics.pvdata;
+
+import junit.framework.TestCase;
+
+import org.epics.pvdata.factory.PVDataFactory;
+import org.epics.pvdata.factory.StandardFieldFactory;
+import org.epics.pvdata.monitor.MonitorElement;
+import org.epics.pvdata.monitor.MonitorQueue;
+import org.epics.pvdata.monitor.MonitorQueueFactory;
+import org.epics.pvdata.pv.PVDataCreate;
+import org.epics.pvdata.pv.PVLong;
+import org.epics.pvdata.pv.ScalarType;
+import org.epics.pvdata.pv.StandardField;
+import org.epics.pvdata.pv.Structure;
+
+/**
+ * JUnit test for MonitorQueue.
+ */
+public class MonitorQueueTest extends TestCase {
+    private static final PVDataCreate pvDataCreate = PVDataFactory.getPVDataCreate();
+    private static final StandardField standardField = StandardFieldFactory.getStandardField();
+
+    private static MonitorElement[] createElements(int queueSize) {
+        Structure structure = standardField.scalar(ScalarType.pvLong,"timeStamp");
+        MonitorElement[] monitorElements = new MonitorElement[queueSize];
+        for(int i=0; i<queueSize; i++) {
+            monitorElements[i] = MonitorQueueFactory.createMonitorElement(pvDataCreate.createPVStructure(structure));
+        }
+        return monitorElements;
+    }
+
+    private static void queueTest(MonitorQueue queue) {
+        assertEquals(3,queue.capacity());
+        assertEquals(3,queue.getNumberFree());
+        assertNull(queue.getUsed());
+
+        MonitorElement first = queue.getFree();
+        MonitorElement second = queue.getFree();
+        MonitorElement third = queue.getFree();
+        assertNotNull(third);
+        assertNull(queue.getFree());
+        assertEquals(0,queue.getNumberFree());
+
+        queue.setUsed(first);
+        queue.setUsed(second);
+        assertSame(first,queue.getUsed());
+        queue.releaseUsed(first);
+        assertEquals(1,queue.getNumberFree());
+        assertSame(second,queue.getUsed());
+        queue.releaseUsed(second);
+        assertNull(queue.getUsed());
+
+        // wrap around
+        assertSame(first,queue.getFree());
+        queue.setUsed(third);
+        queue.setUsed(first);
+        assertSame(third,queue.getUsed());
+        queue.releaseUsed(third);
+        assertSame(first,queue.getUsed());
+        queue.releaseUsed(first);
+        assertEquals(3,queue.getNumberFree());
+
+        queue.getFree();
+        queue.clear();
+        assertEquals(3,queue.getNumberFree());
+        assertSame(first,queue.getFree());
+    }
+
+    public static void testQueue() {
+        queueTest(MonitorQueueFactory.create(createElements(3)));
+    }
+
+    public static void testLockFreeQueue() {
+        queueTest(MonitorQueueFactory.createLockFree(createElements(3)));
+
+        MonitorQueue queue = MonitorQueueFactory.createLockFree(createElements(2));
+        MonitorElement first = queue.getFree();
+        MonitorElement second = queue.getFree();
+        try {
+            queue.setUsed(second);
+            fail("setUsed out of order accepted");
+        } catch (IllegalStateException ise) {
+            // OK
+        }
+        queue.setUsed(first);
+        try {
+            queue.releaseUsed(first);
+            fail("releaseUsed before getUsed accepted");
+        } catch (IllegalStateException ise) {
+            // OK
+        }
+        assertSame(first,queue.getUsed());
+        queue.releaseUsed(first);
+    }
+
+    public static void testLockFreeQueueThreads() throws InterruptedException {
+        final int count = 1000000;
+        final MonitorQueue queue = MonitorQueueFactory.createLockFree(createElements(4));
+        final long[] received = new long[1];
+        final boolean[] inOrder = new boolean[] { true };
+        Thread consumer = new Thread(new Runnable() {
+            public void run() {
+                long expected = 0;
+                while(expected<count) {
+                    MonitorElement monitorElement = queue.getUsed();
+                    if(monitorElement==null) {
+                        Thread.yield();
+                        continue;
+                    }
+                    long value = monitorElement.getPVStructure().getSubField(PVLong.class,"value").get();
+                    if(value!=expected) inOrder[0] = false;
+                    expected++;
+                    queue.releaseUsed(monitorElement);
+                }
+                received[0] = expected;
+            }
+        });
+        consumer.start();
+        for(long i=0; i<count; i++) {
+            MonitorElement monitorElement;
+            while((monitorElement = queue.getFree())==null) Thread.yield();
+            monitorElement.getPVStructure().getSubField(PVLong.class,"value").put(i);
+            queue.setUsed(monitorElement);
+        }
+        consumer.join(60000);
+        assertEquals(count,received[0]);
+        assertTrue(inOrder[0]);
+        assertEquals(4,queue.getNumberFree());
+    }
+}
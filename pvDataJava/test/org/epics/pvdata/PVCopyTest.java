@@ -0,0 +1,244 @@
+/*
+ * Copyright information and license terms for this software can be
+ * found in the file LICENSE that is included with the distribution
+ */
+package org.epics.pvdata;
+
+import junit.framework.TestCase;
+
+import org.epics.pvdata.copy.CreateRequest;
+import org.epics.pvdata.copy.PVCopy;
+import org.epics.pvdata.copy.PVCopyFactory;
+import org.epics.pvdata.factory.ConvertFactory;
+import org.epics.pvdata.factory.PVDataFactory;
+import org.epics.pvdata.factory.StandardPVFieldFactory;
+import org.epics.pvdata.misc.BitSet;
+import org.epics.pvdata.monitor.MonitorElement;
+import org.epics.pvdata.monitor.MonitorQueueFactory;
+import org.epics.pvdata.pv.DoubleArrayData;
+import org.epics.pvdata.pv.PVDoubleArray;
+import org.epics.pvdata.pv.PVField;
+import org.epics.pvdata.pv.PVStructure;
+import org.epics.pvdata.pv.ScalarType;
+import org.epics.pvdata.pv.StandardPVField;
+
+/**
+ * JUnit test for PVCopy.
+ */
+public class PVCopyTest extends TestCase {
+    private static final StandardPVField standardPVField = StandardPVFieldFactory.getStandardPVField();
+    private static final CreateRequest createRequest = CreateRequest.create();
+
+    private static PVStructure createMaster() {
+        PVStructure pvMaster = standardPVField.scalar(ScalarType.pvDouble,"alarm,timeStamp,display");
+        pvMaster.getDoubleField("value").put(1.0);
+        pvMaster.getIntField("alarm.severity").put(1);
+        pvMaster.getStringField("alarm.message").put("alarm");
+        pvMaster.getLongField("timeStamp.secondsPastEpoch").put(100);
+        pvMaster.getStringField("display.units").put("mm");
+        return pvMaster;
+    }
+
+    private static int offset(PVStructure pvStructure,String fieldName) {
+        return pvStructure.getSubField(fieldName).getFieldOffset();
+    }
+
+    public static void testUpdateCopyFromMasterBitSet() {
+        PVStructure pvMaster = createMaster();
+        PVCopy pvCopy = PVCopyFactory.create(pvMaster,
+            createRequest.createRequest("value,alarm.severity,timeStamp"),"");
+        assertNotNull(pvCopy);
+        PVStructure pvCopyStructure = pvCopy.createPVStructure();
+        BitSet bitSet = new BitSet(pvCopyStructure.getNumberFields());
+        pvCopy.initCopy(pvCopyStructure,bitSet);
+        assertEquals(1.0,pvCopyStructure.getDoubleField("value").get());
+        assertNull(pvCopyStructure.getSubField("alarm.message"));
+        assertNull(pvCopyStructure.getSubField("display"));
+
+        BitSet masterBitSet = new BitSet(pvMaster.getNumberFields());
+
+        // leaf in copy
+        pvMaster.getDoubleField("value").put(2.0);
+        masterBitSet.set(offset(pvMaster,"value"));
+        bitSet.clear();
+        pvCopy.updateCopyFromMasterBitSet(pvCopyStructure,masterBitSet,bitSet);
+        assertEquals(2.0,pvCopyStructure.getDoubleField("value").get());
+        BitSet expected = new BitSet();
+        expected.set(offset(pvCopyStructure,"value"));
+        assertEquals(expected,bitSet);
+
+        // fields not in copy
+        masterBitSet.clear();
+        pvMaster.getStringField("alarm.message").put("changed");
+        masterBitSet.set(offset(pvMaster,"alarm.message"));
+        masterBitSet.set(offset(pvMaster,"display"));
+        bitSet.clear();
+        pvCopy.updateCopyFromMasterBitSet(pvCopyStructure,masterBitSet,bitSet);
+        assertTrue(bitSet.isEmpty());
+
+        // structure partially in copy, only its copied subfields are updated
+        masterBitSet.clear();
+        pvMaster.getIntField("alarm.severity").put(2);
+        masterBitSet.set(offset(pvMaster,"alarm"));
+        bitSet.clear();
+        pvCopy.updateCopyFromMasterBitSet(pvCopyStructure,masterBitSet,bitSet);
+        assertEquals(2,pvCopyStructure.getIntField("alarm.severity").get());
+        expected.clear();
+        expected.set(offset(pvCopyStructure,"alarm.severity"));
+        assertEquals(expected,bitSet);
+
+        // structure entirely in copy
+        masterBitSet.clear();
+        pvMaster.getLongField("timeStamp.secondsPastEpoch").put(200);
+        masterBitSet.set(offset(pvMaster,"timeStamp.secondsPastEpoch"));
+        masterBitSet.set(offset(pvMaster,"timeStamp"));
+        bitSet.clear();
+        pvCopy.updateCopyFromMasterBitSet(pvCopyStructure,masterBitSet,bitSet);
+        assertEquals(200,pvCopyStructure.getLongField("timeStamp.secondsPastEpoch").get());
+        expected.clear();
+        expected.set(offset(pvCopyStructure,"timeStamp"));
+        assertEquals(expected,bitSet);
+
+        // entire master
+        masterBitSet.clear();
+        pvMaster.getDoubleField("value").put(3.0);
+        pvMaster.getIntField("alarm.severity").put(3);
+        masterBitSet.set(0);
+        bitSet.clear();
+        pvCopy.updateCopyFromMasterBitSet(pvCopyStructure,masterBitSet,bitSet);
+        assertEquals(3.0,pvCopyStructure.getDoubleField("value").get());
+        assertEquals(3,pvCopyStructure.getIntField("alarm.severity").get());
+        expected.clear();
+        expected.set(offset(pvCopyStructure,"value"));
+        expected.set(offset(pvCopyStructure,"alarm.severity"));
+        expected.set(offset(pvCopyStructure,"timeStamp"));
+        assertEquals(expected,bitSet);
+    }
+
+    public static void testUpdateCopyFromMasterBitSetEntireMaster() {
+        PVStructure pvMaster = createMaster();
+        PVCopy pvCopy = PVCopyFactory.create(pvMaster,createRequest.createRequest(""),"");
+        PVStructure pvCopyStructure = pvCopy.createPVStructure();
+        BitSet bitSet = new BitSet(pvCopyStructure.getNumberFields());
+        pvCopy.initCopy(pvCopyStructure,bitSet);
+
+        BitSet masterBitSet = new BitSet(pvMaster.getNumberFields());
+        pvMaster.getStringField("display.units").put("m");
+        masterBitSet.set(offset(pvMaster,"display.units"));
+        bitSet.clear();
+        pvCopy.updateCopyFromMasterBitSet(pvCopyStructure,masterBitSet,bitSet);
+        assertEquals("m",pvCopyStructure.getStringField("display.units").get());
+        assertEquals(1,bitSet.cardinality());
+        assertTrue(bitSet.get(offset(pvCopyStructure,"display.units")));
+
+        masterBitSet.clear();
+        masterBitSet.set(0);
+        pvMaster.getDoubleField("value").put(5.0);
+        bitSet.clear();
+        pvCopy.updateCopyFromMasterBitSet(pvCopyStructure,masterBitSet,bitSet);
+        assertEquals(5.0,pvCopyStructure.getDoubleField("value").get());
+        assertTrue(bitSet.get(0));
+        assertEquals(pvMaster,pvCopyStructure);
+    }
+
+    public static void testSameAsUpdateCopySetBitSet() {
+        PVStructure pvMaster = createMaster();
+        PVStructure pvRequest = createRequest.createRequest("value,alarm,display.units");
+        PVCopy pvCopy1 = PVCopyFactory.create(pvMaster,pvRequest,"");
+        PVCopy pvCopy2 = PVCopyFactory.create(pvMaster,pvRequest,"");
+        PVStructure pvCopyStructure1 = pvCopy1.createPVStructure();
+        PVStructure pvCopyStructure2 = pvCopy2.createPVStructure();
+        BitSet bitSet1 = new BitSet(pvCopyStructure1.getNumberFields());
+        BitSet bitSet2 = new BitSet(pvCopyStructure2.getNumberFields());
+        pvCopy1.initCopy(pvCopyStructure1,bitSet1);
+        pvCopy2.initCopy(pvCopyStructure2,bitSet2);
+
+        BitSet masterBitSet = new BitSet(pvMaster.getNumberFields());
+        for(PVField pvField : new PVField[] {
+                pvMaster.getSubField("value"),
+                pvMaster.getSubField("alarm.status"),
+                pvMaster.getSubField("display.units"),
+                pvMaster.getSubField("display.description")}) {
+            masterBitSet.set(pvField.getFieldOffset());
+        }
+        pvMaster.getDoubleField("value").put(7.0);
+        pvMaster.getIntField("alarm.status").put(1);
+        pvMaster.getStringField("display.units").put("um");
+        pvMaster.getStringField("display.description").put("not in copy");
+
+        bitSet1.clear();
+        bitSet2.clear();
+        pvCopy1.updateCopySetBitSet(pvCopyStructure1,bitSet1);
+        pvCopy2.updateCopyFromMasterBitSet(pvCopyStructure2,masterBitSet,bitSet2);
+        assertEquals(pvCopyStructure1,pvCopyStructure2);
+        assertEquals(bitSet1,bitSet2);
+    }
+
+    public static void testUpdateCopyFromBitSetEntireCopy() {
+        PVStructure pvMaster = createMaster();
+        PVCopy pvCopy = PVCopyFactory.create(pvMaster,
+            createRequest.createRequest("value,alarm.severity,display.units"),"");
+        PVStructure pvCopyStructure = pvCopy.createPVStructure();
+        BitSet bitSet = new BitSet(pvCopyStructure.getNumberFields());
+        pvCopy.initCopy(pvCopyStructure,bitSet);
+        assertEquals(pvCopyStructure.getNumberFields(),bitSet.cardinality());
+        assertEquals(1,pvCopyStructure.getIntField("alarm.severity").get());
+        assertEquals("mm",pvCopyStructure.getStringField("display.units").get());
+
+        pvMaster.getDoubleField("value").put(3.0);
+        pvMaster.getIntField("alarm.severity").put(2);
+        pvMaster.getStringField("display.units").put("m");
+        bitSet.clear();
+        bitSet.set(0);
+        pvCopy.updateCopyFromBitSet(pvCopyStructure,bitSet);
+        assertEquals(3.0,pvCopyStructure.getDoubleField("value").get());
+        assertEquals(2,pvCopyStructure.getIntField("alarm.severity").get());
+        assertEquals("m",pvCopyStructure.getStringField("display.units").get());
+        assertEquals(pvCopyStructure.getNumberFields(),bitSet.cardinality());
+    }
+
+    private static double[] data(PVStructure pvStructure) {
+        PVDoubleArray pvValue = pvStructure.getSubField(PVDoubleArray.class,"value");
+        DoubleArrayData data = new DoubleArrayData();
+        pvValue.get(0,pvValue.getLength(),data);
+        return data.data;
+    }
+
+    public static void testWaveformNotCopied() {
+        // 4 MB waveform
+        final int length = 512*1024;
+        PVStructure pvMaster = standardPVField.scalarArray(ScalarType.pvDouble,"alarm,timeStamp");
+        double[] waveform = new double[length];
+        for(int i=0; i<length; i++) waveform[i] = i;
+        pvMaster.getSubField(PVDoubleArray.class,"value").put(0,length,waveform,0);
+        double[] masterData = data(pvMaster);
+
+        // master to copy
+        PVCopy pvCopy = PVCopyFactory.create(pvMaster,createRequest.createRequest(""),"");
+        PVStructure pvCopyStructure = pvCopy.createPVStructure();
+        BitSet bitSet = new BitSet(pvCopyStructure.getNumberFields());
+        pvCopy.initCopy(pvCopyStructure,bitSet);
+        assertSame(masterData,data(pvCopyStructure));
+
+        // copy to monitor element, as a monitor queue does
+        MonitorElement element = MonitorQueueFactory.createMonitorElement(
+                PVDataFactory.getPVDataCreate().createPVStructure(pvCopyStructure.getStructure()));
+        ConvertFactory.getConvert().copy(pvCopyStructure,element.getPVStructure());
+        assertSame(masterData,data(element.getPVStructure()));
+
+        // new master waveform does not change the copies
+        waveform[0] = -1;
+        pvMaster.getSubField(PVDoubleArray.class,"value").put(0,length,waveform,0);
+        assertNotSame(masterData,data(pvMaster));
+        assertEquals(-1.0,data(pvMaster)[0]);
+        assertEquals(0.0,data(pvCopyStructure)[0]);
+        assertEquals(0.0,data(element.getPVStructure())[0]);
+        assertEquals(length,element.getPVStructure().getSubField(PVDoubleArray.class,"value").getLength());
+
+        bitSet.clear();
+        pvCopy.updateCopySetBitSet(pvCopyStructure,bitSet);
+        assertSame(data(pvMaster),data(pvCopyStructure));
+        assertEquals(-1.0,data(pvCopyStructure)[0]);
+        assertEquals(0.0,data(element.getPVStructure())[0]);
+    }
+}
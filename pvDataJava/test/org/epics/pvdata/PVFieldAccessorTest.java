@@ -0,0 +1,106 @@
+/*
+ * Copyright information and license terms for this software can be
+ * found in the file LICENSE that is included with the distribution
+ */
+package org.epics.pvdata;
+
+import junit.framework.TestCase;
+
+import org.epics.pvdata.factory.PVDataFactory;
+import org.epics.pvdata.factory.PVFieldAccessorFactory;
+import org.epics.pvdata.factory.StandardFieldFactory;
+import org.epics.pvdata.pv.PVDataCreate;
+import org.epics.pvdata.pv.PVDouble;
+import org.epics.pvdata.pv.PVDoubleArray;
+import org.epics.pvdata.pv.PVFieldAccessor;
+import org.epics.pvdata.pv.PVInt;
+import org.epics.pvdata.pv.PVString;
+import org.epics.pvdata.pv.PVStructure;
+import org.epics.pvdata.pv.Scalar;
+import org.epics.pvdata.pv.ScalarType;
+import org.epics.pvdata.pv.StandardField;
+import org.epics.pvdata.pv.Structure;
+
+/**
+ * JUnit test for PVFieldAccessor.
+ */
+public class PVFieldAccessorTest extends TestCase {
+    private static final PVDataCreate pvDataCreate = PVDataFactory.getPVDataCreate();
+    private static final StandardField standardField = StandardFieldFactory.getStandardField();
+
+    public static void testScalar() {
+        Structure structure = standardField.scalar(ScalarType.pvDouble, "alarm,timeStamp");
+        PVFieldAccessor value = PVFieldAccessorFactory.create(structure, "value");
+        PVFieldAccessor severity = PVFieldAccessorFactory.create(structure, "alarm.severity");
+        PVFieldAccessor message = PVFieldAccessorFactory.create(structure, "alarm.message");
+        assertEquals("alarm.severity", severity.getFieldName());
+        assertSame(structure, severity.getStructure());
+        assertSame(ScalarType.pvInt, ((Scalar)severity.getField()).getScalarType());
+
+        // the same accessor works with every instance of the structure
+        for(int i=0; i<3; i++) {
+            PVStructure pvStructure = pvDataCreate.createPVStructure(structure);
+            pvStructure.getDoubleField("value").put(10.5 + i);
+            pvStructure.getIntField("alarm.severity").put(i);
+            pvStructure.getStringField("alarm.message").put("message " + i);
+
+            assertSame(pvStructure.getSubField("alarm.severity"), severity.get(pvStructure));
+            assertSame(pvStructure.getDoubleField("value"), value.get(PVDouble.class, pvStructure));
+            assertNull(value.get(PVInt.class, pvStructure));
+            assertEquals(10.5 + i, value.getDouble(pvStructure));
+            assertEquals(10 + i, value.getInt(pvStructure));
+            assertEquals(i, severity.getInt(pvStructure));
+            assertEquals((long)i, severity.getLong(pvStructure));
+            assertEquals((double)i, severity.getDouble(pvStructure));
+            assertEquals("message " + i, message.getString(pvStructure));
+            assertEquals("message " + i, message.get(PVString.class, pvStructure).get());
+        }
+    }
+
+    public static void testScalarArray() {
+        Structure structure = standardField.scalarArray(ScalarType.pvDouble, "alarm");
+        PVStructure pvStructure = pvDataCreate.createPVStructure(structure);
+        double[] data = {1.0, 2.0, 3.0};
+        pvStructure.getSubField(PVDoubleArray.class, "value").put(0, data.length, data, 0);
+
+        PVFieldAccessor value = PVFieldAccessorFactory.create(structure, "value");
+        assertEquals(3, value.getLength(pvStructure));
+        double[] doubles = new double[3];
+        assertEquals(3, value.toDoubleArray(pvStructure, 0, 3, doubles, 0));
+        assertEquals(2.0, doubles[1]);
+        long[] longs = new long[2];
+        assertEquals(2, value.toLongArray(pvStructure, 1, 2, longs, 0));
+        assertEquals(3L, longs[1]);
+
+        try {
+            value.getDouble(pvStructure);
+            fail("scalar array accessed as scalar");
+        } catch (IllegalArgumentException iae) {
+            // OK
+        }
+        try {
+            PVFieldAccessorFactory.create(structure, "alarm.severity").getLength(pvStructure);
+            fail("scalar accessed as scalar array");
+        } catch (IllegalArgumentException iae) {
+            // OK
+        }
+    }
+
+    public static void testInvalid() {
+        Structure structure = standardField.scalar(ScalarType.pvDouble, "alarm");
+        assertNull(PVFieldAccessorFactory.create(structure, "noSuchField"));
+        assertNull(PVFieldAccessorFactory.create(structure, "alarm.noSuchField"));
+        assertNull(PVFieldAccessorFactory.create(structure, "value.alarm"));
+        assertNull(PVFieldAccessorFactory.create(structure, "alarm."));
+        assertNull(PVFieldAccessorFactory.create(structure, ""));
+
+        PVFieldAccessor value = PVFieldAccessorFactory.create(structure, "value");
+        PVStructure other = pvDataCreate.createPVStructure(standardField.scalar(ScalarType.pvInt, "alarm"));
+        try {
+            value.get(other);
+            fail("accessor used with different structure");
+        } catch (IllegalArgumentException iae) {
+            // OK
+        }
+    }
+}
@@ -4,14 +4,20 @@
  */
 package org.epics.pvdata;
 
+import java.lang.ref.WeakReference;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 
 import junit.framework.TestCase;
 
+import org.epics.pvdata.factory.ConvertFactory;
 import org.epics.pvdata.factory.FieldFactory;
 import org.epics.pvdata.factory.PVDataFactory;
 import org.epics.pvdata.factory.StandardFieldFactory;
+import org.epics.pvdata.pv.ArrayChunkListener;
 import org.epics.pvdata.pv.DeserializableControl;
+import org.epics.pvdata.pv.DoubleArrayData;
+import org.epics.pvdata.pv.DirectSerializableControl;
 import org.epics.pvdata.pv.Field;
 import org.epics.pvdata.pv.FieldCreate;
 import org.epics.pvdata.pv.PVArray;
@@ -30,6 +36,7 @@ import org.epics.pvdata.pv.PVIntArray;
 import org.epics.pvdata.pv.PVLong;
 import org.epics.pvdata.pv.PVLongArray;
 import org.epics.pvdata.pv.PVScalar;
+import org.epics.pvdata.pv.PVScalarArray;
 import org.epics.pvdata.pv.PVShort;
 import org.epics.pvdata.pv.PVShortArray;
 import org.epics.pvdata.pv.PVString;
@@ -37,6 +44,7 @@ import org.epics.pvdata.pv.PVStringArray;
 import org.epics.pvdata.pv.PVStructure;
 import org.epics.pvdata.pv.PVStructureArray;
 import org.epics.pvdata.pv.PVUByte;
+import org.epics.pvdata.pv.PVUByteArray;
 import org.epics.pvdata.pv.PVUInt;
 import org.epics.pvdata.pv.PVULong;
 import org.epics.pvdata.pv.PVUShort;
@@ -46,6 +54,7 @@ import org.epics.pvdata.pv.Scalar;
 import org.epics.pvdata.pv.ScalarArray;
 import org.epics.pvdata.pv.ScalarType;
 import org.epics.pvdata.pv.SerializableControl;
+import org.epics.pvdata.pv.StreamingDeserializableControl;
 import org.epics.pvdata.pv.Structure;
 import org.epics.pvdata.pv.StructureArray;
 import org.epics.pvdata.pv.StructureArrayData;
@@ -483,6 +492,281 @@ public class SerializationTest extends TestCase {
 		// TODO unsigned
 	}
 	
+	/**
+	 * Deserialization into an array that shares its data (copy-on-write) must not change the other array.
+	 */
+	public void testDeserializeSharedArray()
+	{
+		PVDataCreate factory = PVDataFactory.getPVDataCreate();
+
+		PVDoubleArray pvFrom = (PVDoubleArray)factory.createPVScalarArray(ScalarType.pvDouble);
+		pvFrom.put(0, 3, new double[] { 1, 2, 3 }, 0);
+		PVDoubleArray pvShared = (PVDoubleArray)factory.createPVScalarArray(ScalarType.pvDouble);
+		pvShared.setShareOnCopy(true);
+		ConvertFactory.getConvert().copyScalarArray(pvFrom, 0, pvShared, 0, 3);
+
+		PVDoubleArray pvNew = (PVDoubleArray)factory.createPVScalarArray(ScalarType.pvDouble);
+		pvNew.put(0, 3, new double[] { 4, 5, 6 }, 0);
+		ByteBuffer buffer = ByteBuffer.allocate(1 << 8);
+		pvNew.serialize(buffer, flusher);
+		buffer.flip();
+		pvShared.deserialize(buffer, control);
+
+		assertEquals(pvNew, pvShared);
+		DoubleArrayData data = new DoubleArrayData();
+		pvFrom.get(0, 3, data);
+		assertEquals(1.0, data.data[0]);
+		assertEquals(3.0, data.data[2]);
+	}
+
+	/**
+	 * Streaming control that makes data available in small pieces, as received from a socket.
+	 */
+	private static class StreamingControlImpl extends DeserializableControlImpl implements StreamingDeserializableControl {
+		final ByteBuffer buffer;
+		final int end;
+		final ArrayChunkListener listener;
+
+		StreamingControlImpl(ByteBuffer buffer, ArrayChunkListener listener) {
+			this.buffer = buffer;
+			this.end = buffer.limit();
+			this.listener = listener;
+			buffer.limit(Math.min(end, 1000));
+		}
+
+		@Override
+		public void ensureData(int size) {
+			buffer.limit(Math.min(end, buffer.limit() + 1000));
+		}
+
+		@Override
+		public ArrayChunkListener getArrayChunkListener() {
+			return listener;
+		}
+	}
+
+	public void testStreamingDeserialize()
+	{
+		final FieldCreate fieldCreate = FieldFactory.getFieldCreate();
+		final Structure structure = fieldCreate.createFieldBuilder().
+			addArray("value", ScalarType.pvDouble).
+			add("after", ScalarType.pvInt).
+			createStructure();
+		final int N = 100000;
+
+		PVStructure pvStructure = PVDataFactory.getPVDataCreate().createPVStructure(structure);
+		double[] values = new double[N];
+		for (int i = 0; i < N; i++)
+			values[i] = i;
+		pvStructure.getSubField(PVDoubleArray.class, "value").put(0, N, values, 0);
+		pvStructure.getSubField(PVInt.class, "after").put(12);
+
+		ByteBuffer buffer = ByteBuffer.allocate(N*8 + 16);
+		pvStructure.serialize(buffer, flusher);
+		buffer.flip();
+
+		final double[] received = new double[N];
+		final int[] chunks = new int[1];
+		final boolean[] ended = new boolean[1];
+		ArrayChunkListener listener = new ArrayChunkListener() {
+			final DoubleArrayData data = new DoubleArrayData();
+			int next = 0;
+
+			@Override
+			public boolean arrayStart(PVScalarArray pvArray, int length) {
+				assertEquals(N, length);
+				return true;
+			}
+
+			@Override
+			public void arrayChunk(PVScalarArray pvArray, int offset, int count) {
+				assertEquals(next, offset);
+				assertEquals(count, pvArray.getLength());
+				assertTrue(pvArray.getCapacity() < N);
+				((PVDoubleArray)pvArray).get(0, count, data);
+				System.arraycopy(data.data, data.offset, received, offset, count);
+				next += count;
+				chunks[0]++;
+			}
+
+			@Override
+			public void arrayEnd(PVScalarArray pvArray) {
+				assertEquals(N, next);
+				ended[0] = true;
+			}
+		};
+
+		PVStructure pvReceived = PVDataFactory.getPVDataCreate().createPVStructure(structure);
+		pvReceived.deserialize(buffer, new StreamingControlImpl(buffer, listener));
+		assertTrue(ended[0]);
+		assertTrue(chunks[0] > 1);
+		for (int i = 0; i < N; i++)
+			assertEquals(values[i], received[i]);
+		assertEquals(0, pvReceived.getSubField(PVDoubleArray.class, "value").getLength());
+		assertEquals(12, pvReceived.getSubField(PVInt.class, "after").get());
+		assertEquals(buffer.position(), buffer.limit());
+
+		// listener declines, array is deserialized as usual
+		buffer.rewind();
+		pvReceived.deserialize(buffer, new StreamingControlImpl(buffer, new ArrayChunkListener() {
+			@Override
+			public boolean arrayStart(PVScalarArray pvArray, int length) {
+				return false;
+			}
+
+			@Override
+			public void arrayChunk(PVScalarArray pvArray, int offset, int count) {
+				fail("not streamed");
+			}
+
+			@Override
+			public void arrayEnd(PVScalarArray pvArray) {
+				fail("not streamed");
+			}
+		}));
+		assertEquals(pvStructure, pvReceived);
+	}
+
+	/**
+	 * Views cached for array serialization do not keep the buffer reachable.
+	 */
+	public void testArrayBufferNotRetained() throws InterruptedException
+	{
+		PVDoubleArray array = (PVDoubleArray)PVDataFactory.getPVDataCreate().createPVScalarArray(ScalarType.pvDouble);
+		array.put(0, 1000, new double[1000], 0);
+		
+		ByteBuffer buffer = ByteBuffer.allocate(1 << 14);
+		array.serialize(buffer, flusher);
+		buffer.flip();
+		array.deserialize(buffer, control);
+		
+		WeakReference<ByteBuffer> bufferRef = new WeakReference<ByteBuffer>(buffer);
+		buffer = null;
+		for (int i = 0; i < 100 && bufferRef.get() != null; i++)
+		{
+			System.gc();
+			Thread.sleep(10);
+		}
+		assertNull(bufferRef.get());
+	}
+	
+	/**
+	 * Arrays serialized at any alignment, byte order, to heap and direct buffers,
+	 * and in chunks (small buffer flushed to a stream).
+	 */
+	public void testArrayBufferAlignmentAndOrder()
+	{
+		PVDataCreate factory = PVDataFactory.getPVDataCreate();
+
+		final int N = 1000;
+		ScalarType[] types = {
+				ScalarType.pvShort, ScalarType.pvInt, ScalarType.pvLong, ScalarType.pvFloat, ScalarType.pvDouble,
+				ScalarType.pvUShort, ScalarType.pvUInt, ScalarType.pvULong };
+		PVScalarArray[] arrays = new PVScalarArray[types.length];
+		for (int t = 0; t < types.length; t++)
+		{
+			arrays[t] = factory.createPVScalarArray(types[t]);
+			double[] values = new double[N];
+			for (int i = 0; i < N; i++)
+				values[i] = (i % 2 == 0) ? i : -i;
+			ConvertFactory.getConvert().fromDoubleArray(arrays[t], 0, N, values, 0);
+		}
+
+		final ByteOrder[] orders = { ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN };
+		for (ByteOrder order : orders)
+		{
+			for (int direct = 0; direct < 2; direct++)
+			{
+				final ByteBuffer buffer = (direct == 0) ? ByteBuffer.allocate(1 << 14) : ByteBuffer.allocateDirect(1 << 14);
+				buffer.order(order);
+				for (int offset = 0; offset < 8; offset++)
+				{
+					for (PVScalarArray array : arrays)
+					{
+						buffer.clear();
+						buffer.position(offset);
+						array.serialize(buffer, flusher);
+						buffer.flip();
+						buffer.position(offset);
+
+						PVScalarArray deserialized = factory.createPVScalarArray(array.getScalarArray().getElementType());
+						deserialized.deserialize(buffer, control);
+						assertEquals(array, deserialized);
+						assertEquals(buffer.limit(), buffer.position());
+					}
+				}
+			}
+
+			// chunked, bytes are streamed through a small buffer
+			for (PVScalarArray array : arrays)
+			{
+				final ByteBuffer stream = ByteBuffer.allocate(1 << 14).order(order);
+				final ByteBuffer buffer = ByteBuffer.allocate(67).order(order);
+				buffer.position(3);
+				array.serialize(buffer, new SerializableFlushImpl() {
+					@Override
+					public void flushSerializeBuffer() {
+						buffer.flip();
+						stream.put(buffer);
+						buffer.clear();
+					}
+				});
+				buffer.flip();
+				stream.put(buffer);
+				stream.flip();
+				stream.position(3);
+
+				PVScalarArray deserialized = factory.createPVScalarArray(array.getScalarArray().getElementType());
+				deserialized.deserialize(stream, control);
+				assertEquals(array, deserialized);
+			}
+		}
+	}
+
+	private static class DirectSerializableFlushImpl extends SerializableFlushImpl implements DirectSerializableControl {
+
+		int directSerializeCount = 0;
+
+		@Override
+		public boolean directSerialize(ByteBuffer existingBuffer, ByteBuffer toSerialize) {
+			directSerializeCount++;
+			// emulate by copying, position must not be changed
+			existingBuffer.put(toSerialize.duplicate());
+			return true;
+		}
+	}
+
+	public void testDirectSerialize()
+	{
+		PVDataCreate factory = PVDataFactory.getPVDataCreate();
+		DirectSerializableFlushImpl directFlusher = new DirectSerializableFlushImpl();
+
+		final byte[] byv = new byte[] { 0, 1, 2, -1, Byte.MAX_VALUE, Byte.MAX_VALUE - 1, Byte.MIN_VALUE + 1, Byte.MIN_VALUE };
+
+		PVByteArray pvByte = (PVByteArray)factory.createPVScalarArray(ScalarType.pvByte);
+		pvByte.put(0, byv.length, byv, 0);
+		PVUByteArray pvUByte = (PVUByteArray)factory.createPVScalarArray(ScalarType.pvUByte);
+		pvUByte.put(0, byv.length, byv, 0);
+		PVDoubleArray pvDouble = (PVDoubleArray)factory.createPVScalarArray(ScalarType.pvDouble);
+		pvDouble.put(0, 2, new double[] { 1.1, 2.2 }, 0);
+
+		PVField[] fields = { pvByte, pvUByte, pvDouble };
+		for (PVField field : fields)
+		{
+			ByteBuffer buffer = ByteBuffer.allocate(1 << 10);
+			field.serialize(buffer, directFlusher);
+			buffer.flip();
+
+			PVField deserializedField = factory.createPVField(field.getField());
+			deserializedField.deserialize(buffer, control);
+			assertEquals(field, deserializedField);
+			assertEquals(buffer.limit(), buffer.position());
+		}
+
+		// only byte arrays can be serialized directly
+		assertEquals(2, directFlusher.directSerializeCount);
+	}
+
 	public void testIntrospectionSerialization()
 	{
         FieldCreate fieldCreate = FieldFactory.getFieldCreate();
@@ -505,7 +789,94 @@ public class SerializationTest extends TestCase {
         StructureArray structureArray = fieldCreate.createStructureArray(structure);
         serializationTest(structureArray);
 	}
-	
+
+	private static Field serializeAndDeserialize(Field field)
+	{
+		ByteBuffer buffer = ByteBuffer.allocate(1 << 12);
+		field.serialize(buffer, flusher);
+		buffer.flip();
+		return FieldFactory.getFieldCreate().deserialize(buffer, control);
+	}
+
+	public void testIntrospectionInterning()
+	{
+		FieldCreate fieldCreate = FieldFactory.getFieldCreate();
+
+		// equal structures (not the same instance) deserialize to the same instance
+		Structure s1 = fieldCreate.createFieldBuilder().
+			setId("test:interning:1.0").
+			add("value", ScalarType.pvDouble).
+			add("timeStamp", StandardFieldFactory.getStandardField().timeStamp()).
+			addArray("labels", ScalarType.pvString).
+			createStructure();
+		Structure s2 = fieldCreate.createFieldBuilder().
+			setId("test:interning:1.0").
+			add("value", ScalarType.pvDouble).
+			add("timeStamp", StandardFieldFactory.getStandardField().timeStamp()).
+			addArray("labels", ScalarType.pvString).
+			createStructure();
+		assertNotSame(s1, s2);
+
+		Structure d1 = (Structure)serializeAndDeserialize(s1);
+		Structure d2 = (Structure)serializeAndDeserialize(s2);
+		assertEquals(s1, d1);
+		assertSame(d1, d2);
+
+		// substructures are shared
+		Structure other = fieldCreate.createFieldBuilder().
+			add("timeStamp", StandardFieldFactory.getStandardField().timeStamp()).
+			createStructure();
+		Structure d3 = (Structure)serializeAndDeserialize(other);
+		assertSame(d1.getField("timeStamp"), d3.getField("timeStamp"));
+
+		// structure arrays and unions
+		assertSame(serializeAndDeserialize(fieldCreate.createStructureArray(s1)),
+				serializeAndDeserialize(fieldCreate.createStructureArray(s2)));
+		Union u = fieldCreate.createFieldBuilder().add("a", ScalarType.pvInt).add("b", s1).createUnion();
+		assertSame(serializeAndDeserialize(u),
+				serializeAndDeserialize(fieldCreate.createFieldBuilder().add("a", ScalarType.pvInt).add("b", s2).createUnion()));
+
+		// different types are not mixed
+		Structure s4 = fieldCreate.createFieldBuilder().
+			setId("test:interning:1.0").
+			add("value", ScalarType.pvInt).
+			createStructure();
+		assertNotSame(d1, serializeAndDeserialize(s4));
+		assertEquals(s4, serializeAndDeserialize(s4));
+	}
+
+	public void testIntrospectionInterningConcurrent() throws InterruptedException
+	{
+		final FieldCreate fieldCreate = FieldFactory.getFieldCreate();
+		final int threadCount = 8;
+		final Field[][] results = new Field[threadCount][100];
+
+		// as many transports deserializing the same types in parallel
+		Thread[] threads = new Thread[threadCount];
+		for (int t = 0; t < threadCount; t++)
+		{
+			final Field[] result = results[t];
+			threads[t] = new Thread(new Runnable() {
+				public void run() {
+					for (int i = 0; i < result.length; i++)
+						result[i] = serializeAndDeserialize(fieldCreate.createFieldBuilder().
+								setId("test:concurrentInterning:1.0").
+								add("value", ScalarType.pvDouble).
+								addArray("index" + (i % 10), ScalarType.pvInt).
+								createStructure());
+				}
+			});
+		}
+		for (Thread thread : threads)
+			thread.start();
+		for (Thread thread : threads)
+			thread.join();
+
+		for (int t = 0; t < threadCount; t++)
+			for (int i = 0; i < results[t].length; i++)
+				assertSame(results[0][i % 10], results[t][i]);
+	}
+
 	public void testStructure()
 	{
         FieldCreate fieldCreate = FieldFactory.getFieldCreate();
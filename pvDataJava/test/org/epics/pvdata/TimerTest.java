@@ -4,6 +4,8 @@
  */
 package org.epics.pvdata;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import junit.framework.TestCase;
 
 import org.epics.pvdata.misc.ThreadPriority;
@@ -64,6 +66,121 @@ public class TimerTest extends TestCase {
        timer.stop();
     }
     
+    /**
+     * test timing wheel timer: delays, cancel, periodic and stop.
+     * @throws InterruptedException
+     */
+    public static void testTimingWheel() throws InterruptedException {
+        Timer wheel = TimerFactory.create("testTimingWheel", ThreadPriority.high, TimerFactory.TimerType.TIMING_WHEEL);
+
+        final AtomicInteger order = new AtomicInteger();
+        CountingCallback[] delays = new CountingCallback[5];
+        for(int i=delays.length-1; i>=0; i--) {
+            delays[i] = new CountingCallback(order);
+            wheel.scheduleAfterDelay(delays[i].timerNode, 0.05*(i+1));
+            assertTrue(delays[i].timerNode.isScheduled());
+        }
+        // not called until delay expires
+        Thread.sleep(20);
+        for(CountingCallback delay : delays) {
+            assertEquals(0, delay.calls.get());
+        }
+
+        CountingCallback canceled = new CountingCallback(order);
+        wheel.scheduleAfterDelay(canceled.timerNode, 0.1);
+        canceled.timerNode.cancel();
+        assertFalse(canceled.timerNode.isScheduled());
+
+        // longer than wheel revolution
+        CountingCallback far = new CountingCallback(order);
+        wheel.scheduleAfterDelay(far.timerNode, 1000.0);
+
+        CountingCallback periodic = new CountingCallback(order);
+        wheel.schedulePeriodic(periodic.timerNode, 0.0, 0.05);
+        try {
+            wheel.scheduleAfterDelay(periodic.timerNode, 0.1);
+            fail("node scheduled twice");
+        } catch (IllegalStateException ise) {
+            // OK
+        }
+
+        Thread.sleep(500);
+
+        // called once, in order of delays
+        for(int i=0; i<delays.length; i++) {
+            assertEquals(1, delays[i].calls.get());
+            assertFalse(delays[i].timerNode.isScheduled());
+            if(i>0) assertTrue(delays[i-1].order < delays[i].order);
+        }
+        assertEquals(0, canceled.calls.get());
+        assertEquals(0, far.calls.get());
+        assertTrue(periodic.calls.get() >= 5);
+        assertTrue(periodic.timerNode.isScheduled());
+
+        periodic.timerNode.cancel();
+        int periodicCalls = periodic.calls.get();
+        Thread.sleep(100);
+        assertEquals(periodicCalls, periodic.calls.get());
+
+        // node can be reused
+        wheel.scheduleAfterDelay(canceled.timerNode, 0.0);
+        Thread.sleep(100);
+        assertEquals(1, canceled.calls.get());
+
+        wheel.stop();
+        assertEquals(1, far.stopped.get());
+        assertFalse(far.timerNode.isScheduled());
+        assertEquals(0, periodic.stopped.get());
+
+        // scheduling on stopped timer
+        wheel.scheduleAfterDelay(periodic.timerNode, 0.0);
+        assertEquals(1, periodic.stopped.get());
+    }
+
+    /**
+     * test timing wheel timer wakes up for a node scheduled while it sleeps until a far-off node.
+     * @throws InterruptedException
+     */
+    public static void testTimingWheelEarlierNode() throws InterruptedException {
+        Timer wheel = TimerFactory.create("testTimingWheelEarlierNode", ThreadPriority.high, TimerFactory.TimerType.TIMING_WHEEL);
+
+        final AtomicInteger order = new AtomicInteger();
+        CountingCallback far = new CountingCallback(order);
+        wheel.scheduleAfterDelay(far.timerNode, 5.0);
+        Thread.sleep(50);
+
+        CountingCallback near = new CountingCallback(order);
+        wheel.scheduleAfterDelay(near.timerNode, 0.02);
+        Thread.sleep(200);
+        assertEquals(1, near.calls.get());
+        assertEquals(0, far.calls.get());
+        assertTrue(far.timerNode.isScheduled());
+
+        wheel.stop();
+        assertEquals(1, far.stopped.get());
+    }
+
+    private static class CountingCallback implements Timer.TimerCallback {
+        private final Timer.TimerNode timerNode = TimerFactory.createNode(this);
+        private final AtomicInteger calls = new AtomicInteger();
+        private final AtomicInteger stopped = new AtomicInteger();
+        private final AtomicInteger orderCounter;
+        private volatile int order;
+
+        private CountingCallback(AtomicInteger orderCounter) {
+            this.orderCounter = orderCounter;
+        }
+
+        public void callback() {
+            order = orderCounter.incrementAndGet();
+            calls.incrementAndGet();
+        }
+
+        public void timerStopped() {
+            stopped.incrementAndGet();
+        }
+    }
+
     private static final Timer timer = TimerFactory.create("testTimer", ThreadPriority.high);
     
     private static class TestDelay implements Timer.TimerCallback {